@@ -0,0 +1,63 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Serializable;
+
+import org.junit.Test;
+
+
+public class ClientStoreMirrorPolicyTest {
+
+  @Test
+  public void testIsSerializable() {
+    assertTrue( Serializable.class.isAssignableFrom( ClientStoreMirrorPolicy.class ) );
+  }
+
+  @Test
+  public void testCallbackIsSerializable() {
+    assertTrue( Serializable.class.isAssignableFrom( ClientStoreCallback.class ) );
+  }
+
+  @Test
+  public void testFullKeepsAllValues() {
+    ClientStoreMirrorPolicy policy = ClientStoreMirrorPolicy.full();
+
+    assertEquals( Integer.MAX_VALUE, policy.getMaxValues() );
+  }
+
+  @Test
+  public void testBoundedKeepsMaxValues() {
+    ClientStoreMirrorPolicy policy = ClientStoreMirrorPolicy.bounded( 23 );
+
+    assertEquals( 23, policy.getMaxValues() );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testBoundedFailsWithZero() {
+    ClientStoreMirrorPolicy.bounded( 0 );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testBoundedFailsWithNegativeValue() {
+    ClientStoreMirrorPolicy.bounded( -1 );
+  }
+
+  @Test
+  public void testKeysOnlyKeepsNoValues() {
+    ClientStoreMirrorPolicy policy = ClientStoreMirrorPolicy.keysOnly();
+
+    assertEquals( 0, policy.getMaxValues() );
+  }
+}
@@ -10,6 +10,9 @@
  ******************************************************************************/
 package com.eclipsesource.tabris;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
@@ -29,8 +32,11 @@ import org.eclipse.rap.rwt.testfixture.Fixture;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
+import com.eclipsesource.tabris.internal.ClientStoreImpl;
 import com.eclipsesource.tabris.internal.Constants;
+import com.eclipsesource.tabris.internal.SignedObjectSerializer;
 import com.eclipsesource.tabris.internal.TabrisResourceLoader;
 import com.eclipsesource.tabris.test.TabrisTestUtil;
 
@@ -70,6 +76,64 @@ public class TabrisClientInstallerTest {
     verify( applicationContext.getResourceRegistry() ).add( eq( "index.json" ), any( TabrisResourceLoader.class ) );
   }
 
+  @Test
+  public void testRegistersFullMirrorPolicyByDefault() {
+    ApplicationImpl application = mockConfiguration();
+    ApplicationContextImpl applicationContext = application.getApplicationContext();
+
+    TabrisClientInstaller.install( application );
+
+    ArgumentCaptor<ClientStoreMirrorPolicy> captor = ArgumentCaptor.forClass( ClientStoreMirrorPolicy.class );
+    verify( applicationContext ).setAttribute( eq( ClientStoreImpl.MIRROR_POLICY_ATTRIBUTE ), captor.capture() );
+    assertEquals( Integer.MAX_VALUE, captor.getValue().getMaxValues() );
+  }
+
+  @Test
+  public void testRegistersMirrorPolicy() {
+    ApplicationImpl application = mockConfiguration();
+    ApplicationContextImpl applicationContext = application.getApplicationContext();
+    ClientStoreMirrorPolicy policy = ClientStoreMirrorPolicy.keysOnly();
+
+    TabrisClientInstaller.install( application, policy );
+
+    verify( applicationContext ).setAttribute( ClientStoreImpl.MIRROR_POLICY_ATTRIBUTE, policy );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testInstallFailsWithNullMirrorPolicy() {
+    ApplicationImpl application = mockConfiguration();
+
+    TabrisClientInstaller.install( application, null );
+  }
+
+  @Test
+  public void testRegistersSigningKey() {
+    ApplicationImpl application = mockConfiguration();
+    ApplicationContextImpl applicationContext = application.getApplicationContext();
+    byte[] key = new byte[] { 1, 2, 3 };
+
+    TabrisClientInstaller.setSigningKey( application, key );
+
+    ArgumentCaptor<byte[]> captor = ArgumentCaptor.forClass( byte[].class );
+    verify( applicationContext ).setAttribute( eq( SignedObjectSerializer.SIGNING_KEY_ATTRIBUTE ), captor.capture() );
+    assertArrayEquals( key, captor.getValue() );
+    assertNotSame( key, captor.getValue() );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testSetSigningKeyFailsWithNullKey() {
+    ApplicationImpl application = mockConfiguration();
+
+    TabrisClientInstaller.setSigningKey( application, null );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testSetSigningKeyFailsWithEmptyKey() {
+    ApplicationImpl application = mockConfiguration();
+
+    TabrisClientInstaller.setSigningKey( application, new byte[ 0 ] );
+  }
+
   private ApplicationImpl mockConfiguration() {
     ApplicationImpl application = mock( ApplicationImpl.class );
     ApplicationContextImpl context = mock( ApplicationContextImpl.class );
@@ -0,0 +1,63 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.geolocation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Serializable;
+
+import org.junit.Test;
+
+
+public class GeofenceTest {
+
+  @Test
+  public void testIsSerializable() {
+    assertTrue( Serializable.class.isAssignableFrom( Geofence.class ) );
+  }
+
+  @Test
+  public void testValues() {
+    Geofence fence = new Geofence( "depot", 49.0, 8.4, 150 );
+
+    assertEquals( "depot", fence.getId() );
+    assertEquals( 49.0, fence.getLatitude(), 0 );
+    assertEquals( 8.4, fence.getLongitude(), 0 );
+    assertEquals( 150, fence.getRadius(), 0 );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testFailsWithNullId() {
+    new Geofence( null, 49.0, 8.4, 150 );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testFailsWithEmptyId() {
+    new Geofence( "", 49.0, 8.4, 150 );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testFailsWithLatitudeOutOfRange() {
+    new Geofence( "depot", 90.1, 8.4, 150 );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testFailsWithLongitudeOutOfRange() {
+    new Geofence( "depot", 49.0, -180.1, 150 );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testFailsWithZeroRadius() {
+    new Geofence( "depot", 49.0, 8.4, 0 );
+  }
+
+}
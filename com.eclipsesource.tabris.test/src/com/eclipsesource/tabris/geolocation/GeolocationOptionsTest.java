@@ -49,4 +49,37 @@ public class GeolocationOptionsTest {
     assertEquals( 10000, geolocationOptions.getFrequency() );
     assertEquals( -1, geolocationOptions.getMaximumAge() );
   }
+
+  @Test
+  public void testDefaultStreamValues() {
+    GeolocationOptions geolocationOptions = new GeolocationOptions();
+
+    assertEquals( 0, geolocationOptions.getMinimumDistance(), 0 );
+    assertEquals( 0, geolocationOptions.getMinimumInterval() );
+    assertEquals( 1, geolocationOptions.getBufferSize() );
+  }
+
+  @Test
+  public void testStreamValues() {
+    options.setMinimumDistance( 12.5 ).setMinimumInterval( 3000 ).setBufferSize( 10 );
+
+    assertEquals( 12.5, options.getMinimumDistance(), 0 );
+    assertEquals( 3000, options.getMinimumInterval() );
+    assertEquals( 10, options.getBufferSize() );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testSetMinimumDistanceFailsWithNegativeValue() {
+    options.setMinimumDistance( -1 );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testSetMinimumIntervalFailsWithNegativeValue() {
+    options.setMinimumInterval( -1 );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testSetBufferSizeFailsWithZero() {
+    options.setBufferSize( 0 );
+  }
 }
@@ -0,0 +1,169 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.geolocation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Test;
+
+
+public class TrackRecorderTest {
+
+  @Test
+  public void testIsSerializable() {
+    assertTrue( Serializable.class.isAssignableFrom( TrackRecorder.class ) );
+  }
+
+  @Test
+  public void testIsGeolocationBatchListener() {
+    assertTrue( GeolocationBatchListener.class.isAssignableFrom( TrackRecorder.class ) );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testFailsWithZeroCapacity() {
+    new TrackRecorder( 0 );
+  }
+
+  @Test
+  public void testIsUnboundedByDefault() {
+    TrackRecorder recorder = new TrackRecorder();
+
+    assertEquals( Integer.MAX_VALUE, recorder.getCapacity() );
+  }
+
+  @Test
+  public void testRecordsReceivedPosition() {
+    TrackRecorder recorder = new TrackRecorder();
+
+    recorder.positionReceived( createPosition( 1000 ) );
+
+    assertEquals( 1, recorder.size() );
+    assertEquals( 1000, recorder.getPositions().get( 0 ).getTimestamp().getTime() );
+  }
+
+  @Test
+  public void testRecordsReceivedPositions() {
+    TrackRecorder recorder = new TrackRecorder();
+
+    recorder.positionsReceived( Arrays.asList( createPosition( 1000 ), createPosition( 2000 ) ) );
+
+    assertEquals( 2, recorder.size() );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testPositionReceivedFailsWithNull() {
+    new TrackRecorder().positionReceived( null );
+  }
+
+  @Test
+  public void testIgnoresErrors() {
+    TrackRecorder recorder = new TrackRecorder();
+
+    recorder.errorReceived( new PositionError( PositionError.PositionErrorCode.UNKNOWN, "unknown" ) );
+
+    assertEquals( 0, recorder.size() );
+  }
+
+  @Test
+  public void testKeepsMostRecentPositionsWhenBounded() {
+    TrackRecorder recorder = new TrackRecorder( 2 );
+
+    recorder.positionsReceived( Arrays.asList( createPosition( 1000 ),
+                                               createPosition( 2000 ),
+                                               createPosition( 3000 ) ) );
+
+    List<Position> positions = recorder.getPositions();
+    assertEquals( 2, positions.size() );
+    assertEquals( 2000, positions.get( 0 ).getTimestamp().getTime() );
+  }
+
+  @Test
+  public void testGetPositionsInTimeRange() {
+    TrackRecorder recorder = new TrackRecorder();
+    recorder.positionsReceived( Arrays.asList( createPosition( 1000 ),
+                                               createPosition( 2000 ),
+                                               createPosition( 3000 ) ) );
+
+    List<Position> positions = recorder.getPositions( new Date( 1500 ), new Date( 3000 ) );
+
+    assertEquals( 1, positions.size() );
+    assertEquals( 2000, positions.get( 0 ).getTimestamp().getTime() );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testGetPositionsFailsWithNullFrom() {
+    new TrackRecorder().getPositions( null, new Date() );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testGetPositionsFailsWithNullTo() {
+    new TrackRecorder().getPositions( new Date(), null );
+  }
+
+  @Test
+  public void testClear() {
+    TrackRecorder recorder = new TrackRecorder();
+    recorder.positionReceived( createPosition( 1000 ) );
+
+    recorder.clear();
+
+    assertEquals( 0, recorder.size() );
+  }
+
+  @Test
+  public void testExportGpx() throws IOException {
+    TrackRecorder recorder = new TrackRecorder();
+    recorder.positionReceived( createPosition( 1000 ) );
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    recorder.exportGpx( out );
+
+    assertTrue( out.toString( "UTF-8" ).contains( "<trkpt lat=\"49.0000000\" lon=\"8.4000000\">" ) );
+  }
+
+  @Test
+  public void testImportsExportedBinary() throws IOException {
+    TrackRecorder recorder = new TrackRecorder( 5 );
+    recorder.positionsReceived( Arrays.asList( createPosition( 1000 ), createPosition( 2000 ) ) );
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    recorder.exportBinary( out );
+    TrackRecorder imported = TrackRecorder.importBinary( new ByteArrayInputStream( out.toByteArray() ) );
+
+    assertEquals( 2, imported.size() );
+    assertEquals( Integer.MAX_VALUE, imported.getCapacity() );
+    assertEquals( 2000, imported.getPositions().get( 1 ).getTimestamp().getTime() );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testExportGpxFailsWithNullStream() throws IOException {
+    new TrackRecorder().exportGpx( null );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testImportBinaryFailsWithNullStream() throws IOException {
+    TrackRecorder.importBinary( null );
+  }
+
+  private Position createPosition( long time ) {
+    return new Position( new Coordinates( 49, 8.4, -1, 5, -1, -1, -1 ), new Date( time ) );
+  }
+
+}
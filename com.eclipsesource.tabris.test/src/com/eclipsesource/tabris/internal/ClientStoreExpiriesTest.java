@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class ClientStoreExpiriesTest {
+
+  private ClientStoreExpiries expiries;
+
+  @Before
+  public void setUp() {
+    expiries = new ClientStoreExpiries();
+  }
+
+  @Test
+  public void testGetReturnsExpiryTime() {
+    expiries.set( "foo", 23 );
+
+    assertEquals( Long.valueOf( 23 ), expiries.get( "foo" ) );
+  }
+
+  @Test
+  public void testGetReturnsNullWithoutExpiryTime() {
+    assertNull( expiries.get( "foo" ) );
+  }
+
+  @Test
+  public void testPollExpiredReturnsDueKeysInTimeOrder() {
+    expiries.set( "foo", 20 );
+    expiries.set( "foo1", 10 );
+    expiries.set( "foo2", 30 );
+
+    List<String> expiredKeys = expiries.pollExpired( 20 );
+
+    assertEquals( Arrays.asList( "foo1", "foo" ), expiredKeys );
+  }
+
+  @Test
+  public void testPollExpiredRemovesExpiryTime() {
+    expiries.set( "foo", 10 );
+
+    expiries.pollExpired( 10 );
+
+    assertNull( expiries.get( "foo" ) );
+    assertTrue( expiries.pollExpired( 10 ).isEmpty() );
+  }
+
+  @Test
+  public void testPollExpiredIgnoresChangedExpiryTime() {
+    expiries.set( "foo", 10 );
+    expiries.set( "foo", 30 );
+
+    List<String> expiredKeys = expiries.pollExpired( 20 );
+
+    assertTrue( expiredKeys.isEmpty() );
+    assertEquals( Long.valueOf( 30 ), expiries.get( "foo" ) );
+  }
+
+  @Test
+  public void testPollExpiredIgnoresRemovedExpiryTime() {
+    expiries.set( "foo", 10 );
+
+    expiries.remove( "foo" );
+
+    assertTrue( expiries.pollExpired( 20 ).isEmpty() );
+  }
+
+  @Test
+  public void testClearRemovesAllExpiryTimes() {
+    expiries.set( "foo", 10 );
+
+    expiries.clear();
+
+    assertNull( expiries.get( "foo" ) );
+    assertTrue( expiries.pollExpired( 20 ).isEmpty() );
+  }
+
+  @Test
+  public void testCompactsQueueWithOutdatedExpiries() {
+    for( int i = 0; i < 100; i++ ) {
+      expiries.set( "foo", i );
+    }
+
+    assertTrue( expiries.getQueueSize() <= 17 );
+    assertEquals( Arrays.asList( "foo" ), expiries.pollExpired( 99 ) );
+  }
+}
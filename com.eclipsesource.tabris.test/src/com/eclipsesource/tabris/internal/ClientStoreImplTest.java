@@ -10,25 +10,44 @@
  ******************************************************************************/
 package com.eclipsesource.tabris.internal;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
 import org.eclipse.rap.json.JsonArray;
 import org.eclipse.rap.json.JsonObject;
 import org.eclipse.rap.json.JsonValue;
+import org.eclipse.rap.rwt.RWT;
 import org.eclipse.rap.rwt.internal.remote.RemoteObjectImpl;
+import org.eclipse.rap.rwt.lifecycle.PhaseId;
 import org.eclipse.rap.rwt.remote.RemoteObject;
 import org.eclipse.rap.rwt.testfixture.Fixture;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 
+import com.eclipsesource.tabris.ClientStoreCallback;
+import com.eclipsesource.tabris.ClientStoreMirrorPolicy;
 import com.eclipsesource.tabris.test.TabrisTestUtil;
 
 
@@ -107,6 +126,7 @@ public class ClientStoreImplTest {
     store.add( "foo1", "bar" );
 
     store.remove( "foo" );
+    store.flush();
 
     ArgumentCaptor<JsonObject> captor = ArgumentCaptor.forClass( JsonObject.class );
     verify( serviceObject ).call( eq( "remove" ), captor.capture() );
@@ -122,6 +142,7 @@ public class ClientStoreImplTest {
     store.add( "foo1", "bar" );
 
     store.remove();
+    store.flush();
 
     verify( serviceObject, never() ).call( eq( "remove" ), any( JsonObject.class ) );
   }
@@ -133,6 +154,7 @@ public class ClientStoreImplTest {
     store.add( "foo1", "bar" );
 
     store.remove( "foo" ,"foo1" );
+    store.flush();
 
     ArgumentCaptor<JsonObject> captor = ArgumentCaptor.forClass( JsonObject.class );
     verify( serviceObject ).call( eq( "remove" ), captor.capture() );
@@ -178,6 +200,7 @@ public class ClientStoreImplTest {
     store.add( "foo3", "bar" );
 
     store.clear();
+    store.flush();
 
     verify( serviceObject ).call( "clear", null );
   }
@@ -187,6 +210,7 @@ public class ClientStoreImplTest {
     ClientStoreImpl store = new ClientStoreImpl();
 
     store.add( "foo", "bar" );
+    store.flush();
 
     ArgumentCaptor<JsonObject> captor = ArgumentCaptor.forClass( JsonObject.class );
     verify( serviceObject ).call( eq( "add" ), captor.capture() );
@@ -207,4 +231,1516 @@ public class ClientStoreImplTest {
     assertEquals( "bar", store.get( "foo" ) );
     assertEquals( "bar1", store.get( "foo1" ) );
   }
+
+  @Test
+  public void testAddDoesNotSendBeforeFlush() {
+    ClientStoreImpl store = new ClientStoreImpl();
+
+    store.add( "foo", "bar" );
+
+    verify( serviceObject, never() ).call( anyString(), any( JsonObject.class ) );
+  }
+
+  @Test
+  public void testSendsPendingChangesBeforeRender() {
+    ClientStoreImpl store = new ClientStoreImpl();
+    store.add( "foo", "bar" );
+
+    store.beforePhase( null );
+
+    verify( serviceObject ).call( eq( "add" ), any( JsonObject.class ) );
+  }
+
+  @Test
+  public void testListensToRenderPhase() {
+    ClientStoreImpl store = new ClientStoreImpl();
+
+    assertEquals( PhaseId.RENDER, store.getPhaseId() );
+  }
+
+  @Test
+  public void testFlushSendsChangesOnlyOnce() {
+    ClientStoreImpl store = new ClientStoreImpl();
+    store.add( "foo", "bar" );
+    store.remove( "foo1" );
+    store.flush();
+
+    store.flush();
+
+    verify( serviceObject ).call( eq( "add" ), any( JsonObject.class ) );
+    verify( serviceObject ).call( eq( "remove" ), any( JsonObject.class ) );
+  }
+
+  @Test
+  public void testAddSendsLastValueOnly() {
+    ClientStoreImpl store = new ClientStoreImpl();
+    store.add( "foo", "bar" );
+    store.add( "foo", "bar1" );
+
+    store.flush();
+
+    ArgumentCaptor<JsonObject> captor = ArgumentCaptor.forClass( JsonObject.class );
+    verify( serviceObject ).call( eq( "add" ), captor.capture() );
+    assertEquals( "bar1", captor.getValue().get( "value" ).asString() );
+  }
+
+  @Test
+  public void testMultipleAddsSendAddCallPerKey() {
+    ClientStoreImpl store = new ClientStoreImpl();
+    store.add( "foo", "bar" );
+    store.add( "foo1", "bar1" );
+
+    store.flush();
+
+    ArgumentCaptor<JsonObject> captor = ArgumentCaptor.forClass( JsonObject.class );
+    verify( serviceObject, times( 2 ) ).call( eq( "add" ), captor.capture() );
+    assertEquals( "foo", captor.getAllValues().get( 0 ).get( "key" ).asString() );
+    assertEquals( "bar", captor.getAllValues().get( 0 ).get( "value" ).asString() );
+    assertEquals( "foo1", captor.getAllValues().get( 1 ).get( "key" ).asString() );
+    assertEquals( "bar1", captor.getAllValues().get( 1 ).get( "value" ).asString() );
+  }
+
+  @Test
+  public void testMultipleAddsSendLastValuePerKey() {
+    ClientStoreImpl store = new ClientStoreImpl();
+    store.add( "foo", "bar" );
+    store.add( "foo1", "bar1" );
+    store.add( "foo", "bar2" );
+
+    store.flush();
+
+    ArgumentCaptor<JsonObject> captor = ArgumentCaptor.forClass( JsonObject.class );
+    verify( serviceObject, times( 2 ) ).call( eq( "add" ), captor.capture() );
+    assertEquals( "foo", captor.getAllValues().get( 0 ).get( "key" ).asString() );
+    assertEquals( "bar2", captor.getAllValues().get( 0 ).get( "value" ).asString() );
+  }
+
+  @Test
+  public void testRemoveAfterAddSendsRemoveOnly() {
+    ClientStoreImpl store = new ClientStoreImpl();
+    store.add( "foo", "bar" );
+    store.remove( "foo" );
+
+    store.flush();
+
+    verify( serviceObject, never() ).call( eq( "add" ), any( JsonObject.class ) );
+    verify( serviceObject ).call( eq( "remove" ), any( JsonObject.class ) );
+  }
+
+  @Test
+  public void testAddAfterRemoveSendsAddOnly() {
+    ClientStoreImpl store = new ClientStoreImpl();
+    store.remove( "foo" );
+    store.add( "foo", "bar" );
+
+    store.flush();
+
+    verify( serviceObject, never() ).call( eq( "remove" ), any( JsonObject.class ) );
+    verify( serviceObject ).call( eq( "add" ), any( JsonObject.class ) );
+  }
+
+  @Test
+  public void testClearDropsPendingChanges() {
+    ClientStoreImpl store = new ClientStoreImpl();
+    store.add( "foo", "bar" );
+    store.remove( "foo1" );
+    store.clear();
+
+    store.flush();
+
+    verify( serviceObject ).call( "clear", null );
+    verify( serviceObject, never() ).call( eq( "add" ), any( JsonObject.class ) );
+    verify( serviceObject, never() ).call( eq( "remove" ), any( JsonObject.class ) );
+  }
+
+  @Test
+  public void testAddAfterClearIsSentAfterClear() {
+    ClientStoreImpl store = new ClientStoreImpl();
+    store.clear();
+    store.add( "foo", "bar" );
+    store.remove( "foo1" );
+
+    store.flush();
+
+    InOrder order = inOrder( serviceObject );
+    order.verify( serviceObject ).call( "clear", null );
+    order.verify( serviceObject ).call( eq( "add" ), any( JsonObject.class ) );
+    verify( serviceObject, never() ).call( eq( "remove" ), any( JsonObject.class ) );
+  }
+
+  @Test
+  public void testPutAllPutsValues() {
+    ClientStoreImpl store = new ClientStoreImpl();
+    Map<String, String> values = new HashMap<String, String>();
+    values.put( "foo", "bar" );
+    values.put( "foo1", "bar1" );
+
+    store.putAll( values );
+
+    assertEquals( "bar", store.get( "foo" ) );
+    assertEquals( "bar1", store.get( "foo1" ) );
+  }
+
+  @Test
+  public void testPutAllSendsAddCallPerKey() {
+    ClientStoreImpl store = new ClientStoreImpl();
+    Map<String, String> values = new HashMap<String, String>();
+    values.put( "foo", "bar" );
+    values.put( "foo1", "bar1" );
+    store.putAll( values );
+
+    store.flush();
+
+    verify( serviceObject, times( 2 ) ).call( eq( "add" ), any( JsonObject.class ) );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testPutAllFailsWithNullMap() {
+    ClientStoreImpl store = new ClientStoreImpl();
+
+    store.putAll( null );
+  }
+
+  @Test
+  public void testPutAllWithInvalidEntryPutsNothing() {
+    ClientStoreImpl store = new ClientStoreImpl();
+    Map<String, String> values = new LinkedHashMap<String, String>();
+    values.put( "foo", "bar" );
+    values.put( "", "bar1" );
+
+    try {
+      store.putAll( values );
+      fail();
+    } catch( IllegalArgumentException expected ) {
+      assertNull( store.get( "foo" ) );
+    }
+  }
+
+  @Test
+  public void testUsesFullMirrorPolicyByDefault() {
+    ClientStoreImpl store = new ClientStoreImpl();
+
+    assertEquals( Integer.MAX_VALUE, store.getMirrorPolicy().getMaxValues() );
+  }
+
+  @Test
+  public void testUsesConfiguredMirrorPolicy() {
+    ClientStoreMirrorPolicy policy = ClientStoreMirrorPolicy.keysOnly();
+    RWT.getApplicationContext().setAttribute( ClientStoreImpl.MIRROR_POLICY_ATTRIBUTE, policy );
+
+    ClientStoreImpl store = new ClientStoreImpl();
+
+    assertSame( policy, store.getMirrorPolicy() );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testFailsWithNullMirrorPolicy() {
+    new ClientStoreImpl( null );
+  }
+
+  @Test
+  public void testBoundedMirrorDropsLeastRecentlyUsedValues() {
+    ClientStoreImpl store = new ClientStoreImpl( ClientStoreMirrorPolicy.bounded( 2 ) );
+    store.add( "foo", "bar" );
+    store.add( "foo1", "bar1" );
+    store.add( "foo2", "bar2" );
+
+    store.flush();
+
+    assertNull( store.get( "foo" ) );
+    assertEquals( "bar1", store.get( "foo1" ) );
+    assertEquals( "bar2", store.get( "foo2" ) );
+  }
+
+  @Test
+  public void testBoundedMirrorKeepsRecentlyReadValues() {
+    ClientStoreImpl store = new ClientStoreImpl( ClientStoreMirrorPolicy.bounded( 2 ) );
+    store.add( "foo", "bar" );
+    store.add( "foo1", "bar1" );
+    store.flush();
+    store.get( "foo" );
+
+    store.add( "foo2", "bar2" );
+    store.flush();
+
+    assertEquals( "bar", store.get( "foo" ) );
+    assertNull( store.get( "foo1" ) );
+  }
+
+  @Test
+  public void testBoundedMirrorLimitsSynchronizedValues() {
+    ClientStoreImpl store = new ClientStoreImpl( ClientStoreMirrorPolicy.bounded( 1 ) );
+    when( ( ( RemoteObjectImpl )serviceObject ).getHandler() ).thenReturn( store );
+    JsonObject properties = new JsonObject();
+    properties.add( "foo", "bar" );
+    properties.add( "foo1", "bar1" );
+
+    TabrisTestUtil.dispatchCall( serviceObject, "synchronize", properties  );
+
+    assertNull( store.get( "foo" ) );
+    assertEquals( "bar1", store.get( "foo1" ) );
+  }
+
+  @Test
+  public void testKeysOnlyMirrorKeepsPendingValues() {
+    ClientStoreImpl store = new ClientStoreImpl( ClientStoreMirrorPolicy.keysOnly() );
+
+    store.add( "foo", "bar" );
+
+    assertEquals( "bar", store.get( "foo" ) );
+  }
+
+  @Test
+  public void testKeysOnlyMirrorDropsValuesAfterFlush() {
+    ClientStoreImpl store = new ClientStoreImpl( ClientStoreMirrorPolicy.keysOnly() );
+    store.add( "foo", "bar" );
+
+    store.flush();
+
+    assertNull( store.get( "foo" ) );
+  }
+
+  @Test
+  public void testKeysOnlyMirrorDoesNotKeepSynchronizedValues() {
+    ClientStoreImpl store = new ClientStoreImpl( ClientStoreMirrorPolicy.keysOnly() );
+    when( ( ( RemoteObjectImpl )serviceObject ).getHandler() ).thenReturn( store );
+    JsonObject properties = new JsonObject();
+    properties.add( "foo", "bar" );
+
+    TabrisTestUtil.dispatchCall( serviceObject, "synchronize", properties  );
+
+    assertNull( store.get( "foo" ) );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testAsyncGetFailsWithNullKey() {
+    ClientStoreImpl store = new ClientStoreImpl();
+
+    store.get( null, mock( ClientStoreCallback.class ) );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testAsyncGetFailsWithEmptyKey() {
+    ClientStoreImpl store = new ClientStoreImpl();
+
+    store.get( "", mock( ClientStoreCallback.class ) );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testAsyncGetFailsWithNullCallback() {
+    ClientStoreImpl store = new ClientStoreImpl();
+
+    store.get( "foo", null );
+  }
+
+  @Test
+  public void testAsyncGetPassesMirroredValue() {
+    ClientStoreImpl store = new ClientStoreImpl();
+    store.add( "foo", "bar" );
+    ClientStoreCallback callback = mock( ClientStoreCallback.class );
+
+    store.get( "foo", callback );
+
+    verify( callback ).valueReceived( "foo", "bar" );
+  }
+
+  @Test
+  public void testAsyncGetPassesNullForUnknownKey() {
+    ClientStoreImpl store = new ClientStoreImpl( ClientStoreMirrorPolicy.keysOnly() );
+    ClientStoreCallback callback = mock( ClientStoreCallback.class );
+
+    store.get( "foo", callback );
+    store.flush();
+
+    verify( callback ).valueReceived( "foo", null );
+    verify( serviceObject, never() ).call( eq( "fetch" ), any( JsonObject.class ) );
+  }
+
+  @Test
+  public void testAsyncGetFetchesValueThatIsNotMirrored() {
+    ClientStoreImpl store = createStoreWithUnmirroredValue();
+    ClientStoreCallback callback = mock( ClientStoreCallback.class );
+
+    store.get( "foo", callback );
+    store.flush();
+
+    verify( callback, never() ).valueReceived( anyString(), anyString() );
+    ArgumentCaptor<JsonObject> captor = ArgumentCaptor.forClass( JsonObject.class );
+    verify( serviceObject ).call( eq( "fetch" ), captor.capture() );
+    JsonArray fetchedKeys = captor.getValue().get( "keys" ).asArray();
+    assertEquals( JsonValue.valueOf( "foo" ), fetchedKeys.get( 0 ) );
+    assertEquals( 1, fetchedKeys.size() );
+  }
+
+  @Test
+  public void testAsyncGetFetchesKeyOnce() {
+    ClientStoreImpl store = createStoreWithUnmirroredValue();
+    store.get( "foo", mock( ClientStoreCallback.class ) );
+    store.flush();
+
+    store.get( "foo", mock( ClientStoreCallback.class ) );
+    store.flush();
+
+    verify( serviceObject ).call( eq( "fetch" ), any( JsonObject.class ) );
+  }
+
+  @Test
+  public void testFetchedValueIsPassedToAllCallbacks() {
+    ClientStoreImpl store = createStoreWithUnmirroredValue();
+    ClientStoreCallback callback1 = mock( ClientStoreCallback.class );
+    ClientStoreCallback callback2 = mock( ClientStoreCallback.class );
+    store.get( "foo", callback1 );
+    store.get( "foo", callback2 );
+    store.flush();
+
+    dispatchFetched( "foo", "bar" );
+
+    verify( callback1 ).valueReceived( "foo", "bar" );
+    verify( callback2 ).valueReceived( "foo", "bar" );
+  }
+
+  @Test
+  public void testFetchedValueIsPassedOnlyOnce() {
+    ClientStoreImpl store = createStoreWithUnmirroredValue();
+    ClientStoreCallback callback = mock( ClientStoreCallback.class );
+    store.get( "foo", callback );
+    store.flush();
+
+    dispatchFetched( "foo", "bar" );
+    dispatchFetched( "foo", "bar" );
+
+    verify( callback ).valueReceived( "foo", "bar" );
+  }
+
+  @Test
+  public void testFetchedValueIsMirroredWithBoundedPolicy() {
+    ClientStoreImpl store = new ClientStoreImpl( ClientStoreMirrorPolicy.bounded( 1 ) );
+    when( ( ( RemoteObjectImpl )serviceObject ).getHandler() ).thenReturn( store );
+    dispatchSynchronize( 0, 0, null, null, null, new JsonArray().add( "fetch" ) );
+    store.add( "foo", "bar" );
+    store.add( "foo1", "bar1" );
+    store.flush();
+    store.get( "foo", mock( ClientStoreCallback.class ) );
+    store.flush();
+
+    dispatchFetched( "foo", "bar" );
+
+    assertEquals( "bar", store.get( "foo" ) );
+    assertNull( store.get( "foo1" ) );
+  }
+
+  @Test
+  public void testFetchedWithoutValuePassesNull() {
+    ClientStoreImpl store = createStoreWithUnmirroredValue();
+    ClientStoreCallback callback = mock( ClientStoreCallback.class );
+    store.get( "foo", callback );
+    store.flush();
+
+    dispatchFetched( "foo", null );
+
+    verify( callback ).valueReceived( "foo", null );
+  }
+
+  @Test
+  public void testFetchedWithoutValuesPassesNull() {
+    ClientStoreImpl store = createStoreWithUnmirroredValue();
+    ClientStoreCallback callback = mock( ClientStoreCallback.class );
+    store.get( "foo", callback );
+    store.flush();
+    JsonObject properties = new JsonObject();
+    properties.add( "keys", new JsonArray().add( "foo" ) );
+
+    TabrisTestUtil.dispatchCall( serviceObject, "fetched", properties );
+
+    verify( callback ).valueReceived( "foo", null );
+  }
+
+  @Test
+  public void testAsyncGetPassesNullWithoutFetchCapability() {
+    ClientStoreImpl store = new ClientStoreImpl( ClientStoreMirrorPolicy.keysOnly() );
+    when( ( ( RemoteObjectImpl )serviceObject ).getHandler() ).thenReturn( store );
+    JsonObject properties = new JsonObject();
+    properties.add( "foo", "bar" );
+    TabrisTestUtil.dispatchCall( serviceObject, "synchronize", properties );
+    ClientStoreCallback callback = mock( ClientStoreCallback.class );
+
+    store.get( "foo", callback );
+    store.flush();
+
+    verify( callback ).valueReceived( "foo", null );
+    verify( serviceObject, never() ).call( eq( "fetch" ), any( JsonObject.class ) );
+  }
+
+  @Test
+  public void testSynchronizeWithoutFetchCapabilityPassesNullToPendingCallback() {
+    ClientStoreImpl store = createStoreWithUnmirroredValue();
+    ClientStoreCallback callback = mock( ClientStoreCallback.class );
+    store.get( "foo", callback );
+
+    dispatchSynchronize( 1, 1, null, null, null, new JsonArray() );
+
+    verify( callback ).valueReceived( "foo", null );
+  }
+
+  @Test
+  public void testAddPassesNewValueToPendingCallback() {
+    ClientStoreImpl store = createStoreWithUnmirroredValue();
+    ClientStoreCallback callback = mock( ClientStoreCallback.class );
+    store.get( "foo", callback );
+
+    store.add( "foo", "bar1" );
+    store.flush();
+
+    verify( callback ).valueReceived( "foo", "bar1" );
+    verify( serviceObject, never() ).call( eq( "fetch" ), any( JsonObject.class ) );
+  }
+
+  @Test
+  public void testRemovePassesNullToPendingCallback() {
+    ClientStoreImpl store = createStoreWithUnmirroredValue();
+    ClientStoreCallback callback = mock( ClientStoreCallback.class );
+    store.get( "foo", callback );
+
+    store.remove( "foo" );
+
+    verify( callback ).valueReceived( "foo", null );
+  }
+
+  @Test
+  public void testClearPassesNullToPendingCallback() {
+    ClientStoreImpl store = createStoreWithUnmirroredValue();
+    ClientStoreCallback callback = mock( ClientStoreCallback.class );
+    store.get( "foo", callback );
+    store.flush();
+
+    store.clear();
+
+    verify( callback ).valueReceived( "foo", null );
+  }
+
+  @Test
+  public void testFlushSendsRevisionWithAdd() {
+    ClientStoreImpl store = new ClientStoreImpl();
+    store.add( "foo", "bar" );
+
+    store.flush();
+
+    ArgumentCaptor<JsonObject> captor = ArgumentCaptor.forClass( JsonObject.class );
+    verify( serviceObject ).call( eq( "add" ), captor.capture() );
+    assertEquals( 1, captor.getValue().get( "revision" ).asLong() );
+  }
+
+  @Test
+  public void testFlushSendsSameRevisionWithRemoveAndAdds() {
+    ClientStoreImpl store = new ClientStoreImpl();
+    store.remove( "foo" );
+    store.add( "foo1", "bar1" );
+    store.add( "foo2", "bar2" );
+
+    store.flush();
+
+    ArgumentCaptor<JsonObject> removeCaptor = ArgumentCaptor.forClass( JsonObject.class );
+    ArgumentCaptor<JsonObject> addCaptor = ArgumentCaptor.forClass( JsonObject.class );
+    verify( serviceObject ).call( eq( "remove" ), removeCaptor.capture() );
+    verify( serviceObject, times( 2 ) ).call( eq( "add" ), addCaptor.capture() );
+    assertEquals( 1, removeCaptor.getValue().get( "revision" ).asLong() );
+    assertEquals( 1, addCaptor.getAllValues().get( 0 ).get( "revision" ).asLong() );
+    assertEquals( 1, addCaptor.getAllValues().get( 1 ).get( "revision" ).asLong() );
+  }
+
+  @Test
+  public void testFlushIncrementsRevision() {
+    ClientStoreImpl store = new ClientStoreImpl();
+    store.add( "foo", "bar" );
+    store.flush();
+
+    store.add( "foo", "bar1" );
+    store.flush();
+
+    assertEquals( 2, store.getRevision() );
+  }
+
+  @Test
+  public void testFlushWithoutChangesKeepsRevision() {
+    ClientStoreImpl store = new ClientStoreImpl();
+    store.add( "foo", "bar" );
+    store.flush();
+
+    store.clear();
+    store.flush();
+
+    assertEquals( 1, store.getRevision() );
+  }
+
+  @Test
+  public void testFlushUpdatesDigest() {
+    ClientStoreImpl store = new ClientStoreImpl();
+    store.add( "foo", "bar" );
+    store.add( "foo1", "bar1" );
+    store.flush();
+
+    store.remove( "foo1" );
+    store.flush();
+
+    assertEquals( ClientStoreRevisions.checksum( "foo", 1 ), store.getDigest() );
+  }
+
+  @Test
+  public void testClearResetsDigest() {
+    ClientStoreImpl store = new ClientStoreImpl();
+    store.add( "foo", "bar" );
+    store.flush();
+
+    store.clear();
+    store.flush();
+
+    assertEquals( 0, store.getDigest() );
+  }
+
+  @Test
+  public void testLegacySynchronizeWithKeyNamedSince() {
+    ClientStoreImpl store = new ClientStoreImpl();
+    when( ( ( RemoteObjectImpl )serviceObject ).getHandler() ).thenReturn( store );
+    JsonObject properties = new JsonObject();
+    properties.add( "since", "bar" );
+
+    TabrisTestUtil.dispatchCall( serviceObject, "synchronize", properties  );
+
+    assertEquals( "bar", store.get( "since" ) );
+    verify( serviceObject, never() ).call( eq( "acknowledge" ), any( JsonObject.class ) );
+  }
+
+  @Test
+  public void testVersionedSynchronizeAddsChanges() {
+    ClientStoreImpl store = createVersionedStore();
+    JsonObject changes = new JsonObject();
+    changes.add( "foo", createEntry( "bar", 1 ) );
+    changes.add( "foo1", createEntry( "bar1", 2 ) );
+
+    dispatchSynchronize( 0, 2, changes, null, null );
+
+    assertEquals( "bar", store.get( "foo" ) );
+    assertEquals( "bar1", store.get( "foo1" ) );
+    assertEquals( 2, store.getRevision() );
+  }
+
+  @Test
+  public void testVersionedSynchronizeSendsAcknowledge() {
+    createVersionedStore();
+    JsonObject changes = new JsonObject();
+    changes.add( "foo", createEntry( "bar", 3 ) );
+
+    dispatchSynchronize( 0, 3, changes, null, null );
+
+    ArgumentCaptor<JsonObject> captor = ArgumentCaptor.forClass( JsonObject.class );
+    verify( serviceObject ).call( eq( "acknowledge" ), captor.capture() );
+    assertEquals( 3, captor.getValue().get( "revision" ).asLong() );
+  }
+
+  @Test
+  public void testFullVersionedSynchronizeReplacesEntries() {
+    ClientStoreImpl store = createVersionedStore();
+    store.add( "foo", "bar" );
+    store.flush();
+    JsonObject changes = new JsonObject();
+    changes.add( "foo1", createEntry( "bar1", 4 ) );
+
+    dispatchSynchronize( 0, 4, changes, null, null );
+
+    assertNull( store.get( "foo" ) );
+    assertEquals( "bar1", store.get( "foo1" ) );
+    assertEquals( ClientStoreRevisions.checksum( "foo1", 4 ), store.getDigest() );
+  }
+
+  @Test
+  public void testDeltaSynchronizeKeepsUnchangedEntries() {
+    ClientStoreImpl store = createVersionedStore();
+    store.add( "foo", "bar" );
+    store.flush();
+    JsonObject changes = new JsonObject();
+    changes.add( "foo1", createEntry( "bar1", 2 ) );
+
+    dispatchSynchronize( 1, 2, changes, null, null );
+
+    assertEquals( "bar", store.get( "foo" ) );
+    assertEquals( "bar1", store.get( "foo1" ) );
+  }
+
+  @Test
+  public void testDeltaSynchronizeRemovesDeletions() {
+    ClientStoreImpl store = createVersionedStore();
+    store.add( "foo", "bar" );
+    store.add( "foo1", "bar1" );
+    store.flush();
+    JsonArray deletions = new JsonArray().add( "foo" );
+
+    dispatchSynchronize( 1, 2, null, deletions, null );
+
+    assertNull( store.get( "foo" ) );
+    assertEquals( "bar1", store.get( "foo1" ) );
+    assertEquals( ClientStoreRevisions.checksum( "foo1", 1 ), store.getDigest() );
+  }
+
+  @Test
+  public void testDeltaSynchronizeOnUnknownRevisionRequestsResynchronize() {
+    ClientStoreImpl store = createVersionedStore();
+    JsonObject changes = new JsonObject();
+    changes.add( "foo", createEntry( "bar", 6 ) );
+
+    dispatchSynchronize( 5, 6, changes, null, null );
+
+    assertNull( store.get( "foo" ) );
+    verify( serviceObject ).call( "resynchronize", null );
+    verify( serviceObject, never() ).call( eq( "acknowledge" ), any( JsonObject.class ) );
+  }
+
+  @Test
+  public void testSynchronizeWithMatchingDigestAcknowledges() {
+    createVersionedStore();
+    JsonObject changes = new JsonObject();
+    changes.add( "foo", createEntry( "bar", 1 ) );
+
+    dispatchSynchronize( 0, 1, changes, null, Long.valueOf( ClientStoreRevisions.checksum( "foo", 1 ) ) );
+
+    verify( serviceObject ).call( eq( "acknowledge" ), any( JsonObject.class ) );
+    verify( serviceObject, never() ).call( "resynchronize", null );
+  }
+
+  @Test
+  public void testSynchronizeWithWrongDigestRequestsResynchronize() {
+    createVersionedStore();
+    JsonObject changes = new JsonObject();
+    changes.add( "foo", createEntry( "bar", 1 ) );
+
+    dispatchSynchronize( 0, 1, changes, null, Long.valueOf( ClientStoreRevisions.checksum( "foo", 2 ) ) );
+
+    verify( serviceObject ).call( "resynchronize", null );
+    verify( serviceObject, never() ).call( eq( "acknowledge" ), any( JsonObject.class ) );
+  }
+
+  @Test
+  public void testSynchronizeWithoutSinceRequestsResynchronize() {
+    ClientStoreImpl store = createVersionedStore();
+    JsonObject changes = new JsonObject();
+    changes.add( "foo", createEntry( "bar", 1 ) );
+    JsonObject properties = new JsonObject();
+    properties.add( "revision", 1 );
+    properties.add( "changes", changes );
+
+    TabrisTestUtil.dispatchCall( serviceObject, "synchronize", properties );
+
+    assertNull( store.get( "foo" ) );
+    verify( serviceObject ).call( "resynchronize", null );
+  }
+
+  @Test
+  public void testSynchronizeWithoutRevisionRequestsResynchronize() {
+    ClientStoreImpl store = createVersionedStore();
+    JsonObject changes = new JsonObject();
+    changes.add( "foo", createEntry( "bar", 1 ) );
+    JsonObject properties = new JsonObject();
+    properties.add( "since", 0 );
+    properties.add( "changes", changes );
+
+    TabrisTestUtil.dispatchCall( serviceObject, "synchronize", properties );
+
+    assertNull( store.get( "foo" ) );
+    verify( serviceObject ).call( "resynchronize", null );
+    verify( serviceObject, never() ).call( eq( "acknowledge" ), any( JsonObject.class ) );
+  }
+
+  @Test
+  public void testSynchronizeWithEntryWithoutRevisionRequestsResynchronize() {
+    ClientStoreImpl store = createVersionedStore();
+    JsonObject entry = new JsonObject();
+    entry.add( "value", "bar" );
+    JsonObject changes = new JsonObject();
+    changes.add( "foo", createEntry( "bar1", 1 ) );
+    changes.add( "foo1", entry );
+
+    dispatchSynchronize( 0, 1, changes, null, null );
+
+    assertNull( store.get( "foo" ) );
+    assertNull( store.get( "foo1" ) );
+    verify( serviceObject ).call( "resynchronize", null );
+  }
+
+  @Test
+  public void testSynchronizeWithEntryWithoutValueRequestsResynchronize() {
+    ClientStoreImpl store = createVersionedStore();
+    JsonObject entry = new JsonObject();
+    entry.add( "revision", 1 );
+    JsonObject changes = new JsonObject();
+    changes.add( "foo", entry );
+
+    dispatchSynchronize( 0, 1, changes, null, null );
+
+    assertNull( store.get( "foo" ) );
+    verify( serviceObject ).call( "resynchronize", null );
+  }
+
+  @Test
+  public void testSynchronizeWithInvalidDeletionsRequestsResynchronize() {
+    createVersionedStore();
+
+    dispatchSynchronize( 0, 1, null, new JsonArray().add( 1 ), null );
+
+    verify( serviceObject ).call( "resynchronize", null );
+    verify( serviceObject, never() ).call( eq( "acknowledge" ), any( JsonObject.class ) );
+  }
+
+  @Test
+  public void testSynchronizeWithCapabilitiesOnlyRequestsResynchronize() {
+    createVersionedStore();
+    JsonObject properties = new JsonObject();
+    properties.add( "capabilities", new JsonArray().add( "fetch" ) );
+
+    TabrisTestUtil.dispatchCall( serviceObject, "synchronize", properties );
+
+    verify( serviceObject ).call( "resynchronize", null );
+  }
+
+  @Test
+  public void testDeltaSynchronizeIsBasedOnAcknowledgedRevision() {
+    ClientStoreImpl store = createVersionedStore();
+    dispatchSynchronize( 0, 3, new JsonObject(), null, null );
+    JsonObject changes = new JsonObject();
+    changes.add( "foo", createEntry( "bar", 4 ) );
+
+    dispatchSynchronize( 3, 4, changes, null, null );
+
+    assertEquals( "bar", store.get( "foo" ) );
+    verify( serviceObject, never() ).call( "resynchronize", null );
+  }
+
+  @Test
+  public void testVersionedSynchronizeNotifiesPendingCallbacks() {
+    ClientStoreImpl store = createStoreWithUnmirroredValue();
+    ClientStoreCallback callback = mock( ClientStoreCallback.class );
+    store.get( "foo", callback );
+    JsonObject changes = new JsonObject();
+    changes.add( "foo", createEntry( "bar1", 1 ) );
+
+    dispatchSynchronize( 0, 1, changes, null, null );
+
+    verify( callback ).valueReceived( "foo", "bar1" );
+  }
+
+  @Test
+  public void testVersionedSynchronizeNotifiesCallbacksOfDeletedKeys() {
+    ClientStoreImpl store = createStoreWithUnmirroredValue();
+    ClientStoreCallback callback = mock( ClientStoreCallback.class );
+    store.get( "foo", callback );
+
+    dispatchSynchronize( 0, 1, new JsonObject(), null, null );
+
+    verify( callback ).valueReceived( "foo", null );
+  }
+
+  @Test
+  public void testGetBytesReturnsAddedBytes() {
+    ClientStoreImpl store = new ClientStoreImpl();
+    byte[] bytes = new byte[] { 1, 2, 3 };
+
+    store.addBytes( "foo", bytes );
+
+    assertArrayEquals( bytes, store.getBytes( "foo" ) );
+  }
+
+  @Test
+  public void testAddBytesSendsEncodedValue() {
+    ClientStoreImpl store = new ClientStoreImpl();
+    store.addBytes( "foo", new byte[] { 1, 2, 3 } );
+
+    store.flush();
+
+    ArgumentCaptor<JsonObject> captor = ArgumentCaptor.forClass( JsonObject.class );
+    verify( serviceObject ).call( eq( "add" ), captor.capture() );
+    assertEquals( ClientStoreValues.encode( new byte[] { 1, 2, 3 } ), captor.getValue().get( "value" ).asString() );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testAddBytesFailsWithNullValue() {
+    ClientStoreImpl store = new ClientStoreImpl();
+
+    store.addBytes( "foo", null );
+  }
+
+  @Test
+  public void testGetBytesReturnsNullForStringValue() {
+    ClientStoreImpl store = new ClientStoreImpl();
+
+    store.add( "foo", "bar" );
+
+    assertNull( store.getBytes( "foo" ) );
+  }
+
+  @Test
+  public void testGetObjectReturnsAddedObject() {
+    ClientStoreImpl store = new ClientStoreImpl();
+    ArrayList<String> list = new ArrayList<String>();
+    list.add( "bar" );
+
+    store.addObject( "foo", list );
+
+    assertEquals( list, store.getObject( "foo" ) );
+  }
+
+  @Test
+  public void testAddObjectDoesNotCompressSerializedObjectAgain() {
+    ClientStoreImpl store = new ClientStoreImpl();
+    ArrayList<String> list = new ArrayList<String>();
+    for( int i = 0; i < 1000; i++ ) {
+      list.add( "bar" + i );
+    }
+
+    store.addObject( "foo", list );
+
+    assertTrue( store.get( "foo" ).startsWith( ClientStoreValues.BINARY_PREFIX ) );
+    assertEquals( list, store.getObject( "foo" ) );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testAddBytesFailsAboveMaxSize() {
+    ClientStoreImpl store = new ClientStoreImpl();
+
+    store.addBytes( "foo", new byte[ ClientStoreValues.MAX_SIZE + 1 ] );
+  }
+
+  @Test
+  public void testAddedStringWithBinaryPrefixIsNotDecoded() {
+    ClientStoreImpl store = new ClientStoreImpl();
+    String value = ClientStoreValues.BINARY_PREFIX + "AQID";
+
+    store.add( "foo", value );
+
+    assertEquals( value, store.get( "foo" ) );
+    assertNull( store.getBytes( "foo" ) );
+  }
+
+  @Test
+  public void testCallbackReceivesAddedStringWithBinaryPrefix() {
+    ClientStoreImpl store = new ClientStoreImpl();
+    String value = ClientStoreValues.BINARY_PREFIX + "AQID";
+    store.add( "foo", value );
+    ClientStoreCallback callback = mock( ClientStoreCallback.class );
+
+    store.get( "foo", callback );
+
+    verify( callback ).valueReceived( "foo", value );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testAddObjectFailsWithNullValue() {
+    ClientStoreImpl store = new ClientStoreImpl();
+
+    store.addObject( "foo", null );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testAddObjectFailsWithNotSerializableContent() {
+    ClientStoreImpl store = new ClientStoreImpl();
+    ArrayList<Object> list = new ArrayList<Object>();
+    list.add( new Object() );
+
+    store.addObject( "foo", list );
+  }
+
+  @Test
+  public void testGetObjectIgnoresUnsignedBytes() {
+    ClientStoreImpl store = new ClientStoreImpl();
+
+    store.addBytes( "foo", new byte[ 64 ] );
+
+    assertNull( store.getObject( "foo" ) );
+  }
+
+  @Test
+  public void testGetSizeIsZeroWhenEmpty() {
+    ClientStoreImpl store = new ClientStoreImpl();
+
+    assertEquals( 0, store.getSize() );
+  }
+
+  @Test
+  public void testGetSizeCountsValueLengths() {
+    ClientStoreImpl store = new ClientStoreImpl();
+
+    store.add( "foo", "bar" );
+    store.add( "foo1", "bar12" );
+
+    assertEquals( 8, store.getSize() );
+  }
+
+  @Test
+  public void testGetSizeCountsReplacedValueOnce() {
+    ClientStoreImpl store = new ClientStoreImpl();
+    store.add( "foo", "bar" );
+
+    store.add( "foo", "bar12" );
+
+    assertEquals( 5, store.getSize() );
+  }
+
+  @Test
+  public void testGetSizeDropsRemovedValues() {
+    ClientStoreImpl store = new ClientStoreImpl();
+    store.add( "foo", "bar" );
+    store.add( "foo1", "bar12" );
+
+    store.remove( "foo1" );
+
+    assertEquals( 3, store.getSize() );
+  }
+
+  @Test
+  public void testGetSizeIsZeroAfterClear() {
+    ClientStoreImpl store = new ClientStoreImpl();
+    store.add( "foo", "bar" );
+
+    store.clear();
+
+    assertEquals( 0, store.getSize() );
+  }
+
+  @Test
+  public void testGetSizeCountsValuesThatAreNotMirrored() {
+    ClientStoreImpl store = createStoreWithUnmirroredValue();
+
+    assertEquals( 3, store.getSize() );
+  }
+
+  @Test
+  public void testAddSendsBigValueAtOnceWithoutChunksCapability() {
+    ClientStoreImpl store = createVersionedStore();
+    String value = createString( ClientStoreImpl.CHUNK_SIZE * 2 + 1 );
+    store.add( "foo", value );
+
+    store.flush();
+
+    ArgumentCaptor<JsonObject> captor = ArgumentCaptor.forClass( JsonObject.class );
+    verify( serviceObject ).call( eq( "add" ), captor.capture() );
+    verify( serviceObject, never() ).call( eq( "addChunk" ), any( JsonObject.class ) );
+    assertEquals( value, captor.getValue().get( "value" ).asString() );
+  }
+
+  @Test
+  public void testSynchronizeWithoutChunksCapabilityDisablesChunks() {
+    ClientStoreImpl store = createChunkingStore();
+    dispatchSynchronize( 0, 0, null, null, null, new JsonArray() );
+    store.add( "foo", createString( ClientStoreImpl.CHUNK_SIZE + 1 ) );
+
+    store.flush();
+
+    verify( serviceObject ).call( eq( "add" ), any( JsonObject.class ) );
+    verify( serviceObject, never() ).call( eq( "addChunk" ), any( JsonObject.class ) );
+  }
+
+  @Test
+  public void testAddSendsBigValueInChunks() {
+    ClientStoreImpl store = createChunkingStore();
+    store.add( "foo", createString( ClientStoreImpl.CHUNK_SIZE * 2 + 1 ) );
+
+    store.flush();
+
+    ArgumentCaptor<JsonObject> captor = ArgumentCaptor.forClass( JsonObject.class );
+    verify( serviceObject ).call( eq( "addChunk" ), captor.capture() );
+    verify( serviceObject, never() ).call( eq( "add" ), any( JsonObject.class ) );
+    JsonObject chunk = captor.getValue();
+    assertEquals( "foo", chunk.get( "key" ).asString() );
+    assertEquals( ClientStoreImpl.CHUNK_SIZE, chunk.get( "value" ).asString().length() );
+    assertEquals( 0, chunk.get( "index" ).asInt() );
+    assertEquals( 3, chunk.get( "count" ).asInt() );
+    assertEquals( 1, chunk.get( "revision" ).asLong() );
+  }
+
+  @Test
+  public void testAddSendsSmallValuesWithoutChunks() {
+    ClientStoreImpl store = createChunkingStore();
+    store.add( "foo", createString( ClientStoreImpl.CHUNK_SIZE + 1 ) );
+    store.add( "foo1", "bar1" );
+
+    store.flush();
+
+    verify( serviceObject ).call( eq( "add" ), any( JsonObject.class ) );
+    verify( serviceObject ).call( eq( "addChunk" ), any( JsonObject.class ) );
+  }
+
+  @Test
+  public void testSendsNextChunkAfterChunkReceived() {
+    ClientStoreImpl store = createChunkingStore();
+    store.add( "foo", createString( ClientStoreImpl.CHUNK_SIZE + 1 ) );
+    store.flush();
+    store.flush();
+
+    dispatchChunkReceived( "foo", 0 );
+    store.flush();
+
+    ArgumentCaptor<JsonObject> captor = ArgumentCaptor.forClass( JsonObject.class );
+    verify( serviceObject, times( 2 ) ).call( eq( "addChunk" ), captor.capture() );
+    JsonObject chunk = captor.getAllValues().get( 1 );
+    assertEquals( 1, chunk.get( "index" ).asInt() );
+    assertEquals( 1, chunk.get( "value" ).asString().length() );
+  }
+
+  @Test
+  public void testStopsSendingChunksAfterLastChunk() {
+    ClientStoreImpl store = createChunkingStore();
+    store.add( "foo", createString( ClientStoreImpl.CHUNK_SIZE + 1 ) );
+    store.flush();
+    dispatchChunkReceived( "foo", 0 );
+    store.flush();
+
+    dispatchChunkReceived( "foo", 1 );
+    store.flush();
+
+    verify( serviceObject, times( 2 ) ).call( eq( "addChunk" ), any( JsonObject.class ) );
+  }
+
+  @Test
+  public void testIgnoresOutdatedChunkReceived() {
+    ClientStoreImpl store = createChunkingStore();
+    store.add( "foo", createString( ClientStoreImpl.CHUNK_SIZE * 3 ) );
+    store.flush();
+    dispatchChunkReceived( "foo", 0 );
+    store.flush();
+
+    dispatchChunkReceived( "foo", 0 );
+    store.flush();
+
+    verify( serviceObject, times( 2 ) ).call( eq( "addChunk" ), any( JsonObject.class ) );
+  }
+
+  @Test
+  public void testRemoveCancelsChunkTransfer() {
+    ClientStoreImpl store = createChunkingStore();
+    store.add( "foo", createString( ClientStoreImpl.CHUNK_SIZE + 1 ) );
+    store.flush();
+
+    store.remove( "foo" );
+    dispatchChunkReceived( "foo", 0 );
+    store.flush();
+
+    verify( serviceObject ).call( eq( "addChunk" ), any( JsonObject.class ) );
+  }
+
+  @Test
+  public void testAddCancelsChunkTransfer() {
+    ClientStoreImpl store = createChunkingStore();
+    store.add( "foo", createString( ClientStoreImpl.CHUNK_SIZE + 1 ) );
+    store.flush();
+
+    store.add( "foo", "bar" );
+    dispatchChunkReceived( "foo", 0 );
+    store.flush();
+
+    verify( serviceObject ).call( eq( "addChunk" ), any( JsonObject.class ) );
+    verify( serviceObject ).call( eq( "add" ), any( JsonObject.class ) );
+  }
+
+  @Test
+  public void testSetTimeToLiveStoresExpiryTime() {
+    TimedClientStore store = new TimedClientStore( 1000 );
+    store.add( "foo", "bar" );
+
+    store.setTimeToLive( "foo", 2, TimeUnit.SECONDS );
+
+    assertEquals( Long.valueOf( 3000 ), store.getExpiryTime( "foo" ) );
+  }
+
+  @Test
+  public void testSetTimeToLiveIgnoresUnknownKey() {
+    TimedClientStore store = new TimedClientStore( 1000 );
+
+    store.setTimeToLive( "foo", 2, TimeUnit.SECONDS );
+
+    assertNull( store.getExpiryTime( "foo" ) );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testSetTimeToLiveFailsWithNegativeTime() {
+    ClientStoreImpl store = new ClientStoreImpl();
+
+    store.setTimeToLive( "foo", -1, TimeUnit.SECONDS );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testSetTimeToLiveFailsWithNullUnit() {
+    ClientStoreImpl store = new ClientStoreImpl();
+
+    store.setTimeToLive( "foo", 1, null );
+  }
+
+  @Test
+  public void testSetTimeToLiveSendsExpiryTimes() {
+    TimedClientStore store = createExpiringStore( 1000 );
+    store.add( "foo", "bar" );
+    store.add( "foo1", "bar1" );
+    store.flush();
+
+    store.setTimeToLive( "foo", 2, TimeUnit.SECONDS );
+    store.setTimeToLive( "foo1", 3, TimeUnit.SECONDS );
+    store.flush();
+
+    ArgumentCaptor<JsonObject> captor = ArgumentCaptor.forClass( JsonObject.class );
+    verify( serviceObject ).call( eq( "expire" ), captor.capture() );
+    JsonObject expires = captor.getValue().get( "expires" ).asObject();
+    assertEquals( 3000, expires.get( "foo" ).asLong() );
+    assertEquals( 4000, expires.get( "foo1" ).asLong() );
+  }
+
+  @Test
+  public void testSetTimeToLiveDoesNotSendExpiryTimesWithoutCapability() {
+    TimedClientStore store = new TimedClientStore( 1000 );
+    when( ( ( RemoteObjectImpl )serviceObject ).getHandler() ).thenReturn( store );
+    dispatchSynchronize( 0, 0, null, null, null, new JsonArray().add( "fetch" ) );
+    store.add( "foo", "bar" );
+    store.flush();
+
+    store.setTimeToLive( "foo", 2, TimeUnit.SECONDS );
+    store.flush();
+
+    assertEquals( Long.valueOf( 3000 ), store.getExpiryTime( "foo" ) );
+    verify( serviceObject, never() ).call( eq( "expire" ), any( JsonObject.class ) );
+  }
+
+  @Test
+  public void testSetTimeToLiveDoesNotSendExpiryTimesToUnversionedClient() {
+    TimedClientStore store = new TimedClientStore( 1000 );
+    store.add( "foo", "bar" );
+
+    store.setTimeToLive( "foo", 2, TimeUnit.SECONDS );
+    store.flush();
+
+    verify( serviceObject, never() ).call( eq( "expire" ), any( JsonObject.class ) );
+  }
+
+  @Test
+  public void testGetReturnsNullForExpiredEntryBeforeFlush() {
+    TimedClientStore store = new TimedClientStore( 1000 );
+    store.add( "foo", "bar" );
+    store.setTimeToLive( "foo", 2, TimeUnit.SECONDS );
+    store.flush();
+
+    store.time = 3000;
+
+    assertNull( store.get( "foo" ) );
+    assertNull( store.getExpiryTime( "foo" ) );
+    assertEquals( 0, store.getSize() );
+  }
+
+  @Test
+  public void testGetBytesReturnsNullForExpiredEntry() {
+    TimedClientStore store = new TimedClientStore( 1000 );
+    store.addBytes( "foo", new byte[] { 1, 2, 3 } );
+    store.setTimeToLive( "foo", 2, TimeUnit.SECONDS );
+
+    store.time = 3000;
+
+    assertNull( store.getBytes( "foo" ) );
+  }
+
+  @Test
+  public void testGetObjectReturnsNullForExpiredEntry() {
+    TimedClientStore store = new TimedClientStore( 1000 );
+    store.addObject( "foo", "bar" );
+    store.setTimeToLive( "foo", 2, TimeUnit.SECONDS );
+
+    store.time = 3000;
+
+    assertNull( store.getObject( "foo" ) );
+  }
+
+  @Test
+  public void testGetWithCallbackReturnsNullForExpiredEntry() {
+    TimedClientStore store = new TimedClientStore( 1000 );
+    store.add( "foo", "bar" );
+    store.setTimeToLive( "foo", 2, TimeUnit.SECONDS );
+    ClientStoreCallback callback = mock( ClientStoreCallback.class );
+
+    store.time = 3000;
+    store.get( "foo", callback );
+
+    verify( callback ).valueReceived( "foo", null );
+  }
+
+  @Test
+  public void testReadingExpiredEntryRemovesItOnClient() {
+    TimedClientStore store = new TimedClientStore( 1000 );
+    store.add( "foo", "bar" );
+    store.setTimeToLive( "foo", 2, TimeUnit.SECONDS );
+    store.flush();
+    store.time = 3000;
+    store.get( "foo" );
+
+    store.flush();
+
+    ArgumentCaptor<JsonObject> captor = ArgumentCaptor.forClass( JsonObject.class );
+    verify( serviceObject ).call( eq( "remove" ), captor.capture() );
+    assertEquals( "foo", captor.getValue().get( "keys" ).asArray().get( 0 ).asString() );
+  }
+
+  @Test
+  public void testAddRemovesTimeToLive() {
+    TimedClientStore store = new TimedClientStore( 1000 );
+    store.add( "foo", "bar" );
+    store.setTimeToLive( "foo", 2, TimeUnit.SECONDS );
+
+    store.add( "foo", "bar1" );
+    store.flush();
+
+    assertNull( store.getExpiryTime( "foo" ) );
+    verify( serviceObject, never() ).call( eq( "expire" ), any( JsonObject.class ) );
+  }
+
+  @Test
+  public void testKeepsEntryBeforeExpiry() {
+    TimedClientStore store = new TimedClientStore( 1000 );
+    store.add( "foo", "bar" );
+    store.setTimeToLive( "foo", 2, TimeUnit.SECONDS );
+    store.flush();
+
+    store.time = 2999;
+    store.flush();
+
+    assertEquals( "bar", store.get( "foo" ) );
+  }
+
+  @Test
+  public void testRemovesExpiredEntriesInOneCall() {
+    TimedClientStore store = new TimedClientStore( 1000 );
+    store.add( "foo", "bar" );
+    store.add( "foo1", "bar1" );
+    store.add( "foo2", "bar2" );
+    store.setTimeToLive( "foo", 1, TimeUnit.SECONDS );
+    store.setTimeToLive( "foo1", 2, TimeUnit.SECONDS );
+    store.flush();
+
+    store.time = 3000;
+    store.flush();
+
+    assertNull( store.get( "foo" ) );
+    assertNull( store.get( "foo1" ) );
+    assertEquals( "bar2", store.get( "foo2" ) );
+    ArgumentCaptor<JsonObject> captor = ArgumentCaptor.forClass( JsonObject.class );
+    verify( serviceObject ).call( eq( "remove" ), captor.capture() );
+    JsonArray removedKeys = captor.getValue().get( "keys" ).asArray();
+    assertEquals( 2, removedKeys.size() );
+  }
+
+  @Test
+  public void testVersionedSynchronizeRestoresExpiryTime() {
+    TimedClientStore store = new TimedClientStore( 1000 );
+    when( ( ( RemoteObjectImpl )serviceObject ).getHandler() ).thenReturn( store );
+    JsonObject entry = createEntry( "bar", 1 );
+    entry.add( "expires", 5000L );
+    JsonObject changes = new JsonObject();
+    changes.add( "foo", entry );
+
+    dispatchSynchronize( 0, 1, changes, null, null );
+
+    assertEquals( Long.valueOf( 5000 ), store.getExpiryTime( "foo" ) );
+  }
+
+  @Test
+  public void testRemovesSynchronizedEntryThatHasExpired() {
+    TimedClientStore store = new TimedClientStore( 6000 );
+    when( ( ( RemoteObjectImpl )serviceObject ).getHandler() ).thenReturn( store );
+    JsonObject entry = createEntry( "bar", 1 );
+    entry.add( "expires", 5000L );
+    JsonObject changes = new JsonObject();
+    changes.add( "foo", entry );
+    dispatchSynchronize( 0, 1, changes, null, null );
+
+    store.flush();
+
+    assertNull( store.get( "foo" ) );
+    verify( serviceObject ).call( eq( "remove" ), any( JsonObject.class ) );
+  }
+
+  @Test
+  public void testHasNoQuotaByDefault() {
+    ClientStoreImpl store = new ClientStoreImpl();
+
+    assertEquals( Long.MAX_VALUE, store.getQuota() );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testSetQuotaFailsWithZero() {
+    ClientStoreImpl store = new ClientStoreImpl();
+
+    store.setQuota( 0 );
+  }
+
+  @Test
+  public void testQuotaRemovesLeastRecentlyUsedEntries() {
+    ClientStoreImpl store = new ClientStoreImpl();
+    store.setQuota( 6 );
+    store.add( "foo", "bar" );
+    store.add( "foo1", "bar" );
+    store.add( "foo2", "bar" );
+
+    store.flush();
+
+    assertNull( store.get( "foo" ) );
+    assertEquals( "bar", store.get( "foo1" ) );
+    assertEquals( "bar", store.get( "foo2" ) );
+    assertEquals( 6, store.getSize() );
+  }
+
+  @Test
+  public void testQuotaKeepsRecentlyReadEntries() {
+    ClientStoreImpl store = new ClientStoreImpl();
+    store.setQuota( 6 );
+    store.add( "foo", "bar" );
+    store.add( "foo1", "bar" );
+    store.flush();
+    store.get( "foo" );
+
+    store.add( "foo2", "bar" );
+    store.flush();
+
+    assertEquals( "bar", store.get( "foo" ) );
+    assertNull( store.get( "foo1" ) );
+  }
+
+  @Test
+  public void testQuotaSendsEvictionsInOneRemoveCall() {
+    ClientStoreImpl store = new ClientStoreImpl();
+    store.add( "foo", "bar" );
+    store.add( "foo1", "bar" );
+    store.add( "foo2", "bar" );
+    store.flush();
+    store.setQuota( 3 );
+
+    store.flush();
+
+    ArgumentCaptor<JsonObject> captor = ArgumentCaptor.forClass( JsonObject.class );
+    verify( serviceObject ).call( eq( "remove" ), captor.capture() );
+    JsonArray removedKeys = captor.getValue().get( "keys" ).asArray();
+    assertEquals( JsonValue.valueOf( "foo" ), removedKeys.get( 0 ) );
+    assertEquals( JsonValue.valueOf( "foo1" ), removedKeys.get( 1 ) );
+    assertEquals( 2, removedKeys.size() );
+  }
+
+  @Test
+  public void testQuotaDropsValueBiggerThanQuota() {
+    ClientStoreImpl store = new ClientStoreImpl();
+    store.setQuota( 2 );
+
+    store.add( "foo", "bar" );
+    store.flush();
+
+    assertNull( store.get( "foo" ) );
+    verify( serviceObject, never() ).call( eq( "add" ), any( JsonObject.class ) );
+  }
+
+  private ClientStoreImpl createStoreWithUnmirroredValue() {
+    ClientStoreImpl store = new ClientStoreImpl( ClientStoreMirrorPolicy.keysOnly() );
+    when( ( ( RemoteObjectImpl )serviceObject ).getHandler() ).thenReturn( store );
+    JsonObject changes = new JsonObject();
+    changes.add( "foo", createEntry( "bar", 1 ) );
+    dispatchSynchronize( 0, 1, changes, null, null, new JsonArray().add( "fetch" ) );
+    return store;
+  }
+
+  private void dispatchFetched( String key, String value ) {
+    JsonObject values = new JsonObject();
+    if( value != null ) {
+      values.add( key, value );
+    }
+    JsonObject properties = new JsonObject();
+    properties.add( "keys", new JsonArray().add( key ) );
+    properties.add( "values", values );
+    TabrisTestUtil.dispatchCall( serviceObject, "fetched", properties );
+  }
+
+  private ClientStoreImpl createVersionedStore() {
+    ClientStoreImpl store = new ClientStoreImpl();
+    when( ( ( RemoteObjectImpl )serviceObject ).getHandler() ).thenReturn( store );
+    return store;
+  }
+
+  private ClientStoreImpl createChunkingStore() {
+    ClientStoreImpl store = createVersionedStore();
+    dispatchSynchronize( 0, 0, null, null, null, new JsonArray().add( "chunks" ) );
+    return store;
+  }
+
+  private TimedClientStore createExpiringStore( long time ) {
+    TimedClientStore store = new TimedClientStore( time );
+    when( ( ( RemoteObjectImpl )serviceObject ).getHandler() ).thenReturn( store );
+    dispatchSynchronize( 0, 0, null, null, null, new JsonArray().add( "expire" ) );
+    return store;
+  }
+
+  private JsonObject createEntry( String value, long revision ) {
+    JsonObject entry = new JsonObject();
+    entry.add( "value", value );
+    entry.add( "revision", revision );
+    return entry;
+  }
+
+  private void dispatchSynchronize( long since,
+                                    long revision,
+                                    JsonObject changes,
+                                    JsonArray deletions,
+                                    Long digest )
+  {
+    dispatchSynchronize( since, revision, changes, deletions, digest, null );
+  }
+
+  private void dispatchSynchronize( long since,
+                                    long revision,
+                                    JsonObject changes,
+                                    JsonArray deletions,
+                                    Long digest,
+                                    JsonArray capabilities )
+  {
+    JsonObject properties = new JsonObject();
+    properties.add( "since", since );
+    properties.add( "revision", revision );
+    if( changes != null ) {
+      properties.add( "changes", changes );
+    }
+    if( deletions != null ) {
+      properties.add( "deletions", deletions );
+    }
+    if( digest != null ) {
+      properties.add( "digest", digest.longValue() );
+    }
+    if( capabilities != null ) {
+      properties.add( "capabilities", capabilities );
+    }
+    TabrisTestUtil.dispatchCall( serviceObject, "synchronize", properties );
+  }
+
+  private void dispatchChunkReceived( String key, int index ) {
+    JsonObject properties = new JsonObject();
+    properties.add( "key", key );
+    properties.add( "index", index );
+    TabrisTestUtil.dispatchCall( serviceObject, "chunkReceived", properties );
+  }
+
+  private String createString( int length ) {
+    StringBuilder result = new StringBuilder( length );
+    for( int i = 0; i < length; i++ ) {
+      result.append( 'a' );
+    }
+    return result.toString();
+  }
+
+  private static class TimedClientStore extends ClientStoreImpl {
+
+    long time;
+
+    TimedClientStore( long time ) {
+      this.time = time;
+    }
+
+    @Override
+    long getCurrentTime() {
+      return time;
+    }
+  }
 }
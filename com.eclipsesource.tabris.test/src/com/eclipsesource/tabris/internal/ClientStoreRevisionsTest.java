@@ -0,0 +1,175 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.util.zip.CRC32;
+
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class ClientStoreRevisionsTest {
+
+  private ClientStoreRevisions revisions;
+
+  @Before
+  public void setUp() {
+    revisions = new ClientStoreRevisions();
+  }
+
+  @Test
+  public void testStartsWithoutRevision() {
+    assertEquals( 0, revisions.getRevision() );
+    assertEquals( 0, revisions.getAcknowledgedRevision() );
+    assertEquals( 0, revisions.getDigest() );
+  }
+
+  @Test
+  public void testNextRevisionIncrementsRevision() {
+    revisions.nextRevision();
+
+    assertEquals( 2, revisions.nextRevision() );
+    assertEquals( 2, revisions.getRevision() );
+  }
+
+  @Test
+  public void testUpdateStoresRevisionOfKey() {
+    revisions.update( "foo", 3 );
+
+    assertEquals( Long.valueOf( 3 ), revisions.getRevision( "foo" ) );
+  }
+
+  @Test
+  public void testUpdateRaisesRevision() {
+    revisions.update( "foo", 3 );
+
+    assertEquals( 3, revisions.getRevision() );
+    assertEquals( 4, revisions.nextRevision() );
+  }
+
+  @Test
+  public void testUpdateKeepsHigherRevision() {
+    revisions.update( "foo", 5 );
+
+    revisions.update( "foo1", 3 );
+
+    assertEquals( 5, revisions.getRevision() );
+  }
+
+  @Test
+  public void testChecksumIsCrc32OfKeyAndRevision() {
+    CRC32 crc = new CRC32();
+    crc.update( "foo:3".getBytes() );
+
+    assertEquals( crc.getValue(), ClientStoreRevisions.checksum( "foo", 3 ) );
+  }
+
+  @Test
+  public void testDigestIsSumOfChecksums() {
+    revisions.update( "foo", 1 );
+    revisions.update( "foo1", 2 );
+
+    long expected = ( ClientStoreRevisions.checksum( "foo", 1 ) + ClientStoreRevisions.checksum( "foo1", 2 ) )
+                    & 0xFFFFFFFFL;
+    assertEquals( expected, revisions.getDigest() );
+  }
+
+  @Test
+  public void testDigestIsIndependentOfOrder() {
+    ClientStoreRevisions otherRevisions = new ClientStoreRevisions();
+    otherRevisions.update( "foo1", 2 );
+    otherRevisions.update( "foo", 1 );
+
+    revisions.update( "foo", 1 );
+    revisions.update( "foo1", 2 );
+
+    assertEquals( otherRevisions.getDigest(), revisions.getDigest() );
+  }
+
+  @Test
+  public void testUpdateReplacesOldRevisionInDigest() {
+    revisions.update( "foo", 1 );
+
+    revisions.update( "foo", 2 );
+
+    assertEquals( ClientStoreRevisions.checksum( "foo", 2 ), revisions.getDigest() );
+  }
+
+  @Test
+  public void testDigestChangesWithRevision() {
+    revisions.update( "foo", 1 );
+    long digest = revisions.getDigest();
+
+    revisions.update( "foo", 2 );
+
+    assertFalse( digest == revisions.getDigest() );
+  }
+
+  @Test
+  public void testRemoveDropsKeyFromDigest() {
+    revisions.update( "foo", 1 );
+    revisions.update( "foo1", 2 );
+
+    revisions.remove( "foo1" );
+
+    assertEquals( ClientStoreRevisions.checksum( "foo", 1 ), revisions.getDigest() );
+    assertNull( revisions.getRevision( "foo1" ) );
+  }
+
+  @Test
+  public void testRemoveUnknownKeyKeepsDigest() {
+    revisions.update( "foo", 1 );
+
+    revisions.remove( "foo1" );
+
+    assertEquals( ClientStoreRevisions.checksum( "foo", 1 ), revisions.getDigest() );
+  }
+
+  @Test
+  public void testClearResetsDigest() {
+    revisions.update( "foo", 1 );
+
+    revisions.clear();
+
+    assertEquals( 0, revisions.getDigest() );
+    assertNull( revisions.getRevision( "foo" ) );
+  }
+
+  @Test
+  public void testClearKeepsRevision() {
+    revisions.update( "foo", 4 );
+
+    revisions.clear();
+
+    assertEquals( 4, revisions.getRevision() );
+  }
+
+  @Test
+  public void testAcknowledgeStoresRevision() {
+    revisions.acknowledge( 7 );
+
+    assertEquals( 7, revisions.getAcknowledgedRevision() );
+    assertEquals( 7, revisions.getRevision() );
+  }
+
+  @Test
+  public void testAcknowledgeKeepsHigherRevision() {
+    revisions.update( "foo", 9 );
+
+    revisions.acknowledge( 7 );
+
+    assertEquals( 9, revisions.getRevision() );
+  }
+}
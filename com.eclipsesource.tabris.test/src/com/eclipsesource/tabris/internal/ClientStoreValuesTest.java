@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+
+public class ClientStoreValuesTest {
+
+  @Test
+  public void testEncodesSmallValueUncompressed() {
+    String value = ClientStoreValues.encode( new byte[] { 1, 2, 3 } );
+
+    assertTrue( value.startsWith( ClientStoreValues.BINARY_PREFIX ) );
+  }
+
+  @Test
+  public void testDecodesUncompressedValue() {
+    byte[] bytes = new byte[] { 1, 2, 3 };
+
+    byte[] decoded = ClientStoreValues.decode( ClientStoreValues.encode( bytes ) );
+
+    assertArrayEquals( bytes, decoded );
+  }
+
+  @Test
+  public void testEncodesBigValueCompressed() {
+    String value = ClientStoreValues.encode( new byte[ 4096 ] );
+
+    assertTrue( value.startsWith( ClientStoreValues.COMPRESSED_PREFIX ) );
+    assertTrue( value.length() < 4096 );
+  }
+
+  @Test
+  public void testDecodesCompressedValue() {
+    byte[] bytes = new byte[ 4096 ];
+    bytes[ 23 ] = 42;
+
+    byte[] decoded = ClientStoreValues.decode( ClientStoreValues.encode( bytes ) );
+
+    assertArrayEquals( bytes, decoded );
+  }
+
+  @Test
+  public void testEncodesValueUncompressedWhenNotCompressible() {
+    byte[] bytes = new byte[ 4096 ];
+
+    String value = ClientStoreValues.encode( bytes, false );
+
+    assertTrue( value.startsWith( ClientStoreValues.BINARY_PREFIX ) );
+    assertArrayEquals( bytes, ClientStoreValues.decode( value ) );
+  }
+
+  @Test
+  public void testEncodesIncompressibleValueUncompressed() {
+    byte[] bytes = new byte[ 4096 ];
+    new Random( 42 ).nextBytes( bytes );
+
+    String value = ClientStoreValues.encode( bytes );
+
+    assertTrue( value.startsWith( ClientStoreValues.BINARY_PREFIX ) );
+    assertArrayEquals( bytes, ClientStoreValues.decode( value ) );
+  }
+
+  @Test
+  public void testDecodeReturnsNullForNull() {
+    assertNull( ClientStoreValues.decode( null ) );
+  }
+
+  @Test
+  public void testDecodeReturnsNullForPlainString() {
+    assertNull( ClientStoreValues.decode( "foo" ) );
+  }
+
+  @Test
+  public void testDecodeReturnsNullForInvalidCompressedValue() {
+    assertNull( ClientStoreValues.decode( ClientStoreValues.COMPRESSED_PREFIX + "Zm9v" ) );
+  }
+
+  @Test
+  public void testDecodeReturnsNullForUnmarkedPrefix() {
+    assertNull( ClientStoreValues.decode( "bin:AQID" ) );
+  }
+
+  @Test
+  public void testDecodeRejectsValueInflatingAboveMaxSize() {
+    String value = ClientStoreValues.encode( new byte[ ClientStoreValues.MAX_SIZE + 1 ] );
+
+    assertTrue( value.startsWith( ClientStoreValues.COMPRESSED_PREFIX ) );
+    assertNull( ClientStoreValues.decode( value ) );
+  }
+
+  @Test
+  public void testEncodeStringKeepsPlainValue() {
+    assertEquals( "bin:AQID", ClientStoreValues.encodeString( "bin:AQID" ) );
+  }
+
+  @Test
+  public void testEncodeStringEscapesValueStartingWithMarker() {
+    String value = ClientStoreValues.BINARY_PREFIX + "AQID";
+
+    String encoded = ClientStoreValues.encodeString( value );
+
+    assertNull( ClientStoreValues.decode( encoded ) );
+    assertEquals( value, ClientStoreValues.decodeString( encoded ) );
+  }
+
+  @Test
+  public void testDecodeStringKeepsPlainValue() {
+    assertEquals( "foo", ClientStoreValues.decodeString( "foo" ) );
+  }
+
+  @Test
+  public void testDecodeStringReturnsNullForNull() {
+    assertNull( ClientStoreValues.decodeString( null ) );
+  }
+}
@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.eclipsesource.tabris.geolocation.Geofence;
+
+
+public class GeofenceIndexTest {
+
+  private GeofenceIndex index;
+
+  @Before
+  public void setUp() {
+    index = new GeofenceIndex();
+  }
+
+  @Test
+  public void testFindsContainingFence() {
+    Geofence fence = new Geofence( "depot", 49.0, 8.4, 150 );
+    index.add( fence );
+
+    List<Geofence> fences = index.getFences( 49.001, 8.4 );
+
+    assertEquals( 1, fences.size() );
+    assertSame( fence, fences.get( 0 ) );
+  }
+
+  @Test
+  public void testDoesNotFindFenceOutsideRadius() {
+    index.add( new Geofence( "depot", 49.0, 8.4, 100 ) );
+
+    List<Geofence> fences = index.getFences( 49.001, 8.4 );
+
+    assertTrue( fences.isEmpty() );
+  }
+
+  @Test
+  public void testFindsFenceAcrossCellBorder() {
+    index.add( new Geofence( "depot", 0.0, 0.0, 500 ) );
+
+    assertEquals( 1, index.getFences( 0.004, 0.0 ).size() );
+    assertEquals( 1, index.getFences( -0.004, 0.0 ).size() );
+    assertEquals( 1, index.getFences( 0.0, -0.004 ).size() );
+  }
+
+  @Test
+  public void testFindsFenceAcrossDateLine() {
+    index.add( new Geofence( "island", -16.5, 179.999, 1000 ) );
+
+    assertEquals( 1, index.getFences( -16.5, -179.997 ).size() );
+  }
+
+  @Test
+  public void testFindsFenceContainingPole() {
+    index.add( new Geofence( "arctic", 89.5, 0, 200000 ) );
+
+    assertEquals( 1, index.getFences( 89.9, 150 ).size() );
+  }
+
+  @Test
+  public void testFindsHugeFence() {
+    index.add( new Geofence( "world", 0, 0, 30000000 ) );
+
+    assertEquals( 1, index.getFences( -45, 179 ).size() );
+  }
+
+  @Test
+  public void testFindsNestedFencesOnDifferentLevels() {
+    index.add( new Geofence( "city", 49.0, 8.4, 10000 ) );
+    index.add( new Geofence( "depot", 49.0, 8.4, 100 ) );
+
+    assertEquals( 2, index.getFences( 49.0, 8.4 ).size() );
+    assertEquals( 1, index.getFences( 49.05, 8.4 ).size() );
+  }
+
+  @Test
+  public void testStoresLargerFencesOnHigherLevels() {
+    int smallLevel = index.getLevel( new Geofence( "small", 49.0, 8.4, 100 ) );
+    int largeLevel = index.getLevel( new Geofence( "large", 49.0, 8.4, 100000 ) );
+
+    assertEquals( 0, smallLevel );
+    assertTrue( largeLevel > smallLevel );
+  }
+
+  @Test
+  public void testRemove() {
+    Geofence fence = new Geofence( "depot", 49.0, 8.4, 150 );
+    index.add( fence );
+
+    Geofence removed = index.remove( "depot" );
+
+    assertSame( fence, removed );
+    assertTrue( index.getFences( 49.0, 8.4 ).isEmpty() );
+    assertNull( index.get( "depot" ) );
+  }
+
+  @Test
+  public void testRemoveUnknownFence() {
+    assertNull( index.remove( "depot" ) );
+  }
+
+  @Test
+  public void testAddReplacesFenceWithSameId() {
+    index.add( new Geofence( "depot", 49.0, 8.4, 150 ) );
+    Geofence fence = new Geofence( "depot", 50.0, 8.4, 150 );
+
+    index.add( fence );
+
+    assertEquals( 1, index.size() );
+    assertTrue( index.getFences( 49.0, 8.4 ).isEmpty() );
+    assertSame( fence, index.getFences( 50.0, 8.4 ).get( 0 ) );
+  }
+
+  @Test
+  public void testFindsFencesAmongManyFences() {
+    for( int i = 0; i < 100; i++ ) {
+      for( int j = 0; j < 100; j++ ) {
+        index.add( new Geofence( i + ":" + j, 40 + i * 0.1, j * 0.1, 1000 ) );
+      }
+    }
+
+    List<Geofence> fences = index.getFences( 45.0, 5.0 );
+
+    assertEquals( 10000, index.size() );
+    assertEquals( 1, fences.size() );
+    assertEquals( "50:50", fences.get( 0 ).getId() );
+  }
+
+}
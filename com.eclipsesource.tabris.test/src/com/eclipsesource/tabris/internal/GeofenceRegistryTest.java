@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.eclipse.rap.rwt.testfixture.Fixture;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.eclipsesource.tabris.geolocation.Geofence;
+
+
+public class GeofenceRegistryTest {
+
+  @Before
+  public void setUp() {
+    Fixture.setUp();
+  }
+
+  @After
+  public void tearDown() {
+    Fixture.tearDown();
+  }
+
+  @Test
+  public void testGetInstanceIsApplicationScoped() {
+    GeofenceRegistry registry = GeofenceRegistry.getInstance();
+
+    assertSame( registry, GeofenceRegistry.getInstance() );
+  }
+
+  @Test
+  public void testAddFence() {
+    GeofenceRegistry registry = new GeofenceRegistry();
+    Geofence fence = new Geofence( "depot", 49.0, 8.4, 150 );
+
+    registry.addFence( fence );
+
+    assertSame( fence, registry.getFence( "depot" ) );
+    assertSame( fence, registry.getFences( 49.0, 8.4 ).get( 0 ) );
+  }
+
+  @Test
+  public void testRemoveFence() {
+    GeofenceRegistry registry = new GeofenceRegistry();
+    registry.addFence( new Geofence( "depot", 49.0, 8.4, 150 ) );
+
+    registry.removeFence( "depot" );
+
+    assertNull( registry.getFence( "depot" ) );
+    assertTrue( registry.getFences( 49.0, 8.4 ).isEmpty() );
+  }
+
+  @Test
+  public void testGetFencesReturnsCopy() {
+    GeofenceRegistry registry = new GeofenceRegistry();
+    registry.addFence( new Geofence( "depot", 49.0, 8.4, 150 ) );
+
+    List<Geofence> fences = registry.getFences();
+    registry.addFence( new Geofence( "store", 50.0, 8.4, 150 ) );
+
+    assertEquals( 1, fences.size() );
+    assertEquals( 2, registry.getFences().size() );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testAddFenceFailsWithNull() {
+    new GeofenceRegistry().addFence( null );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testRemoveFenceFailsWithNull() {
+    new GeofenceRegistry().removeFence( null );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testGetFenceFailsWithNull() {
+    new GeofenceRegistry().getFence( null );
+  }
+
+}
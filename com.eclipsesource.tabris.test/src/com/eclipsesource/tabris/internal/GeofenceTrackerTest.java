@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import com.eclipsesource.tabris.geolocation.Coordinates;
+import com.eclipsesource.tabris.geolocation.Geofence;
+import com.eclipsesource.tabris.geolocation.GeofenceListener;
+import com.eclipsesource.tabris.geolocation.Position;
+
+
+public class GeofenceTrackerTest {
+
+  private GeofenceTracker tracker;
+  private GeofenceListener listener;
+  private Geofence fence;
+  private Position position;
+
+  @Before
+  public void setUp() {
+    tracker = new GeofenceTracker();
+    listener = mock( GeofenceListener.class );
+    tracker.addListener( listener );
+    fence = new Geofence( "depot", 49.0, 8.4, 150 );
+    position = new Position( new Coordinates( 49.0, 8.4, -1, -1, -1, -1, -1 ), new Date() );
+  }
+
+  @Test
+  public void testIsSerializable() {
+    assertTrue( Serializable.class.isAssignableFrom( GeofenceTracker.class ) );
+  }
+
+  @Test
+  public void testHasListeners() {
+    assertTrue( tracker.hasListeners() );
+  }
+
+  @Test
+  public void testHasNoListenersAfterRemove() {
+    tracker.removeListener( listener );
+
+    assertFalse( tracker.hasListeners() );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testAddListenerFailsWithNull() {
+    tracker.addListener( null );
+  }
+
+  @Test
+  public void testNotifiesEnteredFence() {
+    tracker.update( position, Arrays.asList( fence ) );
+
+    verify( listener ).fenceEntered( fence, position );
+  }
+
+  @Test
+  public void testNotifiesEnteredFenceOnce() {
+    tracker.update( position, Arrays.asList( fence ) );
+
+    tracker.update( position, Arrays.asList( fence ) );
+
+    verify( listener ).fenceEntered( fence, position );
+    verifyNoMoreInteractions( listener );
+  }
+
+  @Test
+  public void testNotifiesExitedFence() {
+    tracker.update( position, Arrays.asList( fence ) );
+
+    tracker.update( position, new ArrayList<Geofence>() );
+
+    verify( listener ).fenceExited( fence, position );
+  }
+
+  @Test
+  public void testDoesNotNotifyWithoutTransition() {
+    tracker.update( position, new ArrayList<Geofence>() );
+
+    verify( listener, never() ).fenceEntered( any( Geofence.class ), any( Position.class ) );
+    verify( listener, never() ).fenceExited( any( Geofence.class ), any( Position.class ) );
+  }
+
+  @Test
+  public void testNotifiesExitBeforeEnter() {
+    Geofence otherFence = new Geofence( "store", 49.0, 8.4, 150 );
+    tracker.update( position, Arrays.asList( fence ) );
+
+    tracker.update( position, Arrays.asList( otherFence ) );
+
+    InOrder order = inOrder( listener );
+    order.verify( listener ).fenceExited( fence, position );
+    order.verify( listener ).fenceEntered( otherFence, position );
+  }
+
+  @Test
+  public void testDoesNotNotifyRemovedListener() {
+    tracker.removeListener( listener );
+
+    tracker.update( position, Arrays.asList( fence ) );
+
+    verify( listener, never() ).fenceEntered( any( Geofence.class ), any( Position.class ) );
+  }
+
+  @Test
+  public void testTracksFencesById() {
+    List<Geofence> fences = new ArrayList<Geofence>();
+    fences.add( fence );
+    tracker.update( position, fences );
+
+    tracker.update( position, Arrays.asList( new Geofence( "depot", 49.0, 8.4, 200 ) ) );
+
+    verify( listener ).fenceEntered( fence, position );
+    verifyNoMoreInteractions( listener );
+  }
+
+}
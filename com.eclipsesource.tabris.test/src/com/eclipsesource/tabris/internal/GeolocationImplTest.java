@@ -12,8 +12,13 @@ package com.eclipsesource.tabris.internal;
 
 import static com.eclipsesource.tabris.test.TabrisTestUtil.mockServiceObject;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -21,7 +26,9 @@ import java.io.Serializable;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.List;
 
+import org.eclipse.rap.json.JsonArray;
 import org.eclipse.rap.json.JsonObject;
 import org.eclipse.rap.rwt.lifecycle.PhaseId;
 import org.eclipse.rap.rwt.remote.RemoteObject;
@@ -32,6 +39,9 @@ import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 
 import com.eclipsesource.tabris.geolocation.Coordinates;
+import com.eclipsesource.tabris.geolocation.Geofence;
+import com.eclipsesource.tabris.geolocation.GeofenceListener;
+import com.eclipsesource.tabris.geolocation.GeolocationBatchListener;
 import com.eclipsesource.tabris.geolocation.GeolocationListener;
 import com.eclipsesource.tabris.geolocation.GeolocationOptions;
 import com.eclipsesource.tabris.geolocation.Position;
@@ -40,6 +50,7 @@ import com.eclipsesource.tabris.geolocation.PositionError.PositionErrorCode;
 import com.eclipsesource.tabris.test.TabrisTestUtil;
 
 
+@SuppressWarnings("rawtypes")
 public class GeolocationImplTest {
 
   @Before
@@ -119,6 +130,20 @@ public class GeolocationImplTest {
   }
 
 
+  @Test
+  public void testSetsStreamOptionsWhenWatch() {
+    RemoteObject remoteObject = mockServiceObject();
+    GeolocationImpl geolocation = new GeolocationImpl();
+    GeolocationOptions options = new GeolocationOptions();
+    options.setMinimumDistance( 12.5 ).setMinimumInterval( 3000 ).setBufferSize( 10 );
+
+    geolocation.watchPosition( options );
+
+    verify( remoteObject ).set( "minimumDistance", 12.5 );
+    verify( remoteObject ).set( "minimumInterval", 3000 );
+    verify( remoteObject ).set( "bufferSize", 10 );
+  }
+
   @Test( expected = IllegalArgumentException.class )
   public void testWatchFailsWithNullOptions() {
     GeolocationImpl geolocation = new GeolocationImpl();
@@ -205,6 +230,198 @@ public class GeolocationImplTest {
     assertPositionData( captor.getAllValues().get( 1 ) );
   }
 
+  @Test
+  public void testDelegatesBufferedPositionsToListener() {
+    GeolocationListener listener = mock( GeolocationListener.class );
+    GeolocationImpl geolocation = new GeolocationImpl();
+    geolocation.addGeolocationListener( listener );
+    geolocation.watchPosition( new GeolocationOptions().setBufferSize( 2 ) );
+
+    TabrisTestUtil.dispatchNotify( geolocation.getRemoteObject(),
+                                   "LocationUpdates",
+                                   createPositionsData( createPositionData(), createPositionData() ) );
+
+    verify( listener, times( 2 ) ).positionReceived( any( Position.class ) );
+  }
+
+  @Test
+  public void testDelegatesBufferedPositionsToBatchListenerOnce() throws ParseException {
+    GeolocationBatchListener listener = mock( GeolocationBatchListener.class );
+    GeolocationImpl geolocation = new GeolocationImpl();
+    geolocation.addGeolocationListener( listener );
+    geolocation.watchPosition( new GeolocationOptions().setBufferSize( 2 ) );
+
+    TabrisTestUtil.dispatchNotify( geolocation.getRemoteObject(),
+                                   "LocationUpdates",
+                                   createPositionsData( createPositionData(), createPositionData() ) );
+
+    ArgumentCaptor<List> captor = ArgumentCaptor.forClass( List.class );
+    verify( listener ).positionsReceived( captor.capture() );
+    verify( listener, never() ).positionReceived( any( Position.class ) );
+    assertEquals( 2, captor.getValue().size() );
+    assertPositionData( ( Position )captor.getValue().get( 1 ) );
+  }
+
+  @Test
+  public void testDelegatesSinglePositionToBatchListener() {
+    GeolocationBatchListener listener = mock( GeolocationBatchListener.class );
+    GeolocationImpl geolocation = new GeolocationImpl();
+    geolocation.addGeolocationListener( listener );
+    geolocation.watchPosition( new GeolocationOptions() );
+
+    TabrisTestUtil.dispatchNotify( geolocation.getRemoteObject(), "LocationUpdate", createPositionData() );
+
+    ArgumentCaptor<List> captor = ArgumentCaptor.forClass( List.class );
+    verify( listener ).positionsReceived( captor.capture() );
+    assertEquals( 1, captor.getValue().size() );
+  }
+
+  @Test
+  public void testWatchFiltersPositionsByDistance() {
+    GeolocationListener listener = mock( GeolocationListener.class );
+    GeolocationImpl geolocation = new GeolocationImpl();
+    geolocation.addGeolocationListener( listener );
+    geolocation.watchPosition( new GeolocationOptions().setMinimumDistance( 100 ) );
+    JsonObject nearPosition = createPositionData( "2012-03-12T10:40:14+0100", 50.0, 8.0005 );
+    JsonObject farPosition = createPositionData( "2012-03-12T10:40:15+0100", 50.0, 8.01 );
+
+    TabrisTestUtil.dispatchNotify( geolocation.getRemoteObject(),
+                                   "LocationUpdates",
+                                   createPositionsData( createPositionData( "2012-03-12T10:40:13+0100", 50.0, 8.0 ),
+                                                        nearPosition,
+                                                        farPosition ) );
+
+    ArgumentCaptor<Position> captor = ArgumentCaptor.forClass( Position.class );
+    verify( listener, times( 2 ) ).positionReceived( captor.capture() );
+    assertEquals( 8.01, captor.getAllValues().get( 1 ).getCoords().getLongitude(), 0 );
+  }
+
+  @Test
+  public void testWatchFiltersPositionsByInterval() {
+    GeolocationListener listener = mock( GeolocationListener.class );
+    GeolocationImpl geolocation = new GeolocationImpl();
+    geolocation.addGeolocationListener( listener );
+    geolocation.watchPosition( new GeolocationOptions().setMinimumInterval( 5000 ) );
+    dispatchPosition( geolocation, createPositionData( "2012-03-12T10:40:13+0100", 50.0, 8.0 ) );
+
+    dispatchPosition( geolocation, createPositionData( "2012-03-12T10:40:14+0100", 50.0, 8.1 ) );
+    dispatchPosition( geolocation, createPositionData( "2012-03-12T10:40:18+0100", 50.0, 8.2 ) );
+
+    verify( listener, times( 2 ) ).positionReceived( any( Position.class ) );
+  }
+
+  @Test
+  public void testDoesNotNotifyWhenAllPositionsAreFiltered() {
+    GeolocationBatchListener listener = mock( GeolocationBatchListener.class );
+    GeolocationImpl geolocation = new GeolocationImpl();
+    geolocation.addGeolocationListener( listener );
+    geolocation.watchPosition( new GeolocationOptions().setMinimumInterval( 5000 ) );
+    dispatchPosition( geolocation, createPositionData( "2012-03-12T10:40:13+0100", 50.0, 8.0 ) );
+
+    dispatchPosition( geolocation, createPositionData( "2012-03-12T10:40:14+0100", 50.0, 8.1 ) );
+
+    verify( listener, times( 1 ) ).positionsReceived( anyListOf( Position.class ) );
+  }
+
+  @Test
+  public void testDetermineCurrentPositionDoesNotFilter() {
+    GeolocationListener listener = mock( GeolocationListener.class );
+    GeolocationImpl geolocation = new GeolocationImpl();
+    geolocation.addGeolocationListener( listener );
+    geolocation.watchPosition( new GeolocationOptions().setMinimumInterval( 5000 ) );
+    dispatchPosition( geolocation, createPositionData( "2012-03-12T10:40:13+0100", 50.0, 8.0 ) );
+
+    geolocation.determineCurrentPosition( new GeolocationOptions() );
+    dispatchPosition( geolocation, createPositionData( "2012-03-12T10:40:14+0100", 50.0, 8.1 ) );
+
+    verify( listener, times( 2 ) ).positionReceived( any( Position.class ) );
+  }
+
+  @Test( expected = IllegalStateException.class )
+  public void testFailsWithInvalidTimestamp() {
+    GeolocationImpl geolocation = new GeolocationImpl();
+    geolocation.addGeolocationListener( mock( GeolocationListener.class ) );
+
+    dispatchPosition( geolocation, createPositionData( "2012-03-12 10:40:13", 50.0, 8.0 ) );
+  }
+
+  @Test
+  public void testGetGeofencesReturnsApplicationWideInstance() {
+    GeolocationImpl geolocation = new GeolocationImpl();
+
+    assertSame( GeofenceRegistry.getInstance(), geolocation.getGeofences() );
+  }
+
+  @Test
+  public void testNotifiesGeofenceListenerOnTransitions() {
+    GeofenceListener listener = mock( GeofenceListener.class );
+    GeolocationImpl geolocation = new GeolocationImpl();
+    Geofence fence = new Geofence( "depot", 50.0, 8.0, 100 );
+    geolocation.getGeofences().addFence( fence );
+    geolocation.addGeofenceListener( listener );
+
+    dispatchPosition( geolocation, createPositionData( "2012-03-12T10:40:13+0100", 50.0, 8.0 ) );
+    dispatchPosition( geolocation, createPositionData( "2012-03-12T10:40:14+0100", 50.0, 8.0001 ) );
+    dispatchPosition( geolocation, createPositionData( "2012-03-12T10:40:15+0100", 50.0, 8.01 ) );
+
+    verify( listener ).fenceEntered( eq( fence ), any( Position.class ) );
+    verify( listener ).fenceExited( eq( fence ), any( Position.class ) );
+  }
+
+  @Test
+  public void testChecksGeofencesForFilteredPositions() {
+    GeofenceListener listener = mock( GeofenceListener.class );
+    GeolocationImpl geolocation = new GeolocationImpl();
+    geolocation.getGeofences().addFence( new Geofence( "depot", 50.0, 8.01, 100 ) );
+    geolocation.addGeofenceListener( listener );
+    geolocation.watchPosition( new GeolocationOptions().setMinimumInterval( 5000 ) );
+    dispatchPosition( geolocation, createPositionData( "2012-03-12T10:40:13+0100", 50.0, 8.0 ) );
+
+    dispatchPosition( geolocation, createPositionData( "2012-03-12T10:40:14+0100", 50.0, 8.01 ) );
+
+    verify( listener ).fenceEntered( any( Geofence.class ), any( Position.class ) );
+  }
+
+  @Test
+  public void testDoesNotNotifyRemovedGeofenceListener() {
+    GeofenceListener listener = mock( GeofenceListener.class );
+    GeolocationImpl geolocation = new GeolocationImpl();
+    geolocation.getGeofences().addFence( new Geofence( "depot", 50.0, 8.0, 100 ) );
+    geolocation.addGeofenceListener( listener );
+
+    geolocation.removeGeofenceListener( listener );
+    dispatchPosition( geolocation, createPositionData( "2012-03-12T10:40:13+0100", 50.0, 8.0 ) );
+
+    verify( listener, never() ).fenceEntered( any( Geofence.class ), any( Position.class ) );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testAddGeofenceListenerFailsWithNull() {
+    new GeolocationImpl().addGeofenceListener( null );
+  }
+
+  private void dispatchPosition( GeolocationImpl geolocation, JsonObject properties ) {
+    TabrisTestUtil.dispatchNotify( geolocation.getRemoteObject(), "LocationUpdate", properties );
+  }
+
+  private JsonObject createPositionsData( JsonObject... positions ) {
+    JsonArray positionsData = new JsonArray();
+    for( JsonObject position : positions ) {
+      positionsData.add( position );
+    }
+    JsonObject properties = new JsonObject();
+    properties.add( "positions", positionsData );
+    return properties;
+  }
+
+  private JsonObject createPositionData( String timestamp, double latitude, double longitude ) {
+    JsonObject properties = createPositionData();
+    properties.set( "timestamp", timestamp );
+    properties.set( "latitude", latitude );
+    properties.set( "longitude", longitude );
+    return properties;
+  }
+
   private JsonObject createPositionData() {
     JsonObject properties = new JsonObject();
     properties.add( "timestamp", "2012-03-12T10:40:13+0100" );
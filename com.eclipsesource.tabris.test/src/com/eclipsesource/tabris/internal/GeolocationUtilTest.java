@@ -0,0 +1,53 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com.eclipsesource.tabris.geolocation.Coordinates;
+
+
+public class GeolocationUtilTest {
+
+  @Test
+  public void testDistanceToSameLocationIsZero() {
+    double distance = GeolocationUtil.getDistance( 49.0, 8.4, 49.0, 8.4 );
+
+    assertEquals( 0, distance, 0 );
+  }
+
+  @Test
+  public void testDistanceOfOneDegreeLatitude() {
+    double distance = GeolocationUtil.getDistance( 0, 0, 1, 0 );
+
+    assertEquals( 111195, distance, 1 );
+  }
+
+  @Test
+  public void testDistanceIsSymmetric() {
+    double distance = GeolocationUtil.getDistance( 49.0, 8.4, 52.5, 13.4 );
+
+    assertEquals( GeolocationUtil.getDistance( 52.5, 13.4, 49.0, 8.4 ), distance, 0.001 );
+  }
+
+  @Test
+  public void testDistanceWithCoordinates() {
+    Coordinates from = new Coordinates( 49.0, 8.4, 0, 0, 0, 0, 0 );
+    Coordinates to = new Coordinates( 52.5, 13.4, 0, 0, 0, 0, 0 );
+
+    double distance = GeolocationUtil.getDistance( from, to );
+
+    assertEquals( GeolocationUtil.getDistance( 49.0, 8.4, 52.5, 13.4 ), distance, 0 );
+  }
+
+}
@@ -0,0 +1,233 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.rap.rwt.testfixture.Fixture;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Event;
+import org.eclipse.swt.widgets.Listener;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.Tree;
+import org.eclipse.swt.widgets.TreeItem;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.eclipsesource.tabris.widgets.enhancement.TreeItemProvider;
+
+
+public class LazyTreeLoaderTest {
+
+  private Shell shell;
+  private Tree tree;
+  private TestTreeItemProvider provider;
+
+  @Before
+  public void setUp() {
+    Fixture.setUp();
+    shell = new Shell( new Display() );
+    tree = new Tree( shell, SWT.VIRTUAL );
+    provider = new TestTreeItemProvider( 1000 );
+  }
+
+  @After
+  public void tearDown() {
+    Fixture.tearDown();
+  }
+
+  @Test
+  public void testIsSerializable() {
+    assertTrue( Serializable.class.isAssignableFrom( LazyTreeLoader.class ) );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testFailsWithNonVirtualTree() {
+    new LazyTreeLoader( new Tree( shell, SWT.NONE ), provider, 10, 1, 5 );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testFailsWithNullProvider() {
+    new LazyTreeLoader( tree, null, 10, 1, 5 );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testFailsWithZeroPageSize() {
+    new LazyTreeLoader( tree, provider, 0, 1, 5 );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testFailsWithNegativePrefetchPages() {
+    new LazyTreeLoader( tree, provider, 10, -1, 5 );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testFailsWhenMaxCachedPagesDoNotCoverPrefetch() {
+    new LazyTreeLoader( tree, provider, 10, 2, 2 );
+  }
+
+  @Test
+  public void testInstallSetsItemCount() {
+    LazyTreeLoader loader = new LazyTreeLoader( tree, provider, 10, 1, 5 );
+
+    loader.install();
+
+    assertEquals( 1000, tree.getItemCount() );
+  }
+
+  @Test
+  public void testInstallAddsSetDataListener() {
+    LazyTreeLoader loader = new LazyTreeLoader( tree, provider, 10, 1, 5 );
+
+    loader.install();
+
+    assertTrue( containsListener( tree.getListeners( SWT.SetData ), loader ) );
+  }
+
+  @Test
+  public void testLoadsRequestedAndPrefetchedPages() {
+    LazyTreeLoader loader = createInstalledLoader( 10, 1, 5 );
+
+    requestItem( loader, 25 );
+
+    assertEquals( 20, provider.updatedIndices.size() );
+    assertEquals( Integer.valueOf( 20 ), provider.updatedIndices.get( 0 ) );
+    assertEquals( Integer.valueOf( 39 ), provider.updatedIndices.get( 19 ) );
+    assertEquals( "item 25", tree.getItem( 25 ).getText() );
+  }
+
+  @Test
+  public void testDoesNotLoadCachedPagesAgain() {
+    LazyTreeLoader loader = createInstalledLoader( 10, 1, 5 );
+    requestItem( loader, 25 );
+
+    requestItem( loader, 26 );
+
+    assertEquals( 20, provider.updatedIndices.size() );
+  }
+
+  @Test
+  public void testDoesNotLoadBeyondItemCount() {
+    LazyTreeLoader loader = createInstalledLoader( 10, 3, 5 );
+
+    requestItem( loader, 995 );
+
+    assertEquals( 5, provider.updatedIndices.size() );
+    assertEquals( 1, loader.getCachedPageCount() );
+  }
+
+  @Test
+  public void testSetsChildItemCount() {
+    provider.childCount = 3;
+    LazyTreeLoader loader = createInstalledLoader( 10, 0, 5 );
+
+    requestItem( loader, 0 );
+
+    assertEquals( 3, tree.getItem( 0 ).getItemCount() );
+  }
+
+  @Test
+  public void testLoadsChildPagesOfParentItem() {
+    provider.childCount = 30;
+    LazyTreeLoader loader = createInstalledLoader( 10, 0, 5 );
+    requestItem( loader, 0 );
+    TreeItem parentItem = tree.getItem( 0 );
+    provider.updatedIndices.clear();
+
+    requestItem( loader, parentItem.getItem( 15 ), 15 );
+
+    assertEquals( 10, provider.updatedIndices.size() );
+    assertEquals( Integer.valueOf( 10 ), provider.updatedIndices.get( 0 ) );
+  }
+
+  @Test
+  public void testEvictsLeastRecentlyRequestedPages() {
+    LazyTreeLoader loader = createInstalledLoader( 10, 0, 2 );
+    requestItem( loader, 0 );
+    requestItem( loader, 10 );
+
+    requestItem( loader, 20 );
+    provider.updatedIndices.clear();
+    requestItem( loader, 10 );
+
+    assertEquals( 2, loader.getCachedPageCount() );
+    assertTrue( provider.updatedIndices.isEmpty() );
+  }
+
+  @Test
+  public void testLoadsEvictedPageAgain() {
+    LazyTreeLoader loader = createInstalledLoader( 10, 0, 1 );
+    requestItem( loader, 0 );
+    requestItem( loader, 10 );
+    provider.updatedIndices.clear();
+
+    requestItem( loader, 0 );
+
+    assertEquals( 10, provider.updatedIndices.size() );
+  }
+
+  private LazyTreeLoader createInstalledLoader( int pageSize, int prefetchPages, int maxCachedPages ) {
+    LazyTreeLoader loader = new LazyTreeLoader( tree, provider, pageSize, prefetchPages, maxCachedPages );
+    loader.install();
+    return loader;
+  }
+
+  private void requestItem( LazyTreeLoader loader, int index ) {
+    requestItem( loader, tree.getItem( index ), index );
+  }
+
+  private void requestItem( LazyTreeLoader loader, TreeItem item, int index ) {
+    Event event = new Event();
+    event.item = item;
+    event.index = index;
+    loader.handleEvent( event );
+  }
+
+  private boolean containsListener( Listener[] listeners, Listener listener ) {
+    for( Listener candidate : listeners ) {
+      if( candidate == listener ) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static class TestTreeItemProvider implements TreeItemProvider {
+
+    final List<Integer> updatedIndices;
+    final int rootCount;
+    int childCount;
+
+    TestTreeItemProvider( int rootCount ) {
+      this.rootCount = rootCount;
+      this.updatedIndices = new ArrayList<Integer>();
+    }
+
+    @Override
+    public int getItemCount( TreeItem parent ) {
+      return parent == null ? rootCount : childCount;
+    }
+
+    @Override
+    public void updateItem( TreeItem item, int index ) {
+      updatedIndices.add( Integer.valueOf( index ) );
+      item.setText( "item " + index );
+    }
+  }
+
+}
@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Date;
+
+import org.junit.Test;
+
+import com.eclipsesource.tabris.geolocation.Coordinates;
+import com.eclipsesource.tabris.geolocation.GeolocationOptions;
+import com.eclipsesource.tabris.geolocation.Position;
+
+
+public class PositionFilterTest {
+
+  @Test
+  public void testAcceptsFirstPosition() {
+    PositionFilter filter = new PositionFilter( new GeolocationOptions().setMinimumDistance( 100 )
+                                                                        .setMinimumInterval( 1000 ) );
+
+    assertTrue( filter.accept( createPosition( 0, 0 ) ) );
+  }
+
+  @Test
+  public void testAcceptsAllPositionsWithDefaultOptions() {
+    PositionFilter filter = new PositionFilter( new GeolocationOptions() );
+    filter.accept( createPosition( 0, 0 ) );
+
+    assertTrue( filter.accept( createPosition( 0, 0 ) ) );
+  }
+
+  @Test
+  public void testRejectsNearPosition() {
+    PositionFilter filter = new PositionFilter( new GeolocationOptions().setMinimumDistance( 100 ) );
+    filter.accept( createPosition( 0, 0 ) );
+
+    assertFalse( filter.accept( createPosition( 0.0005, 1000 ) ) );
+  }
+
+  @Test
+  public void testAcceptsFarPosition() {
+    PositionFilter filter = new PositionFilter( new GeolocationOptions().setMinimumDistance( 100 ) );
+    filter.accept( createPosition( 0, 0 ) );
+
+    assertTrue( filter.accept( createPosition( 0.001, 1000 ) ) );
+  }
+
+  @Test
+  public void testComparesWithLastAcceptedPosition() {
+    PositionFilter filter = new PositionFilter( new GeolocationOptions().setMinimumDistance( 100 ) );
+    filter.accept( createPosition( 0, 0 ) );
+    filter.accept( createPosition( 0.0006, 1000 ) );
+
+    assertTrue( filter.accept( createPosition( 0.0012, 2000 ) ) );
+  }
+
+  @Test
+  public void testRejectsEarlyPosition() {
+    PositionFilter filter = new PositionFilter( new GeolocationOptions().setMinimumInterval( 5000 ) );
+    filter.accept( createPosition( 0, 0 ) );
+
+    assertFalse( filter.accept( createPosition( 1, 4999 ) ) );
+  }
+
+  @Test
+  public void testAcceptsLatePosition() {
+    PositionFilter filter = new PositionFilter( new GeolocationOptions().setMinimumInterval( 5000 ) );
+    filter.accept( createPosition( 0, 0 ) );
+
+    assertTrue( filter.accept( createPosition( 0, 5000 ) ) );
+  }
+
+  private Position createPosition( double latitude, long time ) {
+    return new Position( new Coordinates( latitude, 0, 0, 0, 0, 0, 0 ), new Date( time ) );
+  }
+
+}
@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+
+import org.eclipse.rap.rwt.RWT;
+import org.eclipse.rap.rwt.testfixture.Fixture;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class SignedObjectSerializerTest {
+
+  @Before
+  public void setUp() {
+    Fixture.setUp();
+  }
+
+  @After
+  public void tearDown() {
+    Fixture.tearDown();
+  }
+
+  @Test
+  public void testIsSerializable() {
+    assertTrue( Serializable.class.isAssignableFrom( SignedObjectSerializer.class ) );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testFailsWithNullSigningKey() {
+    new SignedObjectSerializer( null );
+  }
+
+  @Test
+  public void testDeserializesSerializedObject() throws IOException {
+    SignedObjectSerializer serializer = new SignedObjectSerializer();
+    ArrayList<String> list = new ArrayList<String>();
+    list.add( "foo" );
+
+    Object result = serializer.deserialize( serializer.serialize( list ) );
+
+    assertEquals( list, result );
+  }
+
+  @Test
+  public void testSharesSigningKeyWithinApplication() throws IOException {
+    byte[] bytes = new SignedObjectSerializer().serialize( "foo" );
+
+    Object result = new SignedObjectSerializer().deserialize( bytes );
+
+    assertEquals( "foo", result );
+  }
+
+  @Test
+  public void testUsesConfiguredSigningKey() throws IOException {
+    byte[] key = new byte[] { 1, 2, 3 };
+    RWT.getApplicationContext().setAttribute( SignedObjectSerializer.SIGNING_KEY_ATTRIBUTE, key );
+
+    byte[] bytes = new SignedObjectSerializer().serialize( "foo" );
+
+    assertEquals( "foo", new SignedObjectSerializer( key ).deserialize( bytes ) );
+  }
+
+  @Test
+  public void testIgnoresObjectSignedWithOtherKey() throws IOException {
+    SignedObjectSerializer serializer = new SignedObjectSerializer( new byte[] { 1, 2, 3 } );
+    SignedObjectSerializer otherSerializer = new SignedObjectSerializer( new byte[] { 3, 2, 1 } );
+
+    assertNull( serializer.deserialize( otherSerializer.serialize( "foo" ) ) );
+  }
+
+  @Test
+  public void testIgnoresTamperedObject() throws IOException {
+    SignedObjectSerializer serializer = new SignedObjectSerializer();
+    byte[] bytes = serializer.serialize( "foo" );
+    bytes[ bytes.length - 1 ]++;
+
+    assertNull( serializer.deserialize( bytes ) );
+  }
+
+  @Test
+  public void testIgnoresShortValue() {
+    SignedObjectSerializer serializer = new SignedObjectSerializer();
+
+    assertNull( serializer.deserialize( new byte[] { 1, 2, 3 } ) );
+  }
+
+  @Test
+  public void testIgnoresNull() {
+    SignedObjectSerializer serializer = new SignedObjectSerializer();
+
+    assertNull( serializer.deserialize( null ) );
+  }
+
+  @Test( expected = IOException.class )
+  public void testSerializeFailsWithNotSerializableContent() throws IOException {
+    SignedObjectSerializer serializer = new SignedObjectSerializer();
+    ArrayList<Object> list = new ArrayList<Object>();
+    list.add( new Object() );
+
+    serializer.serialize( list );
+  }
+}
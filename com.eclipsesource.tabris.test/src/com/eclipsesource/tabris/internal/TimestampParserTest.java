@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal;
+
+import static org.junit.Assert.assertEquals;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+
+import org.junit.Test;
+
+
+public class TimestampParserTest {
+
+  @Test
+  public void testParseMatchesSimpleDateFormat() throws ParseException {
+    SimpleDateFormat format = new SimpleDateFormat( "yyyy-MM-dd'T'HH:mm:ssZ" );
+
+    long time = TimestampParser.parse( "2012-03-12T10:40:13+0100" );
+
+    assertEquals( format.parse( "2012-03-12T10:40:13+0100" ).getTime(), time );
+  }
+
+  @Test
+  public void testParseLeapDay() throws ParseException {
+    SimpleDateFormat format = new SimpleDateFormat( "yyyy-MM-dd'T'HH:mm:ssZ" );
+
+    long time = TimestampParser.parse( "2012-02-29T23:59:59-0530" );
+
+    assertEquals( format.parse( "2012-02-29T23:59:59-0530" ).getTime(), time );
+  }
+
+  @Test
+  public void testParseWithUtcDesignator() throws ParseException {
+    long time = TimestampParser.parse( "1970-01-01T00:00:01Z" );
+
+    assertEquals( 1000, time );
+  }
+
+  @Test
+  public void testParseWithColonInZoneOffset() throws ParseException {
+    long time = TimestampParser.parse( "2012-03-12T10:40:13+01:00" );
+
+    assertEquals( TimestampParser.parse( "2012-03-12T10:40:13+0100" ), time );
+  }
+
+  @Test( expected = ParseException.class )
+  public void testParseFailsWithTooShortValue() throws ParseException {
+    TimestampParser.parse( "2012-03-12T10:40" );
+  }
+
+  @Test( expected = ParseException.class )
+  public void testParseFailsWithWrongSeparator() throws ParseException {
+    TimestampParser.parse( "2012-03-12 10:40:13+0100" );
+  }
+
+  @Test( expected = ParseException.class )
+  public void testParseFailsWithNonDigit() throws ParseException {
+    TimestampParser.parse( "2012-03-1aT10:40:13+0100" );
+  }
+
+  @Test( expected = ParseException.class )
+  public void testParseFailsWithMonthOutOfRange() throws ParseException {
+    TimestampParser.parse( "2012-13-12T10:40:13+0100" );
+  }
+
+  @Test( expected = ParseException.class )
+  public void testParseFailsWithMissingZone() throws ParseException {
+    TimestampParser.parse( "2012-03-12T10:40:13" );
+  }
+
+}
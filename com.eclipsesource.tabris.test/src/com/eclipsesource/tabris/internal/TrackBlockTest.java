@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Serializable;
+
+import org.junit.Test;
+
+
+public class TrackBlockTest {
+
+  @Test
+  public void testIsSerializable() {
+    assertTrue( Serializable.class.isAssignableFrom( TrackBlock.class ) );
+  }
+
+  @Test
+  public void testDecodesAddedRows() {
+    TrackBlock block = new TrackBlock( 2, 10 );
+
+    block.add( new long[] { 1000, -5 } );
+    block.add( new long[] { 2000, 7 } );
+    block.add( new long[] { 1500, Long.MAX_VALUE } );
+
+    assertArrayEquals( new long[] { 1000, 2000, 1500 }, block.decode( 0 ) );
+    assertArrayEquals( new long[] { -5, 7, Long.MAX_VALUE }, block.decode( 1 ) );
+  }
+
+  @Test
+  public void testDecodesExtremeValues() {
+    TrackBlock block = new TrackBlock( 1, 10 );
+
+    block.add( new long[] { Long.MIN_VALUE } );
+    block.add( new long[] { Long.MAX_VALUE } );
+    block.add( new long[] { 0 } );
+
+    assertArrayEquals( new long[] { Long.MIN_VALUE, Long.MAX_VALUE, 0 }, block.decode( 0 ) );
+  }
+
+  @Test
+  public void testEncodesSmallDeltasWithOneByte() {
+    TrackBlock block = new TrackBlock( 1, 10 );
+
+    for( int i = 0; i < 10; i++ ) {
+      block.add( new long[] { i * 10 } );
+    }
+
+    assertEquals( 10, block.getEncodedLength() );
+  }
+
+  @Test
+  public void testGrowsColumns() {
+    TrackBlock block = new TrackBlock( 1, 100 );
+
+    for( int i = 0; i < 100; i++ ) {
+      block.add( new long[] { i * 1000000000L } );
+    }
+
+    assertEquals( 100, block.size() );
+    assertEquals( 99 * 1000000000L, block.decode( 0 )[ 99 ] );
+  }
+
+  @Test
+  public void testDecodeAfterTrim() {
+    TrackBlock block = new TrackBlock( 1, 2 );
+    block.add( new long[] { 3 } );
+    block.add( new long[] { 4 } );
+
+    block.trim();
+
+    assertArrayEquals( new long[] { 3, 4 }, block.decode( 0 ) );
+  }
+
+  @Test
+  public void testIsFull() {
+    TrackBlock block = new TrackBlock( 1, 2 );
+    block.add( new long[] { 1 } );
+
+    assertFalse( block.isFull() );
+    block.add( new long[] { 2 } );
+    assertTrue( block.isFull() );
+  }
+
+  @Test
+  public void testOverlaps() {
+    TrackBlock block = new TrackBlock( 1, 10 );
+    block.add( new long[] { 1000 } );
+    block.add( new long[] { 2000 } );
+
+    assertTrue( block.overlaps( 2000, 3000 ) );
+    assertTrue( block.overlaps( 0, 1001 ) );
+    assertFalse( block.overlaps( 0, 1000 ) );
+    assertFalse( block.overlaps( 2001, 3000 ) );
+  }
+
+  @Test
+  public void testEmptyBlockDoesNotOverlap() {
+    TrackBlock block = new TrackBlock( 1, 10 );
+
+    assertFalse( block.overlaps( Long.MIN_VALUE, Long.MAX_VALUE ) );
+  }
+
+}
@@ -0,0 +1,199 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.eclipsesource.tabris.geolocation.Coordinates;
+import com.eclipsesource.tabris.geolocation.Position;
+
+
+public class TrackStoreTest {
+
+  @Test
+  public void testIsSerializable() {
+    assertTrue( Serializable.class.isAssignableFrom( TrackStore.class ) );
+  }
+
+  @Test
+  public void testRestoresPosition() {
+    TrackStore store = new TrackStore( 10 );
+
+    store.add( new Position( new Coordinates( 49.0123456, -8.4, 120.5, 5, -1, 90.25, 3.2 ), new Date( 1000 ) ) );
+
+    Position position = store.getPositions( Long.MIN_VALUE, Long.MAX_VALUE ).get( 0 );
+    Coordinates coords = position.getCoords();
+    assertEquals( 1000, position.getTimestamp().getTime() );
+    assertEquals( 49.0123456, coords.getLatitude(), 0.00000001 );
+    assertEquals( -8.4, coords.getLongitude(), 0.00000001 );
+    assertEquals( 120.5, coords.getAltitude(), 0.001 );
+    assertEquals( 5, coords.getAccuracy(), 0.001 );
+    assertEquals( -1, coords.getAltitudeAccuracy(), 0 );
+    assertEquals( 90.25, coords.getHeading(), 0.001 );
+    assertEquals( 3.2, coords.getSpeed(), 0.001 );
+  }
+
+  @Test
+  public void testKeepsOrderAcrossBlocks() {
+    TrackStore store = createStore( Integer.MAX_VALUE, TrackStore.BLOCK_SIZE * 2 + 1 );
+
+    List<Position> positions = store.getPositions( Long.MIN_VALUE, Long.MAX_VALUE );
+
+    assertEquals( TrackStore.BLOCK_SIZE * 2 + 1, positions.size() );
+    Position lastPosition = positions.get( TrackStore.BLOCK_SIZE * 2 );
+    assertEquals( TrackStore.BLOCK_SIZE * 2 * 1000L, lastPosition.getTimestamp().getTime() );
+  }
+
+  @Test
+  public void testDropsOldestPositionsWhenCapacityIsExceeded() {
+    TrackStore store = createStore( 10, 25 );
+
+    List<Position> positions = store.getPositions( Long.MIN_VALUE, Long.MAX_VALUE );
+
+    assertEquals( 10, store.size() );
+    assertEquals( 10, positions.size() );
+    assertEquals( 15000, positions.get( 0 ).getTimestamp().getTime() );
+  }
+
+  @Test
+  public void testDropsOldestBlocksWhenCapacityIsExceeded() {
+    TrackStore store = createStore( TrackStore.BLOCK_SIZE, TrackStore.BLOCK_SIZE * 3 );
+
+    List<Position> positions = store.getPositions( Long.MIN_VALUE, Long.MAX_VALUE );
+
+    assertEquals( TrackStore.BLOCK_SIZE, positions.size() );
+    assertEquals( TrackStore.BLOCK_SIZE * 2 * 1000L, positions.get( 0 ).getTimestamp().getTime() );
+  }
+
+  @Test
+  public void testGetPositionsInTimeRange() {
+    TrackStore store = createStore( Integer.MAX_VALUE, 600 );
+
+    List<Position> positions = store.getPositions( 250000, 260000 );
+
+    assertEquals( 10, positions.size() );
+    assertEquals( 250000, positions.get( 0 ).getTimestamp().getTime() );
+    assertEquals( 259000, positions.get( 9 ).getTimestamp().getTime() );
+  }
+
+  @Test
+  public void testGetPositionsInTimeRangeIgnoresDroppedPositions() {
+    TrackStore store = createStore( 10, 25 );
+
+    List<Position> positions = store.getPositions( 0, 20000 );
+
+    assertEquals( 5, positions.size() );
+  }
+
+  @Test
+  public void testClear() {
+    TrackStore store = createStore( 10, 25 );
+
+    store.clear();
+
+    assertEquals( 0, store.size() );
+    assertTrue( store.getPositions( Long.MIN_VALUE, Long.MAX_VALUE ).isEmpty() );
+  }
+
+  @Test
+  public void testEncodedLengthIsCompact() {
+    TrackStore store = createStore( Integer.MAX_VALUE, 1000 );
+
+    assertTrue( store.getEncodedLength() < 1000 * 20 );
+  }
+
+  @Test
+  public void testWritesGpx() throws IOException {
+    TrackStore store = new TrackStore( 10 );
+    store.add( new Position( new Coordinates( 49.5, -8.0000001, 120.5, 5, -1, -1, -1 ), new Date( 1000 ) ) );
+    store.add( new Position( new Coordinates( 49.5, 8, -1, 5, -1, -1, -1 ), new Date( 2000 ) ) );
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    store.writeGpx( out );
+
+    String gpx = out.toString( "UTF-8" );
+    assertTrue( gpx.startsWith( "<?xml" ) );
+    assertTrue( gpx.contains( "<trkpt lat=\"49.5000000\" lon=\"-8.0000001\"><ele>120.50</ele>"
+                              + "<time>1970-01-01T00:00:01.000Z</time></trkpt>" ) );
+    assertTrue( gpx.contains( "<trkpt lat=\"49.5000000\" lon=\"8.0000000\"><time>1970-01-01T00:00:02.000Z</time>" ) );
+    assertTrue( gpx.trim().endsWith( "</gpx>" ) );
+  }
+
+  @Test
+  public void testReadsWrittenBinary() throws IOException {
+    TrackStore store = createStore( 10, 25 );
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    store.writeBinary( out );
+    TrackStore readStore = TrackStore.readBinary( new ByteArrayInputStream( out.toByteArray() ), 100 );
+
+    List<Position> positions = readStore.getPositions( Long.MIN_VALUE, Long.MAX_VALUE );
+    assertEquals( 10, positions.size() );
+    assertEquals( 15000, positions.get( 0 ).getTimestamp().getTime() );
+    assertEquals( 49.0024, positions.get( 9 ).getCoords().getLatitude(), 0.00000001 );
+  }
+
+  @Test
+  public void testBinaryIsCompact() throws IOException {
+    TrackStore store = createStore( Integer.MAX_VALUE, 1000 );
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    store.writeBinary( out );
+
+    assertTrue( out.size() < 1000 * 20 );
+  }
+
+  @Test( expected = IOException.class )
+  public void testReadBinaryFailsWithWrongHeader() throws IOException {
+    TrackStore.readBinary( new ByteArrayInputStream( new byte[] { 'G', 'P', 'X', 1, 0 } ), 10 );
+  }
+
+  @Test( expected = EOFException.class )
+  public void testReadBinaryFailsWithTruncatedData() throws IOException {
+    byte[] data = new byte[] { 'T', 'R', 'K', 1, ( byte )0xFE, ( byte )0xFF, ( byte )0xFF, ( byte )0xFF, 7, 2 };
+
+    TrackStore.readBinary( new ByteArrayInputStream( data ), 10 );
+  }
+
+  @Test
+  public void testVarintRoundTrip() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    TrackStore.writeVarint( out, -1 );
+    TrackStore.writeVarint( out, Long.MAX_VALUE );
+    TrackStore.writeVarint( out, Long.MIN_VALUE );
+
+    ByteArrayInputStream in = new ByteArrayInputStream( out.toByteArray() );
+    assertEquals( -1, TrackStore.readVarint( in ) );
+    assertEquals( Long.MAX_VALUE, TrackStore.readVarint( in ) );
+    assertEquals( Long.MIN_VALUE, TrackStore.readVarint( in ) );
+  }
+
+  private TrackStore createStore( int capacity, int count ) {
+    TrackStore store = new TrackStore( capacity );
+    for( int i = 0; i < count; i++ ) {
+      store.add( new Position( new Coordinates( 49 + i * 0.0001, 8.4, 120, 5, -1, 90, 3 ), new Date( i * 1000L ) ) );
+    }
+    return store;
+  }
+
+}
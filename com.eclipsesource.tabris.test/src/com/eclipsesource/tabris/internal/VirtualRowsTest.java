@@ -0,0 +1,281 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.Serializable;
+
+import org.eclipse.rap.rwt.testfixture.Fixture;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.Rectangle;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.eclipsesource.tabris.widgets.RowProvider;
+
+
+public class VirtualRowsTest {
+
+  private Shell shell;
+
+  @Before
+  public void setUp() {
+    Fixture.setUp();
+    shell = new Shell( new Display() );
+  }
+
+  @After
+  public void tearDown() {
+    Fixture.tearDown();
+  }
+
+  @Test
+  public void testIsSerializable() {
+    assertTrue( Serializable.class.isAssignableFrom( VirtualRows.class ) );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testFailsWithNullProvider() {
+    new VirtualRows( null, 10 );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testFailsWithZeroEstimatedHeight() {
+    new VirtualRows( new TestRowProvider( 10 ), 0 );
+  }
+
+  @Test( expected = IllegalStateException.class )
+  public void testFailsWithNegativeRowCount() {
+    new VirtualRows( new TestRowProvider( -1 ), 10 );
+  }
+
+  @Test
+  public void testUsesEstimatedHeightForExtent() {
+    VirtualRows rows = new VirtualRows( new TestRowProvider( 1000 ), 10 );
+
+    assertEquals( 10000, rows.getExtent() );
+  }
+
+  @Test
+  public void testGetIndexAt() {
+    VirtualRows rows = new VirtualRows( new TestRowProvider( 1000 ), 10 );
+
+    assertEquals( 0, rows.getIndexAt( 0 ) );
+    assertEquals( 0, rows.getIndexAt( 9 ) );
+    assertEquals( 1, rows.getIndexAt( 10 ) );
+    assertEquals( 1000, rows.getIndexAt( 10000 ) );
+  }
+
+  @Test
+  public void testGetOffset() {
+    VirtualRows rows = new VirtualRows( new TestRowProvider( 1000 ), 10 );
+
+    assertEquals( 0, rows.getOffset( 0 ) );
+    assertEquals( 5000, rows.getOffset( 500 ) );
+    assertEquals( 10000, rows.getOffset( 1000 ) );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testGetOffsetFailsWithInvalidIndex() {
+    VirtualRows rows = new VirtualRows( new TestRowProvider( 10 ), 10 );
+
+    rows.getOffset( 11 );
+  }
+
+  @Test
+  public void testGetOffsetUsesMeasuredHeights() {
+    Composite parent = new Composite( shell, SWT.NONE );
+    VirtualRows rows = new VirtualRows( new TestRowProvider( 1000 ), 10 );
+
+    rows.update( parent, 5000, 5100, 100 );
+
+    assertEquals( 5000, rows.getOffset( 500 ) );
+    assertEquals( 5064, rows.getOffset( 501 ) );
+    assertEquals( 2 * 64 + 998 * 10, rows.getOffset( 1000 ) );
+  }
+
+  @Test
+  public void testGetIndexAtUsesMeasuredHeights() {
+    Composite parent = new Composite( shell, SWT.NONE );
+    VirtualRows rows = new VirtualRows( new TestRowProvider( 1000 ), 10 );
+
+    rows.update( parent, 5000, 5100, 100 );
+
+    assertEquals( 499, rows.getIndexAt( 4999 ) );
+    assertEquals( 500, rows.getIndexAt( 5063 ) );
+    assertEquals( 501, rows.getIndexAt( 5064 ) );
+    assertEquals( 502, rows.getIndexAt( 5128 ) );
+  }
+
+  @Test
+  public void testGetOffsetUsesChangedEstimatedHeight() {
+    Composite parent = new Composite( shell, SWT.NONE );
+    VirtualRows rows = new VirtualRows( new TestRowProvider( 1000 ), 10 );
+    rows.update( parent, 0, 200, 100 );
+
+    rows.setEstimatedHeight( 20 );
+
+    assertEquals( 4 * 64 + 996 * 20, rows.getExtent() );
+    assertEquals( 4, rows.getIndexAt( 4 * 64 ) );
+  }
+
+  @Test
+  public void testUpdateCreatesRowsOfWindowOnly() {
+    Composite parent = new Composite( shell, SWT.NONE );
+    VirtualRows rows = new VirtualRows( new TestRowProvider( 1000 ), 10 );
+
+    rows.update( parent, 0, 200, 100 );
+
+    assertNotNull( rows.getRow( 0 ) );
+    assertNotNull( rows.getRow( 3 ) );
+    assertNull( rows.getRow( 4 ) );
+    assertEquals( 4, parent.getChildren().length );
+  }
+
+  @Test
+  public void testUpdateUsesMeasuredHeights() {
+    Composite parent = new Composite( shell, SWT.NONE );
+    VirtualRows rows = new VirtualRows( new TestRowProvider( 1000 ), 10 );
+
+    rows.update( parent, 0, 200, 100 );
+
+    assertEquals( 64, rows.getHeight( 0 ) );
+    assertEquals( 10, rows.getHeight( 4 ) );
+    assertEquals( 4 * 64 + 996 * 10, rows.getExtent() );
+  }
+
+  @Test
+  public void testUpdateSetsRowBounds() {
+    Composite parent = new Composite( shell, SWT.NONE );
+    VirtualRows rows = new VirtualRows( new TestRowProvider( 1000 ), 10 );
+
+    rows.update( parent, 0, 200, 100 );
+
+    assertEquals( new Rectangle( 0, 64, 100, 64 ), rows.getRow( 1 ).getBounds() );
+  }
+
+  @Test
+  public void testUpdateDisposesRowsOutsideOfWindow() {
+    Composite parent = new Composite( shell, SWT.NONE );
+    VirtualRows rows = new VirtualRows( new TestRowProvider( 1000 ), 10 );
+    rows.update( parent, 0, 200, 100 );
+    Control firstRow = rows.getRow( 0 );
+
+    rows.update( parent, 5000, 5200, 100 );
+
+    assertTrue( firstRow.isDisposed() );
+    assertNull( rows.getRow( 0 ) );
+    assertEquals( 4, parent.getChildren().length );
+  }
+
+  @Test
+  public void testUpdateKeepsRowsWithinWindow() {
+    Composite parent = new Composite( shell, SWT.NONE );
+    VirtualRows rows = new VirtualRows( new TestRowProvider( 1000 ), 10 );
+    rows.update( parent, 0, 200, 100 );
+    Control secondRow = rows.getRow( 1 );
+
+    rows.update( parent, 100, 300, 100 );
+
+    assertSame( secondRow, rows.getRow( 1 ) );
+    assertNull( rows.getRow( 0 ) );
+  }
+
+  @Test
+  public void testRefreshReadsRowCount() {
+    TestRowProvider provider = new TestRowProvider( 10 );
+    VirtualRows rows = new VirtualRows( provider, 10 );
+
+    provider.rowCount = 20;
+    rows.refresh();
+
+    assertEquals( 20, rows.getRowCount() );
+  }
+
+  @Test
+  public void testRefreshDisposesRemovedRows() {
+    Composite parent = new Composite( shell, SWT.NONE );
+    TestRowProvider provider = new TestRowProvider( 10 );
+    VirtualRows rows = new VirtualRows( provider, 10 );
+    rows.update( parent, 0, 200, 100 );
+    Control lastRow = rows.getRow( 3 );
+
+    provider.rowCount = 2;
+    rows.refresh();
+
+    assertTrue( lastRow.isDisposed() );
+  }
+
+  @Test
+  public void testGetRowIndex() {
+    Composite parent = new Composite( shell, SWT.NONE );
+    VirtualRows rows = new VirtualRows( new TestRowProvider( 10 ), 10 );
+    rows.update( parent, 0, 200, 100 );
+
+    assertEquals( 2, rows.getRowIndex( rows.getRow( 2 ) ) );
+    assertEquals( -1, rows.getRowIndex( shell ) );
+  }
+
+  @Test( expected = IllegalStateException.class )
+  public void testUpdateFailsWhenProviderReturnsNull() {
+    RowProvider provider = mock( RowProvider.class );
+    when( provider.getRowCount() ).thenReturn( 10 );
+    VirtualRows rows = new VirtualRows( provider, 10 );
+
+    rows.update( new Composite( shell, SWT.NONE ), 0, 200, 100 );
+  }
+
+  @Test( expected = IllegalStateException.class )
+  public void testUpdateFailsWhenRowHasWrongParent() {
+    final Composite otherParent = new Composite( shell, SWT.NONE );
+    RowProvider provider = new TestRowProvider( 10 ) {
+      @Override
+      public Control createRow( Composite parent, int index ) {
+        return new Composite( otherParent, SWT.NONE );
+      }
+    };
+    VirtualRows rows = new VirtualRows( provider, 10 );
+
+    rows.update( new Composite( shell, SWT.NONE ), 0, 200, 100 );
+  }
+
+  private static class TestRowProvider implements RowProvider {
+
+    int rowCount;
+
+    TestRowProvider( int rowCount ) {
+      this.rowCount = rowCount;
+    }
+
+    @Override
+    public Control createRow( Composite parent, int index ) {
+      return new Composite( parent, SWT.NONE );
+    }
+
+    @Override
+    public int getRowCount() {
+      return rowCount;
+    }
+  }
+
+}
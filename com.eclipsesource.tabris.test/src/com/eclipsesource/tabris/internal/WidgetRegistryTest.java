@@ -0,0 +1,236 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal;
+
+import static com.eclipsesource.tabris.internal.DataWhitelist.WhiteListEntry.BACK_FOCUS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Serializable;
+
+import org.eclipse.rap.rwt.testfixture.Fixture;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.Tree;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class WidgetRegistryTest {
+
+  private Display display;
+  private Shell shell;
+
+  @Before
+  public void setUp() {
+    Fixture.setUp();
+    display = new Display();
+    shell = new Shell( display );
+  }
+
+  @After
+  public void tearDown() {
+    Fixture.tearDown();
+  }
+
+  @Test
+  public void testIsSerializable() {
+    assertTrue( Serializable.class.isAssignableFrom( WidgetRegistry.class ) );
+  }
+
+  @Test
+  public void testGetInstanceIsDisplayScoped() {
+    WidgetRegistry registry = WidgetRegistry.getInstance( display );
+
+    assertSame( registry, WidgetRegistry.getInstance( display ) );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testGetInstanceFailsWithNullDisplay() {
+    WidgetRegistry.getInstance( null );
+  }
+
+  @Test
+  public void testSetExclusiveDataSetsData() {
+    WidgetRegistry registry = new WidgetRegistry();
+    Tree tree = new Tree( shell, SWT.NONE );
+
+    registry.setExclusiveData( tree, BACK_FOCUS, Boolean.TRUE );
+
+    assertEquals( Boolean.TRUE, tree.getData( BACK_FOCUS.getKey() ) );
+    assertSame( tree, registry.getExclusiveWidget( BACK_FOCUS ) );
+  }
+
+  @Test
+  public void testSetExclusiveDataRemovesDataFromPreviousWidget() {
+    WidgetRegistry registry = new WidgetRegistry();
+    Tree tree1 = new Tree( shell, SWT.NONE );
+    Tree tree2 = new Tree( shell, SWT.NONE );
+    registry.setExclusiveData( tree1, BACK_FOCUS, Boolean.TRUE );
+
+    registry.setExclusiveData( tree2, BACK_FOCUS, Boolean.TRUE );
+
+    assertNull( tree1.getData( BACK_FOCUS.getKey() ) );
+    assertEquals( Boolean.TRUE, tree2.getData( BACK_FOCUS.getKey() ) );
+  }
+
+  @Test
+  public void testSetExclusiveDataRemovesDataSetDirectlyOnOtherWidget() {
+    WidgetRegistry registry = new WidgetRegistry();
+    Tree tree1 = new Tree( shell, SWT.NONE );
+    Tree tree2 = new Tree( new Shell( display ), SWT.NONE );
+    tree2.setData( BACK_FOCUS.getKey(), Boolean.TRUE );
+
+    registry.setExclusiveData( tree1, BACK_FOCUS, Boolean.TRUE );
+
+    assertNull( tree2.getData( BACK_FOCUS.getKey() ) );
+    assertEquals( Boolean.TRUE, tree1.getData( BACK_FOCUS.getKey() ) );
+  }
+
+  @Test
+  public void testSetExclusiveDataKeepsOtherValuesSetDirectly() {
+    WidgetRegistry registry = new WidgetRegistry();
+    Tree tree1 = new Tree( shell, SWT.NONE );
+    Tree tree2 = new Tree( shell, SWT.NONE );
+    tree2.setData( BACK_FOCUS.getKey(), "anyVariant" );
+
+    registry.setExclusiveData( tree1, BACK_FOCUS, Boolean.TRUE );
+
+    assertEquals( "anyVariant", tree2.getData( BACK_FOCUS.getKey() ) );
+  }
+
+  @Test
+  public void testSetExclusiveDataTwiceOnSameWidgetKeepsData() {
+    WidgetRegistry registry = new WidgetRegistry();
+    Tree tree = new Tree( shell, SWT.NONE );
+    registry.setExclusiveData( tree, BACK_FOCUS, Boolean.TRUE );
+
+    registry.setExclusiveData( tree, BACK_FOCUS, Boolean.TRUE );
+
+    assertEquals( Boolean.TRUE, tree.getData( BACK_FOCUS.getKey() ) );
+  }
+
+  @Test
+  public void testSetExclusiveDataAgainAddsNoDisposeListener() {
+    WidgetRegistry registry = new WidgetRegistry();
+    Tree tree1 = new Tree( shell, SWT.NONE );
+    Tree tree2 = new Tree( shell, SWT.NONE );
+    registry.setExclusiveData( tree1, BACK_FOCUS, Boolean.TRUE );
+    int listenerCount = tree1.getListeners( SWT.Dispose ).length;
+
+    registry.setExclusiveData( tree2, BACK_FOCUS, Boolean.TRUE );
+    registry.setExclusiveData( tree1, BACK_FOCUS, Boolean.TRUE );
+    registry.setExclusiveData( tree2, BACK_FOCUS, Boolean.TRUE );
+    registry.setExclusiveData( tree1, BACK_FOCUS, Boolean.TRUE );
+
+    assertEquals( listenerCount, tree1.getListeners( SWT.Dispose ).length );
+  }
+
+  @Test
+  public void testSetExclusiveDataRemovesDisposeListenerFromPreviousWidget() {
+    WidgetRegistry registry = new WidgetRegistry();
+    Tree tree1 = new Tree( shell, SWT.NONE );
+    Tree tree2 = new Tree( shell, SWT.NONE );
+    int listenerCount = tree1.getListeners( SWT.Dispose ).length;
+    registry.setExclusiveData( tree1, BACK_FOCUS, Boolean.TRUE );
+
+    registry.setExclusiveData( tree2, BACK_FOCUS, Boolean.TRUE );
+
+    assertEquals( listenerCount, tree1.getListeners( SWT.Dispose ).length );
+  }
+
+  @Test
+  public void testDisposeOfPreviousWidgetKeepsExclusiveWidget() {
+    WidgetRegistry registry = new WidgetRegistry();
+    Tree tree1 = new Tree( shell, SWT.NONE );
+    Tree tree2 = new Tree( shell, SWT.NONE );
+    registry.setExclusiveData( tree1, BACK_FOCUS, Boolean.TRUE );
+    registry.setExclusiveData( tree2, BACK_FOCUS, Boolean.TRUE );
+
+    tree1.dispose();
+
+    assertSame( tree2, registry.getExclusiveWidget( BACK_FOCUS ) );
+  }
+
+  @Test
+  public void testDisposeRemovesExclusiveWidget() {
+    WidgetRegistry registry = new WidgetRegistry();
+    Tree tree = new Tree( shell, SWT.NONE );
+    registry.setExclusiveData( tree, BACK_FOCUS, Boolean.TRUE );
+
+    tree.dispose();
+
+    assertNull( registry.getExclusiveWidget( BACK_FOCUS ) );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testSetExclusiveDataFailsWithNullWidget() {
+    new WidgetRegistry().setExclusiveData( null, BACK_FOCUS, Boolean.TRUE );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testSetExclusiveDataFailsWithNullValue() {
+    new WidgetRegistry().setExclusiveData( new Tree( shell, SWT.NONE ), BACK_FOCUS, null );
+  }
+
+  @Test
+  public void testRegisterFacade() {
+    WidgetRegistry registry = new WidgetRegistry();
+    Composite composite = new Composite( shell, SWT.NONE );
+    Composite facade = new Composite( composite, SWT.NONE );
+
+    registry.registerFacade( composite, facade );
+
+    assertSame( facade, registry.getFacade( composite ) );
+  }
+
+  @Test
+  public void testHasNoFacadeByDefault() {
+    WidgetRegistry registry = new WidgetRegistry();
+
+    assertNull( registry.getFacade( new Composite( shell, SWT.NONE ) ) );
+  }
+
+  @Test
+  public void testDisposeRemovesFacade() {
+    WidgetRegistry registry = new WidgetRegistry();
+    Composite composite = new Composite( shell, SWT.NONE );
+    Composite facade = new Composite( composite, SWT.NONE );
+    registry.registerFacade( composite, facade );
+
+    composite.dispose();
+
+    assertNull( registry.getFacade( composite ) );
+  }
+
+  @Test
+  public void testFacadesAreRegisteredPerComposite() {
+    WidgetRegistry registry = new WidgetRegistry();
+    Composite composite1 = new Composite( shell, SWT.NONE );
+    Composite composite2 = new Composite( shell, SWT.NONE );
+    registry.registerFacade( composite1, new Composite( composite1, SWT.NONE ) );
+    registry.registerFacade( composite2, new Composite( composite2, SWT.NONE ) );
+
+    assertNotSame( registry.getFacade( composite1 ), registry.getFacade( composite2 ) );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testRegisterFacadeFailsWithNullFacade() {
+    new WidgetRegistry().registerFacade( new Composite( shell, SWT.NONE ), null );
+  }
+
+}
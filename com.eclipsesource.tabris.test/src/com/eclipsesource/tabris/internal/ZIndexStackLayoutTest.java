@@ -11,12 +11,15 @@
 package com.eclipsesource.tabris.internal;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 
 import org.eclipse.rap.rwt.testfixture.Fixture;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.Point;
+import org.eclipse.swt.graphics.Rectangle;
 import org.eclipse.swt.layout.FillLayout;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
@@ -110,4 +113,246 @@ public class ZIndexStackLayoutTest {
     
     assertEquals( control, swipeLayout.getOnTopControl() );
   }
+
+  @Test
+  public void testIsNotTopOnlyByDefault() {
+    ZIndexStackLayout layout = new ZIndexStackLayout();
+
+    assertFalse( layout.isTopOnly() );
+  }
+
+  @Test
+  public void testSetTopOnly() {
+    ZIndexStackLayout layout = new ZIndexStackLayout();
+
+    layout.setTopOnly( true );
+
+    assertTrue( layout.isTopOnly() );
+  }
+
+  @Test
+  public void testTopOnlyLaysOutOnTopControlOnly() {
+    Composite parent = new Composite( shell, SWT.NONE );
+    ZIndexStackLayout layout = new ZIndexStackLayout();
+    layout.setTopOnly( true );
+    parent.setLayout( layout );
+    Composite child1 = new Composite( parent, SWT.NONE );
+    Composite child2 = new Composite( parent, SWT.NONE );
+    layout.setOnTopControl( child2 );
+
+    shell.layout( true, true );
+
+    assertEquals( new Rectangle( 0, 0, 0, 0 ), child1.getBounds() );
+    assertEquals( parent.getClientArea(), child2.getBounds() );
+    assertSame( child2, parent.getChildren()[ 0 ] );
+  }
+
+  @Test
+  public void testTopOnlyLaysOutAllChildrenWithoutOnTopControl() {
+    Composite parent = new Composite( shell, SWT.NONE );
+    ZIndexStackLayout layout = new ZIndexStackLayout();
+    layout.setTopOnly( true );
+    parent.setLayout( layout );
+    Composite child1 = new Composite( parent, SWT.NONE );
+    Composite child2 = new Composite( parent, SWT.NONE );
+
+    shell.layout( true, true );
+
+    assertEquals( parent.getClientArea(), child1.getBounds() );
+    assertEquals( parent.getClientArea(), child2.getBounds() );
+  }
+
+  @Test
+  public void testTopOnlyLaysOutPromotedControl() {
+    Composite parent = new Composite( shell, SWT.NONE );
+    ZIndexStackLayout layout = new ZIndexStackLayout();
+    layout.setTopOnly( true );
+    parent.setLayout( layout );
+    Composite child1 = new Composite( parent, SWT.NONE );
+    Composite child2 = new Composite( parent, SWT.NONE );
+    layout.setOnTopControl( child2 );
+    shell.layout( true, true );
+
+    layout.setOnTopControl( child1 );
+
+    assertEquals( parent.getClientArea(), child1.getBounds() );
+  }
+
+  @Test
+  public void testTopOnlyMeasuresOnTopControlOnly() {
+    Composite parent = new Composite( shell, SWT.NONE );
+    ZIndexStackLayout layout = new ZIndexStackLayout();
+    layout.setTopOnly( true );
+    parent.setLayout( layout );
+    MeasuredComposite child1 = new MeasuredComposite( parent );
+    MeasuredComposite child2 = new MeasuredComposite( parent );
+    layout.setOnTopControl( child2 );
+
+    parent.computeSize( SWT.DEFAULT, SWT.DEFAULT, false );
+
+    assertEquals( 0, child1.measureCount );
+    assertEquals( 1, child2.measureCount );
+  }
+
+  @Test
+  public void testTopOnlyRemeasuresWhenOnTopControlChanges() {
+    Composite parent = new Composite( shell, SWT.NONE );
+    ZIndexStackLayout layout = new ZIndexStackLayout();
+    layout.setTopOnly( true );
+    parent.setLayout( layout );
+    MeasuredComposite child1 = new MeasuredComposite( parent );
+    MeasuredComposite child2 = new MeasuredComposite( parent );
+    layout.setOnTopControl( child2 );
+    parent.computeSize( SWT.DEFAULT, SWT.DEFAULT, false );
+
+    layout.setOnTopControl( child1 );
+    parent.computeSize( SWT.DEFAULT, SWT.DEFAULT, false );
+
+    assertEquals( 1, child1.measureCount );
+    assertEquals( 1, child2.measureCount );
+  }
+
+  @Test
+  public void testTopOnlyCachesComputedSize() {
+    Composite parent = new Composite( shell, SWT.NONE );
+    ZIndexStackLayout layout = new ZIndexStackLayout();
+    layout.setTopOnly( true );
+    parent.setLayout( layout );
+    MeasuredComposite child = new MeasuredComposite( parent );
+    layout.setOnTopControl( child );
+
+    parent.computeSize( SWT.DEFAULT, SWT.DEFAULT, false );
+    Point size = parent.computeSize( SWT.DEFAULT, SWT.DEFAULT, false );
+
+    assertEquals( 1, child.measureCount );
+    assertEquals( new Point( 64, 64 ), size );
+  }
+
+  @Test
+  public void testTopOnlyCachesComputedSizePerHints() {
+    Composite parent = new Composite( shell, SWT.NONE );
+    ZIndexStackLayout layout = new ZIndexStackLayout();
+    layout.setTopOnly( true );
+    parent.setLayout( layout );
+    MeasuredComposite child = new MeasuredComposite( parent );
+    layout.setOnTopControl( child );
+
+    parent.computeSize( 100, SWT.DEFAULT, false );
+    parent.computeSize( 200, SWT.DEFAULT, false );
+    parent.computeSize( 100, SWT.DEFAULT, false );
+
+    assertEquals( 2, child.measureCount );
+  }
+
+  @Test
+  public void testTopOnlyRecomputesSizeWhenOnTopControlChangesBack() {
+    Composite parent = new Composite( shell, SWT.NONE );
+    ZIndexStackLayout layout = new ZIndexStackLayout();
+    layout.setTopOnly( true );
+    parent.setLayout( layout );
+    MeasuredComposite child1 = new MeasuredComposite( parent );
+    MeasuredComposite child2 = new MeasuredComposite( parent );
+    layout.setOnTopControl( child2 );
+    parent.computeSize( SWT.DEFAULT, SWT.DEFAULT, false );
+    layout.setOnTopControl( child1 );
+
+    layout.setOnTopControl( child2 );
+    parent.computeSize( SWT.DEFAULT, SWT.DEFAULT, false );
+
+    assertEquals( 2, child2.measureCount );
+  }
+
+  @Test
+  public void testTopOnlyFlushCacheRecomputesSize() {
+    Composite parent = new Composite( shell, SWT.NONE );
+    ZIndexStackLayout layout = new ZIndexStackLayout();
+    layout.setTopOnly( true );
+    parent.setLayout( layout );
+    MeasuredComposite child = new MeasuredComposite( parent );
+    layout.setOnTopControl( child );
+
+    parent.computeSize( SWT.DEFAULT, SWT.DEFAULT, false );
+    parent.computeSize( SWT.DEFAULT, SWT.DEFAULT, true );
+
+    assertEquals( 2, child.measureCount );
+  }
+
+  @Test
+  public void testTopOnlyChangedLayoutRecomputesSize() {
+    Composite parent = new Composite( shell, SWT.NONE );
+    ZIndexStackLayout layout = new ZIndexStackLayout();
+    layout.setTopOnly( true );
+    parent.setLayout( layout );
+    MeasuredComposite child = new MeasuredComposite( parent );
+    layout.setOnTopControl( child );
+    parent.computeSize( SWT.DEFAULT, SWT.DEFAULT, false );
+
+    parent.layout( true );
+    int measureCount = child.measureCount;
+    parent.computeSize( SWT.DEFAULT, SWT.DEFAULT, false );
+
+    assertEquals( measureCount + 1, child.measureCount );
+  }
+
+  @Test
+  public void testTopOnlyChangedOnTopControlRecomputesSize() {
+    Composite parent = new Composite( shell, SWT.NONE );
+    ZIndexStackLayout layout = new ZIndexStackLayout();
+    layout.setTopOnly( true );
+    parent.setLayout( layout );
+    MeasuredComposite child = new MeasuredComposite( parent );
+    layout.setOnTopControl( child );
+    parent.computeSize( SWT.DEFAULT, SWT.DEFAULT, false );
+
+    layout.flushCache( child );
+    parent.computeSize( SWT.DEFAULT, SWT.DEFAULT, false );
+
+    assertEquals( 2, child.measureCount );
+  }
+
+  @Test
+  public void testTopOnlyChangedHiddenControlKeepsCachedSize() {
+    Composite parent = new Composite( shell, SWT.NONE );
+    ZIndexStackLayout layout = new ZIndexStackLayout();
+    layout.setTopOnly( true );
+    parent.setLayout( layout );
+    MeasuredComposite child1 = new MeasuredComposite( parent );
+    MeasuredComposite child2 = new MeasuredComposite( parent );
+    layout.setOnTopControl( child2 );
+    parent.computeSize( SWT.DEFAULT, SWT.DEFAULT, false );
+
+    layout.flushCache( child1 );
+    parent.computeSize( SWT.DEFAULT, SWT.DEFAULT, false );
+
+    assertEquals( 1, child2.measureCount );
+  }
+
+  @Test
+  public void testDoesNotCacheComputedSizeWithoutTopOnly() {
+    Composite parent = new Composite( shell, SWT.NONE );
+    ZIndexStackLayout layout = new ZIndexStackLayout();
+    parent.setLayout( layout );
+    MeasuredComposite child = new MeasuredComposite( parent );
+    layout.setOnTopControl( child );
+
+    parent.computeSize( SWT.DEFAULT, SWT.DEFAULT, false );
+    parent.computeSize( SWT.DEFAULT, SWT.DEFAULT, false );
+
+    assertEquals( 2, child.measureCount );
+  }
+
+  private static class MeasuredComposite extends Composite {
+
+    int measureCount;
+
+    MeasuredComposite( Composite parent ) {
+      super( parent, SWT.NONE );
+    }
+
+    @Override
+    public Point computeSize( int wHint, int hHint, boolean changed ) {
+      measureCount++;
+      return super.computeSize( wHint, hHint, changed );
+    }
+  }
 }
@@ -15,6 +15,10 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import java.io.InputStream;
 import java.io.Serializable;
@@ -25,6 +29,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import com.eclipsesource.tabris.ui.Action;
+import com.eclipsesource.tabris.ui.ActionFactory;
 
 
 public class ActionDescriptorTest {
@@ -127,4 +132,51 @@ public class ActionDescriptorTest {
     assertArrayEquals( UITestUtil.getImageBytes(), descriptor.getImage() );
   }
 
+  @Test
+  public void testCreatesActionLazily() {
+    ActionFactory factory = mock( ActionFactory.class );
+    when( factory.createAction( TestAction.class ) ).thenReturn( new TestAction() );
+    ActionDescriptor descriptor = new ActionDescriptor( "foo", TestAction.class, "bar", null, true, true );
+
+    descriptor.setActionFactory( factory );
+
+    verify( factory, never() ).createAction( TestAction.class );
+  }
+
+  @Test
+  public void testCreatesActionWithFactoryOnce() {
+    ActionFactory factory = mock( ActionFactory.class );
+    TestAction action = new TestAction();
+    when( factory.createAction( TestAction.class ) ).thenReturn( action );
+    ActionDescriptor descriptor = new ActionDescriptor( "foo", TestAction.class, "bar", null, true, true );
+    descriptor.setActionFactory( factory );
+
+    descriptor.getAction();
+    Action actualAction = descriptor.getAction();
+
+    assertSame( action, actualAction );
+    verify( factory, times( 1 ) ).createAction( TestAction.class );
+  }
+
+  @Test
+  public void testCreatesActionWithDefaultFactory() {
+    ActionDescriptor descriptor = new ActionDescriptor( "foo", TestAction.class, "bar", null, true, true );
+
+    assertTrue( descriptor.getAction() instanceof TestAction );
+  }
+
+  @Test( expected = IllegalStateException.class )
+  public void testGetActionFailsWhenFactoryReturnsNull() {
+    ActionDescriptor descriptor = new ActionDescriptor( "foo", TestAction.class, "bar", null, true, true );
+    descriptor.setActionFactory( mock( ActionFactory.class ) );
+
+    descriptor.getAction();
+  }
+
+  @Test
+  public void testGetActionType() {
+    ActionDescriptor descriptor = new ActionDescriptor( "foo", new TestAction(), "bar", null, true, true );
+
+    assertSame( TestAction.class, descriptor.getActionType() );
+  }
 }
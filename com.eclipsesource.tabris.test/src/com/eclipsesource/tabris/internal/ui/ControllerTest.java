@@ -12,13 +12,19 @@ package com.eclipsesource.tabris.internal.ui;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -26,8 +32,14 @@ import static org.mockito.Mockito.when;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
+import org.eclipse.rap.rwt.client.Client;
 import org.eclipse.rap.rwt.internal.remote.RemoteObjectImpl;
 import org.eclipse.rap.rwt.lifecycle.PhaseId;
 import org.eclipse.rap.rwt.testfixture.Fixture;
@@ -38,15 +50,24 @@ import org.eclipse.swt.widgets.Shell;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
+import com.eclipsesource.tabris.ClientStore;
+import com.eclipsesource.tabris.ClientStoreCallback;
 import com.eclipsesource.tabris.internal.ZIndexStackLayout;
+import com.eclipsesource.tabris.internal.ui.PageFlowSnapshot.Entry;
 import com.eclipsesource.tabris.internal.ui.rendering.ActionRenderer;
 import com.eclipsesource.tabris.internal.ui.rendering.PageRenderer;
 import com.eclipsesource.tabris.test.TabrisTestUtil;
 import com.eclipsesource.tabris.ui.Page;
 import com.eclipsesource.tabris.ui.PageData;
 import com.eclipsesource.tabris.ui.TransitionListener;
+import com.eclipsesource.tabris.ui.TransitionMetrics;
+import com.eclipsesource.tabris.ui.TransitionMetricsListener;
+import com.eclipsesource.tabris.ui.TransitionPhase;
 import com.eclipsesource.tabris.ui.UI;
 import com.eclipsesource.tabris.ui.UIConfiguration;
 
@@ -97,6 +118,7 @@ public class ControllerTest {
   public void testCreatesRootPagesFailsWithoutRootPages() {
     PageDescriptor descriptor = mock( PageDescriptor.class );
     doReturn( TestPage.class ).when( descriptor ).getPageType();
+    when( descriptor.getPageFactory() ).thenReturn( new DefaultInstanceFactory() );
     doReturn( Boolean.FALSE ).when( descriptor ).isTopLevel();
     uiDescriptor.add( descriptor );
     RemoteUI remoteUI = mock( RemoteUI.class );
@@ -632,19 +654,942 @@ public class ControllerTest {
     assertEquals( "foo", pageId );
   }
 
+  @Test
+  public void testPrerendersSuccessorPages() {
+    PageDescriptor root = createRootPage( "foo" );
+    createPage( "bar" );
+    when( root.getSuccessors() ).thenReturn( Arrays.asList( "bar" ) );
+    RemoteUI remoteUI = mock( RemoteUI.class );
+    when( remoteUI.getPageParent() ).thenReturn( shell );
+    Controller controller = new Controller( remoteUI, uiDescriptor );
+    controller.createRootPages( ui );
+
+    controller.prerender( ui, root );
+
+    assertEquals( 1, controller.getPrerenderedPages().size() );
+    assertEquals( 2, shell.getChildren().length );
+  }
+
+  @Test
+  public void testDoesNotPrerenderWithZeroLimit() {
+    PageDescriptor root = createRootPage( "foo" );
+    createPage( "bar" );
+    when( root.getSuccessors() ).thenReturn( Arrays.asList( "bar" ) );
+    uiDescriptor.setPrerenderLimit( 0 );
+    RemoteUI remoteUI = mock( RemoteUI.class );
+    when( remoteUI.getPageParent() ).thenReturn( shell );
+    Controller controller = new Controller( remoteUI, uiDescriptor );
+    controller.createRootPages( ui );
+
+    controller.prerender( ui, root );
+
+    assertEquals( 0, controller.getPrerenderedPages().size() );
+    assertEquals( 1, shell.getChildren().length );
+  }
+
+  @Test
+  public void testShowPageUsesPrerenderedPage() {
+    PageDescriptor root = createRootPage( "foo" );
+    PageDescriptor page = createPage( "bar" );
+    when( root.getSuccessors() ).thenReturn( Arrays.asList( "bar" ) );
+    RemoteUI remoteUI = mock( RemoteUI.class );
+    when( remoteUI.getPageParent() ).thenReturn( shell );
+    Controller controller = new Controller( remoteUI, uiDescriptor );
+    controller.createRootPages( ui );
+    controller.prerender( ui, root );
+    Control prerenderedControl = shell.getChildren()[ 1 ];
+
+    PageRenderer renderer = controller.showPage( ui, page, new PageData() );
+
+    assertEquals( 0, controller.getPrerenderedPages().size() );
+    assertEquals( 2, shell.getChildren().length );
+    assertSame( prerenderedControl, renderer.getControl() );
+    assertTrue( ( ( TestPage )renderer.getPage() ).wasActivated() );
+  }
+
+  @Test
+  public void testShowPageDiscardsPrerenderedPageWhenDataIsPassed() {
+    PageDescriptor root = createRootPage( "foo" );
+    PageDescriptor page = createPage( "bar" );
+    when( root.getSuccessors() ).thenReturn( Arrays.asList( "bar" ) );
+    RemoteUI remoteUI = mock( RemoteUI.class );
+    when( remoteUI.getPageParent() ).thenReturn( shell );
+    Controller controller = new Controller( remoteUI, uiDescriptor );
+    controller.createRootPages( ui );
+    controller.prerender( ui, root );
+    Control prerenderedControl = shell.getChildren()[ 1 ];
+    PageData data = new PageData();
+    data.set( "foo", "bar" );
+
+    PageRenderer renderer = controller.showPage( ui, page, data );
+
+    assertTrue( prerenderedControl.isDisposed() );
+    assertEquals( 2, shell.getChildren().length );
+    assertEquals( "bar", renderer.getData().get( "foo", String.class ) );
+    assertTrue( ( ( TestPage )renderer.getPage() ).wasActivated() );
+  }
+
+  @Test
+  public void testSchedulesPrerenderingInSeparateRequest() {
+    PageDescriptor root = createRootPage( "foo" );
+    createPage( "bar" );
+    when( root.getSuccessors() ).thenReturn( Arrays.asList( "bar" ) );
+    RemoteUI remoteUI = mock( RemoteUI.class );
+    when( remoteUI.getPageParent() ).thenReturn( shell );
+    Controller controller = new Controller( remoteUI, uiDescriptor );
+
+    controller.createRootPages( ui );
+    while( shell.getDisplay().readAndDispatch() ) {
+      // run pending runnables of the current request
+    }
+
+    assertTrue( controller.isPrerenderScheduled() );
+    assertTrue( SharedServerPush.getInstance().isActive() );
+    assertEquals( 0, controller.getPrerenderedPages().size() );
+  }
+
+  @Test
+  public void testPrerenderCurrentPageReleasesServerPush() {
+    PageDescriptor root = createRootPage( "foo" );
+    createPage( "bar" );
+    when( root.getSuccessors() ).thenReturn( Arrays.asList( "bar" ) );
+    RemoteUI remoteUI = mock( RemoteUI.class );
+    when( remoteUI.getPageParent() ).thenReturn( shell );
+    Controller controller = new Controller( remoteUI, uiDescriptor );
+    controller.createRootPages( ui );
+
+    controller.prerenderCurrentPage( ui );
+
+    assertFalse( controller.isPrerenderScheduled() );
+    assertFalse( SharedServerPush.getInstance().isActive() );
+    assertEquals( 1, controller.getPrerenderedPages().size() );
+  }
+
+  @Test
+  public void testDoesNotRecordTransitionsWithoutLearnSuccessors() {
+    PageDescriptor root = createRootPage( "foo" );
+    PageDescriptor page = createPage( "bar" );
+    RemoteUI remoteUI = mock( RemoteUI.class );
+    when( remoteUI.getPageParent() ).thenReturn( shell );
+    Controller controller = new Controller( remoteUI, uiDescriptor );
+    controller.createRootPages( ui );
+    controller.showPage( ui, page, new PageData() );
+    controller.closeCurrentPage( ui );
+
+    uiDescriptor.setLearnSuccessors( true );
+
+    assertTrue( controller.getSuccessors( root ).isEmpty() );
+  }
+
+  @Test
+  public void testShowPageDiscardsStalePrerenderedPages() {
+    PageDescriptor root = createRootPage( "foo" );
+    createPage( "bar" );
+    PageDescriptor page = createPage( "baz" );
+    when( root.getSuccessors() ).thenReturn( Arrays.asList( "bar" ) );
+    RemoteUI remoteUI = mock( RemoteUI.class );
+    when( remoteUI.getPageParent() ).thenReturn( shell );
+    Controller controller = new Controller( remoteUI, uiDescriptor );
+    controller.createRootPages( ui );
+    controller.prerender( ui, root );
+
+    controller.showPage( ui, page, new PageData() );
+
+    assertEquals( 0, controller.getPrerenderedPages().size() );
+    assertEquals( 2, shell.getChildren().length );
+  }
+
+  @Test
+  public void testGetSuccessorsUsesLearnedTransitions() {
+    PageDescriptor root = createRootPage( "foo" );
+    PageDescriptor page = createPage( "bar" );
+    uiDescriptor.setLearnSuccessors( true );
+    RemoteUI remoteUI = mock( RemoteUI.class );
+    when( remoteUI.getPageParent() ).thenReturn( shell );
+    Controller controller = new Controller( remoteUI, uiDescriptor );
+    controller.createRootPages( ui );
+    controller.showPage( ui, page, new PageData() );
+    controller.closeCurrentPage( ui );
+    controller.showPage( ui, page, new PageData() );
+
+    List<PageDescriptor> successors = controller.getSuccessors( root );
+
+    assertEquals( 1, successors.size() );
+    assertSame( page, successors.get( 0 ) );
+  }
+
+  @Test
+  public void testShowPageKeepsSharedActions() {
+    PageDescriptor root = createRootPage( "foo" );
+    PageDescriptor page = createPage( "bar" );
+    List<ActionDescriptor> rootActions = new ArrayList<ActionDescriptor>();
+    rootActions.add( new ActionDescriptor( "action", new TestAction(), "foo", null, true, true ) );
+    when( root.getActions() ).thenReturn( rootActions );
+    List<ActionDescriptor> pageActions = new ArrayList<ActionDescriptor>();
+    pageActions.add( new ActionDescriptor( "action", new TestAction(), "bar", null, true, true ) );
+    when( page.getActions() ).thenReturn( pageActions );
+    RemoteUI remoteUI = mock( RemoteUI.class );
+    when( remoteUI.getPageParent() ).thenReturn( shell );
+    Controller controller = new Controller( remoteUI, uiDescriptor );
+    controller.createRootPages( ui );
+    ActionRenderer sharedAction = controller.findRemoteAction( "action" );
+
+    controller.showPage( ui, page, new PageData() );
+
+    assertSame( sharedAction, controller.findRemoteAction( "action" ) );
+    assertSame( pageActions.get( 0 ), sharedAction.getDescriptor() );
+    verify( remoteObject, never() ).destroy();
+  }
+
+  @Test
+  public void testShowPreviousKeepsSharedActions() {
+    PageDescriptor root = createRootPage( "foo" );
+    PageDescriptor page = createPage( "bar" );
+    List<ActionDescriptor> rootActions = new ArrayList<ActionDescriptor>();
+    rootActions.add( new ActionDescriptor( "action", new TestAction(), "foo", null, true, true ) );
+    when( root.getActions() ).thenReturn( rootActions );
+    List<ActionDescriptor> pageActions = new ArrayList<ActionDescriptor>();
+    pageActions.add( new ActionDescriptor( "action", new TestAction(), "bar", null, true, true ) );
+    when( page.getActions() ).thenReturn( pageActions );
+    RemoteUI remoteUI = mock( RemoteUI.class );
+    when( remoteUI.getPageParent() ).thenReturn( shell );
+    Controller controller = new Controller( remoteUI, uiDescriptor );
+    controller.createRootPages( ui );
+    ActionRenderer sharedAction = controller.findRemoteAction( "action" );
+    controller.showPage( ui, page, new PageData() );
+
+    controller.closeCurrentPage( ui );
+
+    assertSame( sharedAction, controller.findRemoteAction( "action" ) );
+    assertSame( rootActions.get( 0 ), sharedAction.getDescriptor() );
+  }
+
+  @Test
+  public void testShowPageDestroysUnsharedActions() {
+    PageDescriptor root = createRootPage( "foo" );
+    PageDescriptor page = createPage( "bar" );
+    List<ActionDescriptor> rootActions = new ArrayList<ActionDescriptor>();
+    rootActions.add( new ActionDescriptor( "action1", new TestAction(), "foo", null, true, true ) );
+    when( root.getActions() ).thenReturn( rootActions );
+    List<ActionDescriptor> pageActions = new ArrayList<ActionDescriptor>();
+    pageActions.add( new ActionDescriptor( "action2", new TestAction(), "bar", null, true, true ) );
+    when( page.getActions() ).thenReturn( pageActions );
+    RemoteUI remoteUI = mock( RemoteUI.class );
+    when( remoteUI.getPageParent() ).thenReturn( shell );
+    Controller controller = new Controller( remoteUI, uiDescriptor );
+    controller.createRootPages( ui );
+
+    controller.showPage( ui, page, new PageData() );
+
+    verify( remoteObject ).destroy();
+    assertSame( pageActions.get( 0 ), controller.findRemoteAction( "action2" ).getDescriptor() );
+  }
+
+  @Test
+  public void testShowPageKeepsControlsWithoutRenderedPageLimit() {
+    createRootPage( "foo" );
+    PageDescriptor page1 = createPage( "bar" );
+    PageDescriptor page2 = createPage( "baz" );
+    RemoteUI remoteUI = mock( RemoteUI.class );
+    when( remoteUI.getPageParent() ).thenReturn( shell );
+    Controller controller = new Controller( remoteUI, uiDescriptor );
+    controller.createRootPages( ui );
+    PageRenderer renderer = controller.showPage( ui, page1, mock( PageData.class ) );
+
+    controller.showPage( ui, page2, mock( PageData.class ) );
+
+    assertFalse( renderer.isTrimmed() );
+  }
+
+  @Test
+  public void testShowPageTrimsPagesBeyondRenderedPageLimit() {
+    uiDescriptor.setRenderedPageLimit( 2 );
+    createRootPage( "foo" );
+    PageDescriptor page1 = createPage( "bar" );
+    PageDescriptor page2 = createPage( "baz" );
+    PageDescriptor page3 = createPage( "qux" );
+    RemoteUI remoteUI = mock( RemoteUI.class );
+    when( remoteUI.getPageParent() ).thenReturn( shell );
+    Controller controller = new Controller( remoteUI, uiDescriptor );
+    controller.createRootPages( ui );
+    PageRenderer renderer1 = controller.showPage( ui, page1, mock( PageData.class ) );
+    PageRenderer renderer2 = controller.showPage( ui, page2, mock( PageData.class ) );
+
+    controller.showPage( ui, page3, mock( PageData.class ) );
+
+    assertTrue( renderer1.isTrimmed() );
+    assertFalse( renderer2.isTrimmed() );
+  }
+
+  @Test
+  public void testShowPageDoesNotTrimRootPage() {
+    uiDescriptor.setRenderedPageLimit( 1 );
+    PageDescriptor rootPage = createRootPage( "foo" );
+    PageDescriptor page = createPage( "bar" );
+    RemoteUI remoteUI = mock( RemoteUI.class );
+    when( remoteUI.getPageParent() ).thenReturn( shell );
+    Controller controller = new Controller( remoteUI, uiDescriptor );
+    controller.createRootPages( ui );
+
+    controller.showPage( ui, page, mock( PageData.class ) );
+
+    assertFalse( controller.getRootPages().get( rootPage ).isTrimmed() );
+  }
+
+  @Test
+  public void testSetTitleDoesNotRecreateTrimmedPage() {
+    uiDescriptor.setRenderedPageLimit( 1 );
+    createRootPage( "foo" );
+    PageDescriptor page1 = createPage( "bar" );
+    PageDescriptor page2 = createPage( "baz" );
+    RemoteUI remoteUI = mock( RemoteUI.class );
+    when( remoteUI.getPageParent() ).thenReturn( shell );
+    Controller controller = new Controller( remoteUI, uiDescriptor );
+    controller.createRootPages( ui );
+    PageRenderer renderer1 = controller.showPage( ui, page1, mock( PageData.class ) );
+    PageRenderer renderer2 = controller.showPage( ui, page2, mock( PageData.class ) );
+
+    controller.setTitle( renderer2.getPage(), "title" );
+
+    assertTrue( renderer1.isTrimmed() );
+    assertEquals( "title", renderer2.getTitle() );
+  }
+
+  @Test
+  public void testShowPageDoesNotTrimPreparingPage() {
+    uiDescriptor.setRenderedPageLimit( 1 );
+    uiDescriptor.setPreparationExecutor( mock( Executor.class ) );
+    createRootPage( "foo" );
+    PageDescriptor page1 = createPreparablePage( "bar" );
+    PageDescriptor page2 = createPage( "baz" );
+    RemoteUI remoteUI = mock( RemoteUI.class );
+    when( remoteUI.getPageParent() ).thenReturn( shell );
+    Controller controller = new Controller( remoteUI, uiDescriptor );
+    controller.createRootPages( ui );
+    PageRenderer renderer = controller.showPage( ui, page1, mock( PageData.class ) );
+
+    controller.showPage( ui, page2, mock( PageData.class ) );
+
+    assertTrue( controller.isPreparing( renderer ) );
+    assertFalse( renderer.isTrimmed() );
+  }
+
+  @Test
+  public void testClosePageRecreatesTrimmedPreviousPage() {
+    uiDescriptor.setRenderedPageLimit( 1 );
+    createRootPage( "foo" );
+    PageDescriptor page1 = createPage( "bar" );
+    PageDescriptor page2 = createPage( "baz" );
+    RemoteUI remoteUI = mock( RemoteUI.class );
+    when( remoteUI.getPageParent() ).thenReturn( shell );
+    Controller controller = new Controller( remoteUI, uiDescriptor );
+    controller.createRootPages( ui );
+    PageData data = mock( PageData.class );
+    PageRenderer renderer = controller.showPage( ui, page1, data );
+    controller.showPage( ui, page2, mock( PageData.class ) );
+
+    controller.closeCurrentPage( ui );
+
+    assertFalse( renderer.isTrimmed() );
+    assertFalse( renderer.getControl().isDisposed() );
+    assertSame( data, renderer.getData() );
+    assertTrue( ( ( TestPage )renderer.getPage() ).wasActivated() );
+    verify( layout ).setOnTopControl( renderer.getControl() );
+  }
+
+  @Test
+  public void testShowPagePublishesTransitionMetrics() {
+    TransitionMetricsListener metricsListener = mock( TransitionMetricsListener.class );
+    uiDescriptor.addTransitionMetricsListener( metricsListener );
+    createRootPage( "foo" );
+    PageDescriptor page = createPage( "bar" );
+    RemoteUI remoteUI = mock( RemoteUI.class );
+    when( remoteUI.getPageParent() ).thenReturn( shell );
+    Controller controller = new Controller( remoteUI, uiDescriptor );
+    controller.createRootPages( ui );
+
+    controller.showPage( ui, page, mock( PageData.class ) );
+
+    ArgumentCaptor<TransitionMetrics> captor = ArgumentCaptor.forClass( TransitionMetrics.class );
+    verify( metricsListener, times( 2 ) ).transitionMeasured( eq( ui ), captor.capture() );
+    TransitionMetrics metrics = captor.getAllValues().get( 1 );
+    assertEquals( "foo", metrics.getFromPageId() );
+    assertEquals( "bar", metrics.getToPageId() );
+  }
+
+  @Test
+  public void testShowRootPublishesTransitionMetricsWithoutFromPage() {
+    TransitionMetricsListener metricsListener = mock( TransitionMetricsListener.class );
+    uiDescriptor.addTransitionMetricsListener( metricsListener );
+    createRootPage( "foo" );
+    RemoteUI remoteUI = mock( RemoteUI.class );
+    when( remoteUI.getPageParent() ).thenReturn( shell );
+    Controller controller = new Controller( remoteUI, uiDescriptor );
+
+    controller.createRootPages( ui );
+
+    ArgumentCaptor<TransitionMetrics> captor = ArgumentCaptor.forClass( TransitionMetrics.class );
+    verify( metricsListener ).transitionMeasured( eq( ui ), captor.capture() );
+    assertNull( captor.getValue().getFromPageId() );
+    assertEquals( "foo", captor.getValue().getToPageId() );
+  }
+
+  @Test
+  public void testClosePagePublishesTransitionMetrics() {
+    createRootPage( "foo" );
+    PageDescriptor page = createPage( "bar" );
+    RemoteUI remoteUI = mock( RemoteUI.class );
+    when( remoteUI.getPageParent() ).thenReturn( shell );
+    Controller controller = new Controller( remoteUI, uiDescriptor );
+    controller.createRootPages( ui );
+    controller.showPage( ui, page, mock( PageData.class ) );
+    TransitionMetricsListener metricsListener = mock( TransitionMetricsListener.class );
+    uiDescriptor.addTransitionMetricsListener( metricsListener );
+
+    controller.closeCurrentPage( ui );
+
+    ArgumentCaptor<TransitionMetrics> captor = ArgumentCaptor.forClass( TransitionMetrics.class );
+    verify( metricsListener ).transitionMeasured( eq( ui ), captor.capture() );
+    assertEquals( "bar", captor.getValue().getFromPageId() );
+    assertEquals( "foo", captor.getValue().getToPageId() );
+  }
+
+  @Test
+  public void testTransitionMetricsContainListenerDuration() {
+    final TestClock clock = new TestClock();
+    TransitionMetricsListener metricsListener = mock( TransitionMetricsListener.class );
+    uiDescriptor.addTransitionMetricsListener( metricsListener );
+    uiDescriptor.addTransitionListener( new TransitionListener() {
+
+      @Override
+      public void before( UI ui, Page from, Page to ) {
+        clock.advance( 5000000 );
+      }
+
+      @Override
+      public void after( UI ui, Page from, Page to ) {
+        // nothing to do
+      }
+    } );
+    createRootPage( "foo" );
+    PageDescriptor page = createPage( "bar" );
+    RemoteUI remoteUI = mock( RemoteUI.class );
+    when( remoteUI.getPageParent() ).thenReturn( shell );
+    Controller controller = new Controller( remoteUI, uiDescriptor ) {
+
+      @Override
+      TransitionTimer createTimer() {
+        return new TransitionTimer( clock );
+      }
+    };
+    controller.createRootPages( ui );
+
+    controller.showPage( ui, page, mock( PageData.class ) );
+
+    ArgumentCaptor<TransitionMetrics> captor = ArgumentCaptor.forClass( TransitionMetrics.class );
+    verify( metricsListener, times( 2 ) ).transitionMeasured( eq( ui ), captor.capture() );
+    TransitionMetrics metrics = captor.getAllValues().get( 1 );
+    assertEquals( 5000000, metrics.getDuration( TransitionPhase.NOTIFY_LISTENERS ) );
+    assertEquals( 0, metrics.getDuration( TransitionPhase.CREATE_CONTENT ) );
+  }
+
+  @Test
+  public void testShowPagePreparesPageWithoutExecutor() {
+    createRootPage( "foo" );
+    PageDescriptor page = createPreparablePage( "bar" );
+    RemoteUI remoteUI = mock( RemoteUI.class );
+    when( remoteUI.getPageParent() ).thenReturn( shell );
+    Controller controller = new Controller( remoteUI, uiDescriptor );
+    controller.createRootPages( ui );
+    PageData data = new PageData();
+
+    PageRenderer renderer = controller.showPage( ui, page, data );
+
+    TestPreparablePage preparablePage = ( TestPreparablePage )renderer.getPage();
+    assertSame( data, preparablePage.getPreparedData() );
+    assertTrue( preparablePage.wasPreparedBeforeCreation() );
+    assertTrue( preparablePage.wasActivated() );
+  }
+
+  @Test
+  public void testShowPageShowsPlaceholderWhilePreparing() {
+    Executor executor = mock( Executor.class );
+    uiDescriptor.setPreparationExecutor( executor );
+    createRootPage( "foo" );
+    PageDescriptor page = createPreparablePage( "bar" );
+    RemoteUI remoteUI = mock( RemoteUI.class );
+    when( remoteUI.getPageParent() ).thenReturn( shell );
+    Controller controller = new Controller( remoteUI, uiDescriptor );
+    controller.createRootPages( ui );
+
+    PageRenderer renderer = controller.showPage( ui, page, new PageData() );
+
+    TestPreparablePage preparablePage = ( TestPreparablePage )renderer.getPage();
+    verify( executor ).execute( any( Runnable.class ) );
+    assertTrue( controller.isPreparing( renderer ) );
+    assertFalse( renderer.isContentCreated() );
+    assertFalse( preparablePage.wasActivated() );
+    verify( layout ).setOnTopControl( renderer.getControl() );
+  }
+
+  @Test
+  public void testPreparationRunsPrepareWithPageData() {
+    Executor executor = mock( Executor.class );
+    uiDescriptor.setPreparationExecutor( executor );
+    createRootPage( "foo" );
+    PageDescriptor page = createPreparablePage( "bar" );
+    RemoteUI remoteUI = mock( RemoteUI.class );
+    when( remoteUI.getPageParent() ).thenReturn( shell );
+    Controller controller = new Controller( remoteUI, uiDescriptor );
+    controller.createRootPages( ui );
+    PageData data = new PageData();
+    PageRenderer renderer = controller.showPage( ui, page, data );
+    ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass( Runnable.class );
+    verify( executor ).execute( captor.capture() );
+
+    captor.getValue().run();
+
+    assertSame( data, ( ( TestPreparablePage )renderer.getPage() ).getPreparedData() );
+    assertFalse( renderer.isContentCreated() );
+  }
+
+  @Test
+  public void testShowPagePreparesSynchronouslyWhenExecutorRejects() {
+    Executor executor = mock( Executor.class );
+    doThrow( new RejectedExecutionException() ).when( executor ).execute( any( Runnable.class ) );
+    uiDescriptor.setPreparationExecutor( executor );
+    createRootPage( "foo" );
+    PageDescriptor page = createPreparablePage( "bar" );
+    RemoteUI remoteUI = mock( RemoteUI.class );
+    when( remoteUI.getPageParent() ).thenReturn( shell );
+    Controller controller = new Controller( remoteUI, uiDescriptor );
+    controller.createRootPages( ui );
+
+    PageRenderer renderer = controller.showPage( ui, page, new PageData() );
+
+    TestPreparablePage preparablePage = ( TestPreparablePage )renderer.getPage();
+    assertFalse( controller.isPreparing( renderer ) );
+    assertFalse( SharedServerPush.getInstance().isActive() );
+    assertTrue( renderer.isContentCreated() );
+    assertTrue( preparablePage.wasPreparedBeforeCreation() );
+    assertTrue( preparablePage.wasActivated() );
+  }
+
+  @Test
+  public void testPrerenderDefersBackgroundPreparation() {
+    Executor executor = mock( Executor.class );
+    uiDescriptor.setPreparationExecutor( executor );
+    PageDescriptor root = createRootPage( "foo" );
+    createPreparablePage( "bar" );
+    when( root.getSuccessors() ).thenReturn( Arrays.asList( "bar" ) );
+    RemoteUI remoteUI = mock( RemoteUI.class );
+    when( remoteUI.getPageParent() ).thenReturn( shell );
+    Controller controller = new Controller( remoteUI, uiDescriptor );
+    controller.createRootPages( ui );
+
+    controller.prerender( ui, root );
+
+    assertEquals( 1, controller.getPrerenderedPages().size() );
+    verify( executor, never() ).execute( any( Runnable.class ) );
+  }
+
+  @Test
+  public void testPrerenderedPreparablePageIsPreparedWithPassedData() {
+    Executor executor = mock( Executor.class );
+    uiDescriptor.setPreparationExecutor( executor );
+    PageDescriptor root = createRootPage( "foo" );
+    PageDescriptor page = createPreparablePage( "bar" );
+    when( root.getSuccessors() ).thenReturn( Arrays.asList( "bar" ) );
+    RemoteUI remoteUI = mock( RemoteUI.class );
+    when( remoteUI.getPageParent() ).thenReturn( shell );
+    Controller controller = new Controller( remoteUI, uiDescriptor );
+    controller.createRootPages( ui );
+    controller.prerender( ui, root );
+    PageData data = new PageData();
+    data.set( "foo", "bar" );
+
+    PageRenderer renderer = controller.showPage( ui, page, data );
+    ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass( Runnable.class );
+    verify( executor ).execute( captor.capture() );
+    captor.getValue().run();
+
+    assertEquals( 0, controller.getPrerenderedPages().size() );
+    PageData preparedData = ( ( TestPreparablePage )renderer.getPage() ).getPreparedData();
+    assertEquals( "bar", preparedData.get( "foo", String.class ) );
+  }
+
+  @Test
+  public void testCompletePreparationCreatesContentAndActivatesCurrentPage() {
+    uiDescriptor.setPreparationExecutor( mock( Executor.class ) );
+    createRootPage( "foo" );
+    PageDescriptor page = createPreparablePage( "bar" );
+    RemoteUI remoteUI = mock( RemoteUI.class );
+    when( remoteUI.getPageParent() ).thenReturn( shell );
+    Controller controller = new Controller( remoteUI, uiDescriptor );
+    controller.createRootPages( ui );
+    PageRenderer renderer = controller.showPage( ui, page, new PageData() );
+
+    controller.completePreparation( renderer, renderer.getPage(), null );
+
+    assertFalse( controller.isPreparing( renderer ) );
+    assertTrue( renderer.isContentCreated() );
+    assertTrue( ( ( TestPage )renderer.getPage() ).wasActivated() );
+  }
+
+  @Test
+  public void testCompletePreparationDoesNotCreateContentOfClosedPage() {
+    uiDescriptor.setPreparationExecutor( mock( Executor.class ) );
+    createRootPage( "foo" );
+    PageDescriptor page = createPreparablePage( "bar" );
+    RemoteUI remoteUI = mock( RemoteUI.class );
+    when( remoteUI.getPageParent() ).thenReturn( shell );
+    Controller controller = new Controller( remoteUI, uiDescriptor );
+    controller.createRootPages( ui );
+    PageRenderer renderer = controller.showPage( ui, page, new PageData() );
+    controller.closeCurrentPage( ui );
+
+    controller.completePreparation( renderer, renderer.getPage(), null );
+
+    TestPage testPage = ( TestPage )renderer.getPage();
+    assertFalse( testPage.wasCreated() );
+    assertFalse( testPage.wasDeactivated() );
+  }
+
+  @Test
+  public void testCompletePreparationDoesNotActivateHiddenPage() {
+    uiDescriptor.setPreparationExecutor( mock( Executor.class ) );
+    createRootPage( "foo" );
+    PageDescriptor page1 = createPreparablePage( "bar" );
+    PageDescriptor page2 = createPage( "baz" );
+    RemoteUI remoteUI = mock( RemoteUI.class );
+    when( remoteUI.getPageParent() ).thenReturn( shell );
+    Controller controller = new Controller( remoteUI, uiDescriptor );
+    controller.createRootPages( ui );
+    PageRenderer renderer = controller.showPage( ui, page1, new PageData() );
+    controller.showPage( ui, page2, new PageData() );
+
+    controller.completePreparation( renderer, renderer.getPage(), null );
+
+    assertTrue( renderer.isContentCreated() );
+    assertFalse( ( ( TestPage )renderer.getPage() ).wasActivated() );
+  }
+
+  @Test
+  public void testKeepsServerPushActiveWhilePreparing() {
+    uiDescriptor.setPreparationExecutor( mock( Executor.class ) );
+    createRootPage( "foo" );
+    PageDescriptor page = createPreparablePage( "bar" );
+    RemoteUI remoteUI = mock( RemoteUI.class );
+    when( remoteUI.getPageParent() ).thenReturn( shell );
+    Controller controller = new Controller( remoteUI, uiDescriptor );
+    controller.createRootPages( ui );
+
+    PageRenderer renderer = controller.showPage( ui, page, new PageData() );
+
+    assertTrue( SharedServerPush.getInstance().isActive() );
+    controller.completePreparation( renderer, renderer.getPage(), null );
+    assertFalse( SharedServerPush.getInstance().isActive() );
+  }
+
+  @Test( expected = IllegalStateException.class )
+  public void testCompletePreparationRethrowsFailure() {
+    uiDescriptor.setPreparationExecutor( mock( Executor.class ) );
+    createRootPage( "foo" );
+    PageDescriptor page = createPreparablePage( "bar" );
+    RemoteUI remoteUI = mock( RemoteUI.class );
+    when( remoteUI.getPageParent() ).thenReturn( shell );
+    Controller controller = new Controller( remoteUI, uiDescriptor );
+    controller.createRootPages( ui );
+    PageRenderer renderer = controller.showPage( ui, page, new PageData() );
+
+    controller.completePreparation( renderer, renderer.getPage(), new IllegalStateException() );
+  }
+
+  @Test
+  public void testDoesNotSavePageFlowByDefault() {
+    ClientStore clientStore = fakeClientStore();
+    createRootPage( "foo" );
+    PageDescriptor page = createPage( "bar" );
+    RemoteUI remoteUI = mock( RemoteUI.class );
+    when( remoteUI.getPageParent() ).thenReturn( shell );
+    Controller controller = new Controller( remoteUI, uiDescriptor );
+    controller.createRootPages( ui );
+
+    controller.show( ui, page, new PageData() );
+
+    verify( clientStore, never() ).add( anyString(), anyString() );
+  }
+
+  @Test
+  public void testSavesPageFlowOnShow() {
+    uiDescriptor.setRestorePageFlow( true );
+    ClientStore clientStore = fakeClientStore();
+    createRootPage( "foo" );
+    PageDescriptor page = createPage( "bar" );
+    RemoteUI remoteUI = mock( RemoteUI.class );
+    when( remoteUI.getPageParent() ).thenReturn( shell );
+    Controller controller = new Controller( remoteUI, uiDescriptor );
+    controller.createRootPages( ui );
+
+    controller.show( ui, page, new PageData() );
+
+    PageFlowSnapshot snapshot = loadSnapshot( clientStore );
+    assertEquals( 2, snapshot.getEntries().size() );
+    assertEquals( "foo", snapshot.getEntries().get( 0 ).getPageId() );
+    assertEquals( "bar", snapshot.getEntries().get( 1 ).getPageId() );
+  }
+
+  @Test
+  public void testSavesPageFlowOnClose() {
+    uiDescriptor.setRestorePageFlow( true );
+    ClientStore clientStore = fakeClientStore();
+    createRootPage( "foo" );
+    PageDescriptor page = createPage( "bar" );
+    RemoteUI remoteUI = mock( RemoteUI.class );
+    when( remoteUI.getPageParent() ).thenReturn( shell );
+    Controller controller = new Controller( remoteUI, uiDescriptor );
+    controller.createRootPages( ui );
+    controller.show( ui, page, new PageData() );
+
+    controller.closeCurrentPage( ui );
+
+    assertEquals( 1, loadSnapshot( clientStore ).getEntries().size() );
+  }
+
+  @Test
+  public void testRestoresTopPageOfSavedPageFlow() {
+    uiDescriptor.setRestorePageFlow( true );
+    ClientStore clientStore = fakeClientStore();
+    createRootPage( "foo" );
+    PageDescriptor root2 = createRootPage( "foo2" );
+    createPage( "bar" );
+    createPage( "baz" );
+    PageData data = new PageData();
+    data.set( "key", "value" );
+    saveSnapshot( clientStore, createEntry( "foo2" ), createEntry( "bar" ), new Entry( "baz", "title", data ) );
+    RemoteUI remoteUI = mock( RemoteUI.class );
+    when( remoteUI.getPageParent() ).thenReturn( shell );
+    Controller controller = new Controller( remoteUI, uiDescriptor );
+
+    controller.createRootPages( ui );
+
+    assertTrue( getTestPage( controller, root2 ).wasActivated() );
+    assertTrue( ( ( TestPage )controller.getCurrentPage() ).wasActivated() );
+    assertEquals( "value", controller.getCurrentData().get( "key", String.class ) );
+    verify( remoteObject ).set( "title", "title" );
+  }
+
+  @Test
+  public void testRestoresIntermediatePagesLazily() {
+    uiDescriptor.setRestorePageFlow( true );
+    ClientStore clientStore = fakeClientStore();
+    createRootPage( "foo" );
+    PageDescriptor page1 = createPage( "bar" );
+    createPage( "baz" );
+    saveSnapshot( clientStore, createEntry( "foo" ), createEntry( "bar" ), createEntry( "baz" ) );
+    RemoteRendererFactory rendererFactory = spy( new RemoteRendererFactory() );
+    when( uiDescriptor.getRendererFactory() ).thenReturn( rendererFactory );
+    RemoteUI remoteUI = mock( RemoteUI.class );
+    when( remoteUI.getPageParent() ).thenReturn( shell );
+    Controller controller = new Controller( remoteUI, uiDescriptor );
+
+    controller.createRootPages( ui );
+
+    verify( rendererFactory, never() ).createPageRenderer( any( UI.class ),
+                                                           eq( page1 ),
+                                                           anyString(),
+                                                           any( PageData.class ) );
+  }
+
+  @Test
+  public void testCloseCurrentPageCreatesDeferredPage() {
+    uiDescriptor.setRestorePageFlow( true );
+    ClientStore clientStore = fakeClientStore();
+    createRootPage( "foo" );
+    createPage( "bar" );
+    createPage( "baz" );
+    saveSnapshot( clientStore, createEntry( "foo" ), createEntry( "bar" ), createEntry( "baz" ) );
+    RemoteUI remoteUI = mock( RemoteUI.class );
+    when( remoteUI.getPageParent() ).thenReturn( shell );
+    Controller controller = new Controller( remoteUI, uiDescriptor );
+    controller.createRootPages( ui );
+
+    boolean closed = controller.closeCurrentPage( ui );
+
+    assertTrue( closed );
+    TestPage currentPage = ( TestPage )controller.getCurrentPage();
+    assertTrue( currentPage.wasActivated() );
+    assertEquals( 2, loadSnapshot( clientStore ).getEntries().size() );
+    assertTrue( controller.closeCurrentPage( ui ) );
+    assertFalse( controller.closeCurrentPage( ui ) );
+  }
+
+  @Test
+  public void testIgnoresSavedPageFlowWithUnknownPage() {
+    uiDescriptor.setRestorePageFlow( true );
+    ClientStore clientStore = fakeClientStore();
+    PageDescriptor root = createRootPage( "foo" );
+    createRootPage( "foo2" );
+    saveSnapshot( clientStore, createEntry( "foo2" ), createEntry( "unknown" ) );
+    RemoteUI remoteUI = mock( RemoteUI.class );
+    when( remoteUI.getPageParent() ).thenReturn( shell );
+    Controller controller = new Controller( remoteUI, uiDescriptor );
+
+    controller.createRootPages( ui );
+
+    assertSame( controller.getRootPages().get( root ).getPage(), controller.getCurrentPage() );
+  }
+
+  @Test
+  public void testIgnoresSavedPageFlowWithoutTopLevelRoot() {
+    uiDescriptor.setRestorePageFlow( true );
+    ClientStore clientStore = fakeClientStore();
+    PageDescriptor root = createRootPage( "foo" );
+    createPage( "bar" );
+    saveSnapshot( clientStore, createEntry( "bar" ) );
+    RemoteUI remoteUI = mock( RemoteUI.class );
+    when( remoteUI.getPageParent() ).thenReturn( shell );
+    Controller controller = new Controller( remoteUI, uiDescriptor );
+
+    controller.createRootPages( ui );
+
+    assertSame( controller.getRootPages().get( root ).getPage(), controller.getCurrentPage() );
+  }
+
+  @Test
+  public void testRestoresPageFlowLoadedInLaterRequest() {
+    uiDescriptor.setRestorePageFlow( true );
+    ClientStore clientStore = fakeClientStore();
+    createRootPage( "foo" );
+    PageDescriptor root2 = createRootPage( "foo2" );
+    createPage( "bar" );
+    saveSnapshot( clientStore, createEntry( "foo2" ), createEntry( "bar" ) );
+    doNothing().when( clientStore ).get( anyString(), any( ClientStoreCallback.class ) );
+    RemoteUI remoteUI = mock( RemoteUI.class );
+    when( remoteUI.getPageParent() ).thenReturn( shell );
+    Controller controller = new Controller( remoteUI, uiDescriptor );
+    controller.createRootPages( ui );
+
+    passStoredSnapshot( clientStore );
+
+    assertFalse( controller.isRestorePending() );
+    assertTrue( getTestPage( controller, root2 ).wasActivated() );
+    assertTrue( ( ( TestPage )controller.getCurrentPage() ).wasActivated() );
+    assertEquals( "bar", loadSnapshot( clientStore ).getEntries().get( 1 ).getPageId() );
+  }
+
+  @Test
+  public void testDoesNotSavePageFlowWhileSnapshotIsLoading() {
+    uiDescriptor.setRestorePageFlow( true );
+    ClientStore clientStore = fakeClientStore();
+    createRootPage( "foo" );
+    createPage( "bar" );
+    saveSnapshot( clientStore, createEntry( "foo" ), createEntry( "bar" ) );
+    doNothing().when( clientStore ).get( anyString(), any( ClientStoreCallback.class ) );
+    RemoteUI remoteUI = mock( RemoteUI.class );
+    when( remoteUI.getPageParent() ).thenReturn( shell );
+    Controller controller = new Controller( remoteUI, uiDescriptor );
+
+    controller.createRootPages( ui );
+
+    assertTrue( controller.isRestorePending() );
+    assertEquals( 2, loadSnapshot( clientStore ).getEntries().size() );
+  }
+
+  @Test
+  public void testIgnoresSnapshotLoadedAfterNavigation() {
+    uiDescriptor.setRestorePageFlow( true );
+    ClientStore clientStore = fakeClientStore();
+    PageDescriptor root = createRootPage( "foo" );
+    PageDescriptor root2 = createRootPage( "foo2" );
+    saveSnapshot( clientStore, createEntry( "foo2" ) );
+    PageFlowSnapshot snapshot = loadSnapshot( clientStore );
+    doNothing().when( clientStore ).get( anyString(), any( ClientStoreCallback.class ) );
+    RemoteUI remoteUI = mock( RemoteUI.class );
+    when( remoteUI.getPageParent() ).thenReturn( shell );
+    Controller controller = new Controller( remoteUI, uiDescriptor );
+    controller.createRootPages( ui );
+    controller.show( ui, root, new PageData() );
+
+    controller.snapshotLoaded( ui, snapshot );
+
+    assertFalse( getTestPage( controller, root2 ).wasActivated() );
+    assertEquals( "foo", loadSnapshot( clientStore ).getEntries().get( 0 ).getPageId() );
+  }
+
+  private void passStoredSnapshot( ClientStore clientStore ) {
+    ArgumentCaptor<ClientStoreCallback> captor = ArgumentCaptor.forClass( ClientStoreCallback.class );
+    verify( clientStore ).get( eq( PageFlowSnapshotStore.KEY ), captor.capture() );
+    captor.getValue().valueReceived( PageFlowSnapshotStore.KEY, clientStore.get( PageFlowSnapshotStore.KEY ) );
+  }
+
+  private ClientStore fakeClientStore() {
+    final Map<String, String> values = new HashMap<String, String>();
+    ClientStore clientStore = mock( ClientStore.class );
+    doAnswer( new Answer<Object>() {
+      @Override
+      public Object answer( InvocationOnMock invocation ) throws Throwable {
+        values.put( ( String )invocation.getArguments()[ 0 ], ( String )invocation.getArguments()[ 1 ] );
+        return null;
+      }
+    } ).when( clientStore ).add( anyString(), anyString() );
+    when( clientStore.get( anyString() ) ).thenAnswer( new Answer<String>() {
+      @Override
+      public String answer( InvocationOnMock invocation ) throws Throwable {
+        return values.get( invocation.getArguments()[ 0 ] );
+      }
+    } );
+    doAnswer( new Answer<Object>() {
+      @Override
+      public Object answer( InvocationOnMock invocation ) throws Throwable {
+        String key = ( String )invocation.getArguments()[ 0 ];
+        ( ( ClientStoreCallback )invocation.getArguments()[ 1 ] ).valueReceived( key, values.get( key ) );
+        return null;
+      }
+    } ).when( clientStore ).get( anyString(), any( ClientStoreCallback.class ) );
+    Client client = mock( Client.class );
+    when( client.getService( ClientStore.class ) ).thenReturn( clientStore );
+    Fixture.fakeClient( client );
+    return clientStore;
+  }
+
+  private Entry createEntry( String pageId ) {
+    return new Entry( pageId, null, new PageData() );
+  }
+
+  private void saveSnapshot( ClientStore clientStore, Entry... entries ) {
+    PageFlowSnapshot snapshot = new PageFlowSnapshot();
+    for( Entry entry : entries ) {
+      snapshot.add( entry );
+    }
+    new PageFlowSnapshotStore( clientStore ).save( snapshot );
+  }
+
+  private PageFlowSnapshot loadSnapshot( ClientStore clientStore ) {
+    return new PageFlowSnapshotStore( clientStore ).decode( clientStore.get( PageFlowSnapshotStore.KEY ) );
+  }
+
   private PageDescriptor createRootPage( String id ) {
     PageDescriptor descriptor = mock( PageDescriptor.class );
     when( descriptor.getId() ).thenReturn( id );
     doReturn( TestPage.class ).when( descriptor ).getPageType();
+    when( descriptor.getPageFactory() ).thenReturn( new DefaultInstanceFactory() );
     doReturn( Boolean.TRUE ).when( descriptor ).isTopLevel();
     uiDescriptor.add( descriptor );
     return descriptor;
   }
 
+  private PageDescriptor createPreparablePage( String id ) {
+    PageDescriptor descriptor = createPage( id );
+    doReturn( TestPreparablePage.class ).when( descriptor ).getPageType();
+    return descriptor;
+  }
+
   private PageDescriptor createPage( String id ) {
     PageDescriptor descriptor = mock( PageDescriptor.class );
     when( descriptor.getId() ).thenReturn( id );
     doReturn( TestPage.class ).when( descriptor ).getPageType();
+    when( descriptor.getPageFactory() ).thenReturn( new DefaultInstanceFactory() );
     doReturn( Boolean.FALSE ).when( descriptor ).isTopLevel();
     uiDescriptor.add( descriptor );
     return descriptor;
@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal.ui;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Serializable;
+
+import org.junit.Test;
+
+import com.eclipsesource.tabris.internal.ui.InstanceCreatorTest.TestClassWithPrivateConstructor;
+import com.eclipsesource.tabris.ui.Action;
+import com.eclipsesource.tabris.ui.Page;
+
+
+public class DefaultInstanceFactoryTest {
+
+  @Test
+  public void testIsSerializable() {
+    assertTrue( Serializable.class.isAssignableFrom( DefaultInstanceFactory.class ) );
+  }
+
+  @Test
+  public void testCreatesPage() {
+    DefaultInstanceFactory factory = new DefaultInstanceFactory();
+
+    Page page = factory.createPage( TestPage.class );
+
+    assertTrue( page instanceof TestPage );
+  }
+
+  @Test
+  public void testCreatesNewPageEveryTime() {
+    DefaultInstanceFactory factory = new DefaultInstanceFactory();
+
+    Page page1 = factory.createPage( TestPage.class );
+    Page page2 = factory.createPage( TestPage.class );
+
+    assertNotSame( page1, page2 );
+  }
+
+  @Test
+  public void testCreatesAction() {
+    DefaultInstanceFactory factory = new DefaultInstanceFactory();
+
+    Action action = factory.createAction( TestAction.class );
+
+    assertTrue( action instanceof TestAction );
+  }
+
+  @Test
+  public void testCachesConstructorPerType() {
+    DefaultInstanceFactory factory = new DefaultInstanceFactory();
+
+    factory.createPage( TestPage.class );
+    factory.createPage( TestPage.class );
+    factory.createAction( TestAction.class );
+
+    assertEquals( 2, factory.getCachedConstructorCount() );
+  }
+
+  @Test( expected = IllegalStateException.class )
+  public void testFailsWithPrivateConstructor() {
+    DefaultInstanceFactory factory = new DefaultInstanceFactory();
+
+    factory.createPage( TestClassWithPrivateConstructor.class );
+  }
+
+}
@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal.ui;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.eclipse.rap.json.JsonArray;
+import org.eclipse.rap.rwt.testfixture.Fixture;
+import org.eclipse.swt.widgets.Display;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class ImageRegistryTest {
+
+  private Display display;
+
+  @Before
+  public void setUp() {
+    Fixture.setUp();
+    display = new Display();
+  }
+
+  @After
+  public void tearDown() {
+    Fixture.tearDown();
+  }
+
+  @Test
+  public void testGetInstanceIsApplicationScoped() {
+    ImageRegistry registry = ImageRegistry.getInstance();
+
+    assertSame( registry, ImageRegistry.getInstance() );
+  }
+
+  @Test
+  public void testGetImageDataWithNullBytes() {
+    ImageRegistry registry = new ImageRegistry();
+
+    assertNull( registry.getImageData( display, null ) );
+  }
+
+  @Test
+  public void testGetImageDataContainsPathAndBounds() {
+    ImageRegistry registry = new ImageRegistry();
+
+    JsonArray imageData = registry.getImageData( display, UITestUtil.getImageBytes() );
+
+    assertEquals( 3, imageData.size() );
+    assertEquals( 49, imageData.get( 1 ).asInt() );
+    assertEquals( 43, imageData.get( 2 ).asInt() );
+  }
+
+  @Test
+  public void testGetImageDataRegistersImageOnce() {
+    ImageRegistry registry = new ImageRegistry();
+    byte[] bytes = UITestUtil.getImageBytes();
+
+    JsonArray imageData1 = registry.getImageData( display, bytes );
+    JsonArray imageData2 = registry.getImageData( display, bytes );
+
+    assertEquals( 1, registry.size() );
+    assertNotSame( imageData1, imageData2 );
+    assertEquals( imageData1, imageData2 );
+  }
+
+}
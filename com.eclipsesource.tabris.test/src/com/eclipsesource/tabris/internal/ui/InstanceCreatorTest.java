@@ -11,6 +11,7 @@
 package com.eclipsesource.tabris.internal.ui;
 
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 
 import org.eclipse.swt.widgets.Composite;
 import org.junit.Test;
@@ -103,4 +104,20 @@ public class InstanceCreatorTest {
     }
 
   }
+
+  @Test
+  public void testCanCreateInstanceWithConstructor() {
+    TestClass instance = InstanceCreator.createInstance( InstanceCreator.getConstructor( TestClass.class ) );
+
+    assertNotNull( instance );
+  }
+
+  @Test
+  public void testRestoresContextClassLoader() {
+    ClassLoader original = Thread.currentThread().getContextClassLoader();
+
+    InstanceCreator.createInstance( TestClass.class );
+
+    assertSame( original, Thread.currentThread().getContextClassLoader() );
+  }
 }
@@ -110,4 +110,33 @@ public class PageDescriptorTest {
     descriptor.addAction( null );
   }
 
+  @Test( expected = IllegalStateException.class )
+  public void testAddActionFailsWhenCompiled() {
+    PageDescriptor descriptor = new PageDescriptor( "foo", TestPage.class, "", null, true, PageStyle.DEFAULT );
+    descriptor.compile();
+
+    descriptor.addAction( new ActionConfiguration( "bar", TestAction.class ) );
+  }
+
+  @Test( expected = IllegalStateException.class )
+  public void testAddSuccessorFailsWhenCompiled() {
+    PageDescriptor descriptor = new PageDescriptor( "foo", TestPage.class, "", null, true, PageStyle.DEFAULT );
+    descriptor.compile();
+
+    descriptor.addSuccessor( "bar" );
+  }
+
+  @Test( expected = UnsupportedOperationException.class )
+  public void testActionsAreUnmodifiable() {
+    PageDescriptor descriptor = new PageDescriptor( "foo", TestPage.class, "", null, true, PageStyle.DEFAULT );
+
+    descriptor.getActions().add( new ActionDescriptor( "bar", TestAction.class, "", null, true, true ) );
+  }
+
+  @Test( expected = UnsupportedOperationException.class )
+  public void testSuccessorsAreUnmodifiable() {
+    PageDescriptor descriptor = new PageDescriptor( "foo", TestPage.class, "", null, true, PageStyle.DEFAULT );
+
+    descriptor.getSuccessors().add( "bar" );
+  }
 }
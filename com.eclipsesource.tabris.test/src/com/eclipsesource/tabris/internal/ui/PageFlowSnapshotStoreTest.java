@@ -0,0 +1,191 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal.ui;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.Serializable;
+
+import org.eclipse.rap.rwt.testfixture.Fixture;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.eclipsesource.tabris.ClientStore;
+import com.eclipsesource.tabris.ClientStoreCallback;
+import com.eclipsesource.tabris.internal.ui.PageFlowSnapshot.Entry;
+import com.eclipsesource.tabris.internal.ui.PageFlowSnapshotStore.LoadCallback;
+import com.eclipsesource.tabris.ui.PageData;
+
+
+public class PageFlowSnapshotStoreTest {
+
+  private ClientStore clientStore;
+
+  @Before
+  public void setUp() {
+    Fixture.setUp();
+    clientStore = mock( ClientStore.class );
+  }
+
+  @After
+  public void tearDown() {
+    Fixture.tearDown();
+  }
+
+  @Test
+  public void testIsSerializable() {
+    assertTrue( Serializable.class.isAssignableFrom( PageFlowSnapshotStore.class ) );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testFailsWithNullClientStore() {
+    new PageFlowSnapshotStore( null );
+  }
+
+  @Test
+  public void testSaveAddsEncodedSnapshotToClientStore() {
+    PageFlowSnapshotStore store = new PageFlowSnapshotStore( clientStore );
+    PageFlowSnapshot snapshot = createSnapshot( "foo", "bar" );
+
+    store.save( snapshot );
+
+    verify( clientStore ).add( PageFlowSnapshotStore.KEY, store.encode( snapshot ) );
+  }
+
+  @Test
+  public void testSaveDoesNotResendUnchangedSnapshot() {
+    PageFlowSnapshotStore store = new PageFlowSnapshotStore( clientStore );
+    PageFlowSnapshot snapshot = createSnapshot( "foo", "bar" );
+    when( clientStore.get( PageFlowSnapshotStore.KEY ) ).thenReturn( store.encode( snapshot ) );
+
+    store.save( snapshot );
+
+    verify( clientStore, never() ).add( anyString(), anyString() );
+  }
+
+  @Test
+  public void testSaveRemovesStoredSnapshotWhenDataIsNotSerializable() {
+    PageFlowSnapshotStore store = new PageFlowSnapshotStore( clientStore );
+    when( clientStore.get( PageFlowSnapshotStore.KEY ) ).thenReturn( "foo" );
+    PageData data = new PageData();
+    data.set( "key", new Object() );
+    PageFlowSnapshot snapshot = new PageFlowSnapshot();
+    snapshot.add( new Entry( "foo", null, data ) );
+
+    store.save( snapshot );
+
+    verify( clientStore ).remove( PageFlowSnapshotStore.KEY );
+    verify( clientStore, never() ).add( anyString(), anyString() );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testLoadFailsWithNullCallback() {
+    PageFlowSnapshotStore store = new PageFlowSnapshotStore( clientStore );
+
+    store.load( null );
+  }
+
+  @Test
+  public void testLoadPassesNullWithoutStoredSnapshot() {
+    PageFlowSnapshotStore store = new PageFlowSnapshotStore( clientStore );
+    LoadCallback callback = mock( LoadCallback.class );
+
+    store.load( callback );
+    passStoredValue( null );
+
+    verify( callback ).snapshotLoaded( null );
+  }
+
+  @Test
+  public void testLoadPassesDecodedSnapshot() {
+    PageFlowSnapshotStore store = new PageFlowSnapshotStore( clientStore );
+    PageData data = new PageData();
+    data.set( "key", "value" );
+    PageFlowSnapshot snapshot = new PageFlowSnapshot();
+    snapshot.add( new Entry( "foo", "title", data ) );
+    LoadCallback callback = mock( LoadCallback.class );
+
+    store.load( callback );
+    passStoredValue( store.encode( snapshot ) );
+
+    ArgumentCaptor<PageFlowSnapshot> captor = ArgumentCaptor.forClass( PageFlowSnapshot.class );
+    verify( callback ).snapshotLoaded( captor.capture() );
+    Entry entry = captor.getValue().getEntries().get( 0 );
+    assertEquals( "foo", entry.getPageId() );
+    assertEquals( "title", entry.getTitle() );
+    assertEquals( "value", entry.getData().get( "key", String.class ) );
+  }
+
+  @Test
+  public void testSharesSigningKeyWithinApplication() {
+    PageFlowSnapshotStore store = new PageFlowSnapshotStore( clientStore );
+    String value = new PageFlowSnapshotStore( mock( ClientStore.class ) ).encode( createSnapshot( "foo" ) );
+
+    assertEquals( 1, store.decode( value ).getEntries().size() );
+  }
+
+  @Test
+  public void testDecodeIgnoresSnapshotSignedWithOtherKey() {
+    PageFlowSnapshotStore store = new PageFlowSnapshotStore( clientStore, new byte[] { 1, 2, 3 } );
+    PageFlowSnapshotStore otherStore = new PageFlowSnapshotStore( clientStore, new byte[] { 3, 2, 1 } );
+
+    assertNull( store.decode( otherStore.encode( createSnapshot( "foo" ) ) ) );
+  }
+
+  @Test
+  public void testDecodeIgnoresTamperedSnapshot() {
+    PageFlowSnapshotStore store = new PageFlowSnapshotStore( clientStore );
+    String value = store.encode( createSnapshot( "foo", "bar" ) );
+    char replacement = value.charAt( 40 ) == 'A' ? 'B' : 'A';
+    String tamperedValue = value.substring( 0, 40 ) + replacement + value.substring( 41 );
+
+    assertNull( store.decode( tamperedValue ) );
+  }
+
+  @Test
+  public void testDecodeIgnoresInvalidValue() {
+    PageFlowSnapshotStore store = new PageFlowSnapshotStore( clientStore );
+
+    assertNull( store.decode( "not a snapshot!" ) );
+  }
+
+  @Test
+  public void testDecodeIgnoresShortValue() {
+    PageFlowSnapshotStore store = new PageFlowSnapshotStore( clientStore );
+
+    assertNull( store.decode( "Zm9v" ) );
+  }
+
+  private void passStoredValue( String value ) {
+    ArgumentCaptor<ClientStoreCallback> captor = ArgumentCaptor.forClass( ClientStoreCallback.class );
+    verify( clientStore ).get( eq( PageFlowSnapshotStore.KEY ), captor.capture() );
+    captor.getValue().valueReceived( PageFlowSnapshotStore.KEY, value );
+  }
+
+  private PageFlowSnapshot createSnapshot( String... pageIds ) {
+    PageFlowSnapshot snapshot = new PageFlowSnapshot();
+    for( String pageId : pageIds ) {
+      snapshot.add( new Entry( pageId, null, new PageData() ) );
+    }
+    return snapshot;
+  }
+
+}
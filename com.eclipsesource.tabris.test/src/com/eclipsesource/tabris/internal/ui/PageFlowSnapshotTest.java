@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal.ui;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.Serializable;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.eclipsesource.tabris.internal.ui.PageFlowSnapshot.Entry;
+import com.eclipsesource.tabris.internal.ui.rendering.PageRenderer;
+import com.eclipsesource.tabris.ui.PageData;
+
+
+public class PageFlowSnapshotTest {
+
+  @Test
+  public void testIsSerializable() {
+    assertTrue( Serializable.class.isAssignableFrom( PageFlowSnapshot.class ) );
+    assertTrue( Serializable.class.isAssignableFrom( Entry.class ) );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testAddFailsWithNullEntry() {
+    new PageFlowSnapshot().add( null );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testEntryFailsWithNullPageId() {
+    new Entry( null, null, new PageData() );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testEntryFailsWithNullData() {
+    new Entry( "foo", null, null );
+  }
+
+  @Test( expected = UnsupportedOperationException.class )
+  public void testEntriesAreUnmodifiable() {
+    PageFlowSnapshot snapshot = new PageFlowSnapshot();
+
+    snapshot.getEntries().add( new Entry( "foo", null, new PageData() ) );
+  }
+
+  @Test
+  public void testCreateContainsRenderersInOrder() {
+    PageFlow flow = new PageFlow( createRenderer( "foo", "foo" ) );
+    flow.add( createRenderer( "bar", "bar" ) );
+    flow.add( createRenderer( "baz", "baz" ) );
+
+    PageFlowSnapshot snapshot = PageFlowSnapshot.create( flow );
+
+    List<Entry> entries = snapshot.getEntries();
+    assertEquals( 3, entries.size() );
+    assertEquals( "foo", entries.get( 0 ).getPageId() );
+    assertEquals( "bar", entries.get( 1 ).getPageId() );
+    assertEquals( "baz", entries.get( 2 ).getPageId() );
+  }
+
+  @Test
+  public void testCreateContainsDeferredEntriesBetweenRootAndPages() {
+    PageFlow flow = new PageFlow( createRenderer( "foo", "foo" ) );
+    Entry deferredEntry = new Entry( "bar", null, new PageData() );
+    flow.defer( deferredEntry );
+    flow.add( createRenderer( "baz", "baz" ) );
+
+    PageFlowSnapshot snapshot = PageFlowSnapshot.create( flow );
+
+    List<Entry> entries = snapshot.getEntries();
+    assertEquals( 3, entries.size() );
+    assertSame( deferredEntry, entries.get( 1 ) );
+    assertEquals( "baz", entries.get( 2 ).getPageId() );
+  }
+
+  @Test
+  public void testCreateContainsPageData() {
+    PageRenderer renderer = createRenderer( "foo", "foo" );
+    PageFlow flow = new PageFlow( renderer );
+
+    PageFlowSnapshot snapshot = PageFlowSnapshot.create( flow );
+
+    assertSame( renderer.getData(), snapshot.getEntries().get( 0 ).getData() );
+  }
+
+  @Test
+  public void testCreateOmitsUnchangedTitle() {
+    PageFlow flow = new PageFlow( createRenderer( "foo", "foo" ) );
+
+    PageFlowSnapshot snapshot = PageFlowSnapshot.create( flow );
+
+    assertNull( snapshot.getEntries().get( 0 ).getTitle() );
+  }
+
+  @Test
+  public void testCreateContainsChangedTitle() {
+    PageFlow flow = new PageFlow( createRenderer( "foo", "changed" ) );
+
+    PageFlowSnapshot snapshot = PageFlowSnapshot.create( flow );
+
+    assertEquals( "changed", snapshot.getEntries().get( 0 ).getTitle() );
+  }
+
+  private PageRenderer createRenderer( String id, String title ) {
+    PageDescriptor descriptor = mock( PageDescriptor.class );
+    when( descriptor.getId() ).thenReturn( id );
+    when( descriptor.getTitle() ).thenReturn( id );
+    PageRenderer renderer = mock( PageRenderer.class );
+    when( renderer.getDescriptor() ).thenReturn( descriptor );
+    when( renderer.getTitle() ).thenReturn( title );
+    when( renderer.getData() ).thenReturn( new PageData() );
+    return renderer;
+  }
+
+}
@@ -12,6 +12,7 @@ package com.eclipsesource.tabris.internal.ui;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.doReturn;
@@ -34,6 +35,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.mockito.InOrder;
 
+import com.eclipsesource.tabris.internal.ui.PageFlowSnapshot.Entry;
 import com.eclipsesource.tabris.internal.ui.rendering.PageRenderer;
 import com.eclipsesource.tabris.ui.PageData;
 import com.eclipsesource.tabris.ui.UI;
@@ -210,6 +212,134 @@ public class PageFlowTest {
       assertSame( renderer2, allPages.get( 2 ) );
     }
 
+  @Test
+  public void testGetRenderersBeyondWithoutLimit() {
+    PageFlow flow = new PageFlow( createPage() );
+    flow.add( createPage() );
+    flow.add( createPage() );
+
+    List<PageRenderer> renderers = flow.getRenderersBeyond( 0 );
+
+    assertTrue( renderers.isEmpty() );
+  }
+
+  @Test
+  public void testGetRenderersBeyondLimit() {
+    PageFlow flow = new PageFlow( createPage() );
+    RemotePage renderer1 = createPage();
+    RemotePage renderer2 = createPage();
+    RemotePage renderer3 = createPage();
+    flow.add( renderer1 );
+    flow.add( renderer2 );
+    flow.add( renderer3 );
+
+    List<PageRenderer> renderers = flow.getRenderersBeyond( 2 );
+
+    assertEquals( 2, renderers.size() );
+    assertSame( renderer1, renderers.get( 1 ) );
+  }
+
+  @Test
+  public void testGetRenderersBeyondLimitSkipsTopLevelRenderer() {
+    RemotePage root = createPage();
+    doReturn( Boolean.TRUE ).when( root.getDescriptor() ).isTopLevel();
+    PageFlow flow = new PageFlow( root );
+    RemotePage renderer1 = createPage();
+    RemotePage renderer2 = createPage();
+    flow.add( renderer1 );
+    flow.add( renderer2 );
+
+    List<PageRenderer> renderers = flow.getRenderersBeyond( 1 );
+
+    assertEquals( 1, renderers.size() );
+    assertSame( renderer1, renderers.get( 0 ) );
+  }
+
+  @Test
+  public void testDeferAddsDeferredEntry() {
+    PageFlow flow = new PageFlow( createPage() );
+    Entry entry = createEntry( "bar" );
+
+    flow.defer( entry );
+
+    assertEquals( 1, flow.getDeferredEntries().size() );
+    assertSame( entry, flow.getDeferredEntries().get( 0 ) );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testDeferFailsWithNullEntry() {
+    PageFlow flow = new PageFlow( createPage() );
+
+    flow.defer( null );
+  }
+
+  @Test( expected = IllegalStateException.class )
+  public void testDeferFailsAbovePages() {
+    PageFlow flow = new PageFlow( createPage() );
+    flow.add( createPage() );
+
+    flow.defer( createEntry( "bar" ) );
+  }
+
+  @Test
+  public void testTakeDeferredPreviousReturnsLastDeferredEntry() {
+    PageFlow flow = new PageFlow( createPage() );
+    Entry entry1 = createEntry( "bar1" );
+    Entry entry2 = createEntry( "bar2" );
+    flow.defer( entry1 );
+    flow.defer( entry2 );
+    flow.add( createPage() );
+
+    Entry entry = flow.takeDeferredPrevious();
+
+    assertSame( entry2, entry );
+    assertEquals( 1, flow.getDeferredEntries().size() );
+  }
+
+  @Test
+  public void testTakeDeferredPreviousReturnsNullWhenPreviousIsRendered() {
+    PageFlow flow = new PageFlow( createPage() );
+    flow.defer( createEntry( "bar" ) );
+    flow.add( createPage() );
+    flow.add( createPage() );
+
+    assertNull( flow.takeDeferredPrevious() );
+  }
+
+  @Test
+  public void testInsertPreviousSetsPreviousRenderer() {
+    PageFlow flow = new PageFlow( createPage() );
+    RemotePage current = createPage();
+    RemotePage previous = createPage();
+    flow.add( current );
+
+    flow.insertPrevious( previous );
+
+    assertSame( previous, flow.getPreviousRenderer() );
+    assertSame( current, flow.getCurrentRenderer() );
+  }
+
+  @Test( expected = IllegalStateException.class )
+  public void testInsertPreviousFailsWithRootOnly() {
+    PageFlow flow = new PageFlow( createPage() );
+
+    flow.insertPrevious( createPage() );
+  }
+
+  @Test
+  public void testDestroyClearsDeferredEntries() {
+    PageFlow flow = new PageFlow( createPage() );
+    flow.defer( createEntry( "bar" ) );
+
+    flow.destroy();
+
+    assertTrue( flow.getDeferredEntries().isEmpty() );
+  }
+
+  private Entry createEntry( String pageId ) {
+    return new Entry( pageId, null, new PageData() );
+  }
+
   private RemotePage createPage() {
     PageDescriptor descriptor = spy( new PageDescriptor( "foo", TestPage.class, "", null, false ) );
     UI ui = mock( UI.class );
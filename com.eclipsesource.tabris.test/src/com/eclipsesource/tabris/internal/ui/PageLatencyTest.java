@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal.ui;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Serializable;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.eclipsesource.tabris.ui.TransitionMetrics;
+import com.eclipsesource.tabris.ui.TransitionPhase;
+
+
+public class PageLatencyTest {
+
+  private PageLatency pageLatency;
+
+  @Before
+  public void setUp() {
+    pageLatency = new PageLatency();
+  }
+
+  @Test
+  public void testIsSerializable() {
+    assertTrue( Serializable.class.isAssignableFrom( PageLatency.class ) );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testRecordFailsWithNullMetrics() {
+    pageLatency.record( null );
+  }
+
+  @Test
+  public void testHasNoPageIdsByDefault() {
+    assertEquals( 0, pageLatency.getPageIds().length );
+  }
+
+  @Test
+  public void testGetPageIdsIsSorted() {
+    pageLatency.record( createMetrics( "foo", 1 ) );
+    pageLatency.record( createMetrics( "bar", 1 ) );
+
+    assertArrayEquals( new String[] { "bar", "foo" }, pageLatency.getPageIds() );
+  }
+
+  @Test
+  public void testCountsTransitionsPerPage() {
+    pageLatency.record( createMetrics( "foo", 1 ) );
+    pageLatency.record( createMetrics( "foo", 2 ) );
+    pageLatency.record( createMetrics( "bar", 1 ) );
+
+    assertEquals( 2, pageLatency.getTransitionCount( "foo" ) );
+    assertEquals( 1, pageLatency.getTransitionCount( "bar" ) );
+  }
+
+  @Test
+  public void testGetPercentileOfUnknownPage() {
+    assertEquals( 0, pageLatency.getPercentile( "foo", 50 ), 0 );
+  }
+
+  @Test
+  public void testGetPercentileInMillis() {
+    for( int i = 1; i <= 100; i++ ) {
+      pageLatency.record( createMetrics( "foo", i ) );
+    }
+
+    assertEquals( 50, pageLatency.getPercentile( "foo", 50 ), 0 );
+    assertEquals( 90, pageLatency.getPercentile( "foo", 90 ), 0 );
+    assertEquals( 100, pageLatency.getPercentile( "foo", 100 ), 0 );
+    assertEquals( 1, pageLatency.getPercentile( "foo", 0 ), 0 );
+  }
+
+  @Test
+  public void testGetPhasePercentileInMillis() {
+    for( int i = 1; i <= 10; i++ ) {
+      pageLatency.record( createMetrics( "foo", i ) );
+    }
+
+    assertEquals( 5, pageLatency.getPhasePercentile( "foo", "CREATE_CONTENT", 50 ), 0 );
+    assertEquals( 0, pageLatency.getPhasePercentile( "foo", "LAYOUT", 50 ), 0 );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testGetPhasePercentileFailsWithUnknownPhase() {
+    pageLatency.getPhasePercentile( "foo", "bar", 50 );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testGetPercentileFailsWithPercentileAbove100() {
+    pageLatency.getPercentile( "foo", 101 );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testGetPercentileFailsWithNegativePercentile() {
+    pageLatency.getPercentile( "foo", -1 );
+  }
+
+  @Test
+  public void testKeepsOnlyLatestSamples() {
+    for( int i = 0; i < PageLatency.SAMPLE_SIZE; i++ ) {
+      pageLatency.record( createMetrics( "foo", 100 ) );
+    }
+    for( int i = 0; i < PageLatency.SAMPLE_SIZE; i++ ) {
+      pageLatency.record( createMetrics( "foo", 1 ) );
+    }
+
+    assertEquals( 1, pageLatency.getPercentile( "foo", 100 ), 0 );
+    assertEquals( 2 * PageLatency.SAMPLE_SIZE, pageLatency.getTransitionCount( "foo" ) );
+  }
+
+  @Test
+  public void testReset() {
+    pageLatency.record( createMetrics( "foo", 1 ) );
+
+    pageLatency.reset();
+
+    assertEquals( 0, pageLatency.getPageIds().length );
+    assertEquals( 0, pageLatency.getTransitionCount( "foo" ) );
+  }
+
+  private TransitionMetrics createMetrics( String pageId, long millis ) {
+    Map<TransitionPhase, Long> durations = new EnumMap<TransitionPhase, Long>( TransitionPhase.class );
+    durations.put( TransitionPhase.CREATE_CONTENT, Long.valueOf( millis * 1000000 ) );
+    return new TransitionMetrics( null, pageId, durations );
+  }
+
+}
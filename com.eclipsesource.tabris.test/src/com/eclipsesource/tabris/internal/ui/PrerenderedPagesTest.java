@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal.ui;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.eclipsesource.tabris.internal.ui.rendering.PageRenderer;
+
+
+public class PrerenderedPagesTest {
+
+  @Test
+  public void testIsSerializable() {
+    assertTrue( Serializable.class.isAssignableFrom( PrerenderedPages.class ) );
+  }
+
+  @Test
+  public void testIsDisabledWithZeroLimit() {
+    PrerenderedPages pages = new PrerenderedPages( 0 );
+
+    assertFalse( pages.isEnabled() );
+  }
+
+  @Test
+  public void testTakeRemovesRenderer() {
+    PrerenderedPages pages = new PrerenderedPages( 2 );
+    PageDescriptor descriptor = mock( PageDescriptor.class );
+    PageRenderer renderer = mock( PageRenderer.class );
+    pages.put( descriptor, renderer );
+
+    PageRenderer taken = pages.take( descriptor );
+
+    assertSame( renderer, taken );
+    assertNull( pages.take( descriptor ) );
+  }
+
+  @Test
+  public void testPutEvictsOldestRendererAboveLimit() {
+    PrerenderedPages pages = new PrerenderedPages( 1 );
+    PageRenderer renderer1 = mock( PageRenderer.class );
+    PageRenderer renderer2 = mock( PageRenderer.class );
+    pages.put( mock( PageDescriptor.class ), renderer1 );
+
+    List<PageRenderer> evicted = pages.put( mock( PageDescriptor.class ), renderer2 );
+
+    assertEquals( Arrays.asList( renderer1 ), evicted );
+    assertEquals( 1, pages.size() );
+  }
+
+  @Test
+  public void testRetainReturnsStaleRenderers() {
+    PrerenderedPages pages = new PrerenderedPages( 2 );
+    PageDescriptor descriptor1 = mock( PageDescriptor.class );
+    PageDescriptor descriptor2 = mock( PageDescriptor.class );
+    PageRenderer renderer1 = mock( PageRenderer.class );
+    PageRenderer renderer2 = mock( PageRenderer.class );
+    pages.put( descriptor1, renderer1 );
+    pages.put( descriptor2, renderer2 );
+
+    List<PageRenderer> stale = pages.retain( Arrays.asList( descriptor2 ) );
+
+    assertEquals( Arrays.asList( renderer1 ), stale );
+    assertTrue( pages.contains( descriptor2 ) );
+    assertFalse( pages.contains( descriptor1 ) );
+  }
+
+  @Test
+  public void testClearReturnsAllRenderers() {
+    PrerenderedPages pages = new PrerenderedPages( 2 );
+    pages.put( mock( PageDescriptor.class ), mock( PageRenderer.class ) );
+    pages.put( mock( PageDescriptor.class ), mock( PageRenderer.class ) );
+
+    List<PageRenderer> cleared = pages.clear();
+
+    assertEquals( 2, cleared.size() );
+    assertEquals( 0, pages.size() );
+  }
+
+}
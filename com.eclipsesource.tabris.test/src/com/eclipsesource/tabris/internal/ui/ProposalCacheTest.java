@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal.ui;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.rap.rwt.testfixture.Fixture;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class ProposalCacheTest {
+
+  @Before
+  public void setUp() {
+    Fixture.setUp();
+  }
+
+  @After
+  public void tearDown() {
+    Fixture.tearDown();
+  }
+
+  @Test
+  public void testIsSerializable() {
+    assertTrue( Serializable.class.isAssignableFrom( ProposalCache.class ) );
+  }
+
+  @Test
+  public void testIsSessionSingleton() {
+    assertSame( ProposalCache.getInstance(), ProposalCache.getInstance() );
+  }
+
+  @Test
+  public void testGetsProposalsForQuery() {
+    ProposalCache cache = new ProposalCache();
+    List<String> proposals = Arrays.asList( "bar" );
+
+    cache.put( "foo", "b", proposals );
+
+    assertSame( proposals, cache.get( "foo", "b" ) );
+    assertNull( cache.get( "bar", "b" ) );
+  }
+
+  @Test
+  public void testFindsLongestPrefix() {
+    ProposalCache cache = new ProposalCache();
+    cache.put( "foo", "b", Arrays.asList( "bar" ) );
+    cache.put( "foo", "ba", Arrays.asList( "bar" ) );
+    cache.put( "foo", "c", Arrays.asList( "cat" ) );
+
+    String prefix = cache.findLongestPrefix( "foo", "bar" );
+
+    assertEquals( "ba", prefix );
+  }
+
+  @Test
+  public void testFindsNoPrefixForUnknownAction() {
+    ProposalCache cache = new ProposalCache();
+    cache.put( "foo", "b", Arrays.asList( "bar" ) );
+
+    assertNull( cache.findLongestPrefix( "bar", "bar" ) );
+  }
+
+  @Test
+  public void testEvictsLeastRecentlyUsedQueries() {
+    ProposalCache cache = new ProposalCache();
+    for( int i = 0; i <= ProposalCache.MAX_QUERIES; i++ ) {
+      cache.put( "foo", "query" + i, Arrays.asList( "bar" ) );
+    }
+
+    assertNull( cache.get( "foo", "query0" ) );
+    assertEquals( Arrays.asList( "bar" ), cache.get( "foo", "query1" ) );
+  }
+
+  @Test
+  public void testClearRemovesActionProposals() {
+    ProposalCache cache = new ProposalCache();
+    cache.put( "foo", "b", Arrays.asList( "bar" ) );
+
+    cache.clear( "foo" );
+
+    assertNull( cache.get( "foo", "b" ) );
+  }
+
+}
@@ -10,7 +10,10 @@
  ******************************************************************************/
 package com.eclipsesource.tabris.internal.ui;
 
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import java.util.ArrayList;
@@ -55,4 +58,17 @@ public class ProposalHandlerImplTest {
 
     verify( remoteObject ).set( "proposals", new JsonArray() );
   }
+
+  @Test
+  public void testDoesNotResendUnchangedProposals() {
+    RemoteObject remoteObject = mock( RemoteObject.class );
+    ProposalHandlerImpl proposalHandler = new ProposalHandlerImpl( remoteObject );
+    ArrayList<String> proposals = new ArrayList<String>();
+    proposals.add( "foo" );
+    proposalHandler.setProposals( proposals );
+
+    proposalHandler.setProposals( new ArrayList<String>( proposals ) );
+
+    verify( remoteObject, times( 1 ) ).set( eq( "proposals" ), any( JsonArray.class ) );
+  }
 }
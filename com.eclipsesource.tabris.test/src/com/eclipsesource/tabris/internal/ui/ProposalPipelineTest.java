@@ -0,0 +1,217 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal.ui;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+
+import org.eclipse.rap.rwt.testfixture.Fixture;
+import org.eclipse.swt.widgets.Display;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.eclipsesource.tabris.ui.action.ProposalHandler;
+import com.eclipsesource.tabris.ui.action.SearchAction;
+
+
+public class ProposalPipelineTest {
+
+  private Display display;
+  private ProposalHandlerImpl proposalHandler;
+  private SearchAction action;
+  private ProposalPipeline pipeline;
+
+  @Before
+  public void setUp() {
+    Fixture.setUp();
+    display = mock( Display.class );
+    when( display.getThread() ).thenReturn( Thread.currentThread() );
+    proposalHandler = mock( ProposalHandlerImpl.class );
+    action = spy( new TestSearchAction() );
+    pipeline = new ProposalPipeline( "foo", display, proposalHandler );
+  }
+
+  @After
+  public void tearDown() {
+    Fixture.tearDown();
+  }
+
+  @Test
+  public void testCallsModifiedImmediatelyWithoutDelay() {
+    pipeline.modified( action, "bar" );
+
+    verify( action ).modified( eq( "bar" ), any( ProposalHandler.class ) );
+    verify( display, never() ).timerExec( anyInt(), any( Runnable.class ) );
+  }
+
+  @Test
+  public void testDelaysModifiedWithDelay() {
+    doReturn( Integer.valueOf( 100 ) ).when( action ).getModifyDelay();
+
+    pipeline.modified( action, "bar" );
+
+    verify( action, never() ).modified( anyString(), any( ProposalHandler.class ) );
+    ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass( Runnable.class );
+    verify( display ).timerExec( eq( 100 ), captor.capture() );
+    captor.getValue().run();
+    verify( action ).modified( eq( "bar" ), any( ProposalHandler.class ) );
+  }
+
+  @Test
+  public void testDebouncesRapidModifications() {
+    doReturn( Integer.valueOf( 100 ) ).when( action ).getModifyDelay();
+    pipeline.modified( action, "b" );
+    ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass( Runnable.class );
+    verify( display ).timerExec( eq( 100 ), captor.capture() );
+    Runnable firstModification = captor.getValue();
+
+    pipeline.modified( action, "ba" );
+
+    verify( display ).timerExec( -1, firstModification );
+    firstModification.run();
+    verify( action, never() ).modified( eq( "b" ), any( ProposalHandler.class ) );
+  }
+
+  @Test
+  public void testIgnoresProposalsOfStaleQueries() {
+    pipeline.modified( action, "b" );
+    ArgumentCaptor<ProposalHandler> captor = ArgumentCaptor.forClass( ProposalHandler.class );
+    verify( action ).modified( eq( "b" ), captor.capture() );
+    pipeline.modified( action, "ba" );
+
+    captor.getValue().setProposals( Arrays.asList( "bar" ) );
+
+    verify( proposalHandler, never() ).setProposals( anyListOf( String.class ) );
+  }
+
+  @Test
+  public void testSendsProposalsOfCurrentQuery() {
+    pipeline.modified( action, "b" );
+    ArgumentCaptor<ProposalHandler> captor = ArgumentCaptor.forClass( ProposalHandler.class );
+    verify( action ).modified( eq( "b" ), captor.capture() );
+
+    captor.getValue().setProposals( Arrays.asList( "bar" ) );
+
+    verify( proposalHandler ).setProposals( Arrays.asList( "bar" ) );
+  }
+
+  @Test
+  public void testDeliversProposalsFromForeignThreadAsynchronously() {
+    when( display.getThread() ).thenReturn( new Thread() );
+    pipeline.modified( action, "b" );
+    ArgumentCaptor<ProposalHandler> handlerCaptor = ArgumentCaptor.forClass( ProposalHandler.class );
+    verify( action ).modified( eq( "b" ), handlerCaptor.capture() );
+
+    handlerCaptor.getValue().setProposals( Arrays.asList( "bar" ) );
+
+    verify( proposalHandler, never() ).setProposals( anyListOf( String.class ) );
+    ArgumentCaptor<Runnable> runnableCaptor = ArgumentCaptor.forClass( Runnable.class );
+    verify( display ).asyncExec( runnableCaptor.capture() );
+    runnableCaptor.getValue().run();
+    verify( proposalHandler ).setProposals( Arrays.asList( "bar" ) );
+  }
+
+  @Test
+  public void testDropsProposalsFromForeignThreadWhenDisplayIsDisposed() {
+    when( display.getThread() ).thenReturn( new Thread() );
+    doReturn( Boolean.TRUE ).when( display ).isDisposed();
+    pipeline.modified( action, "b" );
+    ArgumentCaptor<ProposalHandler> captor = ArgumentCaptor.forClass( ProposalHandler.class );
+    verify( action ).modified( eq( "b" ), captor.capture() );
+
+    captor.getValue().setProposals( Arrays.asList( "bar" ) );
+
+    verify( display, never() ).asyncExec( any( Runnable.class ) );
+  }
+
+  @Test
+  public void testIgnoresAsynchronousProposalsOfStaleQueries() {
+    when( display.getThread() ).thenReturn( new Thread() );
+    pipeline.modified( action, "b" );
+    ArgumentCaptor<ProposalHandler> handlerCaptor = ArgumentCaptor.forClass( ProposalHandler.class );
+    verify( action ).modified( eq( "b" ), handlerCaptor.capture() );
+    handlerCaptor.getValue().setProposals( Arrays.asList( "bar" ) );
+    ArgumentCaptor<Runnable> runnableCaptor = ArgumentCaptor.forClass( Runnable.class );
+    verify( display ).asyncExec( runnableCaptor.capture() );
+
+    pipeline.modified( action, "ba" );
+    runnableCaptor.getValue().run();
+
+    verify( proposalHandler, never() ).setProposals( anyListOf( String.class ) );
+  }
+
+  @Test
+  public void testFiltersCachedProposalsForNarrowedQuery() {
+    doReturn( Boolean.TRUE ).when( action ).isIncremental();
+    pipeline.modified( action, "b" );
+    ArgumentCaptor<ProposalHandler> captor = ArgumentCaptor.forClass( ProposalHandler.class );
+    verify( action ).modified( eq( "b" ), captor.capture() );
+    captor.getValue().setProposals( Arrays.asList( "bar", "baz", "bob" ) );
+
+    pipeline.modified( action, "ba" );
+
+    verify( action, times( 1 ) ).modified( anyString(), any( ProposalHandler.class ) );
+    verify( proposalHandler ).setProposals( Arrays.asList( "bar", "baz" ) );
+  }
+
+  @Test
+  public void testDoesNotUseCacheWhenNotIncremental() {
+    pipeline.modified( action, "b" );
+    ArgumentCaptor<ProposalHandler> captor = ArgumentCaptor.forClass( ProposalHandler.class );
+    verify( action ).modified( eq( "b" ), captor.capture() );
+    captor.getValue().setProposals( Arrays.asList( "bar", "baz", "bob" ) );
+
+    pipeline.modified( action, "ba" );
+
+    verify( action ).modified( eq( "ba" ), any( ProposalHandler.class ) );
+  }
+
+  @Test
+  public void testClearCacheDropsCachedProposals() {
+    doReturn( Boolean.TRUE ).when( action ).isIncremental();
+    pipeline.modified( action, "b" );
+    ArgumentCaptor<ProposalHandler> captor = ArgumentCaptor.forClass( ProposalHandler.class );
+    verify( action ).modified( eq( "b" ), captor.capture() );
+    captor.getValue().setProposals( Arrays.asList( "bar", "baz", "bob" ) );
+
+    pipeline.clearCache();
+    pipeline.modified( action, "ba" );
+
+    verify( action ).modified( eq( "ba" ), any( ProposalHandler.class ) );
+  }
+
+  @Test
+  public void testCancelDropsPendingModification() {
+    doReturn( Integer.valueOf( 100 ) ).when( action ).getModifyDelay();
+    pipeline.modified( action, "b" );
+    ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass( Runnable.class );
+    verify( display ).timerExec( eq( 100 ), captor.capture() );
+
+    pipeline.cancel();
+
+    verify( display ).timerExec( -1, captor.getValue() );
+  }
+
+}
@@ -13,6 +13,7 @@ package com.eclipsesource.tabris.internal.ui;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doReturn;
@@ -25,6 +26,7 @@ import java.io.InputStream;
 
 import org.eclipse.rap.json.JsonArray;
 import org.eclipse.rap.json.JsonObject;
+import org.eclipse.rap.json.JsonValue;
 import org.eclipse.rap.rwt.internal.remote.RemoteObjectImpl;
 import org.eclipse.rap.rwt.remote.RemoteObject;
 import org.eclipse.rap.rwt.testfixture.Fixture;
@@ -164,4 +166,45 @@ public class RemoteActionTest {
 
     verify( action ).execute( ui );
   }
+  @Test
+  public void testUpdateDoesNotSendUnchangedProperties() {
+    RemoteAction action = new RemoteAction( ui, actionDescriptor, "foo" );
+    ActionDescriptor newDescriptor = mock( ActionDescriptor.class );
+    when( newDescriptor.getTitle() ).thenReturn( "bar" );
+    when( newDescriptor.getImage() ).thenReturn( actionDescriptor.getImage() );
+
+    action.update( newDescriptor );
+
+    verify( remoteObject ).set( "title", "bar" );
+    verify( remoteObject ).set( eq( "image" ), any( JsonArray.class ) );
+    verify( remoteObject ).set( "visibility", false );
+    verify( remoteObject ).set( "enabled", false );
+  }
+
+  @Test
+  public void testUpdateSendsChangedProperties() {
+    RemoteAction action = new RemoteAction( ui, actionDescriptor, "foo" );
+    ActionDescriptor newDescriptor = mock( ActionDescriptor.class );
+    when( newDescriptor.getTitle() ).thenReturn( "foo" );
+    doReturn( Boolean.TRUE ).when( newDescriptor ).isEnabled();
+    doReturn( Boolean.TRUE ).when( newDescriptor ).isVisible();
+
+    action.update( newDescriptor );
+
+    verify( remoteObject ).set( "title", "foo" );
+    verify( remoteObject ).set( "image", JsonValue.NULL );
+    verify( remoteObject ).set( "visibility", true );
+    verify( remoteObject ).set( "enabled", true );
+  }
+
+  @Test
+  public void testUpdateReplacesDescriptor() {
+    RemoteAction action = new RemoteAction( ui, actionDescriptor, "foo" );
+    ActionDescriptor newDescriptor = mock( ActionDescriptor.class );
+
+    action.update( newDescriptor );
+
+    assertSame( newDescriptor, action.getDescriptor() );
+  }
+
 }
@@ -11,7 +11,10 @@
 package com.eclipsesource.tabris.internal.ui;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
@@ -29,9 +32,11 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.eclipse.rap.json.JsonArray;
+import org.eclipse.rap.json.JsonValue;
 import org.eclipse.rap.rwt.internal.remote.RemoteObjectImpl;
 import org.eclipse.rap.rwt.lifecycle.WidgetUtil;
 import org.eclipse.rap.rwt.testfixture.Fixture;
+import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Shell;
 import org.junit.After;
@@ -43,6 +48,7 @@ import com.eclipsesource.tabris.internal.ui.rendering.ActionRenderer;
 import com.eclipsesource.tabris.test.TabrisTestUtil;
 import com.eclipsesource.tabris.ui.Page;
 import com.eclipsesource.tabris.ui.PageData;
+import com.eclipsesource.tabris.ui.PageFactory;
 import com.eclipsesource.tabris.ui.PageStyle;
 import com.eclipsesource.tabris.ui.UI;
 
@@ -87,6 +93,7 @@ public class RemotePageTest {
     when( descriptor.getActions() ).thenReturn( actions );
     when( descriptor.getImage() ).thenReturn( UITestUtil.getImageBytes() );
     doReturn( TestPage.class ).when( descriptor ).getPageType();
+    when( descriptor.getPageFactory() ).thenReturn( new DefaultInstanceFactory() );
   }
 
   @After
@@ -153,7 +160,7 @@ public class RemotePageTest {
       RemoteRendererFactory factory = mock( RemoteRendererFactory.class );
       when( factory.createActionRenderer( any( UI.class ), any( ActionDescriptor.class ), anyString() ) ).thenReturn( renderer );
   
-      page.createActions( factory, shell );
+      page.createActions( factory, shell, new ArrayList<ActionRenderer>() );
   
       verify( renderer ).createUi( shell );
     }
@@ -161,7 +168,7 @@ public class RemotePageTest {
   @Test
   public void testCreateActionsCallsActionCreateUi() {
     RemotePage page = new RemotePage( ui, descriptor, "foo", mock( PageData.class ) );
-    page.createActions( new RemoteRendererFactory(), shell );
+    page.createActions( new RemoteRendererFactory(), shell, new ArrayList<ActionRenderer>() );
 
     List<ActionRenderer> actions = page.getActionRenderers();
 
@@ -169,6 +176,91 @@ public class RemotePageTest {
     assertEquals( "actionFoo", actions.get( 0 ).getDescriptor().getId() );
   }
 
+  @Test
+  public void testCreateActionsReusesActionWithSameId() {
+    RemotePage page = new RemotePage( ui, descriptor, "foo", mock( PageData.class ) );
+    ActionRenderer reusableAction = mock( ActionRenderer.class );
+    ActionDescriptor reusableDescriptor = new ActionDescriptor( "actionFoo", new TestAction(), "bar", null, true, true );
+    when( reusableAction.getDescriptor() ).thenReturn( reusableDescriptor );
+    List<ActionRenderer> reusableActions = new ArrayList<ActionRenderer>();
+    reusableActions.add( reusableAction );
+
+    page.createActions( new RemoteRendererFactory(), shell, reusableActions );
+
+    verify( reusableAction ).update( descriptor.getActions().get( 0 ) );
+    assertSame( reusableAction, page.getActionRenderers().get( 0 ) );
+    assertTrue( reusableActions.isEmpty() );
+  }
+
+  @Test
+  public void testCreateActionsDoesNotReuseActionWithDifferentId() {
+    RemotePage page = new RemotePage( ui, descriptor, "foo", mock( PageData.class ) );
+    ActionRenderer reusableAction = mock( ActionRenderer.class );
+    ActionDescriptor reusableDescriptor = new ActionDescriptor( "actionBar", new TestAction(), "bar", null, true, true );
+    when( reusableAction.getDescriptor() ).thenReturn( reusableDescriptor );
+    List<ActionRenderer> reusableActions = new ArrayList<ActionRenderer>();
+    reusableActions.add( reusableAction );
+
+    page.createActions( new RemoteRendererFactory(), shell, reusableActions );
+
+    verify( reusableAction, never() ).update( any( ActionDescriptor.class ) );
+    assertEquals( 1, reusableActions.size() );
+  }
+
+  @Test
+  public void testCreateActionsReusesCommonPrefixOnly() {
+    descriptor.getActions().add( new ActionDescriptor( "actionBaz", new TestAction(), "baz", null, true, true ) );
+    RemotePage page = new RemotePage( ui, descriptor, "foo", mock( PageData.class ) );
+    ActionRenderer reusableAction = mockActionRenderer( "actionFoo" );
+    ActionRenderer otherAction = mockActionRenderer( "actionBar" );
+    List<ActionRenderer> reusableActions = new ArrayList<ActionRenderer>();
+    reusableActions.add( reusableAction );
+    reusableActions.add( otherAction );
+
+    page.createActions( new RemoteRendererFactory(), shell, reusableActions );
+
+    assertSame( reusableAction, page.getActionRenderers().get( 0 ) );
+    assertEquals( "actionBaz", page.getActionRenderers().get( 1 ).getDescriptor().getId() );
+    assertEquals( 1, reusableActions.size() );
+    assertSame( otherAction, reusableActions.get( 0 ) );
+  }
+
+  @Test
+  public void testCreateActionsDoesNotReuseActionsInDifferentOrder() {
+    descriptor.getActions().add( 0, new ActionDescriptor( "actionBaz", new TestAction(), "baz", null, true, true ) );
+    RemotePage page = new RemotePage( ui, descriptor, "foo", mock( PageData.class ) );
+    ActionRenderer reusableAction = mockActionRenderer( "actionFoo" );
+    List<ActionRenderer> reusableActions = new ArrayList<ActionRenderer>();
+    reusableActions.add( reusableAction );
+
+    page.createActions( new RemoteRendererFactory(), shell, reusableActions );
+
+    verify( reusableAction, never() ).update( any( ActionDescriptor.class ) );
+    assertEquals( 2, page.getActionRenderers().size() );
+    assertEquals( "actionBaz", page.getActionRenderers().get( 0 ).getDescriptor().getId() );
+    assertEquals( "actionFoo", page.getActionRenderers().get( 1 ).getDescriptor().getId() );
+    assertSame( reusableAction, reusableActions.get( 0 ) );
+  }
+
+  private ActionRenderer mockActionRenderer( String id ) {
+    ActionRenderer renderer = mock( ActionRenderer.class );
+    ActionDescriptor actionDescriptor = new ActionDescriptor( id, new TestAction(), "bar", null, true, true );
+    when( renderer.getDescriptor() ).thenReturn( actionDescriptor );
+    return renderer;
+  }
+
+  @Test
+  public void testReleaseActionsDoesNotDestroyActions() {
+    RemotePage page = new RemotePage( ui, descriptor, "foo", mock( PageData.class ) );
+    page.createActions( new RemoteRendererFactory(), shell, new ArrayList<ActionRenderer>() );
+
+    List<ActionRenderer> releasedActions = page.releaseActions();
+
+    assertEquals( 1, releasedActions.size() );
+    assertTrue( page.getActionRenderers().isEmpty() );
+    verify( remoteObject, never() ).destroy();
+  }
+
   @Test
   public void testSetTitle() {
     RemotePage page = new RemotePage( ui, descriptor, "foo", mock( PageData.class ) );
@@ -210,7 +302,7 @@ public class RemotePageTest {
   @Test
   public void testDestroyCallsDestroyOnPage() {
     RemotePage page = new RemotePage( ui, descriptor, "foo", mock( PageData.class ) );
-    page.createActions( new RemoteRendererFactory(), shell );
+    page.createActions( new RemoteRendererFactory(), shell, new ArrayList<ActionRenderer>() );
 
     page.destroyActions();
 
@@ -251,4 +343,229 @@ public class RemotePageTest {
     assertNotNull( page );
     assertTrue( page instanceof TestPage );
   }
+
+  @Test
+  public void testTrimControlDisposesControl() {
+    RemotePage page = new RemotePage( ui, descriptor, "foo", mock( PageData.class ) );
+    page.createControl( shell );
+    Control control = page.getControl();
+
+    page.trimControl();
+
+    assertTrue( control.isDisposed() );
+    assertNull( page.getControl() );
+    assertTrue( page.isTrimmed() );
+  }
+
+  @Test
+  public void testTrimControlDestroysPage() {
+    RemotePage remotePage = new RemotePage( ui, descriptor, "foo", mock( PageData.class ) );
+    remotePage.createControl( shell );
+    TestPage page = ( TestPage )remotePage.getPage();
+
+    remotePage.trimControl();
+
+    assertTrue( page.wasDestroyed() );
+    assertNotSame( page, remotePage.getPage() );
+  }
+
+  @Test
+  public void testTrimControlDoesNotCreateNewPage() {
+    PageFactory pageFactory = mock( PageFactory.class );
+    doReturn( new TestPage() ).when( pageFactory ).createPage( TestPage.class );
+    when( descriptor.getPageFactory() ).thenReturn( pageFactory );
+    RemotePage remotePage = new RemotePage( ui, descriptor, "foo", mock( PageData.class ) );
+    remotePage.createControl( shell );
+
+    remotePage.trimControl();
+
+    verify( pageFactory ).createPage( TestPage.class );
+  }
+
+  @Test
+  public void testTrimControlResetsControlProperty() {
+    RemotePage remotePage = new RemotePage( ui, descriptor, "foo", mock( PageData.class ) );
+    remotePage.createControl( shell );
+
+    remotePage.trimControl();
+
+    verify( remoteObject ).set( "control", JsonValue.NULL );
+  }
+
+  @Test
+  public void testGetPageRecreatesTrimmedPage() {
+    RemotePage remotePage = new RemotePage( ui, descriptor, "foo", mock( PageData.class ) );
+    remotePage.createControl( shell );
+    remotePage.trimControl();
+
+    TestPage page = ( TestPage )remotePage.getPage();
+
+    assertNotNull( page );
+    assertFalse( page.wasCreated() );
+    assertFalse( remotePage.isTrimmed() );
+    assertFalse( remotePage.isContentCreated() );
+  }
+
+  @Test
+  public void testCreateControlUsesPageRecreatedBefore() {
+    RemotePage remotePage = new RemotePage( ui, descriptor, "foo", mock( PageData.class ) );
+    remotePage.createControl( shell );
+    remotePage.trimControl();
+    TestPage page = ( TestPage )remotePage.getPage();
+
+    remotePage.createControl( shell );
+
+    assertSame( page, remotePage.getPage() );
+    assertTrue( page.wasCreated() );
+  }
+
+  @Test
+  public void testTrimControlDoesNotDestroyRemoteObject() {
+    RemotePage page = new RemotePage( ui, descriptor, "foo", mock( PageData.class ) );
+    page.createControl( shell );
+
+    page.trimControl();
+
+    verify( remoteObject, never() ).destroy();
+  }
+
+  @Test
+  public void testTrimControlWithoutControlDoesNothing() {
+    RemotePage page = new RemotePage( ui, descriptor, "foo", mock( PageData.class ) );
+
+    page.trimControl();
+
+    assertFalse( page.isTrimmed() );
+  }
+
+  @Test
+  public void testCreateControlRecreatesTrimmedPage() {
+    RemotePage remotePage = new RemotePage( ui, descriptor, "foo", mock( PageData.class ) );
+    remotePage.createControl( shell );
+    remotePage.trimControl();
+
+    remotePage.createControl( shell );
+
+    assertFalse( remotePage.getControl().isDisposed() );
+    assertTrue( ( ( TestPage )remotePage.getPage() ).wasCreated() );
+    assertFalse( remotePage.isTrimmed() );
+  }
+
+  @Test
+  public void testCreateControlRestoresStateOfTrimmedPage() {
+    doReturn( TestStatefulPage.class ).when( descriptor ).getPageType();
+    RemotePage remotePage = new RemotePage( ui, descriptor, "foo", mock( PageData.class ) );
+    remotePage.createControl( shell );
+    remotePage.trimControl();
+
+    remotePage.createControl( shell );
+
+    assertEquals( "state", ( ( TestStatefulPage )remotePage.getPage() ).getRestoredState() );
+  }
+
+  @Test
+  public void testDestroyTrimmedPageDestroysRemoteObject() {
+    RemotePage page = new RemotePage( ui, descriptor, "foo", mock( PageData.class ) );
+    page.createControl( shell );
+    page.trimControl();
+
+    page.destroy();
+
+    verify( remoteObject ).destroy();
+  }
+
+  @Test
+  public void testCreatePlaceholderDoesNotCreateContent() {
+    RemotePage remotePage = new RemotePage( ui, descriptor, "foo", mock( PageData.class ) );
+
+    remotePage.createPlaceholder( shell );
+
+    assertNotNull( remotePage.getControl() );
+    assertFalse( remotePage.isContentCreated() );
+    assertFalse( ( ( TestPage )remotePage.getPage() ).wasCreated() );
+  }
+
+  @Test
+  public void testDestroyPlaceholderDoesNotDestroyPage() {
+    RemotePage remotePage = new RemotePage( ui, descriptor, "foo", mock( PageData.class ) );
+    remotePage.createPlaceholder( shell );
+    Control placeholder = remotePage.getControl();
+
+    remotePage.destroy();
+
+    assertTrue( placeholder.isDisposed() );
+    assertFalse( ( ( TestPage )remotePage.getPage() ).wasDestroyed() );
+  }
+
+  @Test
+  public void testCreateControlUsesPlaceholder() {
+    RemotePage remotePage = new RemotePage( ui, descriptor, "foo", mock( PageData.class ) );
+    remotePage.createPlaceholder( shell );
+    Control placeholder = remotePage.getControl();
+
+    remotePage.createControl( shell );
+
+    assertSame( placeholder, remotePage.getControl() );
+    assertTrue( remotePage.isContentCreated() );
+    assertTrue( ( ( TestPage )remotePage.getPage() ).wasCreated() );
+  }
+
+  @Test
+  public void testCreateControlCreatesContentOnce() {
+    RemotePage remotePage = new RemotePage( ui, descriptor, "foo", mock( PageData.class ) );
+    remotePage.createControl( shell );
+    Control control = remotePage.getControl();
+
+    remotePage.createControl( shell );
+
+    assertSame( control, remotePage.getControl() );
+    assertEquals( 1, shell.getChildren().length );
+  }
+
+  @Test
+  public void testTrimPlaceholderDoesNotDestroyPage() {
+    RemotePage remotePage = new RemotePage( ui, descriptor, "foo", mock( PageData.class ) );
+    remotePage.createPlaceholder( shell );
+    TestPage page = ( TestPage )remotePage.getPage();
+
+    remotePage.trimControl();
+
+    assertFalse( page.wasDestroyed() );
+    assertTrue( remotePage.isTrimmed() );
+  }
+
+  @Test
+  public void testCreatesPageWithPageFactory() {
+    PageFactory pageFactory = mock( PageFactory.class );
+    TestPage page = new TestPage();
+    doReturn( page ).when( pageFactory ).createPage( TestPage.class );
+    when( descriptor.getPageFactory() ).thenReturn( pageFactory );
+
+    RemotePage remotePage = new RemotePage( ui, descriptor, "foo", mock( PageData.class ) );
+
+    assertSame( page, remotePage.getPage() );
+  }
+
+  @Test( expected = IllegalStateException.class )
+  public void testFailsWhenPageFactoryReturnsNull() {
+    when( descriptor.getPageFactory() ).thenReturn( mock( PageFactory.class ) );
+
+    new RemotePage( ui, descriptor, "foo", mock( PageData.class ) );
+  }
+
+  @Test
+  public void testGetTitleReturnsDescriptorTitle() {
+    RemotePage remotePage = new RemotePage( ui, descriptor, "foo", mock( PageData.class ) );
+
+    assertEquals( "bar", remotePage.getTitle() );
+  }
+
+  @Test
+  public void testGetTitleReturnsChangedTitle() {
+    RemotePage remotePage = new RemotePage( ui, descriptor, "foo", mock( PageData.class ) );
+
+    remotePage.setTitle( "baz" );
+
+    assertEquals( "baz", remotePage.getTitle() );
+  }
 }
@@ -59,6 +59,7 @@ public class RemoteRendererFactoryTest {
     RemoteRendererFactory rendererFactory = new RemoteRendererFactory();
     PageDescriptor descriptor = mock( PageDescriptor.class );
     doReturn( TestPage.class ).when( descriptor ).getPageType();
+    when( descriptor.getPageFactory() ).thenReturn( new DefaultInstanceFactory() );
 
     PageRenderer renderer = rendererFactory.createPageRenderer( mock( UI.class ), descriptor, "foo", new PageData() );
 
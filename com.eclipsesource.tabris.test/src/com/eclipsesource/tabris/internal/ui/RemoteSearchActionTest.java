@@ -11,6 +11,7 @@
 package com.eclipsesource.tabris.internal.ui;
 
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
@@ -22,6 +23,7 @@ import static org.mockito.Mockito.when;
 
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 
 import org.eclipse.rap.json.JsonArray;
 import org.eclipse.rap.json.JsonObject;
@@ -78,6 +80,57 @@ public class RemoteSearchActionTest {
     assertSame( remoteObjectHolder.getRemoteAction().getRemoteObject(), remoteObject );
   }
 
+  @Test
+  public void testUpdateUnsetsRemoteActionOnPreviousSearchAction() {
+    SearchAction oldAction = new TestSearchAction();
+    when( actionDescriptor.getAction() ).thenReturn( oldAction );
+    RemoteSearchAction remoteAction = new RemoteSearchAction( ui, actionDescriptor, "foo" );
+    ActionDescriptor newDescriptor = mock( ActionDescriptor.class );
+    SearchAction newAction = new TestSearchAction();
+    when( newDescriptor.getAction() ).thenReturn( newAction );
+
+    remoteAction.update( newDescriptor );
+
+    assertNull( oldAction.getAdapter( RemoteActionHolder.class ).getRemoteAction() );
+    assertSame( remoteAction, newAction.getAdapter( RemoteActionHolder.class ).getRemoteAction() );
+  }
+
+  @Test
+  public void testUpdateKeepsRemoteActionOfSameSearchAction() {
+    SearchAction action = new TestSearchAction();
+    when( actionDescriptor.getAction() ).thenReturn( action );
+    RemoteSearchAction remoteAction = new RemoteSearchAction( ui, actionDescriptor, "foo" );
+    ActionDescriptor newDescriptor = mock( ActionDescriptor.class );
+    when( newDescriptor.getAction() ).thenReturn( action );
+
+    remoteAction.update( newDescriptor );
+
+    assertSame( remoteAction, action.getAdapter( RemoteActionHolder.class ).getRemoteAction() );
+  }
+
+  @Test
+  public void testDestroyUnsetsRemoteAction() {
+    SearchAction action = new TestSearchAction();
+    when( actionDescriptor.getAction() ).thenReturn( action );
+    RemoteSearchAction remoteAction = new RemoteSearchAction( ui, actionDescriptor, "foo" );
+
+    remoteAction.destroy();
+
+    assertNull( action.getAdapter( RemoteActionHolder.class ).getRemoteAction() );
+  }
+
+  @Test
+  public void testDestroyKeepsRemoteActionBoundToOtherRenderer() {
+    SearchAction action = new TestSearchAction();
+    when( actionDescriptor.getAction() ).thenReturn( action );
+    RemoteSearchAction remoteAction = new RemoteSearchAction( ui, actionDescriptor, "foo" );
+    RemoteSearchAction otherRemoteAction = new RemoteSearchAction( ui, actionDescriptor, "foo" );
+
+    remoteAction.destroy();
+
+    assertSame( otherRemoteAction, action.getAdapter( RemoteActionHolder.class ).getRemoteAction() );
+  }
+
   @Test
   public void testCallsExecuteOnSelectionEvent() {
     SearchAction action = spy( new TestSearchAction() );
@@ -104,6 +157,21 @@ public class RemoteSearchActionTest {
     verify( action ).search( "bar" );
   }
 
+  @Test
+  public void testClearsCachedProposalsOnSearchEvent() {
+    SearchAction action = spy( new TestSearchAction() );
+    when( actionDescriptor.getAction() ).thenReturn( action );
+    RemoteSearchAction remoteAction = new RemoteSearchAction( ui, actionDescriptor, "foo" );
+    when( remoteObject.getHandler() ).thenReturn( remoteAction );
+    ProposalCache.getInstance().put( "foo", "b", Arrays.asList( "bar" ) );
+    JsonObject properties = new JsonObject();
+    properties.add( "query", "bar" );
+
+    TabrisTestUtil.dispatchNotify( remoteObject, "Search", properties );
+
+    assertNull( ProposalCache.getInstance().get( "foo", "b" ) );
+  }
+
   @Test
   public void testCallsGetProposalsOnModifyEvent() {
     SearchAction action = spy( new TestSearchAction() );
@@ -195,4 +263,62 @@ public class RemoteSearchActionTest {
 
     assertFalse( ServerPushManager.getInstance().isServerPushActive() );
   }
+
+  @Test
+  public void testClearsCachedProposalsOnDeactivate() {
+    Fixture.fakePhase( PhaseId.PROCESS_ACTION );
+    RemoteSearchAction remoteAction = new RemoteSearchAction( ui, actionDescriptor, "foo" );
+    remoteAction.handleCall( "activate", null );
+    ProposalCache.getInstance().put( "foo", "b", Arrays.asList( "bar" ) );
+
+    remoteAction.handleCall( "deactivate", null );
+
+    assertNull( ProposalCache.getInstance().get( "foo", "b" ) );
+  }
+
+  @Test
+  public void testKeepsSharedServerPushActiveWhileAnotherActionIsActive() {
+    Fixture.fakePhase( PhaseId.PROCESS_ACTION );
+    RemoteSearchAction remoteAction1 = new RemoteSearchAction( ui, actionDescriptor, "foo" );
+    RemoteSearchAction remoteAction2 = new RemoteSearchAction( ui, actionDescriptor, "foo" );
+    remoteAction1.handleCall( "activate", null );
+    remoteAction2.handleCall( "activate", null );
+
+    remoteAction1.handleCall( "deactivate", null );
+
+    assertTrue( ServerPushManager.getInstance().isServerPushActive() );
+  }
+
+  @Test
+  public void testActivatesSharedServerPushOnlyOncePerAction() {
+    Fixture.fakePhase( PhaseId.PROCESS_ACTION );
+    RemoteSearchAction remoteAction = new RemoteSearchAction( ui, actionDescriptor, "foo" );
+    remoteAction.handleCall( "activate", null );
+    remoteAction.handleCall( "activate", null );
+
+    remoteAction.handleCall( "deactivate", null );
+
+    assertFalse( SharedServerPush.getInstance().isActive() );
+  }
+
+  @Test
+  public void testReleasesSharedServerPushOnDestroy() {
+    Fixture.fakePhase( PhaseId.PROCESS_ACTION );
+    RemoteSearchAction remoteAction = new RemoteSearchAction( ui, actionDescriptor, "foo" );
+    remoteAction.handleCall( "activate", null );
+
+    remoteAction.destroy();
+
+    assertFalse( ServerPushManager.getInstance().isServerPushActive() );
+  }
+
+  @Test
+  public void testClearsCachedProposalsOnDestroy() {
+    RemoteSearchAction remoteAction = new RemoteSearchAction( ui, actionDescriptor, "foo" );
+    ProposalCache.getInstance().put( "foo", "b", Arrays.asList( "bar" ) );
+
+    remoteAction.destroy();
+
+    assertNull( ProposalCache.getInstance().get( "foo", "b" ) );
+  }
 }
@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal.ui;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Serializable;
+
+import org.eclipse.rap.rwt.internal.serverpush.ServerPushManager;
+import org.eclipse.rap.rwt.lifecycle.PhaseId;
+import org.eclipse.rap.rwt.testfixture.Fixture;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+
+@SuppressWarnings("restriction")
+public class SharedServerPushTest {
+
+  @Before
+  public void setUp() {
+    Fixture.setUp();
+    Fixture.fakePhase( PhaseId.PROCESS_ACTION );
+  }
+
+  @After
+  public void tearDown() {
+    Fixture.tearDown();
+  }
+
+  @Test
+  public void testIsSerializable() {
+    assertTrue( Serializable.class.isAssignableFrom( SharedServerPush.class ) );
+  }
+
+  @Test
+  public void testGetInstanceIsSessionScoped() {
+    SharedServerPush push = SharedServerPush.getInstance();
+
+    assertSame( push, SharedServerPush.getInstance() );
+  }
+
+  @Test
+  public void testIsInactiveByDefault() {
+    SharedServerPush push = new SharedServerPush();
+
+    assertFalse( push.isActive() );
+    assertFalse( ServerPushManager.getInstance().isServerPushActive() );
+  }
+
+  @Test
+  public void testAcquireActivatesServerPush() {
+    SharedServerPush push = new SharedServerPush();
+
+    push.acquire();
+
+    assertTrue( push.isActive() );
+    assertTrue( ServerPushManager.getInstance().isServerPushActive() );
+  }
+
+  @Test
+  public void testReleaseOfLastReferenceDeactivatesServerPush() {
+    SharedServerPush push = new SharedServerPush();
+    push.acquire();
+
+    push.release();
+
+    assertFalse( push.isActive() );
+    assertFalse( ServerPushManager.getInstance().isServerPushActive() );
+  }
+
+  @Test
+  public void testStaysActiveWhileReferenced() {
+    SharedServerPush push = new SharedServerPush();
+    push.acquire();
+    push.acquire();
+
+    push.release();
+
+    assertTrue( push.isActive() );
+    assertTrue( ServerPushManager.getInstance().isServerPushActive() );
+  }
+
+  @Test
+  public void testReleaseWithoutAcquireIsIgnored() {
+    SharedServerPush push = new SharedServerPush();
+
+    push.release();
+    push.acquire();
+
+    assertTrue( push.isActive() );
+  }
+
+}
@@ -0,0 +1,26 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal.ui;
+
+
+public class TestClock implements TransitionTimer.Clock {
+
+  private long nanoTime;
+
+  @Override
+  public long nanoTime() {
+    return nanoTime;
+  }
+
+  public void advance( long nanos ) {
+    nanoTime += nanos;
+  }
+}
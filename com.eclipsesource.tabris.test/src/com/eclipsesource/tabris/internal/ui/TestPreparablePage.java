@@ -0,0 +1,44 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal.ui;
+
+import org.eclipse.swt.widgets.Composite;
+
+import com.eclipsesource.tabris.ui.PageData;
+import com.eclipsesource.tabris.ui.PreparablePage;
+import com.eclipsesource.tabris.ui.UI;
+
+
+public class TestPreparablePage extends TestPage implements PreparablePage {
+
+  private PageData preparedData;
+  private boolean preparedBeforeCreation;
+
+  @Override
+  public void prepare( PageData data ) {
+    preparedData = data;
+  }
+
+  @Override
+  public void createContent( Composite parent, UI ui ) {
+    preparedBeforeCreation = preparedData != null;
+    super.createContent( parent, ui );
+  }
+
+  public PageData getPreparedData() {
+    return preparedData;
+  }
+
+  public boolean wasPreparedBeforeCreation() {
+    return preparedBeforeCreation;
+  }
+
+}
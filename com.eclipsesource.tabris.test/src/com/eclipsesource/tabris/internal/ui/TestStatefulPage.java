@@ -0,0 +1,36 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal.ui;
+
+import java.io.Serializable;
+
+import com.eclipsesource.tabris.ui.StatefulPage;
+
+
+public class TestStatefulPage extends TestPage implements StatefulPage {
+
+  private Serializable restoredState;
+
+  @Override
+  public Serializable saveState() {
+    return "state";
+  }
+
+  @Override
+  public void restoreState( Serializable state ) {
+    restoredState = state;
+  }
+
+  public Serializable getRestoredState() {
+    return restoredState;
+  }
+
+}
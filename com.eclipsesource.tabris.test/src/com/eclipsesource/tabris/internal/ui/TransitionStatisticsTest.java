@@ -0,0 +1,73 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal.ui;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+
+public class TransitionStatisticsTest {
+
+  @Test
+  public void testIsSerializable() {
+    assertTrue( Serializable.class.isAssignableFrom( TransitionStatistics.class ) );
+  }
+
+  @Test
+  public void testHasNoSuccessorsWithoutTransitions() {
+    TransitionStatistics statistics = new TransitionStatistics();
+
+    assertTrue( statistics.getLikelySuccessors( "foo", 2 ).isEmpty() );
+  }
+
+  @Test
+  public void testIgnoresRareTransitions() {
+    TransitionStatistics statistics = new TransitionStatistics();
+    statistics.record( "foo", "bar" );
+
+    assertTrue( statistics.getLikelySuccessors( "foo", 2 ).isEmpty() );
+  }
+
+  @Test
+  public void testSortsSuccessorsByFrequency() {
+    TransitionStatistics statistics = new TransitionStatistics();
+    statistics.record( "foo", "bar" );
+    statistics.record( "foo", "bar" );
+    statistics.record( "foo", "baz" );
+    statistics.record( "foo", "baz" );
+    statistics.record( "foo", "baz" );
+
+    List<String> successors = statistics.getLikelySuccessors( "foo", 2 );
+
+    assertEquals( Arrays.asList( "baz", "bar" ), successors );
+  }
+
+  @Test
+  public void testLimitsSuccessors() {
+    TransitionStatistics statistics = new TransitionStatistics();
+    statistics.record( "foo", "bar" );
+    statistics.record( "foo", "bar" );
+    statistics.record( "foo", "baz" );
+    statistics.record( "foo", "baz" );
+    statistics.record( "foo", "baz" );
+
+    List<String> successors = statistics.getLikelySuccessors( "foo", 1 );
+
+    assertEquals( Arrays.asList( "baz" ), successors );
+  }
+
+}
@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal.ui;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+import com.eclipsesource.tabris.ui.TransitionMetrics;
+import com.eclipsesource.tabris.ui.TransitionPhase;
+
+
+public class TransitionTimerTest {
+
+  @Test
+  public void testCreatesMetricsWithPageIds() {
+    TransitionTimer timer = new TransitionTimer();
+
+    TransitionMetrics metrics = timer.createMetrics( "foo", "bar" );
+
+    assertEquals( "foo", metrics.getFromPageId() );
+    assertEquals( "bar", metrics.getToPageId() );
+  }
+
+  @Test
+  public void testCreatesMetricsWithoutFromPageId() {
+    TransitionTimer timer = new TransitionTimer();
+
+    TransitionMetrics metrics = timer.createMetrics( null, "bar" );
+
+    assertNull( metrics.getFromPageId() );
+  }
+
+  @Test
+  public void testMeasuresElapsedTimeForPhase() {
+    TestClock clock = new TestClock();
+    TransitionTimer timer = new TransitionTimer( clock );
+    clock.advance( 5000000 );
+
+    timer.measure( TransitionPhase.CREATE_CONTENT );
+
+    TransitionMetrics metrics = timer.createMetrics( "foo", "bar" );
+    assertEquals( 5000000, metrics.getDuration( TransitionPhase.CREATE_CONTENT ) );
+  }
+
+  @Test
+  public void testMeasuresOnlyTimeSinceLastMeasure() {
+    TestClock clock = new TestClock();
+    TransitionTimer timer = new TransitionTimer( clock );
+    clock.advance( 5000000 );
+    timer.measure( TransitionPhase.CREATE_CONTENT );
+    clock.advance( 3000000 );
+
+    timer.measure( TransitionPhase.LAYOUT );
+
+    TransitionMetrics metrics = timer.createMetrics( "foo", "bar" );
+    assertEquals( 5000000, metrics.getDuration( TransitionPhase.CREATE_CONTENT ) );
+    assertEquals( 3000000, metrics.getDuration( TransitionPhase.LAYOUT ) );
+  }
+
+  @Test
+  public void testAccumulatesMeasuresOfSamePhase() {
+    TestClock clock = new TestClock();
+    TransitionTimer timer = new TransitionTimer( clock );
+    clock.advance( 5000000 );
+    timer.measure( TransitionPhase.ACTIVATE );
+    clock.advance( 7000000 );
+
+    timer.measure( TransitionPhase.ACTIVATE );
+
+    TransitionMetrics metrics = timer.createMetrics( "foo", "bar" );
+    assertEquals( 12000000, metrics.getDuration( TransitionPhase.ACTIVATE ) );
+  }
+
+  @Test
+  public void testSkipDropsElapsedTime() {
+    TestClock clock = new TestClock();
+    TransitionTimer timer = new TransitionTimer( clock );
+    clock.advance( 10000000 );
+    timer.skip();
+    clock.advance( 2000000 );
+
+    timer.measure( TransitionPhase.LAYOUT );
+
+    TransitionMetrics metrics = timer.createMetrics( "foo", "bar" );
+    assertEquals( 2000000, metrics.getDuration( TransitionPhase.LAYOUT ) );
+  }
+
+  @Test
+  public void testUnmeasuredPhaseHasNoDuration() {
+    TransitionTimer timer = new TransitionTimer();
+
+    TransitionMetrics metrics = timer.createMetrics( "foo", "bar" );
+
+    assertEquals( 0, metrics.getDuration( TransitionPhase.CREATE_PAGE ) );
+  }
+
+}
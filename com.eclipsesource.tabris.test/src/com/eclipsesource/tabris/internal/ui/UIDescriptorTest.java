@@ -15,6 +15,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 import java.io.Serializable;
 import java.util.List;
@@ -25,7 +26,11 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.eclipsesource.tabris.ui.ActionConfiguration;
+import com.eclipsesource.tabris.ui.ActionFactory;
+import com.eclipsesource.tabris.ui.PageFactory;
 import com.eclipsesource.tabris.ui.TransitionListener;
+import com.eclipsesource.tabris.ui.TransitionMetricsListener;
 
 
 public class UIDescriptorTest {
@@ -158,4 +163,233 @@ public class UIDescriptorTest {
   private PageDescriptor createDescriptor( String id, boolean isRoot ) {
     return new PageDescriptor( id, TestPage.class, "", null, isRoot );
   }
+
+  @Test
+  public void testHasDefaultFactories() {
+    UIDescriptor uiDescriptor = new UIDescriptor();
+
+    assertTrue( uiDescriptor.getPageFactory() instanceof DefaultInstanceFactory );
+    assertTrue( uiDescriptor.getActionFactory() instanceof DefaultInstanceFactory );
+  }
+
+  @Test
+  public void testAddPageDescriptorSetsPageFactory() {
+    UIDescriptor uiDescriptor = new UIDescriptor();
+    PageFactory pageFactory = mock( PageFactory.class );
+    uiDescriptor.setPageFactory( pageFactory );
+    PageDescriptor descriptor = createDescriptor( "foo" );
+
+    uiDescriptor.add( descriptor );
+
+    assertSame( pageFactory, descriptor.getPageFactory() );
+  }
+
+  @Test
+  public void testSetPageFactoryUpdatesAddedPageDescriptors() {
+    UIDescriptor uiDescriptor = new UIDescriptor();
+    PageDescriptor descriptor = createDescriptor( "foo" );
+    uiDescriptor.add( descriptor );
+    PageFactory pageFactory = mock( PageFactory.class );
+
+    uiDescriptor.setPageFactory( pageFactory );
+
+    assertSame( pageFactory, descriptor.getPageFactory() );
+  }
+
+  @Test
+  public void testSetActionFactoryUpdatesAddedActionDescriptors() {
+    UIDescriptor uiDescriptor = new UIDescriptor();
+    ActionDescriptor descriptor = new ActionDescriptor( "foo", TestAction.class, "bar", null, true, true );
+    uiDescriptor.add( descriptor );
+    ActionFactory actionFactory = mock( ActionFactory.class );
+    TestAction action = new TestAction();
+    when( actionFactory.createAction( TestAction.class ) ).thenReturn( action );
+
+    uiDescriptor.setActionFactory( actionFactory );
+
+    assertSame( action, descriptor.getAction() );
+  }
+
+  @Test
+  public void testSetActionFactoryUpdatesPageActions() {
+    UIDescriptor uiDescriptor = new UIDescriptor();
+    PageDescriptor descriptor = createDescriptor( "foo" );
+    descriptor.addAction( new ActionConfiguration( "bar", TestAction.class ) );
+    uiDescriptor.add( descriptor );
+    ActionFactory actionFactory = mock( ActionFactory.class );
+    TestAction action = new TestAction();
+    when( actionFactory.createAction( TestAction.class ) ).thenReturn( action );
+
+    uiDescriptor.setActionFactory( actionFactory );
+
+    assertSame( action, descriptor.getActions().get( 0 ).getAction() );
+  }
+
+  @Test
+  public void testIsNotCompiledByDefault() {
+    UIDescriptor uiDescriptor = new UIDescriptor();
+
+    assertFalse( uiDescriptor.isCompiled() );
+  }
+
+  @Test
+  public void testCompile() {
+    UIDescriptor uiDescriptor = new UIDescriptor();
+
+    uiDescriptor.compile();
+
+    assertTrue( uiDescriptor.isCompiled() );
+  }
+
+  @Test
+  public void testCompileTwice() {
+    UIDescriptor uiDescriptor = new UIDescriptor();
+    uiDescriptor.add( createDescriptor( "foo", true ) );
+    uiDescriptor.compile();
+    List<PageDescriptor> rootPages = uiDescriptor.getRootPages();
+
+    uiDescriptor.compile();
+
+    assertSame( rootPages, uiDescriptor.getRootPages() );
+  }
+
+  @Test( expected = IllegalStateException.class )
+  public void testAddPageFailsWhenCompiled() {
+    UIDescriptor uiDescriptor = new UIDescriptor();
+    uiDescriptor.compile();
+
+    uiDescriptor.add( createDescriptor( "foo" ) );
+  }
+
+  @Test( expected = IllegalStateException.class )
+  public void testAddActionFailsWhenCompiled() {
+    UIDescriptor uiDescriptor = new UIDescriptor();
+    uiDescriptor.compile();
+
+    uiDescriptor.add( new ActionDescriptor( "foo", TestAction.class, "bar", null, true, true ) );
+  }
+
+  @Test
+  public void testAddTransitionListenerWhenCompiled() {
+    UIDescriptor uiDescriptor = new UIDescriptor();
+    uiDescriptor.compile();
+    TransitionListener listener = mock( TransitionListener.class );
+
+    uiDescriptor.addTransitionListener( listener );
+
+    assertEquals( 1, uiDescriptor.getTransitionListeners().size() );
+    assertSame( listener, uiDescriptor.getTransitionListeners().get( 0 ) );
+  }
+
+  @Test
+  public void testRemoveTransitionListenerWhenCompiled() {
+    UIDescriptor uiDescriptor = new UIDescriptor();
+    TransitionListener listener = mock( TransitionListener.class );
+    uiDescriptor.addTransitionListener( listener );
+    uiDescriptor.compile();
+
+    uiDescriptor.removeTransitionListener( listener );
+
+    assertTrue( uiDescriptor.getTransitionListeners().isEmpty() );
+  }
+
+  @Test
+  public void testAddTransitionMetricsListenerWhenCompiled() {
+    UIDescriptor uiDescriptor = new UIDescriptor();
+    uiDescriptor.compile();
+    TransitionMetricsListener listener = mock( TransitionMetricsListener.class );
+
+    uiDescriptor.addTransitionMetricsListener( listener );
+
+    assertSame( listener, uiDescriptor.getTransitionMetricsListeners().get( 0 ) );
+  }
+
+  @Test
+  public void testAddTransitionListenerWhileIterating() {
+    UIDescriptor uiDescriptor = new UIDescriptor();
+    uiDescriptor.addTransitionListener( mock( TransitionListener.class ) );
+
+    for( TransitionListener listener : uiDescriptor.getTransitionListeners() ) {
+      uiDescriptor.addTransitionListener( mock( TransitionListener.class ) );
+    }
+
+    assertEquals( 2, uiDescriptor.getTransitionListeners().size() );
+  }
+
+  @Test
+  public void testSetPrerenderLimitWhenCompiled() {
+    UIDescriptor uiDescriptor = new UIDescriptor();
+    uiDescriptor.compile();
+
+    uiDescriptor.setPrerenderLimit( 3 );
+
+    assertEquals( 3, uiDescriptor.getPrerenderLimit() );
+  }
+
+  @Test( expected = IllegalStateException.class )
+  public void testSetPageFactoryFailsWhenCompiled() {
+    UIDescriptor uiDescriptor = new UIDescriptor();
+    uiDescriptor.compile();
+
+    uiDescriptor.setPageFactory( mock( PageFactory.class ) );
+  }
+
+  @Test( expected = IllegalStateException.class )
+  public void testCompileCompilesPageDescriptors() {
+    UIDescriptor uiDescriptor = new UIDescriptor();
+    PageDescriptor descriptor = createDescriptor( "foo" );
+    uiDescriptor.add( descriptor );
+
+    uiDescriptor.compile();
+
+    descriptor.addSuccessor( "bar" );
+  }
+
+  @Test
+  public void testGetRootPagesWhenCompiled() {
+    UIDescriptor uiDescriptor = new UIDescriptor();
+    PageDescriptor root = createDescriptor( "foo", true );
+    uiDescriptor.add( root );
+    uiDescriptor.add( createDescriptor( "bar", false ) );
+
+    uiDescriptor.compile();
+
+    assertEquals( 1, uiDescriptor.getRootPages().size() );
+    assertSame( root, uiDescriptor.getRootPages().get( 0 ) );
+  }
+
+  @Test( expected = UnsupportedOperationException.class )
+  public void testRootPagesAreUnmodifiableWhenCompiled() {
+    UIDescriptor uiDescriptor = new UIDescriptor();
+    uiDescriptor.compile();
+
+    uiDescriptor.getRootPages().add( createDescriptor( "foo", true ) );
+  }
+
+  @Test( expected = UnsupportedOperationException.class )
+  public void testGlobalActionsAreUnmodifiable() {
+    UIDescriptor uiDescriptor = new UIDescriptor();
+
+    uiDescriptor.getGlobalActions().add( new ActionDescriptor( "foo", TestAction.class, "bar", null, true, true ) );
+  }
+
+  @Test
+  public void testGetPageDescriptorWhenCompiled() {
+    UIDescriptor uiDescriptor = new UIDescriptor();
+    PageDescriptor descriptor = createDescriptor( "foo" );
+    uiDescriptor.add( descriptor );
+
+    uiDescriptor.compile();
+
+    assertSame( descriptor, uiDescriptor.getPageDescriptor( "foo" ) );
+  }
+
+  @Test
+  public void testGetActionDescriptor() {
+    UIDescriptor uiDescriptor = new UIDescriptor();
+    ActionDescriptor descriptor = new ActionDescriptor( "foo", TestAction.class, "bar", null, true, true );
+    uiDescriptor.add( descriptor );
+
+    assertSame( descriptor, uiDescriptor.getActionDescriptor( "foo" ) );
+  }
 }
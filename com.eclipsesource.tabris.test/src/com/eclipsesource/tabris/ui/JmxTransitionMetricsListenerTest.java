@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.ui;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.io.Serializable;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class JmxTransitionMetricsListenerTest {
+
+  private JmxTransitionMetricsListener listener;
+  private MBeanServer server;
+
+  @Before
+  public void setUp() {
+    server = ManagementFactory.getPlatformMBeanServer();
+    listener = new JmxTransitionMetricsListener( "test" );
+  }
+
+  @After
+  public void tearDown() {
+    listener.dispose();
+  }
+
+  @Test
+  public void testIsSerializable() {
+    assertTrue( Serializable.class.isAssignableFrom( JmxTransitionMetricsListener.class ) );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testFailsWithNullName() {
+    new JmxTransitionMetricsListener( null );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testFailsWithEmptyName() {
+    new JmxTransitionMetricsListener( "" );
+  }
+
+  @Test( expected = IllegalStateException.class )
+  public void testFailsWithAlreadyRegisteredName() {
+    new JmxTransitionMetricsListener( "test" );
+  }
+
+  @Test
+  public void testRegistersMBean() throws Exception {
+    assertTrue( server.isRegistered( new ObjectName( listener.getObjectName() ) ) );
+  }
+
+  @Test
+  public void testDisposeUnregistersMBean() throws Exception {
+    listener.dispose();
+
+    assertFalse( server.isRegistered( new ObjectName( listener.getObjectName() ) ) );
+  }
+
+  @Test
+  public void testPublishesMetricsThroughMBean() throws Exception {
+    Map<TransitionPhase, Long> durations = new HashMap<TransitionPhase, Long>();
+    durations.put( TransitionPhase.CREATE_CONTENT, Long.valueOf( 2000000 ) );
+
+    listener.transitionMeasured( mock( UI.class ), new TransitionMetrics( "foo", "bar", durations ) );
+
+    ObjectName name = new ObjectName( listener.getObjectName() );
+    Object count = server.invoke( name,
+                                  "getTransitionCount",
+                                  new Object[] { "bar" },
+                                  new String[] { String.class.getName() } );
+    assertEquals( Long.valueOf( 1 ), count );
+    Object percentile = server.invoke( name,
+                                       "getPercentile",
+                                       new Object[] { "bar", Double.valueOf( 50 ) },
+                                       new String[] { String.class.getName(), double.class.getName() } );
+    assertEquals( Double.valueOf( 2 ), percentile );
+  }
+
+}
@@ -152,6 +152,26 @@ public class PageConfigurationTest {
     assertEquals( actions.get( 0 ).getId(), "bar" );
   }
 
+  @Test
+  public void testAddsSuccessor() {
+    PageConfiguration config = new PageConfiguration( "foo", TestPage.class ).addSuccessor( "bar" );
+
+    PageDescriptor descriptor = config.getAdapter( PageDescriptor.class );
+
+    assertEquals( 1, descriptor.getSuccessors().size() );
+    assertEquals( "bar", descriptor.getSuccessors().get( 0 ) );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testAddSuccessorFailsWithNullId() {
+    new PageConfiguration( "foo", TestPage.class ).addSuccessor( null );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testAddSuccessorFailsWithEmptyId() {
+    new PageConfiguration( "foo", TestPage.class ).addSuccessor( "" );
+  }
+
   @Test( expected = IllegalArgumentException.class )
     public void testAddActionConfigurationFailsWithNullAction() {
       new PageConfiguration( "foo", TestPage.class ).addActionConfiguration( null );
@@ -1,6 +1,7 @@
 package com.eclipsesource.tabris.ui;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
@@ -28,6 +29,21 @@ public class PageDataTest {
     assertEquals( "bar", data.get( "foo", String.class ) );
   }
 
+  @Test
+  public void testIsEmpty() {
+    PageData data = new PageData();
+
+    assertTrue( data.isEmpty() );
+  }
+
+  @Test
+  public void testIsNotEmptyWithValue() {
+    PageData data = new PageData();
+    data.set( "foo", "bar" );
+
+    assertFalse( data.isEmpty() );
+  }
+
   @Test
   public void testGetAllValues() {
     PageData data = new PageData();
@@ -10,6 +10,7 @@
  ******************************************************************************/
 package com.eclipsesource.tabris.ui;
 
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertTrue;
@@ -65,4 +66,25 @@ public class TabrisUIEntrypointFactoryTest {
 
     assertNotSame( entryPoint1, entryPoint2 );
   }
+
+  @Test
+  public void testCreateDoesNotCompileConfiguration() {
+    UIConfiguration uiConfiguration = new UIConfiguration();
+    TabrisUIEntrypointFactory factory = new TabrisUIEntrypointFactory( uiConfiguration );
+
+    factory.create();
+
+    assertFalse( uiConfiguration.isCompiled() );
+  }
+
+  @Test
+  public void testCreateWithCompiledConfiguration() {
+    UIConfiguration uiConfiguration = new UIConfiguration().compile();
+    TabrisUIEntrypointFactory factory = new TabrisUIEntrypointFactory( uiConfiguration );
+
+    EntryPoint entryPoint = factory.create();
+
+    assertNotNull( entryPoint );
+    assertTrue( uiConfiguration.isCompiled() );
+  }
 }
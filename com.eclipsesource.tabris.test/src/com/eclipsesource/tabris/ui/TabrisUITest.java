@@ -88,6 +88,15 @@ public class TabrisUITest {
     assertTrue( shell.getLayout() instanceof ZIndexStackLayout );
   }
 
+  @Test
+  public void testZIndexLayoutIsTopOnly() {
+    TabrisUI tabrisUI = new TabrisUI( createConfiguration() );
+
+    tabrisUI.create( shell );
+
+    assertTrue( ( ( ZIndexStackLayout )shell.getLayout() ).isTopOnly() );
+  }
+
   @Test
   public void testSetsBackgroundOnRemoteUI() {
     TabrisUI tabrisUI = new TabrisUI( createConfiguration() );
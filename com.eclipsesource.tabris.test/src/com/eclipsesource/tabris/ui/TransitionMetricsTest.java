@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.ui;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+
+public class TransitionMetricsTest {
+
+  @Test
+  public void testIsSerializable() {
+    assertTrue( Serializable.class.isAssignableFrom( TransitionMetrics.class ) );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testFailsWithNullToPageId() {
+    new TransitionMetrics( "foo", null, new HashMap<TransitionPhase, Long>() );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testFailsWithNullDurations() {
+    new TransitionMetrics( "foo", "bar", null );
+  }
+
+  @Test
+  public void testGetPageIds() {
+    TransitionMetrics metrics = new TransitionMetrics( "foo", "bar", new HashMap<TransitionPhase, Long>() );
+
+    assertEquals( "foo", metrics.getFromPageId() );
+    assertEquals( "bar", metrics.getToPageId() );
+  }
+
+  @Test
+  public void testGetDuration() {
+    Map<TransitionPhase, Long> durations = new HashMap<TransitionPhase, Long>();
+    durations.put( TransitionPhase.ACTIVATE, Long.valueOf( 23 ) );
+
+    TransitionMetrics metrics = new TransitionMetrics( "foo", "bar", durations );
+
+    assertEquals( 23, metrics.getDuration( TransitionPhase.ACTIVATE ) );
+    assertEquals( 0, metrics.getDuration( TransitionPhase.LAYOUT ) );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testGetDurationFailsWithNullPhase() {
+    TransitionMetrics metrics = new TransitionMetrics( "foo", "bar", new HashMap<TransitionPhase, Long>() );
+
+    metrics.getDuration( null );
+  }
+
+  @Test
+  public void testGetTotalDuration() {
+    Map<TransitionPhase, Long> durations = new HashMap<TransitionPhase, Long>();
+    durations.put( TransitionPhase.ACTIVATE, Long.valueOf( 23 ) );
+    durations.put( TransitionPhase.LAYOUT, Long.valueOf( 42 ) );
+
+    TransitionMetrics metrics = new TransitionMetrics( "foo", "bar", durations );
+
+    assertEquals( 65, metrics.getTotalDuration() );
+  }
+
+  @Test
+  public void testCopiesDurations() {
+    Map<TransitionPhase, Long> durations = new HashMap<TransitionPhase, Long>();
+    TransitionMetrics metrics = new TransitionMetrics( "foo", "bar", durations );
+
+    durations.put( TransitionPhase.ACTIVATE, Long.valueOf( 23 ) );
+
+    assertEquals( 0, metrics.getTotalDuration() );
+  }
+
+}
@@ -11,13 +11,16 @@
 package com.eclipsesource.tabris.ui;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 
 import java.io.Serializable;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import org.eclipse.rap.rwt.testfixture.Fixture;
 import org.eclipse.swt.graphics.RGB;
@@ -271,4 +274,219 @@ public class UIConfigurationTest {
     configuration.setBackground( null );
   }
 
+  @Test
+  public void testHasDefaultPrerenderLimit() {
+    UIConfiguration configuration = new UIConfiguration();
+
+    int limit = configuration.getAdapter( UIDescriptor.class ).getPrerenderLimit();
+
+    assertEquals( UIDescriptor.DEFAULT_PRERENDER_LIMIT, limit );
+  }
+
+  @Test
+  public void testSetsPrerenderLimit() {
+    UIConfiguration configuration = new UIConfiguration();
+
+    configuration.setPrerenderLimit( 5 );
+
+    assertEquals( 5, configuration.getAdapter( UIDescriptor.class ).getPrerenderLimit() );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testSetPrerenderLimitFailsWithNegativeLimit() {
+    UIConfiguration configuration = new UIConfiguration();
+
+    configuration.setPrerenderLimit( -1 );
+  }
+
+  @Test
+  public void testSetsLearnSuccessors() {
+    UIConfiguration configuration = new UIConfiguration();
+
+    configuration.setLearnSuccessors( true );
+
+    assertTrue( configuration.getAdapter( UIDescriptor.class ).isLearnSuccessors() );
+  }
+
+  @Test
+  public void testHasNoRenderedPageLimitByDefault() {
+    UIConfiguration configuration = new UIConfiguration();
+
+    int limit = configuration.getAdapter( UIDescriptor.class ).getRenderedPageLimit();
+
+    assertEquals( 0, limit );
+  }
+
+  @Test
+  public void testSetsRenderedPageLimit() {
+    UIConfiguration configuration = new UIConfiguration();
+
+    configuration.setRenderedPageLimit( 3 );
+
+    assertEquals( 3, configuration.getAdapter( UIDescriptor.class ).getRenderedPageLimit() );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testSetRenderedPageLimitFailsWithNegativeLimit() {
+    UIConfiguration configuration = new UIConfiguration();
+
+    configuration.setRenderedPageLimit( -1 );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testAddTransitionMetricsListenerFailsWithNullListener() {
+    UIConfiguration configuration = new UIConfiguration();
+
+    configuration.addTransitionMetricsListener( null );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testRemoveTransitionMetricsListenerFailsWithNullListener() {
+    UIConfiguration configuration = new UIConfiguration();
+
+    configuration.removeTransitionMetricsListener( null );
+  }
+
+  @Test
+  public void testAddsTransitionMetricsListener() {
+    UIConfiguration configuration = new UIConfiguration();
+    TransitionMetricsListener listener = mock( TransitionMetricsListener.class );
+
+    UIConfiguration actualConfiguration = configuration.addTransitionMetricsListener( listener );
+
+    UIDescriptor descriptor = configuration.getAdapter( UIDescriptor.class );
+    List<TransitionMetricsListener> listeners = descriptor.getTransitionMetricsListeners();
+    assertSame( configuration, actualConfiguration );
+    assertEquals( 1, listeners.size() );
+    assertTrue( listeners.contains( listener ) );
+  }
+
+  @Test
+  public void testRemovesTransitionMetricsListener() {
+    UIConfiguration configuration = new UIConfiguration();
+    TransitionMetricsListener listener = mock( TransitionMetricsListener.class );
+    configuration.addTransitionMetricsListener( listener );
+
+    UIConfiguration actualConfiguration = configuration.removeTransitionMetricsListener( listener );
+
+    assertSame( configuration, actualConfiguration );
+    assertTrue( configuration.getAdapter( UIDescriptor.class ).getTransitionMetricsListeners().isEmpty() );
+  }
+
+  @Test
+  public void testHasNoPreparationExecutorByDefault() {
+    UIConfiguration configuration = new UIConfiguration();
+
+    assertNull( configuration.getAdapter( UIDescriptor.class ).getPreparationExecutor() );
+  }
+
+  @Test
+  public void testSetsPreparationExecutor() {
+    UIConfiguration configuration = new UIConfiguration();
+    Executor executor = mock( Executor.class );
+
+    UIConfiguration actualConfiguration = configuration.setPreparationExecutor( executor );
+
+    assertSame( configuration, actualConfiguration );
+    assertSame( executor, configuration.getAdapter( UIDescriptor.class ).getPreparationExecutor() );
+  }
+
+  @Test
+  public void testSetsPageFactory() {
+    UIConfiguration configuration = new UIConfiguration();
+    PageFactory pageFactory = mock( PageFactory.class );
+
+    UIConfiguration actualConfiguration = configuration.setPageFactory( pageFactory );
+
+    assertSame( configuration, actualConfiguration );
+    assertSame( pageFactory, configuration.getAdapter( UIDescriptor.class ).getPageFactory() );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testSetPageFactoryFailsWithNull() {
+    UIConfiguration configuration = new UIConfiguration();
+
+    configuration.setPageFactory( null );
+  }
+
+  @Test
+  public void testSetsActionFactory() {
+    UIConfiguration configuration = new UIConfiguration();
+    ActionFactory actionFactory = mock( ActionFactory.class );
+
+    UIConfiguration actualConfiguration = configuration.setActionFactory( actionFactory );
+
+    assertSame( configuration, actualConfiguration );
+    assertSame( actionFactory, configuration.getAdapter( UIDescriptor.class ).getActionFactory() );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testSetActionFactoryFailsWithNull() {
+    UIConfiguration configuration = new UIConfiguration();
+
+    configuration.setActionFactory( null );
+  }
+
+  @Test
+  public void testDoesNotRestorePageFlowByDefault() {
+    UIConfiguration configuration = new UIConfiguration();
+
+    assertFalse( configuration.getAdapter( UIDescriptor.class ).isRestorePageFlow() );
+  }
+
+  @Test
+  public void testSetsRestorePageFlow() {
+    UIConfiguration configuration = new UIConfiguration();
+
+    UIConfiguration actualConfiguration = configuration.setRestorePageFlow( true );
+
+    assertSame( configuration, actualConfiguration );
+    assertTrue( configuration.getAdapter( UIDescriptor.class ).isRestorePageFlow() );
+  }
+
+  @Test
+  public void testIsNotCompiledByDefault() {
+    UIConfiguration configuration = new UIConfiguration();
+
+    assertFalse( configuration.isCompiled() );
+  }
+
+  @Test
+  public void testCompile() {
+    UIConfiguration configuration = new UIConfiguration();
+
+    UIConfiguration actualConfiguration = configuration.compile();
+
+    assertSame( configuration, actualConfiguration );
+    assertTrue( configuration.isCompiled() );
+    assertTrue( configuration.getAdapter( UIDescriptor.class ).isCompiled() );
+  }
+
+  @Test( expected = IllegalStateException.class )
+  public void testAddPageConfigurationFailsWhenCompiled() {
+    UIConfiguration configuration = new UIConfiguration();
+    configuration.compile();
+
+    configuration.addPageConfiguration( new PageConfiguration( "foo", TestPage.class ) );
+  }
+
+  @Test
+  public void testSetForegroundWhenCompiled() {
+    UIConfiguration configuration = new UIConfiguration();
+    configuration.compile();
+
+    configuration.setForeground( new RGB( 0, 0, 0 ) );
+
+    assertEquals( new RGB( 0, 0, 0 ), configuration.getForeground() );
+  }
+
+  @Test
+  public void testSetBackgroundWhenCompiled() {
+    UIConfiguration configuration = new UIConfiguration();
+    configuration.compile();
+
+    configuration.setBackground( new RGB( 0, 0, 0 ) );
+
+    assertEquals( new RGB( 0, 0, 0 ), configuration.getBackground() );
+  }
 }
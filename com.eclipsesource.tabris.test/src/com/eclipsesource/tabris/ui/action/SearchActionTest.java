@@ -10,8 +10,11 @@
  ******************************************************************************/
 package com.eclipsesource.tabris.ui.action;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
@@ -116,4 +119,26 @@ public class SearchActionTest {
     when( action.getRemoteObject() ).thenReturn( remoteObject );
     return action;
   }
+
+  @Test
+  public void testHasNoModifyDelayByDefault() {
+    TestSearchAction searchAction = new TestSearchAction();
+
+    assertEquals( 0, searchAction.getModifyDelay() );
+  }
+
+  @Test
+  public void testIsNotIncrementalByDefault() {
+    TestSearchAction searchAction = new TestSearchAction();
+
+    assertFalse( searchAction.isIncremental() );
+  }
+
+  @Test
+  public void testMatchesIgnoresCase() {
+    TestSearchAction searchAction = new TestSearchAction();
+
+    assertTrue( searchAction.matches( "oo", "FOO" ) );
+    assertFalse( searchAction.matches( "bar", "FOO" ) );
+  }
 }
@@ -12,6 +12,8 @@ package com.eclipsesource.tabris.widgets;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
@@ -26,7 +28,9 @@ import org.eclipse.swt.layout.RowLayout;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Event;
 import org.eclipse.swt.widgets.Label;
+import org.eclipse.swt.widgets.ScrollBar;
 import org.eclipse.swt.widgets.Shell;
 import org.junit.After;
 import org.junit.Before;
@@ -249,4 +253,251 @@ public class ScrollingCompositeTest {
     composite.dispose();
     composite.dispose();
   }
+
+  @Test
+  public void testCachesMeasuredSize() {
+    ScrollingComposite composite = new ScrollingComposite( shell, SWT.V_SCROLL );
+    composite.setLayout( new FillLayout() );
+    MeasuredComposite child = new MeasuredComposite( composite );
+    composite.computeSize( SWT.DEFAULT, SWT.DEFAULT );
+    int measureCount = child.measureCount;
+
+    Point size = composite.computeSize( SWT.DEFAULT, SWT.DEFAULT );
+
+    assertEquals( measureCount, child.measureCount );
+    assertEquals( composite.computeSize( SWT.DEFAULT, SWT.DEFAULT ), size );
+  }
+
+  @Test
+  public void testMeasuresAgainWhenChanged() {
+    ScrollingComposite composite = new ScrollingComposite( shell, SWT.V_SCROLL );
+    composite.setLayout( new FillLayout() );
+    MeasuredComposite child = new MeasuredComposite( composite );
+    composite.computeSize( SWT.DEFAULT, SWT.DEFAULT );
+    int measureCount = child.measureCount;
+
+    composite.computeSize( SWT.DEFAULT, SWT.DEFAULT, true );
+
+    assertTrue( child.measureCount > measureCount );
+  }
+
+  @Test
+  public void testMeasuresAgainOnLayoutWithChanges() {
+    ScrollingComposite composite = new ScrollingComposite( shell, SWT.V_SCROLL );
+    composite.setLayout( new FillLayout() );
+    MeasuredComposite child = new MeasuredComposite( composite );
+    composite.computeSize( SWT.DEFAULT, SWT.DEFAULT );
+    int measureCount = child.measureCount;
+
+    composite.layout( true );
+
+    assertTrue( child.measureCount > measureCount );
+  }
+
+  @Test
+  public void testMeasuresAgainWhenChildIsAdded() {
+    ScrollingComposite composite = new ScrollingComposite( shell, SWT.V_SCROLL );
+    composite.setLayout( new FillLayout() );
+    MeasuredComposite child = new MeasuredComposite( composite );
+    composite.computeSize( SWT.DEFAULT, SWT.DEFAULT );
+    int measureCount = child.measureCount;
+
+    new Label( composite, SWT.NONE );
+    composite.computeSize( SWT.DEFAULT, SWT.DEFAULT );
+
+    assertTrue( child.measureCount > measureCount );
+  }
+
+  @Test
+  public void testMeasuresOncePerResize() {
+    ScrollingComposite composite = new ScrollingComposite( shell, SWT.V_SCROLL );
+    composite.setLayout( new FillLayout() );
+    MeasuredComposite child = new MeasuredComposite( composite );
+    ScrolledComposite scrolledComposite = ( ScrolledComposite )composite.getParent();
+    scrolledComposite.setSize( 100, 100 );
+    scrolledComposite.setSize( 200, 100 );
+    int measureCount = child.measureCount;
+
+    scrolledComposite.setSize( 100, 100 );
+
+    assertEquals( measureCount, child.measureCount );
+  }
+
+  @Test
+  public void testIsNotVirtualByDefault() {
+    ScrollingComposite composite = new ScrollingComposite( shell, SWT.V_SCROLL );
+
+    assertFalse( composite.isVirtual() );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testSetRowProviderFailsWithNull() {
+    ScrollingComposite composite = new ScrollingComposite( shell, SWT.V_SCROLL );
+
+    composite.setRowProvider( null );
+  }
+
+  @Test
+  public void testSetRowProviderDisposesChildren() {
+    ScrollingComposite composite = new ScrollingComposite( shell, SWT.V_SCROLL );
+    Label label = new Label( composite, SWT.NONE );
+
+    composite.setRowProvider( new TestRowProvider( 0 ) );
+
+    assertTrue( composite.isVirtual() );
+    assertTrue( label.isDisposed() );
+  }
+
+  @Test
+  public void testCreatesVisibleRowsOnly() {
+    ScrollingComposite composite = createVirtualComposite( 1000 );
+
+    assertNotNull( composite.getRow( 0 ) );
+    assertNull( composite.getRow( 999 ) );
+    assertTrue( composite.getChildren().length < 20 );
+  }
+
+  @Test
+  public void testUsesEstimatedHeightForMinHeight() {
+    ScrollingComposite composite = createVirtualComposite( 1000 );
+    ScrolledComposite scrolledComposite = ( ScrolledComposite )composite.getParent();
+    int createdRows = composite.getChildren().length;
+
+    int minHeight = scrolledComposite.getMinHeight();
+
+    assertEquals( createdRows * 64 + ( 1000 - createdRows ) * 40, minHeight );
+  }
+
+  @Test
+  public void testSetEstimatedRowHeight() {
+    ScrollingComposite composite = createVirtualComposite( 1000 );
+    ScrolledComposite scrolledComposite = ( ScrolledComposite )composite.getParent();
+    int createdRows = composite.getChildren().length;
+
+    composite.setEstimatedRowHeight( 20 );
+
+    assertEquals( createdRows * 64 + ( 1000 - createdRows ) * 20, scrolledComposite.getMinHeight() );
+  }
+
+  @Test( expected = IllegalStateException.class )
+  public void testSetEstimatedRowHeightFailsWhenNotVirtual() {
+    ScrollingComposite composite = new ScrollingComposite( shell, SWT.V_SCROLL );
+
+    composite.setEstimatedRowHeight( 20 );
+  }
+
+  @Test
+  public void testRevealRowCreatesRow() {
+    ScrollingComposite composite = createVirtualComposite( 1000 );
+
+    composite.revealRow( 500 );
+
+    assertNotNull( composite.getRow( 500 ) );
+    assertNull( composite.getRow( 0 ) );
+    assertTrue( composite.isRowRevealed( 500 ) );
+  }
+
+  @Test
+  public void testRevealedRowIsRevealed() {
+    ScrollingComposite composite = createVirtualComposite( 1000 );
+
+    composite.revealRow( 500 );
+
+    assertTrue( composite.isRevealed( composite.getRow( 500 ) ) );
+  }
+
+  @Test
+  public void testIsRowRevealed() {
+    ScrollingComposite composite = createVirtualComposite( 1000 );
+
+    assertTrue( composite.isRowRevealed( 0 ) );
+    assertFalse( composite.isRowRevealed( 500 ) );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testRevealRowFailsWithInvalidIndex() {
+    ScrollingComposite composite = createVirtualComposite( 10 );
+
+    composite.revealRow( 10 );
+  }
+
+  @Test( expected = IllegalStateException.class )
+  public void testRevealRowFailsWhenNotVirtual() {
+    ScrollingComposite composite = new ScrollingComposite( shell, SWT.V_SCROLL );
+
+    composite.revealRow( 0 );
+  }
+
+  @Test
+  public void testScrollingCreatesRows() {
+    ScrollingComposite composite = createVirtualComposite( 1000 );
+    ScrolledComposite scrolledComposite = ( ScrolledComposite )composite.getParent();
+    ScrollBar verticalBar = scrolledComposite.getVerticalBar();
+
+    verticalBar.setSelection( 20000 );
+    verticalBar.notifyListeners( SWT.Selection, new Event() );
+
+    assertNotNull( composite.getRow( 500 ) );
+    assertNull( composite.getRow( 0 ) );
+  }
+
+  @Test
+  public void testRefreshRowsRecreatesRows() {
+    TestRowProvider provider = new TestRowProvider( 1000 );
+    ScrollingComposite composite = createVirtualComposite( provider );
+    Control firstRow = composite.getRow( 0 );
+
+    provider.rowCount = 5;
+    composite.refreshRows();
+
+    assertTrue( firstRow.isDisposed() );
+    assertNotNull( composite.getRow( 0 ) );
+    assertEquals( 5, composite.getChildren().length );
+  }
+
+  private ScrollingComposite createVirtualComposite( int rowCount ) {
+    return createVirtualComposite( new TestRowProvider( rowCount ) );
+  }
+
+  private ScrollingComposite createVirtualComposite( RowProvider provider ) {
+    ScrollingComposite composite = new ScrollingComposite( shell, SWT.V_SCROLL );
+    ScrolledComposite scrolledComposite = ( ScrolledComposite )composite.getParent();
+    scrolledComposite.setSize( 100, 200 );
+    composite.setRowProvider( provider );
+    return composite;
+  }
+
+  private static class TestRowProvider implements RowProvider {
+
+    int rowCount;
+
+    TestRowProvider( int rowCount ) {
+      this.rowCount = rowCount;
+    }
+
+    @Override
+    public Control createRow( Composite parent, int index ) {
+      return new Composite( parent, SWT.NONE );
+    }
+
+    @Override
+    public int getRowCount() {
+      return rowCount;
+    }
+  }
+
+  private static class MeasuredComposite extends Composite {
+
+    int measureCount;
+
+    MeasuredComposite( Composite parent ) {
+      super( parent, SWT.NONE );
+    }
+
+    @Override
+    public Point computeSize( int wHint, int hHint, boolean changed ) {
+      measureCount++;
+      return super.computeSize( wHint, hHint, changed );
+    }
+  }
 }
@@ -11,6 +11,7 @@
 package com.eclipsesource.tabris.widgets.enhancement;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
@@ -176,6 +177,18 @@ public class CompositeDecoratorTest {
     assertTrue( facade.isDisposed() );
   }
 
+  @Test
+  public void testAddGroupedListenerCreatesNewFacadeWhenFacadeWasDisposed() {
+    decorator.addGroupedListener( SWT.Selection, mock( Listener.class ) );
+    Control facade = composite.getChildren()[ 0 ];
+    facade.dispose();
+
+    decorator.addGroupedListener( SWT.Selection, mock( Listener.class ) );
+
+    assertEquals( 1, composite.getChildren().length );
+    assertFalse( composite.getChildren()[ 0 ].isDisposed() );
+  }
+
   @Test
   public void testExcludesFacadeFromLayoutingWithGridLayout() {
     decorator.addGroupedListener( SWT.Selection, mock( Listener.class ) );
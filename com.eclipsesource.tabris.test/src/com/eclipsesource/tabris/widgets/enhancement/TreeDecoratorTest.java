@@ -15,7 +15,9 @@ import static com.eclipsesource.tabris.internal.DataWhitelist.WhiteListEntry.BAC
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import org.eclipse.rap.rwt.testfixture.Fixture;
 import org.eclipse.swt.SWT;
@@ -106,4 +108,35 @@ public class TreeDecoratorTest {
     assertEquals( "anyVariant", tree3.getData( BACK_FOCUS.getKey() ) );
   }
 
+  @Test
+  public void testSetBackButtonFocusOnDisposedTreeDoesNotFail() {
+    Shell shell = new Shell( display );
+    Tree tree1 = new Tree( shell, SWT.NONE );
+    Tree tree2 = new Tree( shell, SWT.NONE );
+    Widgets.onTree( tree1 ).enableBackButtonNavigation();
+    tree1.dispose();
+
+    Widgets.onTree( tree2 ).enableBackButtonNavigation();
+
+    assertEquals( Boolean.TRUE, tree2.getData( BACK_FOCUS.getKey() ) );
+  }
+
+  @Test
+  public void testEnableLazyLoadingSetsItemCount() {
+    Tree virtualTree = new Tree( new Shell( display ), SWT.VIRTUAL );
+    TreeItemProvider provider = mock( TreeItemProvider.class );
+    when( provider.getItemCount( null ) ).thenReturn( 50 );
+
+    Widgets.onTree( virtualTree ).enableLazyLoading( provider, 10, 1, 5 );
+
+    assertEquals( 50, virtualTree.getItemCount() );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testEnableLazyLoadingFailsWithNonVirtualTree() {
+    Tree nonVirtualTree = new Tree( new Shell( display ), SWT.NONE );
+
+    Widgets.onTree( nonVirtualTree ).enableLazyLoading( mock( TreeItemProvider.class ), 10, 1, 5 );
+  }
+
 }
@@ -10,6 +10,10 @@
  ******************************************************************************/
 package com.eclipsesource.tabris;
 
+import java.io.Serializable;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
 import org.eclipse.rap.rwt.client.service.ClientService;
 
 
@@ -23,6 +27,10 @@ import org.eclipse.rap.rwt.client.service.ClientService;
  *       better practice to save small data to identify the client like an ID to restore the session from a
  *       persistent store on the server side.
  * </p>
+ * <p>
+ * Changes will not be sent immediately. All changes made during one request will be combined and sent with the
+ * response. Only the last value of a key will be sent. Big values will be split and sent with several responses.
+ * </p>
  *
  * @noimplement
  * @since 0.11
@@ -38,16 +46,157 @@ public interface ClientStore extends ClientService {
    */
   void add( String key, String value );
 
+  /**
+   * <p>
+   * Adds all values of the given map to this store and sends them to the accessing client device. Already existing
+   * values will be overridden. When one of the entries is not valid none of the values will be added.
+   * </p>
+   * @param values the values to be stored on the client device. Must not be <code>null</code>. The keys must not be
+   *               empty or <code>null</code>, the values must not be <code>null</code>.
+   *
+   * @since 1.2
+   */
+  void putAll( Map<String, String> values );
+
   /**
    * <p>
    * Gets a values out of the client store. Calling the get method does not mean that the client will be accessed. All
    * data stored on the client will be transfered in the first request to the sever. So this lookup will be
    * fast as hell.
    * </p>
+   * <p>
+   * NOTE: When a {@link ClientStoreMirrorPolicy} other than the full mirror is installed, values that are not mirrored
+   *       on the server will be returned as <code>null</code>. Use {@link #get(String, ClientStoreCallback)} to read
+   *       them from the client device.
+   * </p>
    * @param key key to identify the stored value. Must not be empty or <code>null</code>.
    */
   String get( String key );
 
+  /**
+   * <p>
+   * Gets a value out of the client store and passes it to the callback. When the value is mirrored on the server the
+   * callback will be called right away. Otherwise the value will be fetched from the client device and the callback
+   * will be called with a later request. Client devices that can not send single values pass <code>null</code> to the
+   * callback right away.
+   * </p>
+   * @param key key to identify the stored value. Must not be empty or <code>null</code>.
+   * @param callback the callback to receive the value. Must not be <code>null</code>.
+   *
+   * @see ClientStoreMirrorPolicy
+   * @since 1.2
+   */
+  void get( String key, ClientStoreCallback callback );
+
+  /**
+   * <p>
+   * Adds binary data to this store and sends it to the accessing client device. The data will be stored as a Base64
+   * encoded string and compressed when it is big enough to benefit from it. Already existing values will be
+   * overridden.
+   * </p>
+   * @param key key to identify the stored value. Must not be empty or <code>null</code>.
+   * @param value the data to be stored on the client device. Must not be <code>null</code> or bigger than 16 MB.
+   *
+   * @since 1.2
+   */
+  void addBytes( String key, byte[] value );
+
+  /**
+   * <p>
+   * Gets binary data that was stored using {@link #addBytes(String, byte[])}. Returns <code>null</code> when no
+   * valid binary data is stored for the key or when the value is not mirrored on the server. Data bigger than 16 MB
+   * is not valid.
+   * </p>
+   * @param key key to identify the stored value. Must not be empty or <code>null</code>.
+   *
+   * @since 1.2
+   */
+  byte[] getBytes( String key );
+
+  /**
+   * <p>
+   * Adds a serialized object to this store and sends it to the accessing client device. The object will be signed, so
+   * only objects stored by this application will be deserialized. Already existing values will be overridden.
+   * </p>
+   * <p>
+   * By default the signing key is created randomly when the application starts. To read objects after a restart or on
+   * other nodes of a cluster define a signing key using {@link TabrisClientInstaller}.
+   * </p>
+   * @param key key to identify the stored value. Must not be empty or <code>null</code>.
+   * @param value the object to be stored on the client device. Must not be <code>null</code>, all its fields need
+   *              to be serializable and it must not be bigger than 16 MB when serialized.
+   *
+   * @since 1.2
+   */
+  void addObject( String key, Serializable value );
+
+  /**
+   * <p>
+   * Gets an object that was stored using {@link #addObject(String, Serializable)}. Returns <code>null</code> when no
+   * valid object is stored for the key or when the value is not mirrored on the server.
+   * </p>
+   * @param key key to identify the stored value. Must not be empty or <code>null</code>.
+   *
+   * @since 1.2
+   */
+  Object getObject( String key );
+
+  /**
+   * <p>
+   * Returns the number of characters of all values stored on the client device as far as they are known on the
+   * server. Keys are not counted. The size is also tracked for values that are not mirrored on the server.
+   * </p>
+   *
+   * @since 1.2
+   */
+  long getSize();
+
+  /**
+   * <p>
+   * Lets an entry expire after the given time. Expired entries will be removed on the server and the client device.
+   * Adding a new value for the key removes the time to live. Keys that are not stored will be ignored. Client devices
+   * that don't support expiry times only remove entries that expire while the session is active.
+   * </p>
+   * @param key key to identify the stored value. Must not be empty or <code>null</code>.
+   * @param timeToLive the time until the entry expires. Must not be negative.
+   * @param unit the unit of the time to live. Must not be <code>null</code>.
+   *
+   * @since 1.2
+   */
+  void setTimeToLive( String key, long timeToLive, TimeUnit unit );
+
+  /**
+   * <p>
+   * Returns the time in milliseconds since the epoch when the entry expires or <code>null</code> when the entry does
+   * not expire.
+   * </p>
+   * @param key key to identify the stored value.
+   *
+   * @since 1.2
+   */
+  Long getExpiryTime( String key );
+
+  /**
+   * <p>
+   * Limits the size of this store to the given number of characters as reported by {@link #getSize()}. When the
+   * store gets bigger, the least recently used entries will be removed on the server and the client device before
+   * the changes of a request are sent. A value bigger than the quota will not be kept. By default there is no quota.
+   * </p>
+   * @param quota the maximum size of all values. Must be positive.
+   *
+   * @since 1.2
+   */
+  void setQuota( long quota );
+
+  /**
+   * <p>
+   * Returns the quota of this store, <code>Long.MAX_VALUE</code> if there is no quota.
+   * </p>
+   *
+   * @since 1.2
+   */
+  long getQuota();
+
   /**
    * <p>
    * Removes a entry from the ClientStore. The removed value will also be removed on the client device.
@@ -0,0 +1,37 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris;
+
+import java.io.Serializable;
+
+
+/**
+ * <p>
+ * A <code>ClientStoreCallback</code> receives a value read with {@link ClientStore#get(String, ClientStoreCallback)}.
+ * When the value is mirrored on the server the callback will be called right away, otherwise it will be called when
+ * the client device has sent the value.
+ * </p>
+ *
+ * @see ClientStoreMirrorPolicy
+ * @since 1.2
+ */
+public interface ClientStoreCallback extends Serializable {
+
+  /**
+   * <p>
+   * Gets called when the value of a key is available.
+   * </p>
+   *
+   * @param key the requested key.
+   * @param value the stored value or <code>null</code> when no value is stored for the key.
+   */
+  void valueReceived( String key, String value );
+}
@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris;
+
+import static com.eclipsesource.tabris.internal.Clauses.when;
+
+import java.io.Serializable;
+
+
+/**
+ * <p>
+ * A <code>ClientStoreMirrorPolicy</code> defines how many values of the {@link ClientStore} are kept on the server.
+ * By default all values are mirrored on the server, so {@link ClientStore#get(String)} never needs to access the
+ * client. When the client stores hold a lot of data this can cost a lot of memory with many sessions. Values that are
+ * not mirrored can be read using {@link ClientStore#get(String, ClientStoreCallback)} which fetches them from the
+ * client device on demand. The keys of the store are always known on the server.
+ * </p>
+ * <p>
+ * The policy is configured for the whole application using
+ * {@link TabrisClientInstaller#install(org.eclipse.rap.rwt.application.Application, ClientStoreMirrorPolicy)}.
+ * </p>
+ *
+ * @see ClientStore
+ * @since 1.2
+ */
+public class ClientStoreMirrorPolicy implements Serializable {
+
+  private final int maxValues;
+
+  /**
+   * <p>
+   * Mirrors all values on the server. This is the default.
+   * </p>
+   */
+  public static ClientStoreMirrorPolicy full() {
+    return new ClientStoreMirrorPolicy( Integer.MAX_VALUE );
+  }
+
+  /**
+   * <p>
+   * Mirrors the recently used values on the server. When more values are stored the least recently used ones will be
+   * dropped from the server side.
+   * </p>
+   *
+   * @param maxValues the maximum number of values to keep on the server. Must be positive.
+   */
+  public static ClientStoreMirrorPolicy bounded( int maxValues ) {
+    when( maxValues <= 0 ).throwIllegalArgument( "Max values must be positive but was " + maxValues );
+    return new ClientStoreMirrorPolicy( maxValues );
+  }
+
+  /**
+   * <p>
+   * Mirrors only the keys on the server. Every value needs to be fetched from the client device.
+   * </p>
+   */
+  public static ClientStoreMirrorPolicy keysOnly() {
+    return new ClientStoreMirrorPolicy( 0 );
+  }
+
+  private ClientStoreMirrorPolicy( int maxValues ) {
+    this.maxValues = maxValues;
+  }
+
+  /**
+   * <p>
+   * Returns the maximum number of values kept on the server. <code>0</code> means that only keys will be kept.
+   * </p>
+   */
+  public int getMaxValues() {
+    return maxValues;
+  }
+
+}
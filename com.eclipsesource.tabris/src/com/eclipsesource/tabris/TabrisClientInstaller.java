@@ -10,6 +10,8 @@
  ******************************************************************************/
 package com.eclipsesource.tabris;
 
+import static com.eclipsesource.tabris.internal.Clauses.when;
+import static com.eclipsesource.tabris.internal.Clauses.whenNull;
 import static com.eclipsesource.tabris.internal.Constants.INDEX_JSON;
 import static com.eclipsesource.tabris.internal.Constants.THEME_ID_ANDROID;
 import static com.eclipsesource.tabris.internal.Constants.THEME_ID_IOS;
@@ -25,6 +27,8 @@ import org.eclipse.rap.rwt.client.Client;
 import org.eclipse.rap.rwt.internal.application.ApplicationImpl;
 import org.eclipse.rap.rwt.service.ResourceLoader;
 
+import com.eclipsesource.tabris.internal.ClientStoreImpl;
+import com.eclipsesource.tabris.internal.SignedObjectSerializer;
 import com.eclipsesource.tabris.internal.TabrisClientProvider;
 import com.eclipsesource.tabris.internal.TabrisResourceLoader;
 
@@ -56,12 +60,51 @@ public class TabrisClientInstaller {
    * @since 1.0
    */
   public static void install( Application application ) {
+    install( application, ClientStoreMirrorPolicy.full() );
+  }
+
+  /**
+   * <p>
+   * Registers themes and other resources needed for the Tabris clients and defines how many values of the
+   * {@link ClientStore} will be kept on the server.
+   * </p>
+   *
+   * @param mirrorPolicy the policy for the server side mirror of the client stores. Must not be <code>null</code>.
+   *
+   * @since 1.2
+   */
+  public static void install( Application application, ClientStoreMirrorPolicy mirrorPolicy ) {
+    whenNull( mirrorPolicy ).throwIllegalArgument( "MirrorPolicy must not be null" );
     ApplicationImpl applicationImpl = ( ApplicationImpl )application;
     applicationImpl.addClientProvider( new TabrisClientProvider() );
+    applicationImpl.getApplicationContext().setAttribute( ClientStoreImpl.MIRROR_POLICY_ATTRIBUTE, mirrorPolicy );
     registerCompatibilityThemes( application );
     registerResourceLoader( applicationImpl );
   }
 
+  /**
+   * <p>
+   * Defines the key that is used to sign objects stored with {@link ClientStore#addObject(String, java.io.Serializable)}
+   * and the snapshots of page flows. Objects are only deserialized when they were signed with the same key.
+   * </p>
+   * <p>
+   * Without a key a random key is created when the application starts. Objects stored on a client can then not be
+   * read anymore after a restart or a redeployment of the application or by another node of a cluster. Applications
+   * that need this should define a secret key with at least 20 random bytes that is the same on all nodes.
+   * </p>
+   *
+   * @param signingKey the key to sign objects with. Must not be empty or <code>null</code>.
+   *
+   * @since 1.2
+   */
+  public static void setSigningKey( Application application, byte[] signingKey ) {
+    whenNull( signingKey ).throwIllegalArgument( "Signing key must not be null" );
+    when( signingKey.length == 0 ).throwIllegalArgument( "Signing key must not be empty" );
+    ApplicationImpl applicationImpl = ( ApplicationImpl )application;
+    applicationImpl.getApplicationContext().setAttribute( SignedObjectSerializer.SIGNING_KEY_ATTRIBUTE,
+                                                          signingKey.clone() );
+  }
+
   private static void registerCompatibilityThemes( Application application ) {
     ResourceLoaderImpl resourceLoader = new ResourceLoaderImpl();
     application.addStyleSheet( THEME_ID_ANDROID, THEME_PATH_ANDROID, resourceLoader );
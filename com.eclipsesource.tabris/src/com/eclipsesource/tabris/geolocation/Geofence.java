@@ -0,0 +1,70 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.geolocation;
+
+import static com.eclipsesource.tabris.internal.Clauses.when;
+import static com.eclipsesource.tabris.internal.Clauses.whenNull;
+
+import java.io.Serializable;
+
+
+/**
+ * <p>
+ * A <code>Geofence</code> is a circular region identified by an id. Geofences are registered application wide using
+ * {@link Geofences} and a {@link GeofenceListener} gets notified when a client enters or leaves one of them.
+ * </p>
+ *
+ * @see Geofences
+ * @see GeofenceListener
+ * @since 1.2
+ */
+public class Geofence implements Serializable {
+
+  private final String id;
+  private final double latitude;
+  private final double longitude;
+  private final double radius;
+
+  /**
+   * @param id the unique id of the fence. Must not be <code>null</code> or empty.
+   * @param latitude the latitude of the center in degrees. Must be between -90 and 90.
+   * @param longitude the longitude of the center in degrees. Must be between -180 and 180.
+   * @param radius the radius in meters. Must be positive.
+   */
+  public Geofence( String id, double latitude, double longitude, double radius ) {
+    whenNull( id ).throwIllegalArgument( "Id must not be null" );
+    when( id.length() == 0 ).throwIllegalArgument( "Id must not be empty" );
+    when( latitude < -90 || latitude > 90 ).throwIllegalArgument( "Latitude must be between -90 and 90" );
+    when( longitude < -180 || longitude > 180 ).throwIllegalArgument( "Longitude must be between -180 and 180" );
+    when( radius <= 0 ).throwIllegalArgument( "Radius must be positive but was " + radius );
+    this.id = id;
+    this.latitude = latitude;
+    this.longitude = longitude;
+    this.radius = radius;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public double getLatitude() {
+    return latitude;
+  }
+
+  public double getLongitude() {
+    return longitude;
+  }
+
+  public double getRadius() {
+    return radius;
+  }
+
+}
@@ -0,0 +1,42 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.geolocation;
+
+import java.io.Serializable;
+
+
+/**
+ * <p>
+ * A <code>GeofenceListener</code> gets notified when the client of a session enters or leaves one of the
+ * {@link Geofences}. It will only be called on transitions, not for every received position. Positions are only
+ * received while the {@link Geolocation} determines or watches the position.
+ * </p>
+ *
+ * @see Geolocation#addGeofenceListener(GeofenceListener)
+ * @since 1.2
+ */
+public interface GeofenceListener extends Serializable {
+
+  /**
+   * <p>
+   * Gets called when a received position is inside a fence and the previous one was not.
+   * </p>
+   */
+  void fenceEntered( Geofence fence, Position position );
+
+  /**
+   * <p>
+   * Gets called when a received position is outside a fence and the previous one was inside. This is also the case
+   * when the fence has been removed in the meantime.
+   * </p>
+   */
+  void fenceExited( Geofence fence, Position position );
+}
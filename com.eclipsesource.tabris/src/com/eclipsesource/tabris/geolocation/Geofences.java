@@ -0,0 +1,73 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.geolocation;
+
+import java.util.List;
+
+
+/**
+ * <p>
+ * <code>Geofences</code> holds the {@link Geofence}s of an application. The fences are shared by all sessions and
+ * checked against every position a {@link Geolocation} receives as long as it has a {@link GeofenceListener}. The
+ * fences are kept in a spatial index, so the number of fences has only little impact on the time needed to check a
+ * position. An instance can be accessed using {@link Geolocation#getGeofences()}.
+ * </p>
+ * <p>
+ * <code>Geofences</code> can be used from any thread.
+ * </p>
+ *
+ * @see Geofence
+ * @see GeofenceListener
+ * @noimplement
+ * @since 1.2
+ */
+public interface Geofences {
+
+  /**
+   * <p>
+   * Adds a fence. An existing fence with the same id will be replaced.
+   * </p>
+   *
+   * @param fence the fence to add. Must not be <code>null</code>.
+   */
+  void addFence( Geofence fence );
+
+  /**
+   * <p>
+   * Removes the fence with the given id.
+   * </p>
+   *
+   * @param id the id of the fence to remove. Must not be <code>null</code>.
+   */
+  void removeFence( String id );
+
+  /**
+   * <p>
+   * Returns the fence with the given id or <code>null</code> if no such fence exists.
+   * </p>
+   */
+  Geofence getFence( String id );
+
+  /**
+   * <p>
+   * Returns all fences.
+   * </p>
+   */
+  List<Geofence> getFences();
+
+  /**
+   * <p>
+   * Returns all fences containing the given location.
+   * </p>
+   */
+  List<Geofence> getFences( double latitude, double longitude );
+
+}
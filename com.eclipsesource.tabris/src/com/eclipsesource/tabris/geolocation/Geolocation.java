@@ -65,4 +65,31 @@ public interface Geolocation extends ClientService {
    */
   void removeGeolocationListener( GeolocationListener listener );
 
+  /**
+   * <p>
+   * Returns the application wide {@link Geofences}.
+   * </p>
+   *
+   * @since 1.2
+   */
+  Geofences getGeofences();
+
+  /**
+   * <p>
+   * Adds a {@link GeofenceListener} to get notified when the client enters or leaves one of the {@link Geofences}.
+   * </p>
+   *
+   * @since 1.2
+   */
+  void addGeofenceListener( GeofenceListener listener );
+
+  /**
+   * <p>
+   * Removes a {@link GeofenceListener}.
+   * </p>
+   *
+   * @since 1.2
+   */
+  void removeGeofenceListener( GeofenceListener listener );
+
 }
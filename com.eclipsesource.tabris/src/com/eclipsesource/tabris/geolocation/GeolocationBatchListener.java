@@ -0,0 +1,36 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.geolocation;
+
+import java.util.List;
+
+
+/**
+ * <p>
+ * A {@link GeolocationListener} that receives all positions of a request together. When a client collects positions
+ * (see {@link GeolocationOptions#setBufferSize(int)}) a <code>GeolocationBatchListener</code> will be called once
+ * with all of them instead of calling {@link #positionReceived(Position)} for every position.
+ * </p>
+ *
+ * @see Geolocation
+ * @since 1.2
+ */
+public interface GeolocationBatchListener extends GeolocationListener {
+
+  /**
+   * <p>
+   * Gets called when the client sends location updates. The positions are ordered by time.
+   * </p>
+   *
+   * @param positions the received positions. Never empty.
+   */
+  void positionsReceived( List<Position> positions );
+}
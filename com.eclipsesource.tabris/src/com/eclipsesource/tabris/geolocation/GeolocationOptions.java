@@ -10,6 +10,8 @@
  ******************************************************************************/
 package com.eclipsesource.tabris.geolocation;
 
+import static com.eclipsesource.tabris.internal.Clauses.when;
+
 import java.io.Serializable;
 
 
@@ -28,11 +30,17 @@ public class GeolocationOptions implements Serializable {
   private int maximumAge;
   private int frequency;
   private boolean enableHighAccuracy;
+  private double minimumDistance;
+  private int minimumInterval;
+  private int bufferSize;
 
   public GeolocationOptions() {
     enableHighAccuracy = false;
     maximumAge = -1;
     frequency = 10000;
+    minimumDistance = 0;
+    minimumInterval = 0;
+    bufferSize = 1;
   }
 
   /**
@@ -70,6 +78,57 @@ public class GeolocationOptions implements Serializable {
     return this;
   }
 
+  /**
+   * <p>
+   * When used in <code>Geolocation#watchPosition</code> only positions that are at least the given distance away from
+   * the last delivered position will be delivered. The default is <code>0</code> which delivers all positions.
+   * </p>
+   *
+   * @param minimumDistance The minimum distance in meters. Must not be negative.
+   *
+   * @since 1.2
+   */
+  public GeolocationOptions setMinimumDistance( double minimumDistance ) {
+    when( minimumDistance < 0 ).throwIllegalArgument( "MinimumDistance must not be negative but was "
+                                                      + minimumDistance );
+    this.minimumDistance = minimumDistance;
+    return this;
+  }
+
+  /**
+   * <p>
+   * When used in <code>Geolocation#watchPosition</code> only positions that were determined at least the given time
+   * after the last delivered position will be delivered. The default is <code>0</code> which delivers all positions.
+   * </p>
+   *
+   * @param minimumInterval The minimum interval in milli seconds. Must not be negative.
+   *
+   * @since 1.2
+   */
+  public GeolocationOptions setMinimumInterval( int minimumInterval ) {
+    when( minimumInterval < 0 ).throwIllegalArgument( "MinimumInterval must not be negative but was "
+                                                      + minimumInterval );
+    this.minimumInterval = minimumInterval;
+    return this;
+  }
+
+  /**
+   * <p>
+   * When used in <code>Geolocation#watchPosition</code> this instructs the client to collect the given number of
+   * positions before sending them to the server in one request. The default is <code>1</code> which sends every
+   * position right away. Use a {@link GeolocationBatchListener} to receive the positions of a request together.
+   * </p>
+   *
+   * @param bufferSize The number of positions to collect. Must be positive.
+   *
+   * @since 1.2
+   */
+  public GeolocationOptions setBufferSize( int bufferSize ) {
+    when( bufferSize < 1 ).throwIllegalArgument( "BufferSize must be positive but was " + bufferSize );
+    this.bufferSize = bufferSize;
+    return this;
+  }
+
   /**
    * <p>
    * Returns the configured maximum age allowed for client locations.
@@ -97,4 +156,37 @@ public class GeolocationOptions implements Serializable {
     return enableHighAccuracy;
   }
 
+  /**
+   * <p>
+   * Returns the configured minimum distance between delivered positions.
+   * </p>
+   *
+   * @since 1.2
+   */
+  public double getMinimumDistance() {
+    return minimumDistance;
+  }
+
+  /**
+   * <p>
+   * Returns the configured minimum interval between delivered positions.
+   * </p>
+   *
+   * @since 1.2
+   */
+  public int getMinimumInterval() {
+    return minimumInterval;
+  }
+
+  /**
+   * <p>
+   * Returns the configured number of positions the client collects before sending them.
+   * </p>
+   *
+   * @since 1.2
+   */
+  public int getBufferSize() {
+    return bufferSize;
+  }
+
 }
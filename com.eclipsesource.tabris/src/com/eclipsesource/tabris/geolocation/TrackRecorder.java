@@ -0,0 +1,176 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.geolocation;
+
+import static com.eclipsesource.tabris.internal.Clauses.when;
+import static com.eclipsesource.tabris.internal.Clauses.whenNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Date;
+import java.util.List;
+
+import com.eclipsesource.tabris.internal.TrackStore;
+
+
+/**
+ * <p>
+ * A <code>TrackRecorder</code> records the positions determined by a {@link Geolocation} in a compact form. Add it
+ * to a <code>Geolocation</code> using {@link Geolocation#addGeolocationListener(GeolocationListener)} to record all
+ * positions received while watching the position. A recorded position needs around 10 to 20 bytes instead of the
+ * memory of the <code>Position</code>, <code>Coordinates</code> and <code>Date</code> objects.
+ * </p>
+ * <p>
+ * A recorder can be bounded. In this case it only keeps the given number of most recent positions.
+ * </p>
+ * <p>
+ * <b>Please note:</b> Latitude and longitude are recorded with a precision of 7 decimal places, all other values of
+ * the <code>Coordinates</code> with a precision of 2 decimal places.
+ * </p>
+ *
+ * @see Geolocation
+ * @since 1.2
+ */
+public class TrackRecorder implements GeolocationBatchListener {
+
+  private final TrackStore store;
+
+  /**
+   * <p>
+   * Creates an unbounded <code>TrackRecorder</code>.
+   * </p>
+   */
+  public TrackRecorder() {
+    this( Integer.MAX_VALUE );
+  }
+
+  /**
+   * <p>
+   * Creates a <code>TrackRecorder</code> that keeps only the most recent positions.
+   * </p>
+   *
+   * @param capacity the maximum number of positions to keep. Must be positive.
+   */
+  public TrackRecorder( int capacity ) {
+    when( capacity <= 0 ).throwIllegalArgument( "Capacity must be positive but was " + capacity );
+    store = new TrackStore( capacity );
+  }
+
+  private TrackRecorder( TrackStore store ) {
+    this.store = store;
+  }
+
+  /**
+   * <p>
+   * Creates an unbounded <code>TrackRecorder</code> from positions written with {@link #exportBinary(OutputStream)}.
+   * The stream will not be closed.
+   * </p>
+   *
+   * @throws IOException when the stream can not be read or does not contain a binary track.
+   */
+  public static TrackRecorder importBinary( InputStream in ) throws IOException {
+    whenNull( in ).throwIllegalArgument( "InputStream must not be null" );
+    return new TrackRecorder( TrackStore.readBinary( in, Integer.MAX_VALUE ) );
+  }
+
+  @Override
+  public void positionReceived( Position position ) {
+    whenNull( position ).throwIllegalArgument( "Position must not be null" );
+    store.add( position );
+  }
+
+  @Override
+  public void positionsReceived( List<Position> positions ) {
+    whenNull( positions ).throwIllegalArgument( "Positions must not be null" );
+    for( Position position : positions ) {
+      positionReceived( position );
+    }
+  }
+
+  @Override
+  public void errorReceived( PositionError error ) {
+    // errors are not part of a track
+  }
+
+  /**
+   * <p>
+   * Returns the maximum number of positions this recorder keeps.
+   * </p>
+   */
+  public int getCapacity() {
+    return store.getCapacity();
+  }
+
+  /**
+   * <p>
+   * Returns the number of recorded positions.
+   * </p>
+   */
+  public int size() {
+    return store.size();
+  }
+
+  /**
+   * <p>
+   * Removes all recorded positions.
+   * </p>
+   */
+  public void clear() {
+    store.clear();
+  }
+
+  /**
+   * <p>
+   * Returns all recorded positions in the order they were recorded.
+   * </p>
+   */
+  public List<Position> getPositions() {
+    return store.getPositions( Long.MIN_VALUE, Long.MAX_VALUE );
+  }
+
+  /**
+   * <p>
+   * Returns the recorded positions with a timestamp between <code>from</code> (inclusive) and <code>to</code>
+   * (exclusive) in the order they were recorded.
+   * </p>
+   *
+   * @param from the start of the time range. Must not be <code>null</code>.
+   * @param to the end of the time range. Must not be <code>null</code>.
+   */
+  public List<Position> getPositions( Date from, Date to ) {
+    whenNull( from ).throwIllegalArgument( "From must not be null" );
+    whenNull( to ).throwIllegalArgument( "To must not be null" );
+    return store.getPositions( from.getTime(), to.getTime() );
+  }
+
+  /**
+   * <p>
+   * Writes the recorded positions as a GPX 1.1 track to the given stream. The stream will not be closed.
+   * </p>
+   */
+  public void exportGpx( OutputStream out ) throws IOException {
+    whenNull( out ).throwIllegalArgument( "OutputStream must not be null" );
+    store.writeGpx( out );
+  }
+
+  /**
+   * <p>
+   * Writes the recorded positions in a compact binary form to the given stream. The stream will not be closed. Use
+   * {@link #importBinary(InputStream)} to read them again.
+   * </p>
+   */
+  public void exportBinary( OutputStream out ) throws IOException {
+    whenNull( out ).throwIllegalArgument( "OutputStream must not be null" );
+    store.writeBinary( out );
+  }
+
+}
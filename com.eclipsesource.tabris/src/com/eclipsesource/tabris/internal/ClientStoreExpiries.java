@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+
+/*
+ * Expiry times are kept in a queue ordered by time, so finding the expired entries does not need to look at the
+ * others. Changed or removed expiries stay in the queue and are skipped when they come up. The queue is rebuilt when
+ * it holds more outdated expiries than valid ones.
+ */
+public class ClientStoreExpiries {
+
+  private static final int MIN_COMPACTION_SIZE = 16;
+
+  private final Map<String, Long> expiries;
+  private final PriorityQueue<Expiry> queue;
+
+  public ClientStoreExpiries() {
+    expiries = new HashMap<String, Long>();
+    queue = new PriorityQueue<Expiry>();
+  }
+
+  public void set( String key, long time ) {
+    expiries.put( key, Long.valueOf( time ) );
+    queue.add( new Expiry( key, time ) );
+    if( queue.size() > MIN_COMPACTION_SIZE && queue.size() > 2 * expiries.size() ) {
+      compact();
+    }
+  }
+
+  private void compact() {
+    queue.clear();
+    for( Map.Entry<String, Long> entry : expiries.entrySet() ) {
+      queue.add( new Expiry( entry.getKey(), entry.getValue().longValue() ) );
+    }
+  }
+
+  public Long get( String key ) {
+    return expiries.get( key );
+  }
+
+  public void remove( String key ) {
+    expiries.remove( key );
+  }
+
+  public void clear() {
+    expiries.clear();
+    queue.clear();
+  }
+
+  public List<String> pollExpired( long now ) {
+    List<String> result = new ArrayList<String>();
+    while( !queue.isEmpty() && queue.peek().time <= now ) {
+      Expiry expiry = queue.poll();
+      Long time = expiries.get( expiry.key );
+      if( time != null && time.longValue() == expiry.time ) {
+        expiries.remove( expiry.key );
+        result.add( expiry.key );
+      }
+    }
+    return result;
+  }
+
+  int getQueueSize() {
+    return queue.size();
+  }
+
+  private static class Expiry implements Comparable<Expiry> {
+
+    final String key;
+    final long time;
+
+    Expiry( String key, long time ) {
+      this.key = key;
+      this.time = time;
+    }
+
+    @Override
+    public int compareTo( Expiry other ) {
+      return time < other.time ? -1 : ( time == other.time ? 0 : 1 );
+    }
+  }
+
+}
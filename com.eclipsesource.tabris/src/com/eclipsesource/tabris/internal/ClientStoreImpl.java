@@ -12,80 +12,440 @@ package com.eclipsesource.tabris.internal;
 
 import static com.eclipsesource.tabris.internal.Clauses.when;
 import static com.eclipsesource.tabris.internal.Clauses.whenNull;
+import static com.eclipsesource.tabris.internal.Constants.CAPABILITY_CHUNKS;
+import static com.eclipsesource.tabris.internal.Constants.CAPABILITY_EXPIRE;
+import static com.eclipsesource.tabris.internal.Constants.CAPABILITY_FETCH;
+import static com.eclipsesource.tabris.internal.Constants.METHOD_ACKNOWLEDGE;
 import static com.eclipsesource.tabris.internal.Constants.METHOD_ADD;
+import static com.eclipsesource.tabris.internal.Constants.METHOD_ADD_CHUNK;
+import static com.eclipsesource.tabris.internal.Constants.METHOD_CHUNK_RECEIVED;
 import static com.eclipsesource.tabris.internal.Constants.METHOD_CLEAR;
+import static com.eclipsesource.tabris.internal.Constants.METHOD_EXPIRE;
+import static com.eclipsesource.tabris.internal.Constants.METHOD_FETCH;
+import static com.eclipsesource.tabris.internal.Constants.METHOD_FETCHED;
 import static com.eclipsesource.tabris.internal.Constants.METHOD_REMOVE;
+import static com.eclipsesource.tabris.internal.Constants.METHOD_RESYNCHRONIZE;
 import static com.eclipsesource.tabris.internal.Constants.METHOD_SYNCHRONIZE;
+import static com.eclipsesource.tabris.internal.Constants.PROPERTY_CAPABILITIES;
+import static com.eclipsesource.tabris.internal.Constants.PROPERTY_CHANGES;
+import static com.eclipsesource.tabris.internal.Constants.PROPERTY_COUNT;
+import static com.eclipsesource.tabris.internal.Constants.PROPERTY_DELETIONS;
+import static com.eclipsesource.tabris.internal.Constants.PROPERTY_DIGEST;
+import static com.eclipsesource.tabris.internal.Constants.PROPERTY_EXPIRES;
+import static com.eclipsesource.tabris.internal.Constants.PROPERTY_INDEX;
 import static com.eclipsesource.tabris.internal.Constants.PROPERTY_KEY;
 import static com.eclipsesource.tabris.internal.Constants.PROPERTY_KEYS;
+import static com.eclipsesource.tabris.internal.Constants.PROPERTY_REVISION;
+import static com.eclipsesource.tabris.internal.Constants.PROPERTY_SINCE;
 import static com.eclipsesource.tabris.internal.Constants.PROPERTY_VALUE;
+import static com.eclipsesource.tabris.internal.Constants.PROPERTY_VALUES;
 import static com.eclipsesource.tabris.internal.Constants.TYPE_CLIENT_STORE;
 
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.rap.json.JsonArray;
 import org.eclipse.rap.json.JsonObject;
+import org.eclipse.rap.json.JsonValue;
 import org.eclipse.rap.rwt.RWT;
 import org.eclipse.rap.rwt.internal.remote.ConnectionImpl;
+import org.eclipse.rap.rwt.internal.service.ContextProvider;
+import org.eclipse.rap.rwt.lifecycle.PhaseEvent;
+import org.eclipse.rap.rwt.lifecycle.PhaseId;
+import org.eclipse.rap.rwt.lifecycle.PhaseListener;
 import org.eclipse.rap.rwt.remote.AbstractOperationHandler;
 import org.eclipse.rap.rwt.remote.RemoteObject;
+import org.eclipse.rap.rwt.service.UISession;
+import org.eclipse.rap.rwt.service.UISessionEvent;
+import org.eclipse.rap.rwt.service.UISessionListener;
 
 import com.eclipsesource.tabris.ClientStore;
+import com.eclipsesource.tabris.ClientStoreCallback;
+import com.eclipsesource.tabris.ClientStoreMirrorPolicy;
 
 
+/*
+ * Changes are collected during a request and sent in one go before the response is rendered. The pending adds and
+ * removes never contain the same key, so the order clear, remove, add restores the final state on the client.
+ * Every coalesced key is sent with its own add call, which is understood by all clients.
+ * All keys are kept on the server but only as many values as the mirror policy allows, in least recently used order.
+ * Values that are not mirrored are fetched from clients that announce the fetch capability with their synchronize. They
+ * answer with the requested keys and their values. For all other clients such values are reported as null right away.
+ * Clients that support revisions synchronize only the entries changed since the last acknowledged revision together
+ * with a digest of all keys and revisions. A delta on an unknown base or a digest mismatch requests a full synchronize.
+ * Clients that announce the chunks capability with their synchronize get values longer than a chunk in pieces, one
+ * per response. The client confirms every chunk it has received, which causes the request that carries the next one.
+ * All other clients get such values with a single add.
+ * Expired entries and the least recently used entries above the quota are removed before the changes are sent, so
+ * they go to the client with the other removes. An expired entry is also removed when it's read before that. Clients
+ * that announce the expire capability get the expiry times so they survive the session.
+ */
 @SuppressWarnings("restriction")
-public class ClientStoreImpl extends AbstractOperationHandler implements ClientStore {
+public class ClientStoreImpl extends AbstractOperationHandler implements ClientStore, PhaseListener, UISessionListener {
+
+  public static final String MIRROR_POLICY_ATTRIBUTE = ClientStoreImpl.class.getName() + "#mirrorPolicy";
+  static final int CHUNK_SIZE = 64 * 1024;
+  private static final String[] VERSIONED_PROPERTIES = {
+    PROPERTY_SINCE, PROPERTY_REVISION, PROPERTY_CHANGES, PROPERTY_DELETIONS, PROPERTY_DIGEST, PROPERTY_CAPABILITIES
+  };
 
   private final RemoteObject serviceObject;
-  private final Map<String, String> store;
+  private final ClientStoreMirrorPolicy mirrorPolicy;
+  private final Map<String, Integer> sizes;
+  private final Map<String, String> values;
+  private final Map<String, List<ClientStoreCallback>> pendingCallbacks;
+  private final Set<String> pendingFetches;
+  private final Map<String, String> pendingAdds;
+  private final Set<String> pendingRemoves;
+  private final Map<String, ChunkedValue> transfers;
+  private final Map<String, Long> pendingExpiries;
+  private final ClientStoreExpiries expiries;
+  private final ClientStoreRevisions revisions;
+  private final UISession uiSession;
+  private SignedObjectSerializer serializer;
+  private long size;
+  private long quota;
+  private boolean clearPending;
+  private boolean chunksSupported;
+  private boolean fetchSupported;
+  private boolean expireSupported;
 
   public ClientStoreImpl() {
+    this( getConfiguredMirrorPolicy() );
+  }
+
+  ClientStoreImpl( ClientStoreMirrorPolicy mirrorPolicy ) {
+    whenNull( mirrorPolicy ).throwIllegalArgument( "MirrorPolicy must not be null" );
     ConnectionImpl connection = ( ConnectionImpl )RWT.getUISession().getConnection();
     serviceObject = connection.createServiceObject( TYPE_CLIENT_STORE );
     serviceObject.setHandler( this );
-    store = new HashMap<String, String>();
+    this.mirrorPolicy = mirrorPolicy;
+    sizes = new LinkedHashMap<String, Integer>( 16, 0.75F, true );
+    values = new LinkedHashMap<String, String>( 16, 0.75F, true );
+    pendingCallbacks = new HashMap<String, List<ClientStoreCallback>>();
+    pendingFetches = new LinkedHashSet<String>();
+    pendingAdds = new LinkedHashMap<String, String>();
+    pendingRemoves = new LinkedHashSet<String>();
+    transfers = new LinkedHashMap<String, ChunkedValue>();
+    pendingExpiries = new LinkedHashMap<String, Long>();
+    expiries = new ClientStoreExpiries();
+    quota = Long.MAX_VALUE;
+    revisions = new ClientStoreRevisions();
+    uiSession = RWT.getUISession();
+    ContextProvider.getApplicationContext().getLifeCycleFactory().getLifeCycle().addPhaseListener( this );
+    uiSession.addUISessionListener( this );
+  }
+
+  private static ClientStoreMirrorPolicy getConfiguredMirrorPolicy() {
+    Object policy = RWT.getApplicationContext().getAttribute( MIRROR_POLICY_ATTRIBUTE );
+    return policy != null ? ( ClientStoreMirrorPolicy )policy : ClientStoreMirrorPolicy.full();
+  }
+
+  public ClientStoreMirrorPolicy getMirrorPolicy() {
+    return mirrorPolicy;
   }
 
   @Override
   public void add( String key, String value ) {
+    checkEntry( key, value );
+    put( key, ClientStoreValues.encodeString( value ) );
+  }
+
+  @Override
+  public void putAll( Map<String, String> values ) {
+    whenNull( values ).throwIllegalArgument( "Values must not be null" );
+    for( Entry<String, String> entry : values.entrySet() ) {
+      checkEntry( entry.getKey(), entry.getValue() );
+    }
+    for( Entry<String, String> entry : values.entrySet() ) {
+      put( entry.getKey(), ClientStoreValues.encodeString( entry.getValue() ) );
+    }
+  }
+
+  private void checkEntry( String key, String value ) {
     whenNull( key ).throwIllegalArgument( "Key must not be null" );
     when( key.isEmpty() ).throwIllegalArgument( "Key must not be empty" );
     whenNull( value ).throwIllegalArgument( "Value must not be null" );
-    store.put( key, value );
-    sendAdd( key, value );
   }
 
-  private void sendAdd( String key, String value ) {
-    JsonObject properties = new JsonObject();
-    properties.add( PROPERTY_KEY, key );
-    properties.add( PROPERTY_VALUE, value );
-    serviceObject.call( METHOD_ADD, properties );
+  @Override
+  public void addBytes( String key, byte[] value ) {
+    whenNull( value ).throwIllegalArgument( "Value must not be null" );
+    addEncoded( key, value, true );
+  }
+
+  @Override
+  public void addObject( String key, Serializable value ) {
+    whenNull( value ).throwIllegalArgument( "Value must not be null" );
+    byte[] bytes;
+    try {
+      bytes = getSerializer().serialize( value );
+    } catch( IOException notSerializable ) {
+      throw new IllegalArgumentException( "Value is not serializable", notSerializable );
+    }
+    // serialized objects are deflated already
+    addEncoded( key, bytes, false );
+  }
+
+  private void addEncoded( String key, byte[] bytes, boolean compressible ) {
+    whenNull( key ).throwIllegalArgument( "Key must not be null" );
+    when( key.isEmpty() ).throwIllegalArgument( "Key must not be empty" );
+    when( bytes.length > ClientStoreValues.MAX_SIZE )
+      .throwIllegalArgument( "Value must not be bigger than " + ClientStoreValues.MAX_SIZE + " bytes" );
+    put( key, ClientStoreValues.encode( bytes, compressible ) );
+  }
+
+  private SignedObjectSerializer getSerializer() {
+    if( serializer == null ) {
+      serializer = new SignedObjectSerializer();
+    }
+    return serializer;
+  }
+
+  private void put( String key, String value ) {
+    mirror( key, value );
+    pendingRemoves.remove( key );
+    pendingAdds.put( key, value );
+    transfers.remove( key );
+    expiries.remove( key );
+    pendingExpiries.remove( key );
+    notifyCallbacks( key, value );
+  }
+
+  private void mirror( String key, String value ) {
+    updateSize( key, value.length() );
+    if( mirrorPolicy.getMaxValues() > 0 ) {
+      values.put( key, value );
+      Iterator<String> eldest = values.keySet().iterator();
+      while( values.size() > mirrorPolicy.getMaxValues() ) {
+        eldest.next();
+        eldest.remove();
+      }
+    }
   }
 
   @Override
   public String get( String key ) {
-    return store.get( key );
+    return ClientStoreValues.decodeString( getValue( key ) );
+  }
+
+  private String getValue( String key ) {
+    removeIfExpired( key );
+    markUsed( key );
+    String pendingValue = pendingAdds.get( key );
+    return pendingValue != null ? pendingValue : values.get( key );
+  }
+
+  @Override
+  public byte[] getBytes( String key ) {
+    return ClientStoreValues.decode( getValue( key ) );
+  }
+
+  @Override
+  public Object getObject( String key ) {
+    byte[] bytes = getBytes( key );
+    return bytes != null ? getSerializer().deserialize( bytes ) : null;
+  }
+
+  @Override
+  public long getSize() {
+    return size;
+  }
+
+  @Override
+  public void setTimeToLive( String key, long timeToLive, TimeUnit unit ) {
+    whenNull( key ).throwIllegalArgument( "Key must not be null" );
+    when( key.isEmpty() ).throwIllegalArgument( "Key must not be empty" );
+    when( timeToLive < 0 ).throwIllegalArgument( "Time to live must not be negative but was " + timeToLive );
+    whenNull( unit ).throwIllegalArgument( "TimeUnit must not be null" );
+    if( sizes.containsKey( key ) ) {
+      long time = getCurrentTime() + unit.toMillis( timeToLive );
+      expiries.set( key, time );
+      pendingExpiries.put( key, Long.valueOf( time ) );
+    }
+  }
+
+  @Override
+  public Long getExpiryTime( String key ) {
+    return expiries.get( key );
+  }
+
+  @Override
+  public void setQuota( long quota ) {
+    when( quota <= 0 ).throwIllegalArgument( "Quota must be positive but was " + quota );
+    this.quota = quota;
+  }
+
+  @Override
+  public long getQuota() {
+    return quota;
+  }
+
+  long getCurrentTime() {
+    return System.currentTimeMillis();
+  }
+
+  private void removeIfExpired( String key ) {
+    Long time = expiries.get( key );
+    if( time != null && time.longValue() <= getCurrentTime() ) {
+      remove( key );
+    }
+  }
+
+  private void updateSize( String key, int valueSize ) {
+    Integer oldSize = sizes.put( key, Integer.valueOf( valueSize ) );
+    size += valueSize - ( oldSize != null ? oldSize.intValue() : 0 );
+  }
+
+  private void removeSize( String key ) {
+    Integer oldSize = sizes.remove( key );
+    if( oldSize != null ) {
+      size -= oldSize.intValue();
+    }
+  }
+
+  private void clearSizes() {
+    sizes.clear();
+    size = 0;
+  }
+
+  private void markUsed( String key ) {
+    // sizes is ordered by access, reading an entry moves it to the end of the eviction order
+    sizes.get( key );
+  }
+
+  @Override
+  public void get( String key, ClientStoreCallback callback ) {
+    whenNull( key ).throwIllegalArgument( "Key must not be null" );
+    when( key.isEmpty() ).throwIllegalArgument( "Key must not be empty" );
+    whenNull( callback ).throwIllegalArgument( "Callback must not be null" );
+    String value = getValue( key );
+    if( value != null || !sizes.containsKey( key ) || !fetchSupported ) {
+      callback.valueReceived( key, ClientStoreValues.decodeString( value ) );
+    } else {
+      addPendingCallback( key, callback );
+    }
+  }
+
+  private void addPendingCallback( String key, ClientStoreCallback callback ) {
+    List<ClientStoreCallback> callbacks = pendingCallbacks.get( key );
+    if( callbacks == null ) {
+      callbacks = new ArrayList<ClientStoreCallback>();
+      pendingCallbacks.put( key, callbacks );
+      pendingFetches.add( key );
+    }
+    callbacks.add( callback );
+  }
+
+  private void notifyCallbacks( String key, String value ) {
+    List<ClientStoreCallback> callbacks = pendingCallbacks.remove( key );
+    pendingFetches.remove( key );
+    if( callbacks != null ) {
+      for( ClientStoreCallback callback : callbacks ) {
+        callback.valueReceived( key, ClientStoreValues.decodeString( value ) );
+      }
+    }
   }
 
   @Override
   public void remove( String... keys ) {
     for( String key : keys ) {
-      store.remove( key );
+      removeSize( key );
+      values.remove( key );
+      pendingAdds.remove( key );
+      transfers.remove( key );
+      expiries.remove( key );
+      pendingExpiries.remove( key );
+      if( !clearPending ) {
+        pendingRemoves.add( key );
+      }
+      notifyCallbacks( key, null );
+    }
+  }
+
+  @Override
+  public void clear() {
+    clearSizes();
+    values.clear();
+    pendingAdds.clear();
+    pendingRemoves.clear();
+    transfers.clear();
+    expiries.clear();
+    pendingExpiries.clear();
+    clearPending = true;
+    notifyAllCallbacks();
+  }
+
+  private void notifyAllCallbacks() {
+    for( String key : new ArrayList<String>( pendingCallbacks.keySet() ) ) {
+      notifyCallbacks( key, null );
     }
-    sendRemoveKeys( keys );
   }
 
-  private void sendRemoveKeys( String[] keys ) {
-    if( keys.length > 0 ) {
+  public void flush() {
+    removeExpiredEntries();
+    enforceQuota();
+    if( clearPending ) {
+      serviceObject.call( METHOD_CLEAR, null );
+      revisions.clear();
+      clearPending = false;
+    }
+    if( !pendingRemoves.isEmpty() || !pendingAdds.isEmpty() ) {
+      long revision = revisions.nextRevision();
+      sendRemoveKeys( revision );
+      sendAdds( revision );
+      revisions.acknowledge( revision );
+    }
+    sendExpiries();
+    sendChunks();
+    sendFetches();
+  }
+
+  private void removeExpiredEntries() {
+    List<String> expiredKeys = expiries.pollExpired( getCurrentTime() );
+    if( !expiredKeys.isEmpty() ) {
+      remove( expiredKeys.toArray( new String[ expiredKeys.size() ] ) );
+    }
+  }
+
+  private void enforceQuota() {
+    if( size > quota ) {
+      List<String> evictedKeys = new ArrayList<String>();
+      long remainingSize = size;
+      Iterator<Entry<String, Integer>> iterator = sizes.entrySet().iterator();
+      while( remainingSize > quota && iterator.hasNext() ) {
+        Entry<String, Integer> entry = iterator.next();
+        evictedKeys.add( entry.getKey() );
+        remainingSize -= entry.getValue().intValue();
+      }
+      remove( evictedKeys.toArray( new String[ evictedKeys.size() ] ) );
+    }
+  }
+
+  private void sendRemoveKeys( long revision ) {
+    if( !pendingRemoves.isEmpty() ) {
       JsonObject properties = new JsonObject();
-      properties.add( PROPERTY_KEYS, createJsonArray( keys ) );
+      properties.add( PROPERTY_KEYS, createJsonArray( pendingRemoves ) );
+      properties.add( PROPERTY_REVISION, revision );
       serviceObject.call( METHOD_REMOVE, properties );
+      for( String key : pendingRemoves ) {
+        revisions.remove( key );
+      }
+      pendingRemoves.clear();
     }
   }
 
-  private JsonArray createJsonArray( String[] keys ) {
+  private JsonArray createJsonArray( Set<String> keys ) {
     JsonArray result = new JsonArray();
     for( String key : keys ) {
       result.add( key );
@@ -93,20 +453,336 @@ public class ClientStoreImpl extends AbstractOperationHandler implements ClientS
     return result;
   }
 
-  @Override
-  public void clear() {
-    store.clear();
-    serviceObject.call( METHOD_CLEAR, null );
+  private void sendAdds( long revision ) {
+    Map<String, String> adds = new LinkedHashMap<String, String>();
+    for( Entry<String, String> entry : pendingAdds.entrySet() ) {
+      if( chunksSupported && entry.getValue().length() > CHUNK_SIZE ) {
+        transfers.put( entry.getKey(), new ChunkedValue( entry.getValue(), revision ) );
+      } else {
+        adds.put( entry.getKey(), entry.getValue() );
+      }
+    }
+    for( Entry<String, String> entry : adds.entrySet() ) {
+      JsonObject properties = new JsonObject();
+      properties.add( PROPERTY_KEY, entry.getKey() );
+      properties.add( PROPERTY_VALUE, entry.getValue() );
+      properties.add( PROPERTY_REVISION, revision );
+      serviceObject.call( METHOD_ADD, properties );
+    }
+    for( String key : pendingAdds.keySet() ) {
+      revisions.update( key, revision );
+    }
+    pendingAdds.clear();
+  }
+
+  private void sendExpiries() {
+    if( !expireSupported ) {
+      pendingExpiries.clear();
+    } else if( !pendingExpiries.isEmpty() ) {
+      JsonObject times = new JsonObject();
+      for( Entry<String, Long> entry : pendingExpiries.entrySet() ) {
+        times.add( entry.getKey(), entry.getValue().longValue() );
+      }
+      JsonObject properties = new JsonObject();
+      properties.add( PROPERTY_EXPIRES, times );
+      serviceObject.call( METHOD_EXPIRE, properties );
+      pendingExpiries.clear();
+    }
+  }
+
+  private void sendChunks() {
+    Iterator<Entry<String, ChunkedValue>> iterator = transfers.entrySet().iterator();
+    while( iterator.hasNext() ) {
+      Entry<String, ChunkedValue> entry = iterator.next();
+      ChunkedValue transfer = entry.getValue();
+      if( transfer.ready ) {
+        JsonObject properties = new JsonObject();
+        properties.add( PROPERTY_KEY, entry.getKey() );
+        properties.add( PROPERTY_VALUE, transfer.getChunk( transfer.nextIndex ) );
+        properties.add( PROPERTY_INDEX, transfer.nextIndex );
+        properties.add( PROPERTY_COUNT, transfer.count );
+        properties.add( PROPERTY_REVISION, transfer.revision );
+        serviceObject.call( METHOD_ADD_CHUNK, properties );
+        transfer.nextIndex++;
+        transfer.ready = false;
+        if( transfer.nextIndex == transfer.count ) {
+          iterator.remove();
+        }
+      }
+    }
+  }
+
+  private void sendFetches() {
+    if( !pendingFetches.isEmpty() ) {
+      JsonObject properties = new JsonObject();
+      properties.add( PROPERTY_KEYS, createJsonArray( pendingFetches ) );
+      serviceObject.call( METHOD_FETCH, properties );
+      pendingFetches.clear();
+    }
   }
 
   @Override
   public void handleCall( String method, JsonObject parameters ) {
     if( method.equals( METHOD_SYNCHRONIZE ) ) {
-      List<String> names = parameters.names();
-      for( String name : names ) {
-        store.put( name, parameters.get( name ).asString() );
+      if( isVersioned( parameters ) ) {
+        synchronizeChanges( parameters );
+      } else {
+        synchronizeAll( parameters );
+      }
+    } else if( method.equals( METHOD_FETCHED ) ) {
+      handleFetched( parameters );
+    } else if( method.equals( METHOD_CHUNK_RECEIVED ) ) {
+      handleChunkReceived( parameters );
+    }
+  }
+
+  private boolean isVersioned( JsonObject parameters ) {
+    // values of an unversioned synchronize are always strings
+    for( String name : VERSIONED_PROPERTIES ) {
+      JsonValue value = parameters.get( name );
+      if( value != null && !value.isString() ) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void synchronizeAll( JsonObject parameters ) {
+    List<String> names = parameters.names();
+    for( String name : names ) {
+      mirror( name, parameters.get( name ).asString() );
+    }
+  }
+
+  private void synchronizeChanges( JsonObject parameters ) {
+    readCapabilities( parameters.get( PROPERTY_CAPABILITIES ) );
+    if( !isValidSynchronize( parameters ) || !isKnownBase( parameters.get( PROPERTY_SINCE ).asLong() ) ) {
+      serviceObject.call( METHOD_RESYNCHRONIZE, null );
+    } else {
+      long since = parameters.get( PROPERTY_SINCE ).asLong();
+      if( since == 0 ) {
+        forgetAll();
+      }
+      applyChanges( parameters.get( PROPERTY_CHANGES ) );
+      applyDeletions( parameters.get( PROPERTY_DELETIONS ) );
+      notifyCallbacksOfUnknownKeys();
+      verifyDigest( parameters.get( PROPERTY_REVISION ).asLong(), parameters.get( PROPERTY_DIGEST ) );
+    }
+  }
+
+  private boolean isValidSynchronize( JsonObject parameters ) {
+    JsonValue digest = parameters.get( PROPERTY_DIGEST );
+    return isNumber( parameters.get( PROPERTY_SINCE ) )
+        && isNumber( parameters.get( PROPERTY_REVISION ) )
+        && ( digest == null || digest.isNumber() )
+        && areValidChanges( parameters.get( PROPERTY_CHANGES ) )
+        && areValidDeletions( parameters.get( PROPERTY_DELETIONS ) );
+  }
+
+  private boolean areValidChanges( JsonValue changes ) {
+    if( changes != null ) {
+      if( !changes.isObject() ) {
+        return false;
+      }
+      JsonObject entries = changes.asObject();
+      for( String name : entries.names() ) {
+        if( !isValidEntry( entries.get( name ) ) ) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private boolean isValidEntry( JsonValue entry ) {
+    return entry.isObject()
+        && isString( entry.asObject().get( PROPERTY_VALUE ) )
+        && isNumber( entry.asObject().get( PROPERTY_REVISION ) );
+  }
+
+  private boolean isKnownBase( long since ) {
+    return since == 0 || since == revisions.getAcknowledgedRevision();
+  }
+
+  private boolean areValidDeletions( JsonValue deletions ) {
+    if( deletions != null ) {
+      if( !deletions.isArray() ) {
+        return false;
+      }
+      for( JsonValue key : deletions.asArray() ) {
+        if( !key.isString() ) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private static boolean isNumber( JsonValue value ) {
+    return value != null && value.isNumber();
+  }
+
+  private static boolean isString( JsonValue value ) {
+    return value != null && value.isString();
+  }
+
+  private void readCapabilities( JsonValue capabilities ) {
+    if( capabilities != null && capabilities.isArray() ) {
+      chunksSupported = false;
+      fetchSupported = false;
+      expireSupported = false;
+      for( JsonValue capability : capabilities.asArray() ) {
+        String name = capability.isString() ? capability.asString() : null;
+        if( CAPABILITY_CHUNKS.equals( name ) ) {
+          chunksSupported = true;
+        } else if( CAPABILITY_FETCH.equals( name ) ) {
+          fetchSupported = true;
+        } else if( CAPABILITY_EXPIRE.equals( name ) ) {
+          expireSupported = true;
+        }
+      }
+      if( !fetchSupported ) {
+        notifyAllCallbacks();
       }
     }
   }
 
+  private void forgetAll() {
+    clearSizes();
+    expiries.clear();
+    values.clear();
+    revisions.clear();
+  }
+
+  private void forget( String key ) {
+    removeSize( key );
+    expiries.remove( key );
+    values.remove( key );
+    revisions.remove( key );
+  }
+
+  private void notifyCallbacksOfUnknownKeys() {
+    for( String key : new ArrayList<String>( pendingCallbacks.keySet() ) ) {
+      if( !sizes.containsKey( key ) ) {
+        notifyCallbacks( key, null );
+      }
+    }
+  }
+
+  private void applyChanges( JsonValue changes ) {
+    if( changes != null ) {
+      JsonObject entries = changes.asObject();
+      for( String name : entries.names() ) {
+        JsonObject entry = entries.get( name ).asObject();
+        String value = entry.get( PROPERTY_VALUE ).asString();
+        mirror( name, value );
+        revisions.update( name, entry.get( PROPERTY_REVISION ).asLong() );
+        restoreExpiryTime( name, entry.get( PROPERTY_EXPIRES ) );
+        notifyCallbacks( name, value );
+      }
+    }
+  }
+
+  private void restoreExpiryTime( String key, JsonValue time ) {
+    if( isNumber( time ) ) {
+      expiries.set( key, time.asLong() );
+    } else {
+      expiries.remove( key );
+    }
+  }
+
+  private void applyDeletions( JsonValue deletions ) {
+    if( deletions != null ) {
+      for( JsonValue key : deletions.asArray() ) {
+        forget( key.asString() );
+      }
+    }
+  }
+
+  private void verifyDigest( long revision, JsonValue digest ) {
+    if( digest != null && digest.asLong() != revisions.getDigest() ) {
+      serviceObject.call( METHOD_RESYNCHRONIZE, null );
+    } else {
+      revisions.acknowledge( revision );
+      JsonObject properties = new JsonObject();
+      properties.add( PROPERTY_REVISION, revision );
+      serviceObject.call( METHOD_ACKNOWLEDGE, properties );
+    }
+  }
+
+  long getRevision() {
+    return revisions.getRevision();
+  }
+
+  long getDigest() {
+    return revisions.getDigest();
+  }
+
+  private void handleFetched( JsonObject parameters ) {
+    JsonValue fetchedValues = parameters.get( PROPERTY_VALUES );
+    JsonValue keys = parameters.get( PROPERTY_KEYS );
+    if( keys != null ) {
+      for( JsonValue key : keys.asArray() ) {
+        String name = key.asString();
+        JsonValue value = fetchedValues != null ? fetchedValues.asObject().get( name ) : null;
+        if( value != null && sizes.containsKey( name ) ) {
+          mirror( name, value.asString() );
+          notifyCallbacks( name, value.asString() );
+        } else {
+          notifyCallbacks( name, null );
+        }
+      }
+    }
+  }
+
+  private void handleChunkReceived( JsonObject parameters ) {
+    ChunkedValue transfer = transfers.get( parameters.get( PROPERTY_KEY ).asString() );
+    if( transfer != null && transfer.nextIndex == parameters.get( PROPERTY_INDEX ).asInt() + 1 ) {
+      transfer.ready = true;
+    }
+  }
+
+  @Override
+  public void beforePhase( PhaseEvent event ) {
+    if( RWT.getUISession() == uiSession ) {
+      flush();
+    }
+  }
+
+  @Override
+  public void afterPhase( PhaseEvent event ) {
+    // do nothing
+  }
+
+  @Override
+  public PhaseId getPhaseId() {
+    return PhaseId.RENDER;
+  }
+
+  @Override
+  public void beforeDestroy( UISessionEvent event ) {
+    ContextProvider.getApplicationContext().getLifeCycleFactory().getLifeCycle().removePhaseListener( this );
+  }
+
+  private static class ChunkedValue {
+
+    final String value;
+    final long revision;
+    final int count;
+    int nextIndex;
+    boolean ready;
+
+    ChunkedValue( String value, long revision ) {
+      this.value = value;
+      this.revision = revision;
+      this.count = ( value.length() + CHUNK_SIZE - 1 ) / CHUNK_SIZE;
+      this.ready = true;
+    }
+
+    String getChunk( int index ) {
+      int start = index * CHUNK_SIZE;
+      return value.substring( start, Math.min( start + CHUNK_SIZE, value.length() ) );
+    }
+  }
+
 }
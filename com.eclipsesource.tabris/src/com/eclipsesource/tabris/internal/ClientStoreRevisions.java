@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal;
+
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+
+/*
+ * Every entry carries the revision of its last change. The digest is the sum of the CRC32 checksums of all
+ * "key:revision" strings modulo 2^32, so it can be updated with every change instead of being computed over the
+ * whole store. The client computes it the same way.
+ */
+public class ClientStoreRevisions {
+
+  private static final Charset UTF_8 = Charset.forName( "UTF-8" );
+  private static final long DIGEST_MASK = 0xFFFFFFFFL;
+
+  private final Map<String, Long> revisions;
+  private long revision;
+  private long acknowledgedRevision;
+  private long digest;
+
+  public ClientStoreRevisions() {
+    revisions = new HashMap<String, Long>();
+  }
+
+  public long getRevision() {
+    return revision;
+  }
+
+  public long nextRevision() {
+    revision++;
+    return revision;
+  }
+
+  public long getAcknowledgedRevision() {
+    return acknowledgedRevision;
+  }
+
+  public void acknowledge( long revision ) {
+    this.revision = Math.max( this.revision, revision );
+    acknowledgedRevision = revision;
+  }
+
+  public Long getRevision( String key ) {
+    return revisions.get( key );
+  }
+
+  public void update( String key, long revision ) {
+    remove( key );
+    revisions.put( key, Long.valueOf( revision ) );
+    digest = ( digest + checksum( key, revision ) ) & DIGEST_MASK;
+    this.revision = Math.max( this.revision, revision );
+  }
+
+  public void remove( String key ) {
+    Long oldRevision = revisions.remove( key );
+    if( oldRevision != null ) {
+      digest = ( digest - checksum( key, oldRevision.longValue() ) ) & DIGEST_MASK;
+    }
+  }
+
+  public void clear() {
+    revisions.clear();
+    digest = 0;
+  }
+
+  public long getDigest() {
+    return digest;
+  }
+
+  static long checksum( String key, long revision ) {
+    CRC32 crc = new CRC32();
+    crc.update( ( key + ":" + revision ).getBytes( UTF_8 ) );
+    return crc.getValue();
+  }
+
+}
@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+
+/*
+ * Binary values are stored as Base64 strings with a prefix that tells how they were encoded. Values above the
+ * compression threshold are deflated when this makes them smaller. Values that are already deflated, like serialized
+ * objects, skip the compression. The prefixes start with a control character. Plain strings that start with it are
+ * escaped, so they are never mistaken for binary values. Inflating stops at the maximum size, bigger values are
+ * rejected.
+ */
+public class ClientStoreValues {
+
+  static final char MARKER = '\u0001';
+  static final String BINARY_PREFIX = MARKER + "bin:";
+  static final String COMPRESSED_PREFIX = MARKER + "zip:";
+  static final String STRING_PREFIX = MARKER + "str:";
+  static final int COMPRESSION_THRESHOLD = 1024;
+  public static final int MAX_SIZE = 16 * 1024 * 1024;
+
+  public static String encodeString( String value ) {
+    if( value.length() > 0 && value.charAt( 0 ) == MARKER ) {
+      return STRING_PREFIX + value;
+    }
+    return value;
+  }
+
+  public static String decodeString( String value ) {
+    if( value != null && value.startsWith( STRING_PREFIX ) ) {
+      return value.substring( STRING_PREFIX.length() );
+    }
+    return value;
+  }
+
+  public static String encode( byte[] bytes ) {
+    return encode( bytes, true );
+  }
+
+  public static String encode( byte[] bytes, boolean compressible ) {
+    if( compressible && bytes.length > COMPRESSION_THRESHOLD ) {
+      byte[] compressed = compress( bytes );
+      if( compressed.length < bytes.length ) {
+        return COMPRESSED_PREFIX + Base64.encodeBytes( compressed, Base64.DONT_BREAK_LINES );
+      }
+    }
+    return BINARY_PREFIX + Base64.encodeBytes( bytes, Base64.DONT_BREAK_LINES );
+  }
+
+  public static byte[] decode( String value ) {
+    if( value != null ) {
+      if( value.startsWith( BINARY_PREFIX ) ) {
+        return decodeBase64( value.substring( BINARY_PREFIX.length() ) );
+      } else if( value.startsWith( COMPRESSED_PREFIX ) ) {
+        return decompress( decodeBase64( value.substring( COMPRESSED_PREFIX.length() ) ) );
+      }
+    }
+    return null;
+  }
+
+  private static byte[] decodeBase64( String value ) {
+    byte[] encoded = new byte[ value.length() ];
+    for( int i = 0; i < encoded.length; i++ ) {
+      encoded[ i ] = ( byte )value.charAt( i );
+    }
+    return Base64.decode( encoded, 0, encoded.length, Base64.NO_OPTIONS );
+  }
+
+  private static byte[] compress( byte[] bytes ) {
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    DeflaterOutputStream stream = new DeflaterOutputStream( buffer );
+    try {
+      stream.write( bytes );
+      stream.close();
+    } catch( IOException shouldNotHappen ) {
+      throw new IllegalStateException( "Could not compress value", shouldNotHappen );
+    }
+    return buffer.toByteArray();
+  }
+
+  private static byte[] decompress( byte[] bytes ) {
+    if( bytes != null ) {
+      ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+      InputStream stream = new InflaterInputStream( new ByteArrayInputStream( bytes ) );
+      try {
+        byte[] chunk = new byte[ 4096 ];
+        int read = stream.read( chunk );
+        while( read != -1 ) {
+          if( buffer.size() + read > MAX_SIZE ) {
+            return null;
+          }
+          buffer.write( chunk, 0, read );
+          read = stream.read( chunk );
+        }
+        return buffer.toByteArray();
+      } catch( IOException invalidValue ) {
+        // the value was not compressed by this class
+      }
+    }
+    return null;
+  }
+
+  private ClientStoreValues() {
+    // prevent instantiation
+  }
+
+}
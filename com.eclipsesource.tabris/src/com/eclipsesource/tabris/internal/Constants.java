@@ -63,9 +63,14 @@ public class Constants {
   public static final String TYPE_GEOLOCATION = "tabris.Geolocation";
   public static final String EVENT_LOCATION_UPDATE_ERROR_EVENT = "LocationUpdateError";
   public static final String EVENT_LOCATION_UPDATE_EVENT = "LocationUpdate";
+  public static final String EVENT_LOCATION_UPDATES_EVENT = "LocationUpdates";
   public static final String PROPERTY_HIGH_ACCURACY = "highAccuracy";
   public static final String PROPERTY_MAXIMUM_AGE = "maximumAge";
   public static final String PROPERTY_FREQUENCY = "frequency";
+  public static final String PROPERTY_MINIMUM_DISTANCE = "minimumDistance";
+  public static final String PROPERTY_MINIMUM_INTERVAL = "minimumInterval";
+  public static final String PROPERTY_BUFFER_SIZE = "bufferSize";
+  public static final String PROPERTY_POSITIONS = "positions";
   public static final String PROPERTY_NEEDS_POSITION = "needsPosition";
   public static final String PROPERTY_TIMESTAMP = "timestamp";
   public static final String PROPERTY_SPEED = "speed";
@@ -108,9 +113,27 @@ public class Constants {
   public static final String TYPE_CLIENT_STORE = "tabris.ClientStore";
   public static final String METHOD_SYNCHRONIZE = "synchronize";
   public static final String METHOD_CLEAR = "clear";
+  public static final String METHOD_FETCH = "fetch";
+  public static final String METHOD_FETCHED = "fetched";
+  public static final String METHOD_ACKNOWLEDGE = "acknowledge";
+  public static final String METHOD_RESYNCHRONIZE = "resynchronize";
+  public static final String METHOD_ADD_CHUNK = "addChunk";
+  public static final String METHOD_CHUNK_RECEIVED = "chunkReceived";
+  public static final String METHOD_EXPIRE = "expire";
   public static final String PROPERTY_KEYS = "keys";
+  public static final String PROPERTY_VALUES = "values";
   public static final String PROPERTY_VALUE = "value";
   public static final String PROPERTY_KEY = "key";
+  public static final String PROPERTY_REVISION = "revision";
+  public static final String PROPERTY_SINCE = "since";
+  public static final String PROPERTY_CHANGES = "changes";
+  public static final String PROPERTY_DELETIONS = "deletions";
+  public static final String PROPERTY_DIGEST = "digest";
+  public static final String PROPERTY_COUNT = "count";
+  public static final String PROPERTY_EXPIRES = "expires";
+  public static final String CAPABILITY_CHUNKS = "chunks";
+  public static final String CAPABILITY_FETCH = "fetch";
+  public static final String CAPABILITY_EXPIRE = "expire";
 
   // ClientDevice Constants
   public static final String TYPE_CLIENT_DEVICE = "tabris.Device";
@@ -0,0 +1,176 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.eclipsesource.tabris.geolocation.Geofence;
+
+
+/*
+ * A grid with one level per cell size. Level 0 cells are 360 / 2^15 degrees wide and every level doubles the size.
+ * A fence is stored on the lowest level where its bounding box spans at most 2 x 2 cells, so looking up a location
+ * needs one cell per non empty level regardless of the number of fences.
+ */
+public class GeofenceIndex {
+
+  static final int LEVELS = 16;
+  private static final double LEVEL_0_CELL_SIZE = 360.0 / ( 1 << ( LEVELS - 1 ) );
+
+  private final Map<String, Geofence> fences;
+  private final Map<Long, List<Geofence>> cells;
+  private final int[] levelSizes;
+
+  public GeofenceIndex() {
+    fences = new LinkedHashMap<String, Geofence>();
+    cells = new HashMap<Long, List<Geofence>>();
+    levelSizes = new int[ LEVELS ];
+  }
+
+  public void add( Geofence fence ) {
+    remove( fence.getId() );
+    int level = getLevel( fence );
+    for( Long key : getCellKeys( fence, level ) ) {
+      List<Geofence> cell = cells.get( key );
+      if( cell == null ) {
+        cell = new ArrayList<Geofence>( 2 );
+        cells.put( key, cell );
+      }
+      cell.add( fence );
+    }
+    levelSizes[ level ]++;
+    fences.put( fence.getId(), fence );
+  }
+
+  public Geofence remove( String id ) {
+    Geofence fence = fences.remove( id );
+    if( fence != null ) {
+      int level = getLevel( fence );
+      for( Long key : getCellKeys( fence, level ) ) {
+        List<Geofence> cell = cells.get( key );
+        cell.remove( fence );
+        if( cell.isEmpty() ) {
+          cells.remove( key );
+        }
+      }
+      levelSizes[ level ]--;
+    }
+    return fence;
+  }
+
+  public Geofence get( String id ) {
+    return fences.get( id );
+  }
+
+  public Collection<Geofence> getAll() {
+    return fences.values();
+  }
+
+  public int size() {
+    return fences.size();
+  }
+
+  public List<Geofence> getFences( double latitude, double longitude ) {
+    List<Geofence> result = new ArrayList<Geofence>();
+    for( int level = 0; level < LEVELS; level++ ) {
+      if( levelSizes[ level ] > 0 ) {
+        double cellSize = getCellSize( level );
+        long key = getCellKey( level, getColumn( longitude, level, cellSize ), getRow( latitude, cellSize ) );
+        List<Geofence> cell = cells.get( Long.valueOf( key ) );
+        if( cell != null ) {
+          addContainingFences( result, cell, latitude, longitude );
+        }
+      }
+    }
+    return result;
+  }
+
+  private static void addContainingFences( List<Geofence> result,
+                                           List<Geofence> candidates,
+                                           double latitude,
+                                           double longitude )
+  {
+    for( Geofence fence : candidates ) {
+      double distance = GeolocationUtil.getDistance( fence.getLatitude(), fence.getLongitude(), latitude, longitude );
+      if( distance <= fence.getRadius() ) {
+        result.add( fence );
+      }
+    }
+  }
+
+  int getLevel( Geofence fence ) {
+    double[] extent = getExtent( fence );
+    double size = 2 * Math.max( extent[ 0 ], extent[ 1 ] );
+    int level = 0;
+    while( level < LEVELS - 1 && getCellSize( level ) < size ) {
+      level++;
+    }
+    return level;
+  }
+
+  private static Set<Long> getCellKeys( Geofence fence, int level ) {
+    double[] extent = getExtent( fence );
+    double cellSize = getCellSize( level );
+    int firstRow = getRow( Math.max( -90, fence.getLatitude() - extent[ 0 ] ), cellSize );
+    int lastRow = getRow( Math.min( 90, fence.getLatitude() + extent[ 0 ] ), cellSize );
+    int firstColumn = ( int )Math.floor( ( fence.getLongitude() - extent[ 1 ] + 180 ) / cellSize );
+    int lastColumn = ( int )Math.floor( ( fence.getLongitude() + extent[ 1 ] + 180 ) / cellSize );
+    Set<Long> result = new LinkedHashSet<Long>();
+    for( int row = firstRow; row <= lastRow; row++ ) {
+      for( int column = firstColumn; column <= lastColumn; column++ ) {
+        result.add( Long.valueOf( getCellKey( level, wrapColumn( column, level ), row ) ) );
+      }
+    }
+    return result;
+  }
+
+  // returns the half height and half width of the bounding box in degrees
+  private static double[] getExtent( Geofence fence ) {
+    double angularRadius = Math.min( Math.PI, fence.getRadius() / GeolocationUtil.EARTH_RADIUS );
+    double latitudeExtent = Math.toDegrees( angularRadius );
+    double longitudeExtent = 180;
+    boolean containsPole = fence.getLatitude() + latitudeExtent >= 90 || fence.getLatitude() - latitudeExtent <= -90;
+    if( !containsPole ) {
+      double ratio = Math.sin( angularRadius ) / Math.cos( Math.toRadians( fence.getLatitude() ) );
+      longitudeExtent = ratio >= 1 ? 180 : Math.toDegrees( Math.asin( ratio ) );
+    }
+    return new double[] { latitudeExtent, longitudeExtent };
+  }
+
+  private static double getCellSize( int level ) {
+    return LEVEL_0_CELL_SIZE * ( 1 << level );
+  }
+
+  private static int getRow( double latitude, double cellSize ) {
+    return ( int )Math.floor( ( latitude + 90 ) / cellSize );
+  }
+
+  private static int getColumn( double longitude, int level, double cellSize ) {
+    return wrapColumn( ( int )Math.floor( ( longitude + 180 ) / cellSize ), level );
+  }
+
+  private static int wrapColumn( int column, int level ) {
+    int columns = 1 << ( LEVELS - 1 - level );
+    return ( column % columns + columns ) % columns;
+  }
+
+  private static long getCellKey( int level, int column, int row ) {
+    return ( long )level << 40 | ( long )row << 20 | column;
+  }
+
+}
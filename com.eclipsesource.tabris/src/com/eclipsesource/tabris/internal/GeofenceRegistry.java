@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal;
+
+import static com.eclipsesource.tabris.internal.Clauses.whenNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.eclipse.rap.rwt.RWT;
+import org.eclipse.rap.rwt.service.ApplicationContext;
+
+import com.eclipsesource.tabris.geolocation.Geofence;
+import com.eclipsesource.tabris.geolocation.Geofences;
+
+
+public class GeofenceRegistry implements Geofences {
+
+  private static final String ATTRIBUTE_NAME = GeofenceRegistry.class.getName();
+
+  private final GeofenceIndex index;
+  private final Lock readLock;
+  private final Lock writeLock;
+
+  public static GeofenceRegistry getInstance() {
+    ApplicationContext context = RWT.getApplicationContext();
+    synchronized( context ) {
+      GeofenceRegistry registry = ( GeofenceRegistry )context.getAttribute( ATTRIBUTE_NAME );
+      if( registry == null ) {
+        registry = new GeofenceRegistry();
+        context.setAttribute( ATTRIBUTE_NAME, registry );
+      }
+      return registry;
+    }
+  }
+
+  GeofenceRegistry() {
+    index = new GeofenceIndex();
+    ReadWriteLock lock = new ReentrantReadWriteLock();
+    readLock = lock.readLock();
+    writeLock = lock.writeLock();
+  }
+
+  @Override
+  public void addFence( Geofence fence ) {
+    whenNull( fence ).throwIllegalArgument( "Fence must not be null" );
+    writeLock.lock();
+    try {
+      index.add( fence );
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  @Override
+  public void removeFence( String id ) {
+    whenNull( id ).throwIllegalArgument( "Id must not be null" );
+    writeLock.lock();
+    try {
+      index.remove( id );
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  @Override
+  public Geofence getFence( String id ) {
+    whenNull( id ).throwIllegalArgument( "Id must not be null" );
+    readLock.lock();
+    try {
+      return index.get( id );
+    } finally {
+      readLock.unlock();
+    }
+  }
+
+  @Override
+  public List<Geofence> getFences() {
+    readLock.lock();
+    try {
+      return new ArrayList<Geofence>( index.getAll() );
+    } finally {
+      readLock.unlock();
+    }
+  }
+
+  @Override
+  public List<Geofence> getFences( double latitude, double longitude ) {
+    readLock.lock();
+    try {
+      return index.getFences( latitude, longitude );
+    } finally {
+      readLock.unlock();
+    }
+  }
+
+}
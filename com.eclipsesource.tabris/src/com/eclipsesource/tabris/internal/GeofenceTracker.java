@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal;
+
+import static com.eclipsesource.tabris.internal.Clauses.whenNull;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.eclipsesource.tabris.geolocation.Geofence;
+import com.eclipsesource.tabris.geolocation.GeofenceListener;
+import com.eclipsesource.tabris.geolocation.Position;
+
+
+/*
+ * Remembers the fences a session is inside, so listeners are only notified about transitions.
+ */
+public class GeofenceTracker implements Serializable {
+
+  private final List<GeofenceListener> listeners;
+  private final Map<String, Geofence> enteredFences;
+
+  public GeofenceTracker() {
+    listeners = new ArrayList<GeofenceListener>();
+    enteredFences = new HashMap<String, Geofence>();
+  }
+
+  public void addListener( GeofenceListener listener ) {
+    whenNull( listener ).throwIllegalArgument( "Listener must not be null" );
+    listeners.add( listener );
+  }
+
+  public void removeListener( GeofenceListener listener ) {
+    whenNull( listener ).throwIllegalArgument( "Listener must not be null" );
+    listeners.remove( listener );
+  }
+
+  public boolean hasListeners() {
+    return !listeners.isEmpty();
+  }
+
+  public void update( Position position, List<Geofence> containingFences ) {
+    Map<String, Geofence> previousFences = new HashMap<String, Geofence>( enteredFences );
+    List<Geofence> newFences = new ArrayList<Geofence>();
+    for( Geofence fence : containingFences ) {
+      if( previousFences.remove( fence.getId() ) == null ) {
+        newFences.add( fence );
+      }
+      enteredFences.put( fence.getId(), fence );
+    }
+    for( Geofence fence : previousFences.values() ) {
+      enteredFences.remove( fence.getId() );
+      notifyExited( fence, position );
+    }
+    for( Geofence fence : newFences ) {
+      notifyEntered( fence, position );
+    }
+  }
+
+  private void notifyEntered( Geofence fence, Position position ) {
+    List<GeofenceListener> currentListeners = new ArrayList<GeofenceListener>( listeners );
+    for( GeofenceListener listener : currentListeners ) {
+      listener.fenceEntered( fence, position );
+    }
+  }
+
+  private void notifyExited( Geofence fence, Position position ) {
+    List<GeofenceListener> currentListeners = new ArrayList<GeofenceListener>( listeners );
+    for( GeofenceListener listener : currentListeners ) {
+      listener.fenceExited( fence, position );
+    }
+  }
+
+}
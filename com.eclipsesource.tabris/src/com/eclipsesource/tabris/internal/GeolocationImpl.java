@@ -2,10 +2,12 @@ package com.eclipsesource.tabris.internal;
 
 import static com.eclipsesource.tabris.internal.Clauses.whenNull;
 import static com.eclipsesource.tabris.internal.Constants.EVENT_LOCATION_UPDATE_ERROR_EVENT;
+import static com.eclipsesource.tabris.internal.Constants.EVENT_LOCATION_UPDATES_EVENT;
 import static com.eclipsesource.tabris.internal.Constants.EVENT_LOCATION_UPDATE_EVENT;
 import static com.eclipsesource.tabris.internal.Constants.PROPERTY_ACCURACY;
 import static com.eclipsesource.tabris.internal.Constants.PROPERTY_ALTITUDE;
 import static com.eclipsesource.tabris.internal.Constants.PROPERTY_ALTITUDE_ACCURACY;
+import static com.eclipsesource.tabris.internal.Constants.PROPERTY_BUFFER_SIZE;
 import static com.eclipsesource.tabris.internal.Constants.PROPERTY_ERROR_CODE;
 import static com.eclipsesource.tabris.internal.Constants.PROPERTY_ERROR_MESSAGE;
 import static com.eclipsesource.tabris.internal.Constants.PROPERTY_FREQUENCY;
@@ -14,17 +16,21 @@ import static com.eclipsesource.tabris.internal.Constants.PROPERTY_HIGH_ACCURACY
 import static com.eclipsesource.tabris.internal.Constants.PROPERTY_LATITUDE;
 import static com.eclipsesource.tabris.internal.Constants.PROPERTY_LONGITUDE;
 import static com.eclipsesource.tabris.internal.Constants.PROPERTY_MAXIMUM_AGE;
+import static com.eclipsesource.tabris.internal.Constants.PROPERTY_MINIMUM_DISTANCE;
+import static com.eclipsesource.tabris.internal.Constants.PROPERTY_MINIMUM_INTERVAL;
 import static com.eclipsesource.tabris.internal.Constants.PROPERTY_NEEDS_POSITION;
+import static com.eclipsesource.tabris.internal.Constants.PROPERTY_POSITIONS;
 import static com.eclipsesource.tabris.internal.Constants.PROPERTY_SPEED;
 import static com.eclipsesource.tabris.internal.Constants.PROPERTY_TIMESTAMP;
 import static com.eclipsesource.tabris.internal.Constants.TYPE_GEOLOCATION;
 
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
+import org.eclipse.rap.json.JsonArray;
 import org.eclipse.rap.json.JsonObject;
 import org.eclipse.rap.json.JsonValue;
 import org.eclipse.rap.rwt.RWT;
@@ -33,7 +39,10 @@ import org.eclipse.rap.rwt.remote.AbstractOperationHandler;
 import org.eclipse.rap.rwt.remote.RemoteObject;
 
 import com.eclipsesource.tabris.geolocation.Coordinates;
+import com.eclipsesource.tabris.geolocation.GeofenceListener;
+import com.eclipsesource.tabris.geolocation.Geofences;
 import com.eclipsesource.tabris.geolocation.Geolocation;
+import com.eclipsesource.tabris.geolocation.GeolocationBatchListener;
 import com.eclipsesource.tabris.geolocation.GeolocationListener;
 import com.eclipsesource.tabris.geolocation.GeolocationOptions;
 import com.eclipsesource.tabris.geolocation.Position;
@@ -50,29 +59,65 @@ public class GeolocationImpl extends AbstractOperationHandler implements Geoloca
 
   private final RemoteObject remoteObject;
   private final List<GeolocationListener> geolocationListeners;
+  private final GeofenceTracker geofenceTracker;
+  private PositionFilter positionFilter;
 
   public GeolocationImpl() {
     remoteObject = ( ( ConnectionImpl )RWT.getUISession().getConnection() ).createServiceObject( TYPE_GEOLOCATION );
     remoteObject.setHandler( this );
     remoteObject.set( PROPERTY_NEEDS_POSITION, NeedsPositionFlavor.NEVER.toString() );
     geolocationListeners = new ArrayList<GeolocationListener>();
+    geofenceTracker = new GeofenceTracker();
   }
 
   @Override
   public void handleNotify( String event, JsonObject properties ) {
     if( EVENT_LOCATION_UPDATE_EVENT.equals( event ) ) {
-      Position position = getPosition( properties );
-      notifyListenersWithPosition( position );
+      List<Position> positions = new ArrayList<Position>( 1 );
+      addPosition( positions, properties );
+      notifyListenersWithPositions( positions );
+    } else if( EVENT_LOCATION_UPDATES_EVENT.equals( event ) ) {
+      JsonArray positionsData = properties.get( PROPERTY_POSITIONS ).asArray();
+      List<Position> positions = new ArrayList<Position>( positionsData.size() );
+      for( JsonValue positionData : positionsData ) {
+        addPosition( positions, positionData.asObject() );
+      }
+      notifyListenersWithPositions( positions );
     } else if( EVENT_LOCATION_UPDATE_ERROR_EVENT.equals( event ) ) {
       PositionError error = getPositionError( properties );
       notifyListenersWithError( error );
     }
   }
 
-  private void notifyListenersWithPosition( Position position ) {
-    List<GeolocationListener> listeners = new ArrayList<GeolocationListener>( geolocationListeners );
-    for( GeolocationListener listener : listeners ) {
-      listener.positionReceived( position );
+  private void addPosition( List<Position> positions, JsonObject properties ) {
+    Position position = getPosition( properties );
+    checkGeofences( position );
+    if( positionFilter == null || positionFilter.accept( position ) ) {
+      positions.add( position );
+    }
+  }
+
+  private void checkGeofences( Position position ) {
+    if( geofenceTracker.hasListeners() ) {
+      Coordinates coords = position.getCoords();
+      GeofenceRegistry registry = GeofenceRegistry.getInstance();
+      geofenceTracker.update( position, registry.getFences( coords.getLatitude(), coords.getLongitude() ) );
+    }
+  }
+
+  private void notifyListenersWithPositions( List<Position> positions ) {
+    if( !positions.isEmpty() ) {
+      List<Position> batch = Collections.unmodifiableList( positions );
+      List<GeolocationListener> listeners = new ArrayList<GeolocationListener>( geolocationListeners );
+      for( GeolocationListener listener : listeners ) {
+        if( listener instanceof GeolocationBatchListener ) {
+          ( ( GeolocationBatchListener )listener ).positionsReceived( batch );
+        } else {
+          for( Position position : batch ) {
+            listener.positionReceived( position );
+          }
+        }
+      }
     }
   }
 
@@ -86,7 +131,7 @@ public class GeolocationImpl extends AbstractOperationHandler implements Geoloca
   private Position getPosition( JsonObject properties ) {
     String timestampValue = properties.get( PROPERTY_TIMESTAMP ).asString();
     try {
-      Date timestamp = new SimpleDateFormat( "yyyy-MM-dd'T'HH:mm:ssZ" ).parse( timestampValue );
+      Date timestamp = new Date( TimestampParser.parse( timestampValue ) );
       Coordinates coordinates = getCoordinates( properties );
       Position position = new Position( coordinates, timestamp );
       return position;
@@ -126,11 +171,13 @@ public class GeolocationImpl extends AbstractOperationHandler implements Geoloca
   @Override
   public void determineCurrentPosition( GeolocationOptions options ) {
     startUpdatePosition( NeedsPositionFlavor.ONCE, options );
+    positionFilter = null;
   }
 
   @Override
   public void watchPosition( GeolocationOptions options ) {
     startUpdatePosition( NeedsPositionFlavor.CONTINUOUS, options );
+    positionFilter = new PositionFilter( options );
   }
 
   private void startUpdatePosition( NeedsPositionFlavor flavor, GeolocationOptions options ) {
@@ -143,11 +190,15 @@ public class GeolocationImpl extends AbstractOperationHandler implements Geoloca
     remoteObject.set( PROPERTY_FREQUENCY, options.getFrequency() );
     remoteObject.set( PROPERTY_MAXIMUM_AGE, options.getMaximumAge() );
     remoteObject.set( PROPERTY_HIGH_ACCURACY, options.isHighAccuracyEnabled() );
+    remoteObject.set( PROPERTY_MINIMUM_DISTANCE, options.getMinimumDistance() );
+    remoteObject.set( PROPERTY_MINIMUM_INTERVAL, options.getMinimumInterval() );
+    remoteObject.set( PROPERTY_BUFFER_SIZE, options.getBufferSize() );
   }
 
   @Override
   public void clearWatch() {
     remoteObject.set( PROPERTY_NEEDS_POSITION, NeedsPositionFlavor.NEVER.toString() );
+    positionFilter = null;
   }
 
   RemoteObject getRemoteObject() {
@@ -166,4 +217,19 @@ public class GeolocationImpl extends AbstractOperationHandler implements Geoloca
     geolocationListeners.remove( listener );
   }
 
+  @Override
+  public Geofences getGeofences() {
+    return GeofenceRegistry.getInstance();
+  }
+
+  @Override
+  public void addGeofenceListener( GeofenceListener listener ) {
+    geofenceTracker.addListener( listener );
+  }
+
+  @Override
+  public void removeGeofenceListener( GeofenceListener listener ) {
+    geofenceTracker.removeListener( listener );
+  }
+
 }
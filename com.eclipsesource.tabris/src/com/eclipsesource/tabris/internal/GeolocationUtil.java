@@ -0,0 +1,40 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal;
+
+import com.eclipsesource.tabris.geolocation.Coordinates;
+
+
+public class GeolocationUtil {
+
+  static final double EARTH_RADIUS = 6371009;
+
+  public static double getDistance( Coordinates from, Coordinates to ) {
+    return getDistance( from.getLatitude(), from.getLongitude(), to.getLatitude(), to.getLongitude() );
+  }
+
+  public static double getDistance( double fromLatitude, double fromLongitude, double toLatitude, double toLongitude ) {
+    double latitudeDelta = Math.toRadians( toLatitude - fromLatitude );
+    double longitudeDelta = Math.toRadians( toLongitude - fromLongitude );
+    double sinLatitude = Math.sin( latitudeDelta / 2 );
+    double sinLongitude = Math.sin( longitudeDelta / 2 );
+    double a = sinLatitude * sinLatitude
+               + Math.cos( Math.toRadians( fromLatitude ) )
+                 * Math.cos( Math.toRadians( toLatitude ) )
+                 * sinLongitude * sinLongitude;
+    return 2 * EARTH_RADIUS * Math.asin( Math.min( 1, Math.sqrt( a ) ) );
+  }
+
+  private GeolocationUtil() {
+    // prevent instantiation
+  }
+
+}
@@ -0,0 +1,153 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal;
+
+import static com.eclipsesource.tabris.internal.Clauses.when;
+import static com.eclipsesource.tabris.internal.Clauses.whenNull;
+
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Event;
+import org.eclipse.swt.widgets.Listener;
+import org.eclipse.swt.widgets.Tree;
+import org.eclipse.swt.widgets.TreeItem;
+
+import com.eclipsesource.tabris.widgets.enhancement.TreeItemProvider;
+
+
+/*
+ * Pages are evicted in the order they were last requested by the client. Evicted items are cleared, so the
+ * Tree fires SetData again when the client scrolls back to them.
+ */
+public class LazyTreeLoader implements Listener, Serializable {
+
+  private final Tree tree;
+  private final TreeItemProvider provider;
+  private final int pageSize;
+  private final int prefetchPages;
+  private final int maxCachedPages;
+  private final Map<Page, Boolean> pages;
+
+  public LazyTreeLoader( Tree tree, TreeItemProvider provider, int pageSize, int prefetchPages, int maxCachedPages ) {
+    whenNull( tree ).throwIllegalArgument( "Tree must not be null" );
+    whenNull( provider ).throwIllegalArgument( "TreeItemProvider must not be null" );
+    when( ( tree.getStyle() & SWT.VIRTUAL ) == 0 ).throwIllegalArgument( "Tree must be created with SWT.VIRTUAL" );
+    when( pageSize <= 0 ).throwIllegalArgument( "Page size must be > 0 but was " + pageSize );
+    when( prefetchPages < 0 ).throwIllegalArgument( "Prefetch pages must be >= 0 but was " + prefetchPages );
+    when( maxCachedPages <= prefetchPages ).throwIllegalArgument( "Max cached pages must be > prefetch pages but was "
+                                                                  + maxCachedPages );
+    this.tree = tree;
+    this.provider = provider;
+    this.pageSize = pageSize;
+    this.prefetchPages = prefetchPages;
+    this.maxCachedPages = maxCachedPages;
+    this.pages = new LinkedHashMap<Page, Boolean>( 16, 0.75F, true );
+  }
+
+  public void install() {
+    tree.setItemCount( provider.getItemCount( null ) );
+    tree.addListener( SWT.SetData, this );
+  }
+
+  @Override
+  public void handleEvent( Event event ) {
+    TreeItem item = ( TreeItem )event.item;
+    TreeItem parentItem = item.getParentItem();
+    int requestedPage = event.index / pageSize;
+    for( int page = requestedPage; page <= requestedPage + prefetchPages; page++ ) {
+      loadPage( new Page( parentItem, page ) );
+    }
+    evictPages();
+  }
+
+  private void loadPage( Page page ) {
+    if( pages.get( page ) == null ) {
+      int start = page.index * pageSize;
+      int end = Math.min( start + pageSize, getItemCount( page.parentItem ) );
+      if( start < end ) {
+        for( int i = start; i < end; i++ ) {
+          TreeItem item = getItem( page.parentItem, i );
+          provider.updateItem( item, i );
+          item.setItemCount( provider.getItemCount( item ) );
+        }
+        pages.put( page, Boolean.TRUE );
+      }
+    }
+  }
+
+  private void evictPages() {
+    Iterator<Page> iterator = pages.keySet().iterator();
+    while( pages.size() > maxCachedPages && iterator.hasNext() ) {
+      Page page = iterator.next();
+      iterator.remove();
+      clearPage( page );
+    }
+  }
+
+  private void clearPage( Page page ) {
+    if( page.parentItem == null || !page.parentItem.isDisposed() ) {
+      int start = page.index * pageSize;
+      int end = Math.min( start + pageSize, getItemCount( page.parentItem ) );
+      for( int i = start; i < end; i++ ) {
+        if( page.parentItem == null ) {
+          tree.clear( i, false );
+        } else {
+          page.parentItem.clear( i, false );
+        }
+      }
+    }
+  }
+
+  private int getItemCount( TreeItem parentItem ) {
+    return parentItem == null ? tree.getItemCount() : parentItem.getItemCount();
+  }
+
+  private TreeItem getItem( TreeItem parentItem, int index ) {
+    return parentItem == null ? tree.getItem( index ) : parentItem.getItem( index );
+  }
+
+  int getCachedPageCount() {
+    return pages.size();
+  }
+
+  private static class Page implements Serializable {
+
+    final TreeItem parentItem;
+    final int index;
+
+    Page( TreeItem parentItem, int index ) {
+      this.parentItem = parentItem;
+      this.index = index;
+    }
+
+    @Override
+    public boolean equals( Object object ) {
+      if( this == object ) {
+        return true;
+      }
+      if( object == null || getClass() != object.getClass() ) {
+        return false;
+      }
+      Page other = ( Page )object;
+      return parentItem == other.parentItem && index == other.index;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * System.identityHashCode( parentItem ) + index;
+    }
+  }
+
+}
@@ -0,0 +1,46 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal;
+
+import com.eclipsesource.tabris.geolocation.GeolocationOptions;
+import com.eclipsesource.tabris.geolocation.Position;
+
+
+public class PositionFilter {
+
+  private final double minimumDistance;
+  private final long minimumInterval;
+  private Position lastPosition;
+
+  public PositionFilter( GeolocationOptions options ) {
+    minimumDistance = options.getMinimumDistance();
+    minimumInterval = options.getMinimumInterval();
+  }
+
+  public boolean accept( Position position ) {
+    if( lastPosition == null || isFarEnough( position ) && isLateEnough( position ) ) {
+      lastPosition = position;
+      return true;
+    }
+    return false;
+  }
+
+  private boolean isFarEnough( Position position ) {
+    return minimumDistance <= 0
+           || GeolocationUtil.getDistance( lastPosition.getCoords(), position.getCoords() ) >= minimumDistance;
+  }
+
+  private boolean isLateEnough( Position position ) {
+    long interval = position.getTimestamp().getTime() - lastPosition.getTimestamp().getTime();
+    return minimumInterval <= 0 || interval >= minimumInterval;
+  }
+
+}
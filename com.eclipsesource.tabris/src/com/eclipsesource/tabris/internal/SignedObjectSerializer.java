@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal;
+
+import static com.eclipsesource.tabris.internal.Clauses.whenNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.eclipse.rap.rwt.RWT;
+import org.eclipse.rap.rwt.service.ApplicationContext;
+
+
+/*
+ * Objects are signed with the key configured for the application or, without one, with a random key that lives as
+ * long as the application. Serialized objects stored on a client device come back with later requests, so only signed
+ * objects will be deserialized.
+ */
+public class SignedObjectSerializer implements Serializable {
+
+  public static final String SIGNING_KEY_ATTRIBUTE = SignedObjectSerializer.class.getName() + "#signingKey";
+  private static final String MAC_ALGORITHM = "HmacSHA1";
+  private static final int SIGNATURE_LENGTH = 20;
+
+  private final byte[] signingKey;
+
+  public SignedObjectSerializer() {
+    this( getSigningKey() );
+  }
+
+  public SignedObjectSerializer( byte[] signingKey ) {
+    whenNull( signingKey ).throwIllegalArgument( "Signing key must not be null" );
+    this.signingKey = signingKey;
+  }
+
+  private static byte[] getSigningKey() {
+    ApplicationContext context = RWT.getApplicationContext();
+    synchronized( context ) {
+      byte[] key = ( byte[] )context.getAttribute( SIGNING_KEY_ATTRIBUTE );
+      if( key == null ) {
+        key = new byte[ SIGNATURE_LENGTH ];
+        new SecureRandom().nextBytes( key );
+        context.setAttribute( SIGNING_KEY_ATTRIBUTE, key );
+      }
+      return key;
+    }
+  }
+
+  public byte[] serialize( Serializable object ) throws IOException {
+    byte[] content = write( object );
+    byte[] signature = sign( content );
+    byte[] result = new byte[ signature.length + content.length ];
+    System.arraycopy( signature, 0, result, 0, signature.length );
+    System.arraycopy( content, 0, result, signature.length, content.length );
+    return result;
+  }
+
+  public Object deserialize( byte[] bytes ) {
+    if( bytes != null && bytes.length > SIGNATURE_LENGTH ) {
+      byte[] signature = Arrays.copyOfRange( bytes, 0, SIGNATURE_LENGTH );
+      byte[] content = Arrays.copyOfRange( bytes, SIGNATURE_LENGTH, bytes.length );
+      if( MessageDigest.isEqual( signature, sign( content ) ) ) {
+        return read( content );
+      }
+    }
+    return null;
+  }
+
+  private byte[] write( Serializable object ) throws IOException {
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    ObjectOutputStream stream = new ObjectOutputStream( new DeflaterOutputStream( buffer ) );
+    try {
+      stream.writeObject( object );
+    } finally {
+      stream.close();
+    }
+    return buffer.toByteArray();
+  }
+
+  private Object read( byte[] content ) {
+    try {
+      InputStream inflater = new InflaterInputStream( new ByteArrayInputStream( content ) );
+      ObjectInputStream stream = new ContextClassLoaderObjectInputStream( inflater );
+      try {
+        return stream.readObject();
+      } finally {
+        stream.close();
+      }
+    } catch( IOException incompatibleVersion ) {
+      // the object was written by an incompatible version
+    } catch( ClassNotFoundException unknownType ) {
+      // the type of the object is not available anymore
+    }
+    return null;
+  }
+
+  private byte[] sign( byte[] content ) {
+    try {
+      Mac mac = Mac.getInstance( MAC_ALGORITHM );
+      mac.init( new SecretKeySpec( signingKey, MAC_ALGORITHM ) );
+      return mac.doFinal( content );
+    } catch( GeneralSecurityException exception ) {
+      throw new IllegalStateException( "Could not sign object", exception );
+    }
+  }
+
+  private static class ContextClassLoaderObjectInputStream extends ObjectInputStream {
+
+    ContextClassLoaderObjectInputStream( InputStream in ) throws IOException {
+      super( in );
+    }
+
+    @Override
+    protected Class<?> resolveClass( ObjectStreamClass description ) throws IOException, ClassNotFoundException {
+      ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+      if( classLoader != null ) {
+        try {
+          return Class.forName( description.getName(), false, classLoader );
+        } catch( ClassNotFoundException notVisible ) {
+          // fall back to the class loader of the object
+        }
+      }
+      return super.resolveClass( description );
+    }
+  }
+
+}
@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal;
+
+import java.text.ParseException;
+
+
+/*
+ * Parses the yyyy-MM-dd'T'HH:mm:ssZ timestamps sent by the clients without allocating a date format for every
+ * position. The zone may be written as +HHmm, +HH:mm or Z.
+ */
+public class TimestampParser {
+
+  private static final long MILLIS_PER_MINUTE = 60 * 1000L;
+  private static final long MILLIS_PER_DAY = 24 * 60 * MILLIS_PER_MINUTE;
+
+  public static long parse( String value ) throws ParseException {
+    if( value == null || value.length() < 20 ) {
+      throw new ParseException( "Timestamp is too short: " + value, 0 );
+    }
+    int year = parseNumber( value, 0, 4 );
+    int month = parseNumber( value, 5, 2 );
+    int day = parseNumber( value, 8, 2 );
+    int hour = parseNumber( value, 11, 2 );
+    int minute = parseNumber( value, 14, 2 );
+    int second = parseNumber( value, 17, 2 );
+    checkSeparators( value );
+    checkRange( value, month, 1, 12, 5 );
+    checkRange( value, day, 1, 31, 8 );
+    checkRange( value, hour, 0, 23, 11 );
+    checkRange( value, minute, 0, 59, 14 );
+    checkRange( value, second, 0, 59, 17 );
+    long days = daysSinceEpoch( year, month, day );
+    long localTime = days * MILLIS_PER_DAY + ( ( hour * 60L + minute ) * 60L + second ) * 1000L;
+    return localTime - parseZoneOffset( value, 19 ) * MILLIS_PER_MINUTE;
+  }
+
+  private static void checkSeparators( String value ) throws ParseException {
+    checkChar( value, 4, '-' );
+    checkChar( value, 7, '-' );
+    checkChar( value, 10, 'T' );
+    checkChar( value, 13, ':' );
+    checkChar( value, 16, ':' );
+  }
+
+  private static void checkChar( String value, int index, char expected ) throws ParseException {
+    if( value.charAt( index ) != expected ) {
+      throw new ParseException( "Expected " + expected + " in timestamp: " + value, index );
+    }
+  }
+
+  private static void checkRange( String value, int number, int min, int max, int index ) throws ParseException {
+    if( number < min || number > max ) {
+      throw new ParseException( "Value out of range in timestamp: " + value, index );
+    }
+  }
+
+  private static int parseNumber( String value, int start, int length ) throws ParseException {
+    int result = 0;
+    for( int i = start; i < start + length; i++ ) {
+      char digit = value.charAt( i );
+      if( digit < '0' || digit > '9' ) {
+        throw new ParseException( "Expected digit in timestamp: " + value, i );
+      }
+      result = result * 10 + digit - '0';
+    }
+    return result;
+  }
+
+  private static int parseZoneOffset( String value, int start ) throws ParseException {
+    char sign = value.charAt( start );
+    if( sign == 'Z' && value.length() == start + 1 ) {
+      return 0;
+    }
+    if( sign != '+' && sign != '-' ) {
+      throw new ParseException( "Expected zone offset in timestamp: " + value, start );
+    }
+    int hours = parseNumber( value, start + 1, 2 );
+    int minutesStart = start + 3;
+    if( value.length() == start + 6 && value.charAt( minutesStart ) == ':' ) {
+      minutesStart++;
+    } else if( value.length() != start + 5 ) {
+      throw new ParseException( "Invalid zone offset in timestamp: " + value, start );
+    }
+    int minutes = parseNumber( value, minutesStart, 2 );
+    int offset = hours * 60 + minutes;
+    return sign == '-' ? -offset : offset;
+  }
+
+  // see http://howardhinnant.github.io/date_algorithms.html#days_from_civil
+  private static long daysSinceEpoch( int year, int month, int day ) {
+    int y = month <= 2 ? year - 1 : year;
+    int era = ( y >= 0 ? y : y - 399 ) / 400;
+    int yearOfEra = y - era * 400;
+    int dayOfYear = ( 153 * ( month > 2 ? month - 3 : month + 9 ) + 2 ) / 5 + day - 1;
+    int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+    return era * 146097L + dayOfEra - 719468;
+  }
+
+  private TimestampParser() {
+    // prevent instantiation
+  }
+
+}
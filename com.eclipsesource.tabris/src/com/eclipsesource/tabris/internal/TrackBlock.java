@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+
+/*
+ * Stores up to capacity rows of long values column by column. Every column is a byte array of zigzag varint
+ * encoded deltas to the previous row, so slowly changing values like positions need only one or two bytes.
+ */
+public class TrackBlock implements Serializable {
+
+  static final int MAX_VARINT_LENGTH = 10;
+  private static final int INITIAL_COLUMN_LENGTH = 32;
+
+  private final int capacity;
+  private final byte[][] columns;
+  private final int[] lengths;
+  private final long[] lastValues;
+  private int size;
+  private long minTime;
+  private long maxTime;
+
+  public TrackBlock( int columnCount, int capacity ) {
+    this.capacity = capacity;
+    columns = new byte[ columnCount ][];
+    lengths = new int[ columnCount ];
+    lastValues = new long[ columnCount ];
+    for( int i = 0; i < columnCount; i++ ) {
+      columns[ i ] = new byte[ INITIAL_COLUMN_LENGTH ];
+    }
+    minTime = Long.MAX_VALUE;
+    maxTime = Long.MIN_VALUE;
+  }
+
+  public void add( long[] row ) {
+    for( int i = 0; i < columns.length; i++ ) {
+      ensureCapacity( i );
+      lengths[ i ] = writeVarint( columns[ i ], lengths[ i ], row[ i ] - lastValues[ i ] );
+      lastValues[ i ] = row[ i ];
+    }
+    minTime = Math.min( minTime, row[ 0 ] );
+    maxTime = Math.max( maxTime, row[ 0 ] );
+    size++;
+  }
+
+  private void ensureCapacity( int column ) {
+    if( lengths[ column ] + MAX_VARINT_LENGTH > columns[ column ].length ) {
+      columns[ column ] = Arrays.copyOf( columns[ column ], columns[ column ].length * 2 );
+    }
+  }
+
+  public void trim() {
+    for( int i = 0; i < columns.length; i++ ) {
+      if( columns[ i ].length > lengths[ i ] ) {
+        columns[ i ] = Arrays.copyOf( columns[ i ], lengths[ i ] );
+      }
+    }
+  }
+
+  public long[] decode( int column ) {
+    long[] result = new long[ size ];
+    byte[] data = columns[ column ];
+    int position = 0;
+    long value = 0;
+    for( int i = 0; i < size; i++ ) {
+      long encoded = 0;
+      int shift = 0;
+      byte current;
+      do {
+        current = data[ position++ ];
+        encoded |= ( long )( current & 0x7F ) << shift;
+        shift += 7;
+      } while( ( current & 0x80 ) != 0 );
+      value += ( encoded >>> 1 ) ^ -( encoded & 1 );
+      result[ i ] = value;
+    }
+    return result;
+  }
+
+  public long[][] decodeAll() {
+    long[][] result = new long[ columns.length ][];
+    for( int i = 0; i < columns.length; i++ ) {
+      result[ i ] = decode( i );
+    }
+    return result;
+  }
+
+  public boolean overlaps( long from, long to ) {
+    return size > 0 && minTime < to && maxTime >= from;
+  }
+
+  public boolean isFull() {
+    return size >= capacity;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  int getEncodedLength() {
+    int result = 0;
+    for( int length : lengths ) {
+      result += length;
+    }
+    return result;
+  }
+
+  static int writeVarint( byte[] buffer, int offset, long value ) {
+    int position = offset;
+    long encoded = ( value << 1 ) ^ ( value >> 63 );
+    while( ( encoded & ~0x7FL ) != 0 ) {
+      buffer[ position++ ] = ( byte )( ( encoded & 0x7F ) | 0x80 );
+      encoded >>>= 7;
+    }
+    buffer[ position++ ] = ( byte )encoded;
+    return position;
+  }
+
+}
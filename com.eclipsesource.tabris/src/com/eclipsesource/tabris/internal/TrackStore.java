@@ -0,0 +1,304 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal;
+
+import java.io.BufferedWriter;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Serializable;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.TimeZone;
+
+import com.eclipsesource.tabris.geolocation.Coordinates;
+import com.eclipsesource.tabris.geolocation.Position;
+
+
+/*
+ * Positions are kept as fixed point longs in blocks of BLOCK_SIZE rows. When the capacity is exceeded the oldest
+ * rows are skipped and the first block is dropped as soon as all of its rows are skipped.
+ */
+public class TrackStore implements Serializable {
+
+  static final int BLOCK_SIZE = 256;
+  static final int TIME = 0;
+  static final int LATITUDE = 1;
+  static final int LONGITUDE = 2;
+  static final int ALTITUDE = 3;
+  static final int ACCURACY = 4;
+  static final int ALTITUDE_ACCURACY = 5;
+  static final int HEADING = 6;
+  static final int SPEED = 7;
+  private static final int[] DECIMALS = { 0, 7, 7, 2, 2, 2, 2, 2 };
+  private static final double[] SCALES = { 1, 1e7, 1e7, 100, 100, 100, 100, 100 };
+  private static final int COLUMN_COUNT = DECIMALS.length;
+  private static final byte[] BINARY_HEADER = { 'T', 'R', 'K', 1 };
+  private static final int MAX_INITIAL_COLUMN_LENGTH = 1024;
+
+  private final int capacity;
+  private final LinkedList<TrackBlock> blocks;
+  private int skipped;
+  private int size;
+
+  public TrackStore( int capacity ) {
+    this.capacity = capacity;
+    blocks = new LinkedList<TrackBlock>();
+  }
+
+  public void add( Position position ) {
+    Coordinates coords = position.getCoords();
+    long[] row = new long[ COLUMN_COUNT ];
+    row[ TIME ] = position.getTimestamp().getTime();
+    row[ LATITUDE ] = toFixedPoint( coords.getLatitude(), LATITUDE );
+    row[ LONGITUDE ] = toFixedPoint( coords.getLongitude(), LONGITUDE );
+    row[ ALTITUDE ] = toFixedPoint( coords.getAltitude(), ALTITUDE );
+    row[ ACCURACY ] = toFixedPoint( coords.getAccuracy(), ACCURACY );
+    row[ ALTITUDE_ACCURACY ] = toFixedPoint( coords.getAltitudeAccuracy(), ALTITUDE_ACCURACY );
+    row[ HEADING ] = toFixedPoint( coords.getHeading(), HEADING );
+    row[ SPEED ] = toFixedPoint( coords.getSpeed(), SPEED );
+    add( row );
+  }
+
+  private void add( long[] row ) {
+    TrackBlock block = blocks.isEmpty() ? null : blocks.getLast();
+    if( block == null || block.isFull() ) {
+      if( block != null ) {
+        block.trim();
+      }
+      block = new TrackBlock( COLUMN_COUNT, BLOCK_SIZE );
+      blocks.add( block );
+    }
+    block.add( row );
+    size++;
+    if( size > capacity ) {
+      removeOldest();
+    }
+  }
+
+  private void removeOldest() {
+    skipped++;
+    size--;
+    if( skipped == blocks.getFirst().size() ) {
+      blocks.removeFirst();
+      skipped = 0;
+    }
+  }
+
+  public void clear() {
+    blocks.clear();
+    skipped = 0;
+    size = 0;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  public List<Position> getPositions( long from, long to ) {
+    List<Position> result = new ArrayList<Position>();
+    int firstRow = skipped;
+    for( TrackBlock block : blocks ) {
+      if( block.overlaps( from, to ) ) {
+        long[] times = block.decode( TIME );
+        long[][] columns = null;
+        for( int i = firstRow; i < block.size(); i++ ) {
+          if( times[ i ] >= from && times[ i ] < to ) {
+            if( columns == null ) {
+              columns = block.decodeAll();
+            }
+            result.add( createPosition( columns, i ) );
+          }
+        }
+      }
+      firstRow = 0;
+    }
+    return result;
+  }
+
+  private static Position createPosition( long[][] columns, int row ) {
+    Coordinates coords = new Coordinates( toDouble( columns[ LATITUDE ][ row ], LATITUDE ),
+                                          toDouble( columns[ LONGITUDE ][ row ], LONGITUDE ),
+                                          toDouble( columns[ ALTITUDE ][ row ], ALTITUDE ),
+                                          toDouble( columns[ ACCURACY ][ row ], ACCURACY ),
+                                          toDouble( columns[ ALTITUDE_ACCURACY ][ row ], ALTITUDE_ACCURACY ),
+                                          toDouble( columns[ HEADING ][ row ], HEADING ),
+                                          toDouble( columns[ SPEED ][ row ], SPEED ) );
+    return new Position( coords, new Date( columns[ TIME ][ row ] ) );
+  }
+
+  public void writeGpx( OutputStream out ) throws IOException {
+    Writer writer = new BufferedWriter( new OutputStreamWriter( out, "UTF-8" ) );
+    SimpleDateFormat timeFormat = new SimpleDateFormat( "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'" );
+    timeFormat.setTimeZone( TimeZone.getTimeZone( "UTC" ) );
+    writer.write( "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" );
+    writer.write( "<gpx version=\"1.1\" creator=\"Tabris\" xmlns=\"http://www.topografix.com/GPX/1/1\">\n" );
+    writer.write( "<trk><trkseg>\n" );
+    int firstRow = skipped;
+    for( TrackBlock block : blocks ) {
+      long[][] columns = block.decodeAll();
+      for( int i = firstRow; i < block.size(); i++ ) {
+        writeTrackPoint( writer, timeFormat, columns, i );
+      }
+      firstRow = 0;
+    }
+    writer.write( "</trkseg></trk>\n" );
+    writer.write( "</gpx>\n" );
+    writer.flush();
+  }
+
+  private static void writeTrackPoint( Writer writer, SimpleDateFormat timeFormat, long[][] columns, int row )
+    throws IOException
+  {
+    StringBuilder builder = new StringBuilder( 128 );
+    builder.append( "<trkpt lat=\"" );
+    appendFixedPoint( builder, columns[ LATITUDE ][ row ], LATITUDE );
+    builder.append( "\" lon=\"" );
+    appendFixedPoint( builder, columns[ LONGITUDE ][ row ], LONGITUDE );
+    builder.append( "\">" );
+    if( toDouble( columns[ ALTITUDE ][ row ], ALTITUDE ) != -1 ) {
+      builder.append( "<ele>" );
+      appendFixedPoint( builder, columns[ ALTITUDE ][ row ], ALTITUDE );
+      builder.append( "</ele>" );
+    }
+    builder.append( "<time>" );
+    builder.append( timeFormat.format( new Date( columns[ TIME ][ row ] ) ) );
+    builder.append( "</time></trkpt>\n" );
+    writer.write( builder.toString() );
+  }
+
+  public void writeBinary( OutputStream out ) throws IOException {
+    out.write( BINARY_HEADER );
+    writeVarint( out, size );
+    for( int column = 0; column < COLUMN_COUNT; column++ ) {
+      long lastValue = 0;
+      int firstRow = skipped;
+      for( TrackBlock block : blocks ) {
+        long[] values = block.decode( column );
+        for( int i = firstRow; i < values.length; i++ ) {
+          writeVarint( out, values[ i ] - lastValue );
+          lastValue = values[ i ];
+        }
+        firstRow = 0;
+      }
+    }
+    out.flush();
+  }
+
+  public static TrackStore readBinary( InputStream in, int capacity ) throws IOException {
+    for( byte expected : BINARY_HEADER ) {
+      if( in.read() != expected ) {
+        throw new IOException( "Not a binary track" );
+      }
+    }
+    long count = readVarint( in );
+    if( count < 0 || count > Integer.MAX_VALUE ) {
+      throw new IOException( "Invalid number of positions: " + count );
+    }
+    long[][] columns = new long[ COLUMN_COUNT ][];
+    for( int column = 0; column < COLUMN_COUNT; column++ ) {
+      columns[ column ] = readColumn( in, ( int )count );
+    }
+    TrackStore store = new TrackStore( capacity );
+    for( int i = 0; i < count; i++ ) {
+      long[] row = new long[ COLUMN_COUNT ];
+      for( int column = 0; column < COLUMN_COUNT; column++ ) {
+        row[ column ] = columns[ column ][ i ];
+      }
+      store.add( row );
+    }
+    return store;
+  }
+
+  private static long[] readColumn( InputStream in, int count ) throws IOException {
+    // grow step by step, so a corrupt count fails with an EOFException instead of allocating the full column
+    long[] result = new long[ Math.min( count, MAX_INITIAL_COLUMN_LENGTH ) ];
+    long value = 0;
+    for( int i = 0; i < count; i++ ) {
+      if( i == result.length ) {
+        result = Arrays.copyOf( result, ( int )Math.min( count, result.length * 2L ) );
+      }
+      value += readVarint( in );
+      result[ i ] = value;
+    }
+    return result;
+  }
+
+  static void writeVarint( OutputStream out, long value ) throws IOException {
+    long encoded = ( value << 1 ) ^ ( value >> 63 );
+    while( ( encoded & ~0x7FL ) != 0 ) {
+      out.write( ( int )( ( encoded & 0x7F ) | 0x80 ) );
+      encoded >>>= 7;
+    }
+    out.write( ( int )encoded );
+  }
+
+  static long readVarint( InputStream in ) throws IOException {
+    long encoded = 0;
+    for( int shift = 0; shift < 64; shift += 7 ) {
+      int current = in.read();
+      if( current == -1 ) {
+        throw new EOFException( "Unexpected end of binary track" );
+      }
+      encoded |= ( long )( current & 0x7F ) << shift;
+      if( ( current & 0x80 ) == 0 ) {
+        return ( encoded >>> 1 ) ^ -( encoded & 1 );
+      }
+    }
+    throw new IOException( "Malformed varint in binary track" );
+  }
+
+  private static long toFixedPoint( double value, int column ) {
+    return Math.round( value * SCALES[ column ] );
+  }
+
+  private static double toDouble( long value, int column ) {
+    return value / SCALES[ column ];
+  }
+
+  private static void appendFixedPoint( StringBuilder builder, long value, int column ) {
+    int decimals = DECIMALS[ column ];
+    long scale = ( long )SCALES[ column ];
+    if( value < 0 ) {
+      builder.append( '-' );
+    }
+    long absolute = Math.abs( value );
+    builder.append( absolute / scale );
+    if( decimals > 0 ) {
+      String fraction = Long.toString( absolute % scale );
+      builder.append( '.' );
+      for( int i = fraction.length(); i < decimals; i++ ) {
+        builder.append( '0' );
+      }
+      builder.append( fraction );
+    }
+  }
+
+  int getEncodedLength() {
+    int result = 0;
+    for( TrackBlock block : blocks ) {
+      result += block.getEncodedLength();
+    }
+    return result;
+  }
+
+}
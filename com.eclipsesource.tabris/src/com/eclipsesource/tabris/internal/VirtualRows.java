@@ -0,0 +1,211 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal;
+
+import static com.eclipsesource.tabris.internal.Clauses.when;
+import static com.eclipsesource.tabris.internal.Clauses.whenNull;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
+
+import com.eclipsesource.tabris.widgets.RowProvider;
+
+
+public class VirtualRows implements Serializable {
+
+  private static final int UNKNOWN_HEIGHT = -1;
+
+  private final RowProvider provider;
+  private final Map<Integer, Control> rows;
+  private int[] heights;
+  /*
+   * Fenwick trees over the measured heights and the number of measured rows. Offsets of rows with an estimated
+   * height are derived from the counts, so a change of the estimated height needs no rebuild.
+   */
+  private int[] measuredSums;
+  private int[] measuredCounts;
+  private int estimatedHeight;
+  private int measuredWidth;
+
+  public VirtualRows( RowProvider provider, int estimatedHeight ) {
+    whenNull( provider ).throwIllegalArgument( "RowProvider must not be null" );
+    when( estimatedHeight <= 0 ).throwIllegalArgument( "Estimated row height must be > 0 but was " + estimatedHeight );
+    this.provider = provider;
+    this.estimatedHeight = estimatedHeight;
+    this.rows = new HashMap<Integer, Control>();
+    this.heights = new int[ 0 ];
+    this.measuredSums = new int[ 1 ];
+    this.measuredCounts = new int[ 1 ];
+    this.measuredWidth = SWT.DEFAULT;
+    refresh();
+  }
+
+  public void refresh() {
+    int rowCount = provider.getRowCount();
+    when( rowCount < 0 ).throwIllegalState( "Row count must be >= 0 but was " + rowCount );
+    int oldCount = heights.length;
+    heights = Arrays.copyOf( heights, rowCount );
+    if( rowCount > oldCount ) {
+      Arrays.fill( heights, oldCount, rowCount, UNKNOWN_HEIGHT );
+    }
+    rebuildIndex();
+    disposeRows( rowCount, Integer.MAX_VALUE );
+  }
+
+  public void setEstimatedHeight( int estimatedHeight ) {
+    when( estimatedHeight <= 0 ).throwIllegalArgument( "Estimated row height must be > 0 but was " + estimatedHeight );
+    this.estimatedHeight = estimatedHeight;
+  }
+
+  public int getEstimatedHeight() {
+    return estimatedHeight;
+  }
+
+  public int getRowCount() {
+    return heights.length;
+  }
+
+  public int getHeight( int index ) {
+    return heights[ index ] == UNKNOWN_HEIGHT ? estimatedHeight : heights[ index ];
+  }
+
+  public int getOffset( int index ) {
+    when( index < 0 || index > heights.length ).throwIllegalArgument( "Index must be >= 0 and <= "
+                                                                     + heights.length + " but was " + index );
+    int measuredSum = 0;
+    int measuredCount = 0;
+    for( int i = index; i > 0; i -= i & -i ) {
+      measuredSum += measuredSums[ i ];
+      measuredCount += measuredCounts[ i ];
+    }
+    return measuredSum + ( index - measuredCount ) * estimatedHeight;
+  }
+
+  public int getExtent() {
+    return getOffset( heights.length );
+  }
+
+  public int getIndexAt( int y ) {
+    int index = 0;
+    int offset = 0;
+    for( int step = Integer.highestOneBit( heights.length ); step > 0; step >>= 1 ) {
+      int next = index + step;
+      if( next <= heights.length ) {
+        int nodeHeight = measuredSums[ next ] + ( step - measuredCounts[ next ] ) * estimatedHeight;
+        if( offset + nodeHeight <= y ) {
+          index = next;
+          offset += nodeHeight;
+        }
+      }
+    }
+    return index;
+  }
+
+  public Control getRow( int index ) {
+    return rows.get( Integer.valueOf( index ) );
+  }
+
+  public int getRowIndex( Control control ) {
+    for( Map.Entry<Integer, Control> entry : rows.entrySet() ) {
+      if( entry.getValue() == control ) {
+        return entry.getKey().intValue();
+      }
+    }
+    return -1;
+  }
+
+  public void update( Composite parent, int top, int bottom, int width ) {
+    if( width != measuredWidth ) {
+      forgetHeights();
+      measuredWidth = width;
+    }
+    int first = Math.min( getIndexAt( Math.max( top, 0 ) ), heights.length );
+    int y = getOffset( first );
+    int index = first;
+    while( index < heights.length && y < bottom ) {
+      Control row = getOrCreateRow( parent, index );
+      int height = getHeight( index );
+      row.setBounds( 0, y, width, height );
+      y += height;
+      index++;
+    }
+    disposeRows( 0, first );
+    disposeRows( index, Integer.MAX_VALUE );
+  }
+
+  private Control getOrCreateRow( Composite parent, int index ) {
+    Control row = getRow( index );
+    if( row == null || row.isDisposed() ) {
+      row = provider.createRow( parent, index );
+      whenNull( row ).throwIllegalState( "RowProvider must not return null for row " + index );
+      when( row.getParent() != parent ).throwIllegalState( "Row " + index + " is not a child of the parent" );
+      rows.put( Integer.valueOf( index ), row );
+    }
+    if( heights[ index ] == UNKNOWN_HEIGHT ) {
+      heights[ index ] = row.computeSize( measuredWidth, SWT.DEFAULT ).y;
+      addMeasuredHeight( index, heights[ index ] );
+    }
+    return row;
+  }
+
+  private void forgetHeights() {
+    Arrays.fill( heights, UNKNOWN_HEIGHT );
+    rebuildIndex();
+  }
+
+  private void addMeasuredHeight( int index, int height ) {
+    for( int i = index + 1; i <= heights.length; i += i & -i ) {
+      measuredSums[ i ] += height;
+      measuredCounts[ i ]++;
+    }
+  }
+
+  private void rebuildIndex() {
+    measuredSums = new int[ heights.length + 1 ];
+    measuredCounts = new int[ heights.length + 1 ];
+    for( int i = 1; i <= heights.length; i++ ) {
+      if( heights[ i - 1 ] != UNKNOWN_HEIGHT ) {
+        measuredSums[ i ] += heights[ i - 1 ];
+        measuredCounts[ i ]++;
+      }
+      int parent = i + ( i & -i );
+      if( parent <= heights.length ) {
+        measuredSums[ parent ] += measuredSums[ i ];
+        measuredCounts[ parent ] += measuredCounts[ i ];
+      }
+    }
+  }
+
+  private void disposeRows( int from, int to ) {
+    List<Integer> indices = new ArrayList<Integer>( rows.keySet() );
+    for( Integer index : indices ) {
+      if( index.intValue() >= from && index.intValue() < to ) {
+        Control row = rows.remove( index );
+        if( !row.isDisposed() ) {
+          row.dispose();
+        }
+      }
+    }
+  }
+
+  public void dispose() {
+    disposeRows( 0, Integer.MAX_VALUE );
+  }
+
+}
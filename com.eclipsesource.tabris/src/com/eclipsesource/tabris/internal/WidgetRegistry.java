@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal;
+
+import static com.eclipsesource.tabris.internal.Clauses.whenNull;
+import static com.eclipsesource.tabris.internal.WidgetsUtil.setData;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.eclipse.swt.events.DisposeEvent;
+import org.eclipse.swt.events.DisposeListener;
+import org.eclipse.swt.internal.widgets.IDisplayAdapter;
+import org.eclipse.swt.internal.widgets.WidgetTreeVisitor;
+import org.eclipse.swt.internal.widgets.WidgetTreeVisitor.AllWidgetTreeVisitor;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Widget;
+
+import com.eclipsesource.tabris.internal.DataWhitelist.WhiteListEntry;
+
+
+@SuppressWarnings("restriction")
+public class WidgetRegistry implements Serializable {
+
+  private static final String KEY = WidgetRegistry.class.getName();
+
+  private final Map<WhiteListEntry, Widget> exclusiveWidgets;
+  private final DisposeListener exclusiveDataDisposeListener;
+  private final Map<Composite, Composite> facades;
+
+  public static WidgetRegistry getInstance( Display display ) {
+    whenNull( display ).throwIllegalArgument( "Display must not be null" );
+    WidgetRegistry registry = ( WidgetRegistry )display.getData( KEY );
+    if( registry == null ) {
+      registry = new WidgetRegistry();
+      display.setData( KEY, registry );
+    }
+    return registry;
+  }
+
+  WidgetRegistry() {
+    exclusiveWidgets = new HashMap<WhiteListEntry, Widget>();
+    exclusiveDataDisposeListener = new ExclusiveDataDisposeListener();
+    facades = new HashMap<Composite, Composite>();
+  }
+
+  public void setExclusiveData( Widget widget, WhiteListEntry entry, Object value ) {
+    whenNull( widget ).throwIllegalArgument( "Widget must not be null" );
+    whenNull( entry ).throwIllegalArgument( "WhiteListEntry must not be null" );
+    whenNull( value ).throwIllegalArgument( "Value must not be null" );
+    Widget previous = exclusiveWidgets.get( entry );
+    if( previous != widget ) {
+      // a widget holding exclusive data has exactly one dispose listener, whatever the number of entries
+      boolean registered = exclusiveWidgets.containsValue( widget );
+      exclusiveWidgets.put( entry, widget );
+      if( previous != null && !previous.isDisposed() ) {
+        setData( previous, entry, null );
+        if( !exclusiveWidgets.containsValue( previous ) ) {
+          previous.removeDisposeListener( exclusiveDataDisposeListener );
+        }
+      }
+      if( !registered ) {
+        widget.addDisposeListener( exclusiveDataDisposeListener );
+      }
+    }
+    setData( widget, entry, value );
+    clearDataOnOtherWidgets( widget, entry, value );
+  }
+
+  private static void clearDataOnOtherWidgets( Widget widget, WhiteListEntry entry, Object value ) {
+    // data set with Widget#setData bypasses the registry, so other holders can only be found by visiting the shells
+    IDisplayAdapter displayAdapter = widget.getDisplay().getAdapter( IDisplayAdapter.class );
+    Composite[] shells = displayAdapter.getShells();
+    for( int i = 0; i < shells.length; i++ ) {
+      WidgetTreeVisitor.accept( shells[ i ], new ExclusiveDataVisitor( widget, entry, value ) );
+    }
+  }
+
+  public Widget getExclusiveWidget( WhiteListEntry entry ) {
+    return exclusiveWidgets.get( entry );
+  }
+
+  public void registerFacade( Composite composite, Composite facade ) {
+    whenNull( composite ).throwIllegalArgument( "Composite must not be null" );
+    whenNull( facade ).throwIllegalArgument( "Facade must not be null" );
+    facades.put( composite, facade );
+    facade.addDisposeListener( new FacadeDisposeListener( composite ) );
+  }
+
+  public Composite getFacade( Composite composite ) {
+    return facades.get( composite );
+  }
+
+  private class ExclusiveDataDisposeListener implements DisposeListener {
+
+    @Override
+    public void widgetDisposed( DisposeEvent event ) {
+      Iterator<Widget> iterator = exclusiveWidgets.values().iterator();
+      while( iterator.hasNext() ) {
+        if( iterator.next() == event.widget ) {
+          iterator.remove();
+        }
+      }
+    }
+  }
+
+  private static class ExclusiveDataVisitor extends AllWidgetTreeVisitor {
+
+    private final Widget widget;
+    private final WhiteListEntry entry;
+    private final Object value;
+
+    ExclusiveDataVisitor( Widget widget, WhiteListEntry entry, Object value ) {
+      this.widget = widget;
+      this.entry = entry;
+      this.value = value;
+    }
+
+    @Override
+    public boolean doVisit( Widget candidate ) {
+      if( candidate != widget && value.equals( candidate.getData( entry.getKey() ) ) ) {
+        setData( candidate, entry, null );
+      }
+      return true;
+    }
+  }
+
+  private class FacadeDisposeListener implements DisposeListener {
+
+    private final Composite composite;
+
+    FacadeDisposeListener( Composite composite ) {
+      this.composite = composite;
+    }
+
+    @Override
+    public void widgetDisposed( DisposeEvent event ) {
+      if( facades.get( composite ) == event.widget ) {
+        facades.remove( composite );
+      }
+    }
+  }
+
+}
@@ -7,6 +7,9 @@
  ******************************************************************************/
 package com.eclipsesource.tabris.internal;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.graphics.Rectangle;
@@ -16,19 +19,57 @@ import org.eclipse.swt.widgets.Layout;
 
 public class ZIndexStackLayout extends Layout {
 
+  private final Map<Point, Point> computedSizes;
   private Control onTopControl;
+  private Rectangle layoutArea;
+  private boolean topOnly;
+
+  public ZIndexStackLayout() {
+    computedSizes = new HashMap<Point, Point>();
+  }
 
   public void setOnTopControl( Control control ) {
+    if( control != onTopControl ) {
+      computedSizes.clear();
+    }
     onTopControl = control;
+    if( topOnly && control != null && !control.isDisposed() && layoutArea != null ) {
+      control.setBounds( layoutArea );
+    }
   }
 
   public Control getOnTopControl() {
     return onTopControl;
   }
 
+  public void setTopOnly( boolean topOnly ) {
+    this.topOnly = topOnly;
+    computedSizes.clear();
+  }
+
+  public boolean isTopOnly() {
+    return topOnly;
+  }
+
   @Override
   protected Point computeSize( Composite composite, int wHint, int hHint, boolean flushCache ) {
-    Control children[] = composite.getChildren();
+    Control children[] = getActiveChildren( composite );
+    if( !isSingleTopControl( composite ) ) {
+      return measure( children, wHint, hHint, flushCache );
+    }
+    if( flushCache ) {
+      computedSizes.clear();
+    }
+    Point hints = new Point( wHint, hHint );
+    Point size = computedSizes.get( hints );
+    if( size == null ) {
+      size = measure( children, wHint, hHint, flushCache );
+      computedSizes.put( hints, size );
+    }
+    return new Point( size.x, size.y );
+  }
+
+  private Point measure( Control[] children, int wHint, int hHint, boolean flushCache ) {
     int maxWidth = 0;
     int maxHeight = 0;
     for( int i = 0; i < children.length; i++ ) {
@@ -49,13 +90,21 @@ public class ZIndexStackLayout extends Layout {
 
   @Override
   protected boolean flushCache( Control control ) {
+    // hidden children are not measured in top-only mode, their changes keep the cached sizes valid
+    if( !topOnly || control == onTopControl ) {
+      computedSizes.clear();
+    }
     return true;
   }
 
   @Override
   protected void layout( Composite composite, boolean flushCache ) {
-    Control children[] = composite.getChildren();
+    if( flushCache ) {
+      computedSizes.clear();
+    }
+    Control children[] = getActiveChildren( composite );
     Rectangle rect = composite.getClientArea();
+    layoutArea = rect;
     for( int i = 0; i < children.length; i++ ) {
       children[ i ].setBounds( rect );
       if( children[ i ] == onTopControl ) {
@@ -63,4 +112,15 @@ public class ZIndexStackLayout extends Layout {
       }
     }
   }
+
+  private Control[] getActiveChildren( Composite composite ) {
+    if( isSingleTopControl( composite ) ) {
+      return new Control[] { onTopControl };
+    }
+    return composite.getChildren();
+  }
+
+  private boolean isSingleTopControl( Composite composite ) {
+    return topOnly && onTopControl != null && !onTopControl.isDisposed() && onTopControl.getParent() == composite;
+  }
 }
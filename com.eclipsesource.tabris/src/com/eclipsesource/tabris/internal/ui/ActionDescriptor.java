@@ -10,18 +10,22 @@
  ******************************************************************************/
 package com.eclipsesource.tabris.internal.ui;
 
+import static com.eclipsesource.tabris.internal.Clauses.whenNull;
 import static com.eclipsesource.tabris.internal.ui.ImageUtil.getBytes;
 
 import java.io.InputStream;
 import java.io.Serializable;
 
 import com.eclipsesource.tabris.ui.Action;
+import com.eclipsesource.tabris.ui.ActionFactory;
 
 
 public class ActionDescriptor implements Serializable {
 
   private final String id;
-  private final Action action;
+  private final Class<? extends Action> actionType;
+  private Action action;
+  private ActionFactory actionFactory;
   private final String title;
   private final boolean visible;
   private final boolean enabled;
@@ -34,8 +38,20 @@ public class ActionDescriptor implements Serializable {
                            boolean visible,
                            boolean enabled )
   {
-    this.id = id;
+    this( id, action.getClass(), title, image, visible, enabled );
     this.action = action;
+  }
+
+  public ActionDescriptor( String id,
+                           Class<? extends Action> actionType,
+                           String title,
+                           InputStream image,
+                           boolean visible,
+                           boolean enabled )
+  {
+    this.id = id;
+    this.actionType = actionType;
+    this.actionFactory = new DefaultInstanceFactory();
     this.title = title;
     this.image = getBytes( image );
     this.enabled = enabled;
@@ -46,10 +62,22 @@ public class ActionDescriptor implements Serializable {
     return id;
   }
 
-  public Action getAction() {
+  public synchronized Action getAction() {
+    if( action == null ) {
+      action = actionFactory.createAction( actionType );
+      whenNull( action ).throwIllegalState( "ActionFactory created no action for " + actionType.getName() );
+    }
     return action;
   }
 
+  public Class<? extends Action> getActionType() {
+    return actionType;
+  }
+
+  public synchronized void setActionFactory( ActionFactory actionFactory ) {
+    this.actionFactory = actionFactory;
+  }
+
   public String getTitle() {
     return title;
   }
@@ -12,34 +12,59 @@ package com.eclipsesource.tabris.internal.ui;
 
 import static com.eclipsesource.tabris.internal.Clauses.when;
 import static com.eclipsesource.tabris.internal.Clauses.whenNull;
+import static com.eclipsesource.tabris.ui.TransitionPhase.ACTIVATE;
+import static com.eclipsesource.tabris.ui.TransitionPhase.CREATE_ACTIONS;
+import static com.eclipsesource.tabris.ui.TransitionPhase.CREATE_CONTENT;
+import static com.eclipsesource.tabris.ui.TransitionPhase.CREATE_PAGE;
+import static com.eclipsesource.tabris.ui.TransitionPhase.LAYOUT;
+import static com.eclipsesource.tabris.ui.TransitionPhase.NOTIFY_LISTENERS;
 
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
+import org.eclipse.rap.rwt.RWT;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Display;
 
+import com.eclipsesource.tabris.ClientStore;
 import com.eclipsesource.tabris.internal.ZIndexStackLayout;
+import com.eclipsesource.tabris.internal.ui.PageFlowSnapshot.Entry;
+import com.eclipsesource.tabris.internal.ui.PageFlowSnapshotStore.LoadCallback;
 import com.eclipsesource.tabris.internal.ui.rendering.ActionRenderer;
 import com.eclipsesource.tabris.internal.ui.rendering.PageRenderer;
 import com.eclipsesource.tabris.internal.ui.rendering.RendererFactory;
 import com.eclipsesource.tabris.internal.ui.rendering.UIRenderer;
 import com.eclipsesource.tabris.ui.Page;
 import com.eclipsesource.tabris.ui.PageData;
+import com.eclipsesource.tabris.ui.PreparablePage;
 import com.eclipsesource.tabris.ui.TransitionListener;
+import com.eclipsesource.tabris.ui.TransitionMetrics;
+import com.eclipsesource.tabris.ui.TransitionMetricsListener;
 
 
 public class Controller implements Serializable {
 
+  static final int PRERENDER_DELAY = 500;
+
   private final UIDescriptor uiDescriptor;
   private final Composite pageParent;
   private final UIRenderer uiRenderer;
   private final List<ActionRenderer> globalActionRenderers;
   private final Map<PageDescriptor, PageRenderer> topLevelPageRenderers;
+  private final PrerenderedPages prerenderedPages;
+  private final TransitionStatistics transitionStatistics;
   private PageFlow currentFlow;
+  private final List<PageRenderer> preparingRenderers;
+  private PageRenderer detachedRenderer;
+  private boolean prerenderScheduled;
+  private boolean restorePending;
+  private transient PageFlowSnapshotStore snapshotStore;
 
   public Controller( UIRenderer uiRenderer, UIDescriptor uiDescriptor ) {
     this.uiRenderer = uiRenderer;
@@ -47,13 +72,96 @@ public class Controller implements Serializable {
     this.uiDescriptor = uiDescriptor;
     this.globalActionRenderers = new ArrayList<ActionRenderer>();
     this.topLevelPageRenderers = new HashMap<PageDescriptor, PageRenderer>();
+    this.prerenderedPages = new PrerenderedPages( uiDescriptor.getPrerenderLimit() );
+    this.transitionStatistics = new TransitionStatistics();
+    this.preparingRenderers = new ArrayList<PageRenderer>();
   }
 
   public void createRootPages( UIImpl ui ) {
     List<PageDescriptor> pageDescriptors = uiDescriptor.getRootPages();
     when( pageDescriptors.isEmpty() ).throwIllegalState( "No TopLevel Pages found." );
     createTopLevelPageRenderer( ui, pageDescriptors );
-    showRoot( ui, pageDescriptors.get( 0 ), new PageData() );
+    loadPageFlow( ui );
+    if( currentFlow == null ) {
+      showRoot( ui, pageDescriptors.get( 0 ), new PageData() );
+    }
+    saveSnapshot();
+  }
+
+  private void loadPageFlow( UIImpl ui ) {
+    PageFlowSnapshotStore store = getSnapshotStore();
+    if( store != null ) {
+      // the snapshot may arrive with a later request, until then the first root page is shown
+      restorePending = true;
+      store.load( new SnapshotLoadCallback( ui ) );
+    }
+  }
+
+  void snapshotLoaded( UIImpl ui, PageFlowSnapshot snapshot ) {
+    if( restorePending ) {
+      restorePending = false;
+      restorePageFlow( ui, snapshot );
+      saveSnapshot();
+    }
+  }
+
+  boolean isRestorePending() {
+    return restorePending;
+  }
+
+  private void restorePageFlow( UIImpl ui, PageFlowSnapshot snapshot ) {
+    if( snapshot != null && isRestorable( snapshot ) ) {
+      List<Entry> entries = snapshot.getEntries();
+      Entry rootEntry = entries.get( 0 );
+      showRoot( ui, uiDescriptor.getPageDescriptor( rootEntry.getPageId() ), rootEntry.getData() );
+      restoreTitle( currentFlow.getRootRenderer(), rootEntry );
+      if( entries.size() > 1 ) {
+        for( Entry entry : entries.subList( 1, entries.size() - 1 ) ) {
+          currentFlow.defer( entry );
+        }
+        Entry topEntry = entries.get( entries.size() - 1 );
+        PageDescriptor topDescriptor = uiDescriptor.getPageDescriptor( topEntry.getPageId() );
+        PageRenderer topRenderer = showPage( ui, topDescriptor, topEntry.getData() );
+        restoreTitle( topRenderer, topEntry );
+      }
+    }
+  }
+
+  private boolean isRestorable( PageFlowSnapshot snapshot ) {
+    List<Entry> entries = snapshot.getEntries();
+    if( entries.isEmpty() ) {
+      return false;
+    }
+    for( int i = 0; i < entries.size(); i++ ) {
+      PageDescriptor descriptor = uiDescriptor.getPageDescriptor( entries.get( i ).getPageId() );
+      if( descriptor == null || descriptor.isTopLevel() != ( i == 0 ) ) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void restoreTitle( PageRenderer renderer, Entry entry ) {
+    if( entry.getTitle() != null ) {
+      renderer.setTitle( entry.getTitle() );
+    }
+  }
+
+  private void saveSnapshot() {
+    PageFlowSnapshotStore store = getSnapshotStore();
+    if( store != null && currentFlow != null && !restorePending ) {
+      store.save( PageFlowSnapshot.create( currentFlow ) );
+    }
+  }
+
+  private PageFlowSnapshotStore getSnapshotStore() {
+    if( snapshotStore == null && uiDescriptor.isRestorePageFlow() ) {
+      ClientStore clientStore = RWT.getClient().getService( ClientStore.class );
+      if( clientStore != null ) {
+        snapshotStore = new PageFlowSnapshotStore( clientStore );
+      }
+    }
+    return snapshotStore;
   }
 
   private void createTopLevelPageRenderer( UIImpl ui, List<PageDescriptor> pages ) {
@@ -61,7 +169,7 @@ public class Controller implements Serializable {
       RendererFactory rendererFactory = uiDescriptor.getRendererFactory();
       PageRenderer renderer = rendererFactory.createPageRenderer( ui, descriptor, uiRenderer.getRemoteUIId(), new PageData() );
       topLevelPageRenderers.put( descriptor, renderer );
-      renderer.createControl( pageParent );
+      prepareAndCreateControl( renderer );
     }
   }
 
@@ -76,99 +184,279 @@ public class Controller implements Serializable {
   }
 
   void show( UIImpl ui, PageDescriptor newPageDescriptor, PageData data ) {
+    restorePending = false;
     if( newPageDescriptor.isTopLevel() ) {
       showRoot( ui, newPageDescriptor, data );
     } else {
       showPage( ui, newPageDescriptor, data );
     }
+    saveSnapshot();
   }
 
   void showRoot( UIImpl ui, PageDescriptor newPageDescriptor, PageData data ) {
+    TransitionTimer timer = createTimer();
     PageRenderer oldRoot = null;
     PageRenderer newRoot = topLevelPageRenderers.get( newPageDescriptor );
     newRoot.getData().addData( data );
     if( currentFlow != null ) {
-      oldRoot = cleanupOldRoot( ui, newRoot );
+      oldRoot = cleanupOldRoot( ui, newRoot, timer );
     }
-    initializeNewRoot( ui, oldRoot, newRoot );
+    initializeNewRoot( ui, oldRoot, newRoot, timer );
+  }
+
+  TransitionTimer createTimer() {
+    return new TransitionTimer();
   }
 
-  private PageRenderer cleanupOldRoot( UIImpl ui, PageRenderer root ) {
+  private PageRenderer cleanupOldRoot( UIImpl ui, PageRenderer root, TransitionTimer timer ) {
     PageRenderer oldRoot = currentFlow.getCurrentRenderer();
     fireTransitionBeforeEvent( ui, oldRoot, root );
-    oldRoot.destroyActions();
-    oldRoot.getPage().deactivate();
+    timer.measure( NOTIFY_LISTENERS );
+    deactivate( oldRoot );
+    timer.measure( ACTIVATE );
     currentFlow.destroy();
+    timer.skip();
     return oldRoot;
   }
 
-  private void initializeNewRoot( UIImpl ui, PageRenderer oldRoot, PageRenderer newRoot ) {
+  private void initializeNewRoot( UIImpl ui, PageRenderer oldRoot, PageRenderer newRoot, TransitionTimer timer ) {
     currentFlow = new PageFlow( newRoot );
     uiRenderer.activate( newRoot.getId() );
-    newRoot.createActions( uiDescriptor.getRendererFactory(), pageParent );
+    timer.measure( ACTIVATE );
+    reconcileActions( oldRoot, newRoot );
+    timer.measure( CREATE_ACTIONS );
     newRoot.getPage().activate();
+    timer.measure( ACTIVATE );
     makeControlVisible( currentFlow.getCurrentRenderer().getControl() );
+    timer.measure( LAYOUT );
     fireTransitionAfterEvent( ui, oldRoot, newRoot );
+    timer.measure( NOTIFY_LISTENERS );
+    publishMetrics( ui, timer, oldRoot, newRoot );
+    schedulePrerendering( ui, newRoot.getDescriptor() );
   }
 
   PageRenderer showPage( UIImpl ui, PageDescriptor newPage, PageData data ) {
+    TransitionTimer timer = createTimer();
     PageRenderer oldPageRenderer = cleanupOldPageRenderer( ui );
-    return initializeNewPage( ui, newPage, oldPageRenderer, data );
+    timer.measure( ACTIVATE );
+    return initializeNewPage( ui, newPage, oldPageRenderer, data, timer );
   }
 
   private PageRenderer cleanupOldPageRenderer( UIImpl ui ) {
     PageRenderer oldPageRenderer = currentFlow.getCurrentRenderer();
-    oldPageRenderer.destroyActions();
-    oldPageRenderer.getPage().deactivate();
+    deactivate( oldPageRenderer );
     return oldPageRenderer;
   }
 
   private PageRenderer initializeNewPage( UIImpl ui,
                                           PageDescriptor newPage,
                                           PageRenderer oldPageRenderer,
-                                          PageData data )
+                                          PageData data,
+                                          TransitionTimer timer )
   {
-    RendererFactory rendererFactory = uiDescriptor.getRendererFactory();
-    PageRenderer newPageRenderer = rendererFactory.createPageRenderer( ui, newPage, uiRenderer.getRemoteUIId(), data  );
+    PageRenderer newPageRenderer = takePrerenderedPage( newPage, data );
+    if( newPageRenderer == null ) {
+      RendererFactory rendererFactory = uiDescriptor.getRendererFactory();
+      newPageRenderer = rendererFactory.createPageRenderer( ui, newPage, uiRenderer.getRemoteUIId(), data  );
+    }
+    timer.measure( CREATE_PAGE );
+    if( uiDescriptor.isLearnSuccessors() ) {
+      transitionStatistics.record( oldPageRenderer.getDescriptor().getId(), newPage.getId() );
+    }
     fireTransitionBeforeEvent( ui, oldPageRenderer, newPageRenderer );
+    timer.measure( NOTIFY_LISTENERS );
     currentFlow.add( newPageRenderer );
-    newPageRenderer.createActions( uiDescriptor.getRendererFactory(), pageParent );
-    newPageRenderer.createControl( pageParent );
+    reconcileActions( oldPageRenderer, newPageRenderer );
+    timer.measure( CREATE_ACTIONS );
+    boolean contentCreated = createContent( newPageRenderer );
+    timer.measure( CREATE_CONTENT );
     uiRenderer.activate( newPageRenderer.getId() );
-    newPageRenderer.getPage().activate();
+    if( contentCreated ) {
+      newPageRenderer.getPage().activate();
+    }
+    timer.measure( ACTIVATE );
     makeControlVisible( newPageRenderer.getControl() );
+    timer.measure( LAYOUT );
+    trimPageFlow();
+    timer.skip();
     fireTransitionAfterEvent( ui, oldPageRenderer, newPageRenderer );
+    timer.measure( NOTIFY_LISTENERS );
+    publishMetrics( ui, timer, oldPageRenderer, newPageRenderer );
+    schedulePrerendering( ui, newPage );
     return newPageRenderer;
   }
 
+  private PageRenderer takePrerenderedPage( PageDescriptor descriptor, PageData data ) {
+    PageRenderer renderer = prerenderedPages.take( descriptor );
+    if( renderer != null && !data.isEmpty() ) {
+      if( renderer.isContentCreated() ) {
+        // the content was created with empty data and would not reflect the passed data
+        renderer.destroy();
+        return null;
+      }
+      renderer.getData().addData( data );
+    }
+    return renderer;
+  }
+
+  private void trimPageFlow() {
+    List<PageRenderer> renderers = currentFlow.getRenderersBeyond( uiDescriptor.getRenderedPageLimit() );
+    for( PageRenderer renderer : renderers ) {
+      if( !preparingRenderers.contains( renderer ) ) {
+        renderer.trimControl();
+      }
+    }
+  }
+
   boolean closeCurrentPage( UIImpl ui ) {
-    if( currentFlow != null && currentFlow.getPreviousRenderer() != null ) {
-      restorePreviousPage( ui, currentFlow.getPreviousRenderer() );
-      return true;
+    restorePending = false;
+    if( currentFlow != null ) {
+      createDeferredPreviousPage( ui );
+      if( currentFlow.getPreviousRenderer() != null ) {
+        restorePreviousPage( ui, currentFlow.getPreviousRenderer() );
+        saveSnapshot();
+        return true;
+      }
     }
     return false;
   }
 
+  private void createDeferredPreviousPage( UIImpl ui ) {
+    Entry entry = currentFlow.takeDeferredPrevious();
+    if( entry != null ) {
+      PageDescriptor descriptor = uiDescriptor.getPageDescriptor( entry.getPageId() );
+      RendererFactory rendererFactory = uiDescriptor.getRendererFactory();
+      PageRenderer renderer = rendererFactory.createPageRenderer( ui, descriptor, uiRenderer.getRemoteUIId(), entry.getData() );
+      restoreTitle( renderer, entry );
+      currentFlow.insertPrevious( renderer );
+    }
+  }
+
   private void restorePreviousPage( UIImpl ui, PageRenderer previousPageRenderer ) {
+    TransitionTimer timer = createTimer();
     PageRenderer removedPage = cleanUpCurrentPage( ui );
+    timer.skip();
     fireTransitionBeforeEvent( ui, removedPage, previousPageRenderer );
-    initializePreviousPage( ui, previousPageRenderer );
+    timer.measure( NOTIFY_LISTENERS );
+    initializePreviousPage( ui, removedPage, previousPageRenderer, timer );
     fireTransitionAfterEvent( ui, removedPage, previousPageRenderer );
+    timer.measure( NOTIFY_LISTENERS );
+    publishMetrics( ui, timer, removedPage, previousPageRenderer );
+    schedulePrerendering( ui, previousPageRenderer.getDescriptor() );
   }
 
   private PageRenderer cleanUpCurrentPage( UIImpl ui ) {
     PageRenderer removedPage = currentFlow.pop();
     removedPage.destroy();
-    removedPage.destroyActions();
-    removedPage.getPage().deactivate();
+    deactivate( removedPage );
     return removedPage;
   }
 
-  private void initializePreviousPage( UIImpl ui, PageRenderer previousPage ) {
+  private void initializePreviousPage( UIImpl ui,
+                                       PageRenderer removedPage,
+                                       PageRenderer previousPage,
+                                       TransitionTimer timer )
+  {
     uiRenderer.activate( previousPage.getId() );
-    previousPage.createActions( uiDescriptor.getRendererFactory(), pageParent );
-    previousPage.getPage().activate();
+    timer.measure( ACTIVATE );
+    reconcileActions( removedPage, previousPage );
+    timer.measure( CREATE_ACTIONS );
+    boolean contentCreated = createContent( previousPage );
+    timer.measure( CREATE_CONTENT );
+    if( contentCreated ) {
+      previousPage.getPage().activate();
+    }
+    timer.measure( ACTIVATE );
     makeControlVisible( previousPage.getControl() );
+    timer.measure( LAYOUT );
+  }
+
+  private void deactivate( PageRenderer renderer ) {
+    if( !preparingRenderers.contains( renderer ) ) {
+      renderer.getPage().deactivate();
+    }
+  }
+
+  private boolean createContent( PageRenderer renderer ) {
+    if( preparingRenderers.contains( renderer ) ) {
+      return false;
+    }
+    if( isPreparedInBackground( renderer ) && startPreparation( renderer ) ) {
+      return false;
+    }
+    prepareAndCreateControl( renderer );
+    return true;
+  }
+
+  private boolean isPreparedInBackground( PageRenderer renderer ) {
+    Executor executor = uiDescriptor.getPreparationExecutor();
+    return !renderer.isContentCreated() && executor != null && renderer.getPage() instanceof PreparablePage;
+  }
+
+  private void prepareAndCreateControl( PageRenderer renderer ) {
+    Page page = renderer.getPage();
+    if( !renderer.isContentCreated() && page instanceof PreparablePage ) {
+      ( ( PreparablePage )page ).prepare( renderer.getData() );
+    }
+    renderer.createControl( pageParent );
+  }
+
+  private boolean startPreparation( PageRenderer renderer ) {
+    renderer.createPlaceholder( pageParent );
+    preparingRenderers.add( renderer );
+    SharedServerPush.getInstance().acquire();
+    try {
+      uiDescriptor.getPreparationExecutor().execute( new Preparation( renderer, pageParent.getDisplay() ) );
+      return true;
+    } catch( RejectedExecutionException rejected ) {
+      preparingRenderers.remove( renderer );
+      SharedServerPush.getInstance().release();
+      return false;
+    }
+  }
+
+  void completePreparation( PageRenderer renderer, Page preparedPage, RuntimeException failure ) {
+    preparingRenderers.remove( renderer );
+    SharedServerPush.getInstance().release();
+    if( failure != null ) {
+      throw failure;
+    }
+    if( canCreateContent( renderer, preparedPage ) ) {
+      createDetachedControl( renderer );
+      if( currentFlow != null && currentFlow.getCurrentRenderer() == renderer ) {
+        renderer.getPage().activate();
+        makeControlVisible( renderer.getControl() );
+      }
+    }
+  }
+
+  private boolean canCreateContent( PageRenderer renderer, Page preparedPage ) {
+    Control control = renderer.getControl();
+    return renderer.getPage() == preparedPage && control != null && !control.isDisposed();
+  }
+
+  private void createDetachedControl( PageRenderer renderer ) {
+    detachedRenderer = renderer;
+    try {
+      renderer.createControl( pageParent );
+    } finally {
+      detachedRenderer = null;
+    }
+  }
+
+  boolean isPreparing( PageRenderer renderer ) {
+    return preparingRenderers.contains( renderer );
+  }
+
+  private void reconcileActions( PageRenderer oldRenderer, PageRenderer newRenderer ) {
+    List<ActionRenderer> reusableActions = new ArrayList<ActionRenderer>();
+    if( oldRenderer != null ) {
+      reusableActions.addAll( oldRenderer.releaseActions() );
+    }
+    newRenderer.createActions( uiDescriptor.getRendererFactory(), pageParent, reusableActions );
+    for( ActionRenderer unusedAction : reusableActions ) {
+      unusedAction.destroy();
+    }
   }
 
   private void makeControlVisible( Control control ) {
@@ -177,12 +465,101 @@ public class Controller implements Serializable {
     pageParent.layout( true );
   }
 
-  public void setTitle( Page page, String title ) {
+  private void schedulePrerendering( UIImpl ui, PageDescriptor descriptor ) {
+    if( prerenderedPages.isEnabled() ) {
+      List<PageDescriptor> successors = getSuccessors( descriptor );
+      destroyRenderers( prerenderedPages.retain( successors ) );
+      if( !successors.isEmpty() && !prerenderScheduled ) {
+        schedulePrerenderRequest( ui );
+      }
+    }
+  }
+
+  /*
+   * An asyncExec would run within the current request and delay its response. The timer fires after the response
+   * was sent and the server push makes the client send a new request for it.
+   */
+  private void schedulePrerenderRequest( UIImpl ui ) {
+    prerenderScheduled = true;
+    SharedServerPush.getInstance().acquire();
+    pageParent.getDisplay().timerExec( PRERENDER_DELAY, new PrerenderRunnable( ui ) );
+  }
+
+  boolean isPrerenderScheduled() {
+    return prerenderScheduled;
+  }
+
+  void prerenderCurrentPage( UIImpl ui ) {
+    prerenderScheduled = false;
+    SharedServerPush.getInstance().release();
     if( currentFlow != null ) {
+      prerender( ui, currentFlow.getCurrentRenderer().getDescriptor() );
+    }
+  }
+
+  List<PageDescriptor> getSuccessors( PageDescriptor descriptor ) {
+    List<String> successorIds = descriptor.getSuccessors();
+    if( successorIds.isEmpty() && uiDescriptor.isLearnSuccessors() ) {
+      successorIds = transitionStatistics.getLikelySuccessors( descriptor.getId(), uiDescriptor.getPrerenderLimit() );
+    }
+    List<PageDescriptor> result = new ArrayList<PageDescriptor>();
+    for( String successorId : successorIds ) {
+      PageDescriptor successor = uiDescriptor.getPageDescriptor( successorId );
+      if( successor != null && !successor.isTopLevel() && result.size() < uiDescriptor.getPrerenderLimit() ) {
+        result.add( successor );
+      }
+    }
+    return result;
+  }
+
+  void prerender( UIImpl ui, PageDescriptor descriptor ) {
+    if( !pageParent.isDisposed() && isCurrentPage( descriptor ) ) {
+      for( PageDescriptor successor : getSuccessors( descriptor ) ) {
+        if( !prerenderedPages.contains( successor ) ) {
+          destroyRenderers( prerenderedPages.put( successor, createPrerenderedPage( ui, successor ) ) );
+        }
+      }
+    }
+  }
+
+  private boolean isCurrentPage( PageDescriptor descriptor ) {
+    return currentFlow != null && currentFlow.getCurrentRenderer().getDescriptor().equals( descriptor );
+  }
+
+  private PageRenderer createPrerenderedPage( UIImpl ui, PageDescriptor descriptor ) {
+    RendererFactory rendererFactory = uiDescriptor.getRendererFactory();
+    PageRenderer renderer = rendererFactory.createPageRenderer( ui, descriptor, uiRenderer.getRemoteUIId(), new PageData() );
+    // background preparation is deferred until the page is opened, so prepare gets the data passed to openPage
+    if( !isPreparedInBackground( renderer ) ) {
+      detachedRenderer = renderer;
+      try {
+        createContent( renderer );
+      } finally {
+        detachedRenderer = null;
+      }
+    }
+    return renderer;
+  }
+
+  private void destroyRenderers( List<PageRenderer> renderers ) {
+    for( PageRenderer renderer : renderers ) {
+      renderer.destroy();
+    }
+  }
+
+  PrerenderedPages getPrerenderedPages() {
+    return prerenderedPages;
+  }
+
+  public void setTitle( Page page, String title ) {
+    if( detachedRenderer != null && detachedRenderer.getPage().equals( page ) ) {
+      detachedRenderer.setTitle( title );
+    } else if( currentFlow != null ) {
       PageRenderer rendererToModify = null;
       List<PageRenderer> allPageRenderes = currentFlow.getAllRenderers();
       for( PageRenderer renderer : allPageRenderes ) {
-        if( renderer.getPage().equals( page ) ) {
+        // trimmed renderers hold no page until it's needed again
+        if( !renderer.isTrimmed() && renderer.getPage().equals( page ) ) {
           rendererToModify = renderer;
           break;
         }
@@ -200,6 +577,9 @@ public class Controller implements Serializable {
   }
 
   public Page getCurrentPage() {
+    if( detachedRenderer != null ) {
+      return detachedRenderer.getPage();
+    }
     if( currentFlow != null ) {
       return currentFlow.getCurrentRenderer().getPage();
     }
@@ -207,6 +587,9 @@ public class Controller implements Serializable {
   }
 
   public PageData getCurrentData() {
+    if( detachedRenderer != null ) {
+      return detachedRenderer.getData();
+    }
     if( currentFlow != null ) {
       return currentFlow.getCurrentRenderer().getData();
     }
@@ -299,8 +682,91 @@ public class Controller implements Serializable {
     }
   }
 
+  private void publishMetrics( UIImpl ui, TransitionTimer timer, PageRenderer from, PageRenderer to ) {
+    List<TransitionMetricsListener> listeners = uiDescriptor.getTransitionMetricsListeners();
+    if( !listeners.isEmpty() ) {
+      String fromPageId = from != null ? from.getDescriptor().getId() : null;
+      TransitionMetrics metrics = timer.createMetrics( fromPageId, to.getDescriptor().getId() );
+      for( TransitionMetricsListener listener : new ArrayList<TransitionMetricsListener>( listeners ) ) {
+        listener.transitionMeasured( ui, metrics );
+      }
+    }
+  }
+
   Map<PageDescriptor, PageRenderer> getRootPages() {
     return topLevelPageRenderers;
   }
 
+  private class SnapshotLoadCallback implements LoadCallback {
+
+    private final UIImpl ui;
+
+    SnapshotLoadCallback( UIImpl ui ) {
+      this.ui = ui;
+    }
+
+    @Override
+    public void snapshotLoaded( PageFlowSnapshot snapshot ) {
+      Controller.this.snapshotLoaded( ui, snapshot );
+    }
+  }
+
+  private class PrerenderRunnable implements Runnable {
+
+    private final UIImpl ui;
+
+    PrerenderRunnable( UIImpl ui ) {
+      this.ui = ui;
+    }
+
+    @Override
+    public void run() {
+      prerenderCurrentPage( ui );
+    }
+  }
+
+  private class Preparation implements Runnable {
+
+    private final PageRenderer renderer;
+    private final PreparablePage page;
+    private final Display display;
+
+    Preparation( PageRenderer renderer, Display display ) {
+      this.renderer = renderer;
+      this.page = ( PreparablePage )renderer.getPage();
+      this.display = display;
+    }
+
+    @Override
+    public void run() {
+      RuntimeException failure = null;
+      try {
+        page.prepare( renderer.getData() );
+      } catch( RuntimeException exception ) {
+        failure = exception;
+      }
+      if( !display.isDisposed() ) {
+        display.asyncExec( new PreparationCompletion( renderer, page, failure ) );
+      }
+    }
+  }
+
+  private class PreparationCompletion implements Runnable {
+
+    private final PageRenderer renderer;
+    private final Page preparedPage;
+    private final RuntimeException failure;
+
+    PreparationCompletion( PageRenderer renderer, Page preparedPage, RuntimeException failure ) {
+      this.renderer = renderer;
+      this.preparedPage = preparedPage;
+      this.failure = failure;
+    }
+
+    @Override
+    public void run() {
+      completePreparation( renderer, preparedPage, failure );
+    }
+  }
+
 }
@@ -0,0 +1,63 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal.ui;
+
+import java.lang.reflect.Constructor;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.eclipsesource.tabris.ui.Action;
+import com.eclipsesource.tabris.ui.ActionFactory;
+import com.eclipsesource.tabris.ui.Page;
+import com.eclipsesource.tabris.ui.PageFactory;
+
+
+public class DefaultInstanceFactory implements PageFactory, ActionFactory {
+
+  private transient ConcurrentMap<Class<?>, Constructor<?>> constructors;
+
+  public DefaultInstanceFactory() {
+    constructors = new ConcurrentHashMap<Class<?>, Constructor<?>>();
+  }
+
+  @Override
+  public Page createPage( Class<? extends Page> pageType ) {
+    return createInstance( pageType );
+  }
+
+  @Override
+  public Action createAction( Class<? extends Action> actionType ) {
+    return createInstance( actionType );
+  }
+
+  private <T> T createInstance( Class<T> type ) {
+    return InstanceCreator.createInstance( getConstructor( type ) );
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> Constructor<T> getConstructor( Class<T> type ) {
+    Constructor<T> constructor = ( Constructor<T> )constructors.get( type );
+    if( constructor == null ) {
+      constructor = InstanceCreator.getConstructor( type );
+      constructors.putIfAbsent( type, constructor );
+    }
+    return constructor;
+  }
+
+  int getCachedConstructorCount() {
+    return constructors.size();
+  }
+
+  private Object readResolve() {
+    return new DefaultInstanceFactory();
+  }
+
+}
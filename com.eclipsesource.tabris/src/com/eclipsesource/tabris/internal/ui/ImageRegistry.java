@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal.ui;
+
+import java.io.ByteArrayInputStream;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.eclipse.rap.json.JsonArray;
+import org.eclipse.rap.rwt.RWT;
+import org.eclipse.rap.rwt.service.ApplicationContext;
+import org.eclipse.swt.graphics.Device;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.Rectangle;
+import org.eclipse.swt.internal.graphics.ImageFactory;
+
+
+@SuppressWarnings("restriction")
+public class ImageRegistry {
+
+  private static final String ATTRIBUTE_NAME = ImageRegistry.class.getName();
+
+  private final Map<byte[], RegisteredImage> images;
+
+  public static ImageRegistry getInstance() {
+    ApplicationContext context = RWT.getApplicationContext();
+    synchronized( context ) {
+      ImageRegistry registry = ( ImageRegistry )context.getAttribute( ATTRIBUTE_NAME );
+      if( registry == null ) {
+        registry = new ImageRegistry();
+        context.setAttribute( ATTRIBUTE_NAME, registry );
+      }
+      return registry;
+    }
+  }
+
+  ImageRegistry() {
+    images = new WeakHashMap<byte[], RegisteredImage>();
+  }
+
+  public JsonArray getImageData( Device device, byte[] bytes ) {
+    if( bytes != null ) {
+      RegisteredImage image = getRegisteredImage( device, bytes );
+      JsonArray imageData = new JsonArray();
+      imageData.add( image.path );
+      imageData.add( image.width );
+      imageData.add( image.height );
+      return imageData;
+    }
+    return null;
+  }
+
+  private synchronized RegisteredImage getRegisteredImage( Device device, byte[] bytes ) {
+    RegisteredImage result = images.get( bytes );
+    if( result == null ) {
+      result = new RegisteredImage( new Image( device, new ByteArrayInputStream( bytes ) ) );
+      images.put( bytes, result );
+    }
+    return result;
+  }
+
+  int size() {
+    return images.size();
+  }
+
+  private static class RegisteredImage {
+
+    final String path;
+    final int width;
+    final int height;
+
+    RegisteredImage( Image image ) {
+      Rectangle bounds = image.getBounds();
+      this.path = ImageFactory.getImagePath( image );
+      this.width = bounds.width;
+      this.height = bounds.height;
+    }
+  }
+
+}
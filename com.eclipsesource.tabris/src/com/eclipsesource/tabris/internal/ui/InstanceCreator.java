@@ -10,27 +10,40 @@
  ******************************************************************************/
 package com.eclipsesource.tabris.internal.ui;
 
+import java.lang.reflect.Constructor;
+
 
 public class InstanceCreator {
 
   public static <T> T createInstance( Class<T> type ) {
-    return createInstanceSafely( type );
+    return createInstance( getConstructor( type ) );
   }
 
-  private static <T> T createInstanceSafely( Class<T> type ) {
-    ClassLoader original = Thread.currentThread().getContextClassLoader();
+  public static <T> Constructor<T> getConstructor( Class<T> type ) {
     try {
-      setContextClassloader( type.getClassLoader() );
-      return type.newInstance();
+      return type.getConstructor();
     } catch( Exception exception ) {
       throw new IllegalStateException( "Could no create instance of " + type.getName(), exception );
-    } finally {
-      setContextClassloader( original );
     }
   }
 
-  private static void setContextClassloader( ClassLoader original ) {
-    Thread.currentThread().setContextClassLoader( original );
+  public static <T> T createInstance( Constructor<T> constructor ) {
+    Thread thread = Thread.currentThread();
+    ClassLoader original = thread.getContextClassLoader();
+    ClassLoader loader = constructor.getDeclaringClass().getClassLoader();
+    try {
+      if( original != loader ) {
+        thread.setContextClassLoader( loader );
+      }
+      return constructor.newInstance();
+    } catch( Exception exception ) {
+      String name = constructor.getDeclaringClass().getName();
+      throw new IllegalStateException( "Could no create instance of " + name, exception );
+    } finally {
+      if( original != loader ) {
+        thread.setContextClassLoader( original );
+      }
+    }
   }
 
   private InstanceCreator() {
@@ -10,16 +10,20 @@
  ******************************************************************************/
 package com.eclipsesource.tabris.internal.ui;
 
+import static com.eclipsesource.tabris.internal.Clauses.when;
 import static com.eclipsesource.tabris.internal.Clauses.whenNull;
 
 import java.io.InputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import com.eclipsesource.tabris.ui.ActionConfiguration;
+import com.eclipsesource.tabris.ui.ActionFactory;
 import com.eclipsesource.tabris.ui.Page;
+import com.eclipsesource.tabris.ui.PageFactory;
 import com.eclipsesource.tabris.ui.PageStyle;
 
 
@@ -29,9 +33,12 @@ public class PageDescriptor implements Serializable {
   private final boolean isTopLevelPage;
   private final Class<? extends Page> pageType;
   private final List<ActionDescriptor> actions;
+  private final List<String> successors;
   private final PageStyle[] style;
   private final String title;
   private final byte[] image;
+  private PageFactory pageFactory;
+  private boolean compiled;
 
   public PageDescriptor( String id,
                          Class<? extends Page> pageType,
@@ -41,20 +48,37 @@ public class PageDescriptor implements Serializable {
                          PageStyle... style )
   {
     this.actions = new ArrayList<ActionDescriptor>();
+    this.successors = new ArrayList<String>();
     this.id = id;
     this.title = title;
     this.pageType = pageType;
     this.isTopLevelPage = isTopLevelPage;
     this.image = ImageUtil.getBytes( image );
     this.style = style;
+    this.pageFactory = new DefaultInstanceFactory();
+  }
+
+  void compile() {
+    compiled = true;
+  }
+
+  private void verifyNotCompiled() {
+    when( compiled ).throwIllegalState( "Page " + id + " is compiled and can not be modified anymore." );
   }
 
   public void addAction( ActionConfiguration configuration ) {
+    verifyNotCompiled();
     whenNull( configuration ).throwIllegalArgument( "Action Configuration must not be null" );
     ActionDescriptor descriptor = configuration.getAdapter( ActionDescriptor.class );
     actions.add( descriptor );
   }
 
+  public void addSuccessor( String pageId ) {
+    verifyNotCompiled();
+    whenNull( pageId ).throwIllegalArgument( "Successor Page Id must not be null" );
+    successors.add( pageId );
+  }
+
   public String getId() {
     return id;
   }
@@ -67,12 +91,32 @@ public class PageDescriptor implements Serializable {
     return pageType;
   }
 
+  public PageFactory getPageFactory() {
+    return pageFactory;
+  }
+
+  public void setPageFactory( PageFactory pageFactory ) {
+    verifyNotCompiled();
+    this.pageFactory = pageFactory;
+  }
+
+  public void setActionFactory( ActionFactory actionFactory ) {
+    verifyNotCompiled();
+    for( ActionDescriptor action : actions ) {
+      action.setActionFactory( actionFactory );
+    }
+  }
+
   public String getTitle() {
     return title;
   }
 
   public List<ActionDescriptor> getActions() {
-    return actions;
+    return Collections.unmodifiableList( actions );
+  }
+
+  public List<String> getSuccessors() {
+    return Collections.unmodifiableList( successors );
   }
 
   public PageStyle[] getPageStyle() {
@@ -15,19 +15,24 @@ import static com.eclipsesource.tabris.internal.Clauses.whenNull;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
 import java.util.List;
 
+import com.eclipsesource.tabris.internal.ui.PageFlowSnapshot.Entry;
 import com.eclipsesource.tabris.internal.ui.rendering.PageRenderer;
 
 
 public class PageFlow implements Serializable {
 
   private final List<PageRenderer> renderers;
+  private final LinkedList<Entry> deferredEntries;
 
   public PageFlow( PageRenderer root ) {
     whenNull( root ).throwIllegalArgument( "Root must not be null" );
     renderers = new ArrayList<PageRenderer>();
     renderers.add( root );
+    deferredEntries = new LinkedList<Entry>();
   }
 
   public PageRenderer getCurrentRenderer() {
@@ -50,6 +55,29 @@ public class PageFlow implements Serializable {
     renderers.add( renderer );
   }
 
+  public void defer( Entry entry ) {
+    whenNull( entry ).throwIllegalArgument( "Entry must not be null" );
+    when( renderers.size() > 1 ).throwIllegalState( "Pages can only be deferred directly above the root page." );
+    deferredEntries.add( entry );
+  }
+
+  public Entry takeDeferredPrevious() {
+    if( renderers.size() == 2 && !deferredEntries.isEmpty() ) {
+      return deferredEntries.removeLast();
+    }
+    return null;
+  }
+
+  public void insertPrevious( PageRenderer renderer ) {
+    whenNull( renderer ).throwIllegalArgument( "Renderer must not be null" );
+    when( renderers.size() <= 1 ).throwIllegalState( "Can not insert a page below the root page." );
+    renderers.add( getIndexOfLastRenderer(), renderer );
+  }
+
+  public List<Entry> getDeferredEntries() {
+    return Collections.unmodifiableList( deferredEntries );
+  }
+
   public PageRenderer pop() {
     when( renderers.size() <= 1 ).throwIllegalState( "Can not remove root page." );
     return renderers.remove( getIndexOfLastRenderer() );
@@ -67,6 +95,20 @@ public class PageFlow implements Serializable {
       }
     }
     renderers.clear();
+    deferredEntries.clear();
+  }
+
+  public List<PageRenderer> getRenderersBeyond( int limit ) {
+    List<PageRenderer> result = new ArrayList<PageRenderer>();
+    if( limit > 0 ) {
+      for( int i = 0; i < renderers.size() - limit; i++ ) {
+        PageRenderer renderer = renderers.get( i );
+        if( !renderer.getDescriptor().isTopLevel() ) {
+          result.add( renderer );
+        }
+      }
+    }
+    return result;
   }
 
   public List<PageRenderer> getAllRenderers() {
@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal.ui;
+
+import static com.eclipsesource.tabris.internal.Clauses.whenNull;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.eclipsesource.tabris.internal.ui.rendering.PageRenderer;
+import com.eclipsesource.tabris.ui.PageData;
+
+
+public class PageFlowSnapshot implements Serializable {
+
+  private final List<Entry> entries;
+
+  public static PageFlowSnapshot create( PageFlow flow ) {
+    PageFlowSnapshot snapshot = new PageFlowSnapshot();
+    List<PageRenderer> renderers = flow.getAllRenderers();
+    snapshot.add( renderers.get( 0 ) );
+    for( Entry deferredEntry : flow.getDeferredEntries() ) {
+      snapshot.add( deferredEntry );
+    }
+    for( int i = 1; i < renderers.size(); i++ ) {
+      snapshot.add( renderers.get( i ) );
+    }
+    return snapshot;
+  }
+
+  public PageFlowSnapshot() {
+    entries = new ArrayList<Entry>();
+  }
+
+  private void add( PageRenderer renderer ) {
+    PageDescriptor descriptor = renderer.getDescriptor();
+    String title = renderer.getTitle();
+    String changedTitle = title != null && !title.equals( descriptor.getTitle() ) ? title : null;
+    add( new Entry( descriptor.getId(), changedTitle, renderer.getData() ) );
+  }
+
+  public void add( Entry entry ) {
+    whenNull( entry ).throwIllegalArgument( "Entry must not be null" );
+    entries.add( entry );
+  }
+
+  public List<Entry> getEntries() {
+    return Collections.unmodifiableList( entries );
+  }
+
+  public static class Entry implements Serializable {
+
+    private final String pageId;
+    private final String title;
+    private final PageData data;
+
+    public Entry( String pageId, String title, PageData data ) {
+      whenNull( pageId ).throwIllegalArgument( "PageId must not be null" );
+      whenNull( data ).throwIllegalArgument( "PageData must not be null" );
+      this.pageId = pageId;
+      this.title = title;
+      this.data = data;
+    }
+
+    public String getPageId() {
+      return pageId;
+    }
+
+    public String getTitle() {
+      return title;
+    }
+
+    public PageData getData() {
+      return data;
+    }
+  }
+
+}
@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal.ui;
+
+import static com.eclipsesource.tabris.internal.Clauses.whenNull;
+
+import java.io.IOException;
+import java.io.Serializable;
+
+import com.eclipsesource.tabris.ClientStore;
+import com.eclipsesource.tabris.ClientStoreCallback;
+import com.eclipsesource.tabris.internal.Base64;
+import com.eclipsesource.tabris.internal.SignedObjectSerializer;
+
+
+/*
+ * The client device sends the snapshot back with the first request of a new session, so snapshots are signed. When the
+ * mirror policy does not keep the snapshot on the server it is loaded asynchronously from the client.
+ */
+public class PageFlowSnapshotStore implements Serializable {
+
+  static final String KEY = "com.eclipsesource.tabris.ui.pageFlow";
+
+  private final ClientStore clientStore;
+  private final SignedObjectSerializer serializer;
+
+  public PageFlowSnapshotStore( ClientStore clientStore ) {
+    this( clientStore, new SignedObjectSerializer() );
+  }
+
+  PageFlowSnapshotStore( ClientStore clientStore, byte[] signingKey ) {
+    this( clientStore, new SignedObjectSerializer( signingKey ) );
+  }
+
+  private PageFlowSnapshotStore( ClientStore clientStore, SignedObjectSerializer serializer ) {
+    whenNull( clientStore ).throwIllegalArgument( "ClientStore must not be null" );
+    this.clientStore = clientStore;
+    this.serializer = serializer;
+  }
+
+  public void save( PageFlowSnapshot snapshot ) {
+    String value = encode( snapshot );
+    String storedValue = clientStore.get( KEY );
+    if( value == null ) {
+      if( storedValue != null ) {
+        clientStore.remove( KEY );
+      }
+    } else if( !value.equals( storedValue ) ) {
+      clientStore.add( KEY, value );
+    }
+  }
+
+  public void load( final LoadCallback callback ) {
+    whenNull( callback ).throwIllegalArgument( "Callback must not be null" );
+    clientStore.get( KEY, new ClientStoreCallback() {
+
+      @Override
+      public void valueReceived( String key, String value ) {
+        callback.snapshotLoaded( value != null ? decode( value ) : null );
+      }
+    } );
+  }
+
+  String encode( PageFlowSnapshot snapshot ) {
+    try {
+      return Base64.encodeBytes( serializer.serialize( snapshot ), Base64.DONT_BREAK_LINES );
+    } catch( IOException notSerializable ) {
+      return null;
+    }
+  }
+
+  public interface LoadCallback extends Serializable {
+
+    void snapshotLoaded( PageFlowSnapshot snapshot );
+  }
+
+  PageFlowSnapshot decode( String value ) {
+    try {
+      byte[] encoded = value.getBytes( "US-ASCII" );
+      Object result = serializer.deserialize( Base64.decode( encoded, 0, encoded.length, Base64.NO_OPTIONS ) );
+      return result instanceof PageFlowSnapshot ? ( PageFlowSnapshot )result : null;
+    } catch( IOException invalidSnapshot ) {
+      return null;
+    }
+  }
+
+}
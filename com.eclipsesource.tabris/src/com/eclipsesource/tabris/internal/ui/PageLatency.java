@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal.ui;
+
+import static com.eclipsesource.tabris.internal.Clauses.when;
+import static com.eclipsesource.tabris.internal.Clauses.whenNull;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.eclipsesource.tabris.ui.TransitionMetrics;
+import com.eclipsesource.tabris.ui.TransitionPhase;
+
+
+public class PageLatency implements PageLatencyMBean, Serializable {
+
+  static final int SAMPLE_SIZE = 256;
+  private static final double NANOS_PER_MILLI = 1000000D;
+
+  private final Map<String, Samples> samples;
+
+  public PageLatency() {
+    samples = new HashMap<String, Samples>();
+  }
+
+  public synchronized void record( TransitionMetrics metrics ) {
+    whenNull( metrics ).throwIllegalArgument( "Metrics must not be null" );
+    Samples pageSamples = samples.get( metrics.getToPageId() );
+    if( pageSamples == null ) {
+      pageSamples = new Samples();
+      samples.put( metrics.getToPageId(), pageSamples );
+    }
+    pageSamples.add( metrics );
+  }
+
+  @Override
+  public synchronized String[] getPageIds() {
+    String[] result = samples.keySet().toArray( new String[ samples.size() ] );
+    Arrays.sort( result );
+    return result;
+  }
+
+  @Override
+  public synchronized long getTransitionCount( String pageId ) {
+    Samples pageSamples = samples.get( pageId );
+    return pageSamples != null ? pageSamples.count : 0;
+  }
+
+  @Override
+  public synchronized double getPercentile( String pageId, double percentile ) {
+    verifyPercentile( percentile );
+    Samples pageSamples = samples.get( pageId );
+    return pageSamples != null ? toMillis( pageSamples.getTotalPercentile( percentile ) ) : 0;
+  }
+
+  @Override
+  public synchronized double getPhasePercentile( String pageId, String phase, double percentile ) {
+    verifyPercentile( percentile );
+    TransitionPhase transitionPhase = TransitionPhase.valueOf( phase );
+    Samples pageSamples = samples.get( pageId );
+    return pageSamples != null ? toMillis( pageSamples.getPhasePercentile( transitionPhase, percentile ) ) : 0;
+  }
+
+  private void verifyPercentile( double percentile ) {
+    when( percentile < 0 || percentile > 100 ).throwIllegalArgument( "Percentile must be between 0 and 100" );
+  }
+
+  private static double toMillis( long nanos ) {
+    return nanos / NANOS_PER_MILLI;
+  }
+
+  @Override
+  public synchronized void reset() {
+    samples.clear();
+  }
+
+  private static class Samples implements Serializable {
+
+    private final TransitionMetrics[] metrics;
+    private long count;
+
+    Samples() {
+      metrics = new TransitionMetrics[ SAMPLE_SIZE ];
+    }
+
+    void add( TransitionMetrics transitionMetrics ) {
+      metrics[ ( int )( count % SAMPLE_SIZE ) ] = transitionMetrics;
+      count++;
+    }
+
+    long getTotalPercentile( double percentile ) {
+      long[] durations = new long[ getSize() ];
+      for( int i = 0; i < durations.length; i++ ) {
+        durations[ i ] = metrics[ i ].getTotalDuration();
+      }
+      return getPercentile( durations, percentile );
+    }
+
+    long getPhasePercentile( TransitionPhase phase, double percentile ) {
+      long[] durations = new long[ getSize() ];
+      for( int i = 0; i < durations.length; i++ ) {
+        durations[ i ] = metrics[ i ].getDuration( phase );
+      }
+      return getPercentile( durations, percentile );
+    }
+
+    private int getSize() {
+      return ( int )Math.min( count, SAMPLE_SIZE );
+    }
+
+    private static long getPercentile( long[] durations, double percentile ) {
+      Arrays.sort( durations );
+      int rank = ( int )Math.ceil( percentile / 100 * durations.length );
+      return durations[ Math.max( rank - 1, 0 ) ];
+    }
+  }
+
+}
@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal.ui;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.eclipsesource.tabris.internal.ui.rendering.PageRenderer;
+
+
+public class PrerenderedPages implements Serializable {
+
+  private final Map<PageDescriptor, PageRenderer> renderers;
+  private final int limit;
+
+  public PrerenderedPages( int limit ) {
+    this.limit = limit;
+    this.renderers = new LinkedHashMap<PageDescriptor, PageRenderer>();
+  }
+
+  public boolean isEnabled() {
+    return limit > 0;
+  }
+
+  public boolean contains( PageDescriptor descriptor ) {
+    return renderers.containsKey( descriptor );
+  }
+
+  public PageRenderer take( PageDescriptor descriptor ) {
+    return renderers.remove( descriptor );
+  }
+
+  public List<PageRenderer> put( PageDescriptor descriptor, PageRenderer renderer ) {
+    renderers.put( descriptor, renderer );
+    List<PageRenderer> evicted = new ArrayList<PageRenderer>();
+    Iterator<PageRenderer> iterator = renderers.values().iterator();
+    while( renderers.size() > limit && iterator.hasNext() ) {
+      evicted.add( iterator.next() );
+      iterator.remove();
+    }
+    return evicted;
+  }
+
+  public List<PageRenderer> retain( List<PageDescriptor> descriptors ) {
+    List<PageRenderer> stale = new ArrayList<PageRenderer>();
+    Iterator<Entry<PageDescriptor, PageRenderer>> iterator = renderers.entrySet().iterator();
+    while( iterator.hasNext() ) {
+      Entry<PageDescriptor, PageRenderer> entry = iterator.next();
+      if( !descriptors.contains( entry.getKey() ) ) {
+        stale.add( entry.getValue() );
+        iterator.remove();
+      }
+    }
+    return stale;
+  }
+
+  public List<PageRenderer> clear() {
+    List<PageRenderer> result = new ArrayList<PageRenderer>( renderers.values() );
+    renderers.clear();
+    return result;
+  }
+
+  public int size() {
+    return renderers.size();
+  }
+
+}
@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal.ui;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.eclipse.rap.rwt.SingletonUtil;
+
+
+public class ProposalCache implements Serializable {
+
+  static final int MAX_QUERIES = 64;
+
+  private final Map<String, Map<String, List<String>>> proposals;
+
+  public static ProposalCache getInstance() {
+    return SingletonUtil.getSessionInstance( ProposalCache.class );
+  }
+
+  public ProposalCache() {
+    proposals = new HashMap<String, Map<String, List<String>>>();
+  }
+
+  public void put( String actionId, String query, List<String> queryProposals ) {
+    getActionProposals( actionId ).put( query, queryProposals );
+  }
+
+  public String findLongestPrefix( String actionId, String query ) {
+    String result = null;
+    Map<String, List<String>> actionProposals = proposals.get( actionId );
+    if( actionProposals != null ) {
+      for( String cachedQuery : actionProposals.keySet() ) {
+        if( query.startsWith( cachedQuery ) && ( result == null || cachedQuery.length() > result.length() ) ) {
+          result = cachedQuery;
+        }
+      }
+    }
+    return result;
+  }
+
+  public List<String> get( String actionId, String query ) {
+    Map<String, List<String>> actionProposals = proposals.get( actionId );
+    if( actionProposals != null ) {
+      return actionProposals.get( query );
+    }
+    return null;
+  }
+
+  public void clear( String actionId ) {
+    proposals.remove( actionId );
+  }
+
+  private Map<String, List<String>> getActionProposals( String actionId ) {
+    Map<String, List<String>> result = proposals.get( actionId );
+    if( result == null ) {
+      result = new QueryMap();
+      proposals.put( actionId, result );
+    }
+    return result;
+  }
+
+  private static class QueryMap extends LinkedHashMap<String, List<String>> {
+
+    QueryMap() {
+      super( 16, 0.75F, true );
+    }
+
+    @Override
+    protected boolean removeEldestEntry( Entry<String, List<String>> eldest ) {
+      return size() > MAX_QUERIES;
+    }
+  }
+
+}
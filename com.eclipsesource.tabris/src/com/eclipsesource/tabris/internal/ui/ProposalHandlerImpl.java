@@ -14,6 +14,7 @@ import static com.eclipsesource.tabris.internal.Clauses.whenNull;
 import static com.eclipsesource.tabris.internal.Constants.PROPERTY_PROPOSALS;
 import static com.eclipsesource.tabris.internal.JsonUtil.createJsonArray;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.eclipse.rap.rwt.remote.RemoteObject;
@@ -24,6 +25,7 @@ import com.eclipsesource.tabris.ui.action.ProposalHandler;
 public class ProposalHandlerImpl implements ProposalHandler {
 
   private final RemoteObject remoteObject;
+  private List<String> sentProposals;
 
   public ProposalHandlerImpl( RemoteObject remoteObject ) {
     this.remoteObject = remoteObject;
@@ -32,13 +34,15 @@ public class ProposalHandlerImpl implements ProposalHandler {
   @Override
   public void setProposals( List<String> proposals ) {
     whenNull( proposals ).throwIllegalArgument( "Search Proposals must not be null" );
-    String[] proposalsToSend;
-    if( proposals != null ) {
-      proposalsToSend = new String[ proposals.size() ];
-      proposals.toArray( proposalsToSend );
-    } else {
-      proposalsToSend = new String[ 0 ];
+    if( !proposals.equals( sentProposals ) ) {
+      sendProposals( proposals );
+      sentProposals = new ArrayList<String>( proposals );
     }
+  }
+
+  private void sendProposals( List<String> proposals ) {
+    String[] proposalsToSend = new String[ proposals.size() ];
+    proposals.toArray( proposalsToSend );
     remoteObject.set( PROPERTY_PROPOSALS, createJsonArray( proposalsToSend ) );
   }
 
@@ -0,0 +1,169 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal.ui;
+
+import static com.eclipsesource.tabris.internal.Clauses.whenNull;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.swt.widgets.Display;
+
+import com.eclipsesource.tabris.ui.action.ProposalHandler;
+import com.eclipsesource.tabris.ui.action.SearchAction;
+
+
+public class ProposalPipeline implements Serializable {
+
+  private final String actionId;
+  private final Display display;
+  private final ProposalHandlerImpl proposalHandler;
+  private final ProposalCache cache;
+  private SearchAction action;
+  private PendingModification pendingModification;
+  private int generation;
+
+  public ProposalPipeline( String actionId, Display display, ProposalHandlerImpl proposalHandler ) {
+    this.actionId = actionId;
+    this.display = display;
+    this.proposalHandler = proposalHandler;
+    this.cache = ProposalCache.getInstance();
+  }
+
+  public void modified( SearchAction action, String query ) {
+    this.action = action;
+    generation++;
+    cancelPendingModification();
+    List<String> cachedProposals = getCachedProposals( query );
+    if( cachedProposals != null ) {
+      proposalHandler.setProposals( cachedProposals );
+    } else if( action.getModifyDelay() > 0 ) {
+      pendingModification = new PendingModification( query, generation );
+      display.timerExec( action.getModifyDelay(), pendingModification );
+    } else {
+      dispatch( query, generation );
+    }
+  }
+
+  private List<String> getCachedProposals( String query ) {
+    if( action.isIncremental() ) {
+      String prefix = cache.findLongestPrefix( actionId, query );
+      if( prefix != null ) {
+        return filter( query, prefix );
+      }
+    }
+    return null;
+  }
+
+  private List<String> filter( String query, String prefix ) {
+    List<String> cachedProposals = cache.get( actionId, prefix );
+    if( prefix.equals( query ) ) {
+      return cachedProposals;
+    }
+    List<String> result = new ArrayList<String>();
+    for( String proposal : cachedProposals ) {
+      if( action.matches( query, proposal ) ) {
+        result.add( proposal );
+      }
+    }
+    cache.put( actionId, query, result );
+    return result;
+  }
+
+  private void dispatch( String query, int queryGeneration ) {
+    pendingModification = null;
+    action.modified( query, new QueryProposalHandler( query, queryGeneration ) );
+  }
+
+  void deliver( String query, int queryGeneration, List<String> proposals ) {
+    if( action.isIncremental() ) {
+      cache.put( actionId, query, new ArrayList<String>( proposals ) );
+    }
+    if( queryGeneration == generation ) {
+      proposalHandler.setProposals( proposals );
+    }
+  }
+
+  public void cancel() {
+    generation++;
+    cancelPendingModification();
+  }
+
+  public void clearCache() {
+    cache.clear( actionId );
+  }
+
+  private void cancelPendingModification() {
+    if( pendingModification != null ) {
+      display.timerExec( -1, pendingModification );
+      pendingModification = null;
+    }
+  }
+
+  private class PendingModification implements Runnable, Serializable {
+
+    private final String query;
+    private final int queryGeneration;
+
+    PendingModification( String query, int queryGeneration ) {
+      this.query = query;
+      this.queryGeneration = queryGeneration;
+    }
+
+    @Override
+    public void run() {
+      if( queryGeneration == generation ) {
+        dispatch( query, queryGeneration );
+      }
+    }
+  }
+
+  private class QueryProposalHandler implements ProposalHandler, Serializable {
+
+    private final String query;
+    private final int queryGeneration;
+
+    QueryProposalHandler( String query, int queryGeneration ) {
+      this.query = query;
+      this.queryGeneration = queryGeneration;
+    }
+
+    @Override
+    public void setProposals( List<String> proposals ) {
+      whenNull( proposals ).throwIllegalArgument( "Search Proposals must not be null" );
+      if( display.getThread() == Thread.currentThread() ) {
+        deliver( query, queryGeneration, proposals );
+      } else if( !display.isDisposed() ) {
+        display.asyncExec( new Delivery( query, queryGeneration, new ArrayList<String>( proposals ) ) );
+      }
+    }
+  }
+
+  private class Delivery implements Runnable, Serializable {
+
+    private final String query;
+    private final int queryGeneration;
+    private final List<String> proposals;
+
+    Delivery( String query, int queryGeneration, List<String> proposals ) {
+      this.query = query;
+      this.queryGeneration = queryGeneration;
+      this.proposals = proposals;
+    }
+
+    @Override
+    public void run() {
+      deliver( query, queryGeneration, proposals );
+    }
+  }
+
+}
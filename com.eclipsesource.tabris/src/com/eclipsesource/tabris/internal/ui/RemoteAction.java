@@ -17,16 +17,14 @@ import static com.eclipsesource.tabris.internal.Constants.PROPERTY_PARENT;
 import static com.eclipsesource.tabris.internal.Constants.PROPERTY_TITLE;
 import static com.eclipsesource.tabris.internal.Constants.PROPERTY_VISIBILITY;
 
-import java.io.ByteArrayInputStream;
+import java.util.Arrays;
 
 import org.eclipse.rap.json.JsonArray;
 import org.eclipse.rap.json.JsonObject;
+import org.eclipse.rap.json.JsonValue;
 import org.eclipse.rap.rwt.RWT;
 import org.eclipse.rap.rwt.remote.AbstractOperationHandler;
 import org.eclipse.rap.rwt.remote.RemoteObject;
-import org.eclipse.swt.graphics.Image;
-import org.eclipse.swt.graphics.Rectangle;
-import org.eclipse.swt.internal.graphics.ImageFactory;
 import org.eclipse.swt.widgets.Composite;
 
 import com.eclipsesource.tabris.internal.ui.rendering.ActionRenderer;
@@ -37,12 +35,16 @@ import com.eclipsesource.tabris.ui.UI;
 public class RemoteAction extends AbstractOperationHandler implements ActionRenderer {
 
   private final RemoteObject remoteObject;
-  private final ActionDescriptor descriptor;
   private final UI ui;
+  private ActionDescriptor descriptor;
+  private boolean enabled;
+  private boolean visible;
 
   public RemoteAction( UI ui, ActionDescriptor descriptor, String parentId ) {
     this.ui = ui;
     this.descriptor = descriptor;
+    this.enabled = true;
+    this.visible = true;
     this.remoteObject = RWT.getUISession().getConnection().createRemoteObject( getType() );
     this.remoteObject.setHandler( this );
     setAttributes( parentId );
@@ -61,24 +63,12 @@ public class RemoteAction extends AbstractOperationHandler implements ActionRend
   }
 
   private void setImage() {
-    Image image = createImage( descriptor.getImage() );
-    if( image != null ) {
-      Rectangle bounds = image.getBounds();
-      JsonArray imageData = new JsonArray();
-      imageData.add( ImageFactory.getImagePath( image ) );
-      imageData.add( bounds.width );
-      imageData.add( bounds.height );
+    JsonArray imageData = ImageRegistry.getInstance().getImageData( ui.getDisplay(), descriptor.getImage() );
+    if( imageData != null ) {
       remoteObject.set( PROPERTY_IMAGE, imageData );
     }
   }
 
-  private Image createImage( byte[] bytes ) {
-    if( bytes != null ) {
-      return new Image( ui.getDisplay(), new ByteArrayInputStream( bytes ) );
-    }
-    return null;
-  }
-
   private void setDefaultEnabled() {
     boolean enabled = descriptor.isEnabled();
     if( !enabled ) {
@@ -95,14 +85,46 @@ public class RemoteAction extends AbstractOperationHandler implements ActionRend
 
   @Override
   public void setEnabled( boolean enabled ) {
+    this.enabled = enabled;
     remoteObject.set( PROPERTY_ENABLED, enabled );
   }
 
   @Override
   public void setVisible( boolean visible ) {
+    this.visible = visible;
     remoteObject.set( PROPERTY_VISIBILITY, visible );
   }
 
+  @Override
+  public void update( ActionDescriptor newDescriptor ) {
+    ActionDescriptor oldDescriptor = descriptor;
+    descriptor = newDescriptor;
+    if( !isEqual( oldDescriptor.getTitle(), newDescriptor.getTitle() ) ) {
+      remoteObject.set( PROPERTY_TITLE, newDescriptor.getTitle() );
+    }
+    if( !Arrays.equals( oldDescriptor.getImage(), newDescriptor.getImage() ) ) {
+      updateImage();
+    }
+    if( enabled != newDescriptor.isEnabled() ) {
+      setEnabled( newDescriptor.isEnabled() );
+    }
+    if( visible != newDescriptor.isVisible() ) {
+      setVisible( newDescriptor.isVisible() );
+    }
+  }
+
+  private void updateImage() {
+    if( descriptor.getImage() != null ) {
+      setImage();
+    } else {
+      remoteObject.set( PROPERTY_IMAGE, JsonValue.NULL );
+    }
+  }
+
+  private static boolean isEqual( Object object1, Object object2 ) {
+    return object1 == null ? object2 == null : object1.equals( object2 );
+  }
+
   @Override
   public void handleNotify( String event, JsonObject properties ) {
     if( event.equals( EVENT_SELECTION ) ) {
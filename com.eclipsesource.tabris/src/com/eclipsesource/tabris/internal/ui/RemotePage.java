@@ -10,6 +10,7 @@
  ******************************************************************************/
 package com.eclipsesource.tabris.internal.ui;
 
+import static com.eclipsesource.tabris.internal.Clauses.whenNull;
 import static com.eclipsesource.tabris.internal.Constants.PROPERTY_CONTROL;
 import static com.eclipsesource.tabris.internal.Constants.PROPERTY_IMAGE;
 import static com.eclipsesource.tabris.internal.Constants.PROPERTY_PARENT;
@@ -18,19 +19,16 @@ import static com.eclipsesource.tabris.internal.Constants.PROPERTY_TITLE;
 import static com.eclipsesource.tabris.internal.Constants.PROPERTY_TOP_LEVEL;
 import static com.eclipsesource.tabris.internal.JsonUtil.createJsonArray;
 
-import java.io.ByteArrayInputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.eclipse.rap.json.JsonArray;
+import org.eclipse.rap.json.JsonValue;
 import org.eclipse.rap.rwt.RWT;
 import org.eclipse.rap.rwt.internal.remote.RemoteObjectImpl;
 import org.eclipse.rap.rwt.lifecycle.WidgetUtil;
 import org.eclipse.swt.SWT;
-import org.eclipse.swt.graphics.Image;
-import org.eclipse.swt.graphics.Rectangle;
-import org.eclipse.swt.internal.graphics.ImageFactory;
 import org.eclipse.swt.layout.FillLayout;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
@@ -41,6 +39,7 @@ import com.eclipsesource.tabris.internal.ui.rendering.RendererFactory;
 import com.eclipsesource.tabris.ui.Page;
 import com.eclipsesource.tabris.ui.PageData;
 import com.eclipsesource.tabris.ui.PageStyle;
+import com.eclipsesource.tabris.ui.StatefulPage;
 import com.eclipsesource.tabris.ui.UI;
 
 
@@ -53,8 +52,13 @@ public class RemotePage implements Serializable, PageRenderer {
   private final UI ui;
   private final String parentId;
   private final PageData data;
-  private final Page page;
+  private Page page;
+  private String title;
   private Control control;
+  private boolean contentCreated;
+  private boolean trimmed;
+  private boolean stateSaved;
+  private Serializable state;
 
   public RemotePage( UI ui, PageDescriptor descriptor, String parentId, PageData data ) {
     this.ui = ui;
@@ -62,12 +66,18 @@ public class RemotePage implements Serializable, PageRenderer {
     this.data = data;
     this.remoteObject = ( RemoteObjectImpl )RWT.getUISession().getConnection().createRemoteObject( "tabris.Page" );
     this.descriptor = descriptor;
-    this.page = InstanceCreator.createInstance( descriptor.getPageType() );
+    this.page = createPage();
     this.remoteActions = new ArrayList<ActionRenderer>();
     setTitle( descriptor.getTitle() );
     setAttributes();
   }
 
+  private Page createPage() {
+    Page result = descriptor.getPageFactory().createPage( descriptor.getPageType() );
+    whenNull( result ).throwIllegalState( "PageFactory created no page for " + descriptor.getPageType().getName() );
+    return result;
+  }
+
   @Override
   public String getId() {
     return remoteObject.getId();
@@ -93,39 +103,60 @@ public class RemotePage implements Serializable, PageRenderer {
   }
 
   private void setImage() {
-    Image image = createImage( descriptor.getImage() );
-    if( image != null ) {
-      Rectangle bounds = image.getBounds();
-      JsonArray imageData = new JsonArray();
-      imageData.add( ImageFactory.getImagePath( image ) );
-      imageData.add( bounds.width );
-      imageData.add( bounds.height );
+    JsonArray imageData = ImageRegistry.getInstance().getImageData( ui.getDisplay(), descriptor.getImage() );
+    if( imageData != null ) {
       remoteObject.set( PROPERTY_IMAGE, imageData );
     }
   }
 
-  private Image createImage( byte[] bytes ) {
-    if( bytes != null ) {
-      return new Image( ui.getDisplay(), new ByteArrayInputStream( bytes ) );
-    }
-    return null;
-  }
-
   @Override
-  public void createActions( RendererFactory rendererFactory, Composite uiParent ) {
+  public void createActions( RendererFactory rendererFactory,
+                             Composite uiParent,
+                             List<ActionRenderer> reusableActions )
+  {
     List<ActionDescriptor> actions = descriptor.getActions();
+    // reused actions keep their position on the client, so only a common prefix can be reused
+    boolean reusing = true;
     for( ActionDescriptor actionDescriptor : actions ) {
-      ActionRenderer renderer = rendererFactory.createActionRenderer( ui, actionDescriptor, parentId );
-      remoteActions.add( renderer );
-      renderer.createUi( uiParent );
+      ActionRenderer renderer = null;
+      if( reusing ) {
+        renderer = takeReusableAction( reusableActions, actionDescriptor );
+        reusing = renderer != null;
+      }
+      if( renderer != null ) {
+        renderer.update( actionDescriptor );
+        remoteActions.add( renderer );
+      } else {
+        renderer = rendererFactory.createActionRenderer( ui, actionDescriptor, parentId );
+        remoteActions.add( renderer );
+        renderer.createUi( uiParent );
+      }
     }
   }
 
+  private ActionRenderer takeReusableAction( List<ActionRenderer> reusableActions, ActionDescriptor descriptor ) {
+    if( !reusableActions.isEmpty() && canReuse( reusableActions.get( 0 ).getDescriptor(), descriptor ) ) {
+      return reusableActions.remove( 0 );
+    }
+    return null;
+  }
+
+  private boolean canReuse( ActionDescriptor reusableDescriptor, ActionDescriptor descriptor ) {
+    boolean sameId = reusableDescriptor.getId().equals( descriptor.getId() );
+    return sameId && reusableDescriptor.getActionType() == descriptor.getActionType();
+  }
+
   @Override
   public void setTitle( String title ) {
+    this.title = title;
     remoteObject.set( PROPERTY_TITLE, title );
   }
 
+  @Override
+  public String getTitle() {
+    return title;
+  }
+
   @Override
   public List<ActionRenderer> getActionRenderers() {
     return remoteActions;
@@ -138,20 +169,77 @@ public class RemotePage implements Serializable, PageRenderer {
 
   @Override
   public Page getPage() {
+    if( page == null ) {
+      // trimmed pages are created again when they are needed
+      page = createPage();
+      trimmed = false;
+    }
     return page;
   }
 
   @Override
-  public void createControl( Composite parent ) {
+  public void createPlaceholder( Composite parent ) {
     if( control == null ) {
       Composite container = new Composite( parent, SWT.NONE );
       container.setLayout( new FillLayout() );
-      page.createContent( container, ui );
       control = container;
       remoteObject.set( PROPERTY_CONTROL, WidgetUtil.getId( control ) );
     }
   }
 
+  @Override
+  public void createControl( Composite parent ) {
+    if( !contentCreated ) {
+      createPlaceholder( parent );
+      getPage().createContent( ( Composite )control, ui );
+      contentCreated = true;
+      restoreState();
+    }
+  }
+
+  @Override
+  public boolean isContentCreated() {
+    return contentCreated;
+  }
+
+  private void restoreState() {
+    if( stateSaved ) {
+      if( state != null && page instanceof StatefulPage ) {
+        ( ( StatefulPage )page ).restoreState( state );
+      }
+      state = null;
+      stateSaved = false;
+    }
+  }
+
+  @Override
+  public void trimControl() {
+    if( control != null ) {
+      if( contentCreated ) {
+        saveState();
+        page.destroy();
+      }
+      control.dispose();
+      control = null;
+      remoteObject.set( PROPERTY_CONTROL, JsonValue.NULL );
+      contentCreated = false;
+      page = null;
+      trimmed = true;
+    }
+  }
+
+  private void saveState() {
+    if( page instanceof StatefulPage ) {
+      state = ( ( StatefulPage )page ).saveState();
+    }
+    stateSaved = true;
+  }
+
+  @Override
+  public boolean isTrimmed() {
+    return trimmed;
+  }
+
   @Override
   public Control getControl() {
     return control;
@@ -164,11 +252,22 @@ public class RemotePage implements Serializable, PageRenderer {
 
   @Override
   public void destroy() {
-    page.destroy();
-    control.dispose();
+    if( control != null ) {
+      if( contentCreated ) {
+        page.destroy();
+      }
+      control.dispose();
+    }
     remoteObject.destroy();
   }
 
+  @Override
+  public List<ActionRenderer> releaseActions() {
+    List<ActionRenderer> result = new ArrayList<ActionRenderer>( remoteActions );
+    remoteActions.clear();
+    return result;
+  }
+
   @Override
   public void destroyActions() {
     for( ActionRenderer action : remoteActions ) {
@@ -17,7 +17,6 @@ import static com.eclipsesource.tabris.internal.Constants.METHOD_DEACTIVATE;
 import static com.eclipsesource.tabris.internal.Constants.PROPERTY_QUERY;
 
 import org.eclipse.rap.json.JsonObject;
-import org.eclipse.rap.rwt.service.ServerPushSession;
 
 import com.eclipsesource.tabris.ui.Action;
 import com.eclipsesource.tabris.ui.UI;
@@ -26,20 +25,44 @@ import com.eclipsesource.tabris.ui.action.SearchAction;
 
 public class RemoteSearchAction extends RemoteAction {
 
-  private ServerPushSession pushSession;
+  private final ProposalPipeline proposalPipeline;
+  private boolean pushAcquired;
 
   public RemoteSearchAction( UI ui, ActionDescriptor descriptor, String parentId ) {
     super( ui, descriptor, parentId );
+    ProposalHandlerImpl proposalHandler = new ProposalHandlerImpl( getRemoteObject() );
+    proposalPipeline = new ProposalPipeline( descriptor.getId(), ui.getDisplay(), proposalHandler );
     setRemoteObject( descriptor );
   }
 
   private void setRemoteObject( ActionDescriptor descriptor ) {
+    RemoteActionHolder remoteObjectHolder = getRemoteActionHolder( descriptor );
+    if( remoteObjectHolder != null ) {
+      remoteObjectHolder.setRemoteAction( this );
+    }
+  }
+
+  private void unsetRemoteObject( ActionDescriptor descriptor ) {
+    RemoteActionHolder remoteObjectHolder = getRemoteActionHolder( descriptor );
+    // the holder may already be bound to another renderer of the same action
+    if( remoteObjectHolder != null && remoteObjectHolder.getRemoteAction() == this ) {
+      remoteObjectHolder.setRemoteAction( null );
+    }
+  }
+
+  private RemoteActionHolder getRemoteActionHolder( ActionDescriptor descriptor ) {
     Action action = descriptor.getAction();
     if( action instanceof SearchAction ) {
-      SearchAction searchAction = ( SearchAction )action;
-      RemoteActionHolder remoteObjectHolder = searchAction.getAdapter( RemoteActionHolder.class );
-      remoteObjectHolder.setRemoteAction( this );
+      return ( ( SearchAction )action ).getAdapter( RemoteActionHolder.class );
     }
+    return null;
+  }
+
+  @Override
+  public void update( ActionDescriptor descriptor ) {
+    unsetRemoteObject( getDescriptor() );
+    super.update( descriptor );
+    setRemoteObject( descriptor );
   }
 
   @Override
@@ -52,9 +75,11 @@ public class RemoteSearchAction extends RemoteAction {
     super.handleNotify( event, properties );
     SearchAction action = ( SearchAction )getDescriptor().getAction();
     if( event.equals( EVENT_SEARCH ) ) {
+      // cached proposals are only valid while the user types, a search may change the underlying data
+      proposalPipeline.clearCache();
       action.search( properties.get( PROPERTY_QUERY ).asString() );
     } else if( event.equals( EVENT_MODIFY ) ) {
-      action.modified( properties.get( PROPERTY_QUERY ).asString(), new ProposalHandlerImpl( getRemoteObject() ) );
+      proposalPipeline.modified( action, properties.get( PROPERTY_QUERY ).asString() );
     }
   }
 
@@ -63,29 +88,33 @@ public class RemoteSearchAction extends RemoteAction {
     if( method.equals( METHOD_ACTIVATE ) ) {
       startPush();
     } else if( method.equals( METHOD_DEACTIVATE ) ) {
+      proposalPipeline.cancel();
+      proposalPipeline.clearCache();
       stopPush();
     }
   }
 
+  @Override
+  public void destroy() {
+    proposalPipeline.cancel();
+    proposalPipeline.clearCache();
+    stopPush();
+    unsetRemoteObject( getDescriptor() );
+    super.destroy();
+  }
+
   private void startPush() {
-    getUI().getDisplay().syncExec( new Runnable() {
-
-      @Override
-      public void run() {
-        pushSession = new ServerPushSession();
-        pushSession.start();
-      }
-    } );
+    if( !pushAcquired ) {
+      SharedServerPush.getInstance().acquire();
+      pushAcquired = true;
+    }
   }
 
   private void stopPush() {
-    getUI().getDisplay().syncExec( new Runnable() {
-
-      @Override
-      public void run() {
-        pushSession.stop();
-      }
-    } );
+    if( pushAcquired ) {
+      SharedServerPush.getInstance().release();
+      pushAcquired = false;
+    }
   }
 
 }
@@ -0,0 +1,52 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal.ui;
+
+import java.io.Serializable;
+
+import org.eclipse.rap.rwt.SingletonUtil;
+import org.eclipse.rap.rwt.service.ServerPushSession;
+
+
+public class SharedServerPush implements Serializable {
+
+  private final ServerPushSession pushSession;
+  private int references;
+
+  public static SharedServerPush getInstance() {
+    return SingletonUtil.getSessionInstance( SharedServerPush.class );
+  }
+
+  public SharedServerPush() {
+    pushSession = new ServerPushSession();
+  }
+
+  public void acquire() {
+    if( references == 0 ) {
+      pushSession.start();
+    }
+    references++;
+  }
+
+  public void release() {
+    if( references > 0 ) {
+      references--;
+      if( references == 0 ) {
+        pushSession.stop();
+      }
+    }
+  }
+
+  public boolean isActive() {
+    return references > 0;
+  }
+
+}
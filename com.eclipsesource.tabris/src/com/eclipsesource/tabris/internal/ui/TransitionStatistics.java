@@ -0,0 +1,66 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal.ui;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+
+public class TransitionStatistics implements Serializable {
+
+  static final int MIN_TRANSITIONS = 2;
+
+  private final Map<String, Map<String, Integer>> transitions;
+
+  public TransitionStatistics() {
+    transitions = new HashMap<String, Map<String, Integer>>();
+  }
+
+  public void record( String fromPageId, String toPageId ) {
+    Map<String, Integer> counts = transitions.get( fromPageId );
+    if( counts == null ) {
+      counts = new HashMap<String, Integer>();
+      transitions.put( fromPageId, counts );
+    }
+    Integer count = counts.get( toPageId );
+    counts.put( toPageId, Integer.valueOf( count == null ? 1 : count.intValue() + 1 ) );
+  }
+
+  public List<String> getLikelySuccessors( String pageId, int maximum ) {
+    List<String> result = new ArrayList<String>();
+    Map<String, Integer> counts = transitions.get( pageId );
+    if( counts != null ) {
+      List<Entry<String, Integer>> entries = new ArrayList<Entry<String, Integer>>( counts.entrySet() );
+      Collections.sort( entries, new CountComparator() );
+      for( Entry<String, Integer> entry : entries ) {
+        if( result.size() < maximum && entry.getValue().intValue() >= MIN_TRANSITIONS ) {
+          result.add( entry.getKey() );
+        }
+      }
+    }
+    return result;
+  }
+
+  private static class CountComparator implements Comparator<Entry<String, Integer>>, Serializable {
+
+    @Override
+    public int compare( Entry<String, Integer> entry1, Entry<String, Integer> entry2 ) {
+      return entry2.getValue().compareTo( entry1.getValue() );
+    }
+  }
+
+}
@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.internal.ui;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import com.eclipsesource.tabris.ui.TransitionMetrics;
+import com.eclipsesource.tabris.ui.TransitionPhase;
+
+
+public class TransitionTimer {
+
+  interface Clock {
+    long nanoTime();
+  }
+
+  private static final Clock SYSTEM_CLOCK = new Clock() {
+
+    @Override
+    public long nanoTime() {
+      return System.nanoTime();
+    }
+  };
+
+  private final Map<TransitionPhase, Long> durations;
+  private final Clock clock;
+  private long checkpoint;
+
+  public TransitionTimer() {
+    this( SYSTEM_CLOCK );
+  }
+
+  TransitionTimer( Clock clock ) {
+    this.clock = clock;
+    durations = new EnumMap<TransitionPhase, Long>( TransitionPhase.class );
+    checkpoint = clock.nanoTime();
+  }
+
+  public void measure( TransitionPhase phase ) {
+    long now = clock.nanoTime();
+    Long duration = durations.get( phase );
+    long previous = duration != null ? duration.longValue() : 0;
+    durations.put( phase, Long.valueOf( previous + now - checkpoint ) );
+    checkpoint = now;
+  }
+
+  public void skip() {
+    checkpoint = clock.nanoTime();
+  }
+
+  public TransitionMetrics createMetrics( String fromPageId, String toPageId ) {
+    return new TransitionMetrics( fromPageId, toPageId, durations );
+  }
+
+}
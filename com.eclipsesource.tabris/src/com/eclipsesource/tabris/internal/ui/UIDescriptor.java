@@ -10,73 +10,122 @@
  ******************************************************************************/
 package com.eclipsesource.tabris.internal.ui;
 
+import static com.eclipsesource.tabris.internal.Clauses.when;
+
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
 
 import com.eclipsesource.tabris.internal.ui.rendering.RendererFactory;
+import com.eclipsesource.tabris.ui.ActionFactory;
+import com.eclipsesource.tabris.ui.PageFactory;
 import com.eclipsesource.tabris.ui.TransitionListener;
+import com.eclipsesource.tabris.ui.TransitionMetricsListener;
 
 
 public class UIDescriptor implements Serializable {
 
+  public static final int DEFAULT_PRERENDER_LIMIT = 2;
+
   private final List<PageDescriptor> pageDescriptors;
   private final List<ActionDescriptor> actionDescriptors;
+  private final Map<String, PageDescriptor> pageDescriptorIndex;
+  private final Map<String, ActionDescriptor> actionDescriptorIndex;
   private final List<TransitionListener> transitionListeners;
+  private final List<TransitionMetricsListener> transitionMetricsListeners;
   private final RendererFactory rendererFactory;
+  private int prerenderLimit;
+  private boolean learnSuccessors;
+  private int renderedPageLimit;
+  private boolean restorePageFlow;
+  private transient Executor preparationExecutor;
+  private PageFactory pageFactory;
+  private ActionFactory actionFactory;
+  private List<PageDescriptor> rootPages;
+  private volatile boolean compiled;
 
   public UIDescriptor() {
     pageDescriptors = new ArrayList<PageDescriptor>();
     actionDescriptors = new ArrayList<ActionDescriptor>();
-    transitionListeners = new ArrayList<TransitionListener>();
+    pageDescriptorIndex = new HashMap<String, PageDescriptor>();
+    actionDescriptorIndex = new HashMap<String, ActionDescriptor>();
+    transitionListeners = new CopyOnWriteArrayList<TransitionListener>();
+    transitionMetricsListeners = new CopyOnWriteArrayList<TransitionMetricsListener>();
     rendererFactory = new RemoteRendererFactory();
+    prerenderLimit = DEFAULT_PRERENDER_LIMIT;
+    DefaultInstanceFactory instanceFactory = new DefaultInstanceFactory();
+    pageFactory = instanceFactory;
+    actionFactory = instanceFactory;
+  }
+
+  public synchronized void compile() {
+    if( !compiled ) {
+      for( PageDescriptor descriptor : pageDescriptors ) {
+        descriptor.compile();
+      }
+      rootPages = Collections.unmodifiableList( collectRootPages() );
+      compiled = true;
+    }
+  }
+
+  public boolean isCompiled() {
+    return compiled;
+  }
+
+  public void verifyNotCompiled() {
+    when( compiled ).throwIllegalState( "UIConfiguration is compiled and can not be modified anymore." );
   }
 
   public void add( PageDescriptor descriptor ) {
+    verifyNotCompiled();
     verifyPageDescriptorIsUnique( descriptor );
+    descriptor.setPageFactory( pageFactory );
+    descriptor.setActionFactory( actionFactory );
     pageDescriptors.add( descriptor );
+    pageDescriptorIndex.put( descriptor.getId(), descriptor );
   }
 
   private void verifyPageDescriptorIsUnique( PageDescriptor descriptor ) {
-    for( PageDescriptor pageDescriptor : pageDescriptors ) {
-      if( pageDescriptor.getId().equals( descriptor.getId() ) ) {
-        throw new IllegalStateException( "Page with id " + descriptor.getId() + " allready exist." );
-      }
+    if( pageDescriptorIndex.containsKey( descriptor.getId() ) ) {
+      throw new IllegalStateException( "Page with id " + descriptor.getId() + " allready exist." );
     }
   }
 
   public PageDescriptor getPageDescriptor( String id ) {
-    for( PageDescriptor pageDescriptor : pageDescriptors ) {
-      if( pageDescriptor.getId().equals( id ) ) {
-        return pageDescriptor;
-      }
-    }
-    return null;
+    return pageDescriptorIndex.get( id );
   }
 
   public void add( ActionDescriptor descriptor ) {
+    verifyNotCompiled();
     verifyActionDescriptorIsUnique( descriptor );
+    descriptor.setActionFactory( actionFactory );
     actionDescriptors.add( descriptor );
+    actionDescriptorIndex.put( descriptor.getId(), descriptor );
   }
 
   private void verifyActionDescriptorIsUnique( ActionDescriptor descriptor ) {
-    for( ActionDescriptor actionDescriptor : actionDescriptors ) {
-      if( actionDescriptor.getId().equals( descriptor.getId() ) ) {
-        throw new IllegalStateException( "Action with id " + descriptor.getId() + " allready exist." );
-      }
+    if( actionDescriptorIndex.containsKey( descriptor.getId() ) ) {
+      throw new IllegalStateException( "Action with id " + descriptor.getId() + " allready exist." );
     }
   }
 
   public ActionDescriptor getActionDescriptor( String id ) {
-    for( ActionDescriptor actionDescriptor : actionDescriptors ) {
-      if( actionDescriptor.getId().equals( id ) ) {
-        return actionDescriptor;
-      }
-    }
-    return null;
+    return actionDescriptorIndex.get( id );
   }
 
   public List<PageDescriptor> getRootPages() {
+    if( compiled ) {
+      return rootPages;
+    }
+    return collectRootPages();
+  }
+
+  private List<PageDescriptor> collectRootPages() {
     List<PageDescriptor> result = new ArrayList<PageDescriptor>();
     for( PageDescriptor pageDescriptor : pageDescriptors ) {
       if( pageDescriptor.isTopLevel() ) {
@@ -87,7 +136,7 @@ public class UIDescriptor implements Serializable {
   }
 
   public List<ActionDescriptor> getGlobalActions() {
-    return actionDescriptors;
+    return Collections.unmodifiableList( actionDescriptors );
   }
 
   public void addTransitionListener( TransitionListener listener ) {
@@ -99,7 +148,86 @@ public class UIDescriptor implements Serializable {
   }
 
   public List<TransitionListener> getTransitionListeners() {
-    return transitionListeners;
+    return Collections.unmodifiableList( transitionListeners );
+  }
+
+  public void addTransitionMetricsListener( TransitionMetricsListener listener ) {
+    transitionMetricsListeners.add( listener );
+  }
+
+  public void removeTransitionMetricsListener( TransitionMetricsListener listener ) {
+    transitionMetricsListeners.remove( listener );
+  }
+
+  public List<TransitionMetricsListener> getTransitionMetricsListeners() {
+    return Collections.unmodifiableList( transitionMetricsListeners );
+  }
+
+  public void setPrerenderLimit( int prerenderLimit ) {
+    this.prerenderLimit = prerenderLimit;
+  }
+
+  public int getPrerenderLimit() {
+    return prerenderLimit;
+  }
+
+  public void setLearnSuccessors( boolean learnSuccessors ) {
+    this.learnSuccessors = learnSuccessors;
+  }
+
+  public boolean isLearnSuccessors() {
+    return learnSuccessors;
+  }
+
+  public void setRenderedPageLimit( int renderedPageLimit ) {
+    this.renderedPageLimit = renderedPageLimit;
+  }
+
+  public int getRenderedPageLimit() {
+    return renderedPageLimit;
+  }
+
+  public void setRestorePageFlow( boolean restorePageFlow ) {
+    this.restorePageFlow = restorePageFlow;
+  }
+
+  public boolean isRestorePageFlow() {
+    return restorePageFlow;
+  }
+
+  public void setPreparationExecutor( Executor preparationExecutor ) {
+    this.preparationExecutor = preparationExecutor;
+  }
+
+  public Executor getPreparationExecutor() {
+    return preparationExecutor;
+  }
+
+  public void setPageFactory( PageFactory pageFactory ) {
+    verifyNotCompiled();
+    this.pageFactory = pageFactory;
+    for( PageDescriptor descriptor : pageDescriptors ) {
+      descriptor.setPageFactory( pageFactory );
+    }
+  }
+
+  public PageFactory getPageFactory() {
+    return pageFactory;
+  }
+
+  public void setActionFactory( ActionFactory actionFactory ) {
+    verifyNotCompiled();
+    this.actionFactory = actionFactory;
+    for( PageDescriptor descriptor : pageDescriptors ) {
+      descriptor.setActionFactory( actionFactory );
+    }
+    for( ActionDescriptor descriptor : actionDescriptors ) {
+      descriptor.setActionFactory( actionFactory );
+    }
+  }
+
+  public ActionFactory getActionFactory() {
+    return actionFactory;
   }
 
   public RendererFactory getRendererFactory() {
@@ -24,6 +24,8 @@ public interface ActionRenderer {
 
   void setVisible( boolean visible );
 
+  void update( ActionDescriptor descriptor );
+
   void destroy();
 
   ActionDescriptor getDescriptor();
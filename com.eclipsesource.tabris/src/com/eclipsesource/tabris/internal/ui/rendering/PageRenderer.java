@@ -22,18 +22,30 @@ import com.eclipsesource.tabris.ui.PageData;
 
 public interface PageRenderer {
 
-  void createActions( RendererFactory rendererFactory, Composite uiParent );
+  void createActions( RendererFactory rendererFactory, Composite uiParent, List<ActionRenderer> reusableActions );
 
   String getId();
 
   void setTitle( String title );
 
+  String getTitle();
+
+  void createPlaceholder( Composite pageParent );
+
   void createControl( Composite pageParent );
 
+  boolean isContentCreated();
+
   Control getControl();
 
+  void trimControl();
+
+  boolean isTrimmed();
+
   List<ActionRenderer> getActionRenderers();
 
+  List<ActionRenderer> releaseActions();
+
   void destroyActions();
 
   PageDescriptor getDescriptor();
@@ -19,7 +19,6 @@ import java.io.Serializable;
 import org.eclipse.rap.rwt.Adaptable;
 
 import com.eclipsesource.tabris.internal.ui.ActionDescriptor;
-import com.eclipsesource.tabris.internal.ui.InstanceCreator;
 
 
 /**
@@ -131,8 +130,7 @@ public class ActionConfiguration implements Adaptable, Serializable {
   }
 
   private ActionDescriptor createDescriptor() {
-    Action action = InstanceCreator.createInstance( actionType );
-    return new ActionDescriptor( actionId, action, title, image, visible, enabled );
+    return new ActionDescriptor( actionId, actionType, title, image, visible, enabled );
   }
 
 }
@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.ui;
+
+import java.io.Serializable;
+
+
+/**
+ * <p>
+ * An {@link ActionFactory} creates the {@link Action} instances of a Tabris UI. By default actions are created using
+ * their no-argument constructor. A custom {@link ActionFactory} can be used to obtain actions from a dependency
+ * injection container or to create actions without reflection.
+ * </p>
+ * <p>
+ * <b>NOTE:</b> An {@link ActionFactory} is shared by all sessions and needs to be thread safe.
+ * </p>
+ *
+ * @see UIConfiguration#setActionFactory(ActionFactory)
+ *
+ * @since 1.2
+ */
+public interface ActionFactory extends Serializable {
+
+  /**
+   * <p>
+   * Creates a new instance of the given action type. Will be called once per {@link ActionConfiguration} when the
+   * action is used the first time.
+   * </p>
+   *
+   * @param actionType the type configured with {@link ActionConfiguration}.
+   * @return a new {@link Action} instance of the given type. Must not be <code>null</code>.
+   */
+  Action createAction( Class<? extends Action> actionType );
+
+}
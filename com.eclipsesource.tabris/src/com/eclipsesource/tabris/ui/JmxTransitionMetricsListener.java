@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.ui;
+
+import static com.eclipsesource.tabris.internal.Clauses.when;
+import static com.eclipsesource.tabris.internal.Clauses.whenNull;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.eclipsesource.tabris.internal.ui.PageLatency;
+
+
+/**
+ * <p>
+ * A {@link JmxTransitionMetricsListener} aggregates the {@link TransitionMetrics} of all sessions per page id and
+ * publishes them as an MBean on the platform MBean server. The MBean provides percentiles of the total transition
+ * duration and of every {@link TransitionPhase} in milliseconds. The last 256 transitions per page will be taken into
+ * account.
+ * </p>
+ * <p>
+ * The MBean will be registered as
+ * <code>com.eclipsesource.tabris:type=PageLatency,name=&lt;name&gt;</code> and needs to be unregistered using
+ * {@link #dispose()} when the application is stopped.
+ * </p>
+ *
+ * @see UIConfiguration#addTransitionMetricsListener(TransitionMetricsListener)
+ *
+ * @since 1.2
+ */
+public class JmxTransitionMetricsListener implements TransitionMetricsListener {
+
+  private static final String DOMAIN = "com.eclipsesource.tabris";
+
+  private final PageLatency pageLatency;
+  private final String objectName;
+
+  public JmxTransitionMetricsListener( String name ) {
+    whenNull( name ).throwIllegalArgument( "Name must not be null" );
+    when( name.isEmpty() ).throwIllegalArgument( "Name must not be empty" );
+    this.pageLatency = new PageLatency();
+    this.objectName = DOMAIN + ":type=PageLatency,name=" + ObjectName.quote( name );
+    register();
+  }
+
+  private void register() {
+    try {
+      getMBeanServer().registerMBean( pageLatency, new ObjectName( objectName ) );
+    } catch( JMException exception ) {
+      throw new IllegalStateException( "Could not register MBean " + objectName, exception );
+    }
+  }
+
+  @Override
+  public void transitionMeasured( UI ui, TransitionMetrics metrics ) {
+    pageLatency.record( metrics );
+  }
+
+  /**
+   * <p>
+   * Returns the name of the registered MBean.
+   * </p>
+   */
+  public String getObjectName() {
+    return objectName;
+  }
+
+  /**
+   * <p>
+   * Unregisters the MBean from the platform MBean server.
+   * </p>
+   */
+  public void dispose() {
+    try {
+      ObjectName name = new ObjectName( objectName );
+      MBeanServer server = getMBeanServer();
+      if( server.isRegistered( name ) ) {
+        server.unregisterMBean( name );
+      }
+    } catch( JMException exception ) {
+      throw new IllegalStateException( "Could not unregister MBean " + objectName, exception );
+    }
+  }
+
+  private static MBeanServer getMBeanServer() {
+    return ManagementFactory.getPlatformMBeanServer();
+  }
+
+}
@@ -49,6 +49,7 @@ public class PageConfiguration implements Adaptable, Serializable {
   protected PageStyle[] style;
   protected boolean topLevel;
   protected List<ActionConfiguration> actions;
+  protected List<String> successors;
   private InputStream image;
 
   /**
@@ -73,6 +74,7 @@ public class PageConfiguration implements Adaptable, Serializable {
     this.topLevel = false;
     this.style = new PageStyle[] {};
     this.actions = new ArrayList<ActionConfiguration>();
+    this.successors = new ArrayList<String>();
   }
 
   /**
@@ -138,6 +140,27 @@ public class PageConfiguration implements Adaptable, Serializable {
     return this;
   }
 
+  /**
+   * <p>
+   * Declares a page that is likely to be opened from this page. Successor pages will be created in idle server time
+   * after this page was shown, so opening them does not need to create their content. The content of a successor page
+   * is created with an empty {@link PageData}, so a pre-rendered page is only used when it is opened without data.
+   * When data is passed, the pre-rendered page will be discarded and the page is created as usual.
+   * </p>
+   *
+   * @param pageId the id of the successor page. Must not be empty or <code>null</code>.
+   *
+   * @see UIConfiguration#setPrerenderLimit(int)
+   *
+   * @since 1.2
+   */
+  public PageConfiguration addSuccessor( String pageId ) {
+    whenNull( pageId ).throwIllegalArgument( "Successor Page Id must not be null" );
+    when( pageId.isEmpty() ).throwIllegalArgument( "Successor Page Id must not be empty" );
+    successors.add( pageId );
+    return this;
+  }
+
   /**
    * @since 1.0
    */
@@ -155,6 +178,9 @@ public class PageConfiguration implements Adaptable, Serializable {
     for( ActionConfiguration configuration : actions ) {
       pageDescriptor.addAction( configuration );
     }
+    for( String successor : successors ) {
+      pageDescriptor.addSuccessor( successor );
+    }
     return pageDescriptor;
   }
 
@@ -62,6 +62,17 @@ public class PageData implements Serializable {
     return result;
   }
 
+  /**
+   * <p>
+   * Returns <code>true</code> if this data object contains no values.
+   * </p>
+   *
+   * @since 1.2
+   */
+  public boolean isEmpty() {
+    return data.isEmpty();
+  }
+
   Map<String, Object> getAll() {
     return new HashMap<String, Object>( data );
   }
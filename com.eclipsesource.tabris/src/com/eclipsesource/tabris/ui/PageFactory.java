@@ -0,0 +1,42 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.ui;
+
+import java.io.Serializable;
+
+
+/**
+ * <p>
+ * A {@link PageFactory} creates the {@link Page} instances of a Tabris UI. By default pages are created using their
+ * no-argument constructor. A custom {@link PageFactory} can be used to obtain pages from a dependency injection
+ * container or to create pages without reflection.
+ * </p>
+ * <p>
+ * <b>NOTE:</b> A {@link PageFactory} is shared by all sessions and needs to be thread safe.
+ * </p>
+ *
+ * @see UIConfiguration#setPageFactory(PageFactory)
+ *
+ * @since 1.2
+ */
+public interface PageFactory extends Serializable {
+
+  /**
+   * <p>
+   * Creates a new instance of the given page type. Will be called every time a page needs to be created.
+   * </p>
+   *
+   * @param pageType the type configured with {@link PageConfiguration}.
+   * @return a new {@link Page} instance of the given type. Must not be <code>null</code>.
+   */
+  Page createPage( Class<? extends Page> pageType );
+
+}
@@ -0,0 +1,44 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.ui;
+
+
+/**
+ * <p>
+ * A {@link PreparablePage} is a {@link Page} that needs to load data before its content can be created, e.g. from a
+ * slow backend service. {@link #prepare(PageData)} will be called before
+ * {@link Page#createContent(org.eclipse.swt.widgets.Composite, UI)}.
+ * </p>
+ * <p>
+ * When a preparation executor is set on the {@link UIConfiguration}, the preparation runs on a thread of this executor.
+ * In the meantime an empty placeholder will be shown for the page. Once the preparation is done, the content will be
+ * created on the UI thread and pushed to the client. {@link Page#activate()} will be called after the content was
+ * created when the page is still the current page. Without an executor the preparation runs on the UI thread.
+ * </p>
+ *
+ * @see UIConfiguration#setPreparationExecutor(java.util.concurrent.Executor)
+ *
+ * @since 1.2
+ */
+public interface PreparablePage extends Page {
+
+  /**
+   * <p>
+   * Prepares the model of the page. May be called from a non UI thread and therefore must not access widgets or the
+   * {@link UI}. The prepared model should be kept in the page instance to be used in
+   * {@link Page#createContent(org.eclipse.swt.widgets.Composite, UI)}.
+   * </p>
+   *
+   * @param data the {@link PageData} of the page.
+   */
+  void prepare( PageData data );
+
+}
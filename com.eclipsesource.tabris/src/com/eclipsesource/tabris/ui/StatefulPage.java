@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.ui;
+
+import java.io.Serializable;
+
+
+/**
+ * <p>
+ * A {@link StatefulPage} is a {@link Page} that can save and restore its state. When a page flow becomes deeper than
+ * the rendered page limit of a {@link UIConfiguration}, the controls of the pages lower in the flow will be disposed.
+ * When the user browses back to such a page, a new instance of the page will be created with the same
+ * {@link PageData}. A {@link StatefulPage} gets the chance to save its state before it's destroyed and to restore it
+ * after the new instance created its content.
+ * </p>
+ *
+ * @see UIConfiguration#setRenderedPageLimit(int)
+ *
+ * @since 1.2
+ */
+public interface StatefulPage extends Page {
+
+  /**
+   * <p>
+   * Will be called before the controls of the page will be disposed to free memory. The returned state will be passed
+   * to {@link #restoreState(Serializable)} of the new page instance.
+   * </p>
+   *
+   * @return the state of the page. May be <code>null</code>.
+   */
+  Serializable saveState();
+
+  /**
+   * <p>
+   * Will be called after {@link Page#createContent(org.eclipse.swt.widgets.Composite, UI)} when the page was created
+   * again. Will not be called when {@link #saveState()} returned <code>null</code>.
+   * </p>
+   *
+   * @param state the state returned by {@link #saveState()} of the former page instance.
+   */
+  void restoreState( Serializable state );
+
+}
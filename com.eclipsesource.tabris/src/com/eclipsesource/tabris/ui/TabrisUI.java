@@ -79,7 +79,7 @@ public class TabrisUI implements Serializable {
     UIDescriptor uiDescriptor = configuration.getAdapter( UIDescriptor.class );
     UIRenderer uiRenderer = uiDescriptor.getRendererFactory().createUIRenderer( shell );
     Composite pageParent = uiRenderer.getPageParent();
-    pageParent.setLayout( new ZIndexStackLayout() );
+    preparePageParent( pageParent );
     Controller controller = new Controller( uiRenderer, uiDescriptor );
     UIImpl ui = prepareUi( pageParent.getDisplay(), uiRenderer, configuration, controller );
     configure( configuration, ui );
@@ -91,6 +91,12 @@ public class TabrisUI implements Serializable {
     shell.setMaximized( true );
   }
 
+  private void preparePageParent( Composite pageParent ) {
+    ZIndexStackLayout layout = new ZIndexStackLayout();
+    layout.setTopOnly( true );
+    pageParent.setLayout( layout );
+  }
+
   private UIImpl prepareUi( Display display, UIRenderer uiRenderer, UIConfiguration configuration, Controller controller ) {
     UIImpl ui = new UIImpl( display, controller, configuration );
     uiRenderer.setUi( ui );
@@ -25,6 +25,10 @@ import org.eclipse.rap.rwt.application.EntryPointFactory;
  * added to an {@link ApplicationConfiguration} with an {@link EntryPointFactory}. You don't need to implement this
  * factory yourself. The {@link TabrisUIEntrypointFactory} can be used to accomplish this task.
  * </p>
+ * <p>
+ * All entry points created by this factory share the same {@link UIConfiguration}. Use
+ * {@link UIConfiguration#compile()} to freeze its pages and actions before it's shared.
+ * </p>
  *
  * @see TabrisUIEntryPoint
  * @see ApplicationConfiguration
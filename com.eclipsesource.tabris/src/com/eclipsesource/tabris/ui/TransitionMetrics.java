@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.ui;
+
+import static com.eclipsesource.tabris.internal.Clauses.whenNull;
+
+import java.io.Serializable;
+import java.util.EnumMap;
+import java.util.Map;
+
+
+/**
+ * <p>
+ * {@link TransitionMetrics} hold the time that was spent in each {@link TransitionPhase} while the user browsed from
+ * one {@link Page} to another. All durations are in nanoseconds.
+ * </p>
+ *
+ * @see TransitionMetricsListener
+ *
+ * @since 1.2
+ */
+public class TransitionMetrics implements Serializable {
+
+  private final String fromPageId;
+  private final String toPageId;
+  private final Map<TransitionPhase, Long> durations;
+
+  public TransitionMetrics( String fromPageId, String toPageId, Map<TransitionPhase, Long> durations ) {
+    whenNull( toPageId ).throwIllegalArgument( "Target page id must not be null" );
+    whenNull( durations ).throwIllegalArgument( "Durations must not be null" );
+    this.fromPageId = fromPageId;
+    this.toPageId = toPageId;
+    this.durations = new EnumMap<TransitionPhase, Long>( TransitionPhase.class );
+    this.durations.putAll( durations );
+  }
+
+  /**
+   * <p>
+   * Returns the id of the page the user came from. May be <code>null</code> when the first page was shown.
+   * </p>
+   */
+  public String getFromPageId() {
+    return fromPageId;
+  }
+
+  /**
+   * <p>
+   * Returns the id of the page the user browsed to.
+   * </p>
+   */
+  public String getToPageId() {
+    return toPageId;
+  }
+
+  /**
+   * <p>
+   * Returns the duration of the given phase in nanoseconds. Returns 0 when the phase was not part of the transition.
+   * </p>
+   */
+  public long getDuration( TransitionPhase phase ) {
+    whenNull( phase ).throwIllegalArgument( "Phase must not be null" );
+    Long duration = durations.get( phase );
+    return duration != null ? duration.longValue() : 0;
+  }
+
+  /**
+   * <p>
+   * Returns the sum of all phase durations in nanoseconds.
+   * </p>
+   */
+  public long getTotalDuration() {
+    long result = 0;
+    for( Long duration : durations.values() ) {
+      result += duration.longValue();
+    }
+    return result;
+  }
+
+}
@@ -0,0 +1,36 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.ui;
+
+import java.io.Serializable;
+
+
+/**
+ * <p>
+ * A {@link TransitionMetricsListener} gets notified with the {@link TransitionMetrics} of every transition from one
+ * {@link Page} to another. It can be used to find pages that are slow to open. {@link TransitionMetricsListener}
+ * objects are usually added to a {@link UIConfiguration}.
+ * </p>
+ *
+ * @see JmxTransitionMetricsListener
+ *
+ * @since 1.2
+ */
+public interface TransitionMetricsListener extends Serializable {
+
+  /**
+   * <p>
+   * Will be called after a transition was completed and all {@link TransitionListener}s were notified.
+   * </p>
+   */
+  void transitionMeasured( UI ui, TransitionMetrics metrics );
+
+}
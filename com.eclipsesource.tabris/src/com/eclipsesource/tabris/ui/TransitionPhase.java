@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.ui;
+
+
+/**
+ * <p>
+ * A {@link TransitionPhase} identifies a part of the work that is done when the user browses from one {@link Page} to
+ * another. The duration of every phase is reported within {@link TransitionMetrics}.
+ * </p>
+ *
+ * @see TransitionMetricsListener
+ *
+ * @since 1.2
+ */
+public enum TransitionPhase {
+
+  /**
+   * <p>
+   * Creation of the {@link Page} instance.
+   * </p>
+   */
+  CREATE_PAGE,
+
+  /**
+   * <p>
+   * Execution of {@link Page#createContent(org.eclipse.swt.widgets.Composite, UI)}.
+   * </p>
+   */
+  CREATE_CONTENT,
+
+  /**
+   * <p>
+   * Creation and update of the actions of the {@link Page}.
+   * </p>
+   */
+  CREATE_ACTIONS,
+
+  /**
+   * <p>
+   * Deactivation of the former {@link Page} and activation of the new {@link Page} including {@link Page#activate()}.
+   * </p>
+   */
+  ACTIVATE,
+
+  /**
+   * <p>
+   * Layout of the pages.
+   * </p>
+   */
+  LAYOUT,
+
+  /**
+   * <p>
+   * Notification of all {@link TransitionListener}s.
+   * </p>
+   */
+  NOTIFY_LISTENERS
+
+}
@@ -10,13 +10,17 @@
  ******************************************************************************/
 package com.eclipsesource.tabris.ui;
 
+import static com.eclipsesource.tabris.internal.Clauses.when;
 import static com.eclipsesource.tabris.internal.Clauses.whenNull;
 
 import java.io.Serializable;
+import java.util.concurrent.Executor;
 
 import org.eclipse.rap.rwt.Adaptable;
 import org.eclipse.swt.graphics.RGB;
 
+import com.eclipsesource.tabris.ClientStore;
+import com.eclipsesource.tabris.ClientStoreMirrorPolicy;
 import com.eclipsesource.tabris.internal.ui.ActionDescriptor;
 import com.eclipsesource.tabris.internal.ui.PageDescriptor;
 import com.eclipsesource.tabris.internal.ui.UIDescriptor;
@@ -184,6 +188,200 @@ public class UIConfiguration implements Adaptable, Serializable {
     return this;
   }
 
+  /**
+   * <p>
+   * Adds a {@link TransitionMetricsListener} that gets notified with the duration of every phase of a transition from
+   * one page to another.
+   * </p>
+   *
+   * @see JmxTransitionMetricsListener
+   *
+   * @since 1.2
+   */
+  public UIConfiguration addTransitionMetricsListener( TransitionMetricsListener listener ) {
+    whenNull( listener ).throwIllegalArgument( "Listener must not be null" );
+    uiDescriptor.addTransitionMetricsListener( listener );
+    return this;
+  }
+
+  /**
+   * <p>
+   * Removes a {@link TransitionMetricsListener}.
+   * </p>
+   *
+   * @since 1.2
+   */
+  public UIConfiguration removeTransitionMetricsListener( TransitionMetricsListener listener ) {
+    whenNull( listener ).throwIllegalArgument( "Listener must not be null" );
+    uiDescriptor.removeTransitionMetricsListener( listener );
+    return this;
+  }
+
+  /**
+   * <p>
+   * Defines how many pages will be pre-rendered at most per UI. Pre-rendered pages are successor pages of the current
+   * page that are created in a separate request after a transition, so opening them responds instantly. Pre-rendered
+   * pages are only used when they are opened without {@link PageData}. Pre-rendered pages that are no successors of
+   * the current page anymore will be discarded. A limit of 0 disables pre-rendering. The default limit is 2.
+   * </p>
+   *
+   * @param limit the maximum number of pre-rendered pages. Must not be negative.
+   *
+   * @see PageConfiguration#addSuccessor(String)
+   *
+   * @since 1.2
+   */
+  public UIConfiguration setPrerenderLimit( int limit ) {
+    when( limit < 0 ).throwIllegalArgument( "Prerender limit must not be negative" );
+    uiDescriptor.setPrerenderLimit( limit );
+    return this;
+  }
+
+  /**
+   * <p>
+   * Enables or disables learning of successor pages. When enabled, the pages a user opened most often from a page
+   * will be pre-rendered if the page does not declare successors itself.
+   * </p>
+   *
+   * @see PageConfiguration#addSuccessor(String)
+   *
+   * @since 1.2
+   */
+  public UIConfiguration setLearnSuccessors( boolean learnSuccessors ) {
+    uiDescriptor.setLearnSuccessors( learnSuccessors );
+    return this;
+  }
+
+  /**
+   * <p>
+   * Defines how many pages of a page flow keep their controls at most. When a user browses deeper, the controls of the
+   * pages lower in the flow will be disposed while their {@link PageData} is kept. Such a page will be created again
+   * when the user browses back to it. Pages implementing {@link StatefulPage} can save and restore their state in this
+   * case. Top level pages always keep their controls. A limit of 0 keeps the controls of all pages which is the
+   * default.
+   * </p>
+   *
+   * @param limit the maximum number of pages with controls per page flow. Must not be negative.
+   *
+   * @see StatefulPage
+   *
+   * @since 1.2
+   */
+  public UIConfiguration setRenderedPageLimit( int limit ) {
+    when( limit < 0 ).throwIllegalArgument( "Rendered page limit must not be negative" );
+    uiDescriptor.setRenderedPageLimit( limit );
+    return this;
+  }
+
+  /**
+   * <p>
+   * Enables or disables the restoring of the page flow. When enabled, the ids, titles and {@link PageData} of the
+   * pages a user has opened will be saved in the {@link ClientStore} on every page transition. When a device connects
+   * with a new session, e.g. after the old one expired, the user will be brought back to the page that was open last.
+   * Only this page will be created right away. The pages below it will be created when the user navigates back.
+   * </p>
+   * <p>
+   * NOTE: All values of the {@link PageData} need to be {@link Serializable}, otherwise the page flow can't be saved.
+   * Keep the data small because the {@link ClientStore} sends it with the first request of every session. When the
+   * {@link ClientStoreMirrorPolicy} does not keep its value on the server, the first root page is shown until the
+   * client device has sent the saved page flow.
+   * </p>
+   *
+   * @see ClientStore
+   *
+   * @since 1.2
+   */
+  public UIConfiguration setRestorePageFlow( boolean restorePageFlow ) {
+    uiDescriptor.setRestorePageFlow( restorePageFlow );
+    return this;
+  }
+
+  /**
+   * <p>
+   * Sets the {@link Executor} used to prepare {@link PreparablePage}s. When set, the preparation of a page runs on
+   * this executor and the content of the page will be pushed to the client once it's ready, so opening a page
+   * responds immediately. When <code>null</code>, which is the default, pages will be prepared on the UI thread.
+   * </p>
+   *
+   * @param executor the executor to use for the preparation of pages. May be <code>null</code>.
+   *
+   * @see PreparablePage
+   *
+   * @since 1.2
+   */
+  public UIConfiguration setPreparationExecutor( Executor executor ) {
+    uiDescriptor.setPreparationExecutor( executor );
+    return this;
+  }
+
+  /**
+   * <p>
+   * Sets the {@link PageFactory} used to create the {@link Page} instances. The default factory creates pages using
+   * their no-argument constructor and caches the resolved constructor per page type.
+   * </p>
+   *
+   * @param pageFactory the factory to use. Must not be <code>null</code>.
+   *
+   * @since 1.2
+   */
+  public UIConfiguration setPageFactory( PageFactory pageFactory ) {
+    whenNull( pageFactory ).throwIllegalArgument( "PageFactory must not be null" );
+    uiDescriptor.setPageFactory( pageFactory );
+    return this;
+  }
+
+  /**
+   * <p>
+   * Sets the {@link ActionFactory} used to create the {@link Action} instances. The default factory creates actions
+   * using their no-argument constructor and caches the resolved constructor per action type. Actions will be created
+   * when they are used the first time, so the factory needs to be set before the UI is created.
+   * </p>
+   *
+   * @param actionFactory the factory to use. Must not be <code>null</code>.
+   *
+   * @since 1.2
+   */
+  public UIConfiguration setActionFactory( ActionFactory actionFactory ) {
+    whenNull( actionFactory ).throwIllegalArgument( "ActionFactory must not be null" );
+    uiDescriptor.setActionFactory( actionFactory );
+    return this;
+  }
+
+  /**
+   * <p>
+   * Compiles the pages and actions of this configuration into an immutable and indexed model. A compiled
+   * configuration can be shared by all sessions of an application without any locking. After the configuration is
+   * compiled, adding pages or actions and changing the page or action factory will throw an
+   * {@link IllegalStateException}. Listeners, colors and all other settings can still be changed. Compiling an already
+   * compiled configuration has no effect.
+   * </p>
+   * <p>
+   * Compiling is optional. Call this method when the configuration is complete, e.g. before it's passed to a
+   * {@link TabrisUIEntrypointFactory}.
+   * </p>
+   *
+   * @see TabrisUIEntrypointFactory
+   *
+   * @since 1.2
+   */
+  public UIConfiguration compile() {
+    uiDescriptor.compile();
+    return this;
+  }
+
+  /**
+   * <p>
+   * Returns if this configuration has been compiled and its pages and actions can not be modified anymore.
+   * </p>
+   *
+   * @see #compile()
+   *
+   * @since 1.2
+   */
+  public boolean isCompiled() {
+    return uiDescriptor.isCompiled();
+  }
+
   @Override
   @SuppressWarnings("unchecked")
   public <T> T getAdapter( Class<T> adapter ) {
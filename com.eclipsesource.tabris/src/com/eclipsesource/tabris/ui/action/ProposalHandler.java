@@ -14,6 +14,14 @@ import java.util.List;
 
 
 /**
+ * <p>
+ * A <code>ProposalHandler</code> is passed to {@link SearchAction#modified(String, ProposalHandler)} to receive the
+ * proposals for a query. The proposals don't need to be set within the <code>modified</code> call. A handler may be
+ * kept and completed later from any thread, e.g. when the proposals are computed by a background job. Proposals set
+ * from a non UI thread will be delivered to the client using the server push of the session. Proposals for outdated
+ * queries will be discarded.
+ * </p>
+ *
  * @since 1.2
  */
 public interface ProposalHandler {
@@ -38,6 +38,40 @@ public abstract class SearchAction extends AbstractAction implements Adaptable {
 
   public abstract void modified( String query, ProposalHandler proposalHandler );
 
+  /**
+   * <p>
+   * Returns the time in milliseconds to wait for further modifications before
+   * {@link #modified(String, ProposalHandler)} will be called. Subclasses may override this method to debounce rapid
+   * modifications. The default is 0 which means that every modification will be passed immediately.
+   * </p>
+   */
+  public int getModifyDelay() {
+    return 0;
+  }
+
+  /**
+   * <p>
+   * Returns whether the proposals for a query are always a subset of the proposals for a shorter query with the same
+   * beginning. In this case the proposals will be cached per session and narrowing a query will filter the cached
+   * proposals using {@link #matches(String, String)} instead of calling {@link #modified(String, ProposalHandler)}.
+   * Subclasses may only return <code>true</code> when they always pass all matching proposals to the
+   * {@link ProposalHandler}. The default is <code>false</code>.
+   * </p>
+   */
+  public boolean isIncremental() {
+    return false;
+  }
+
+  /**
+   * <p>
+   * Decides whether a cached proposal matches a narrowed query. Will only be called when {@link #isIncremental()}
+   * returns <code>true</code>. The default implementation matches proposals that contain the query ignoring case.
+   * </p>
+   */
+  public boolean matches( String query, String proposal ) {
+    return proposal.toLowerCase().contains( query.toLowerCase() );
+  }
+
   public final void open() {
     whenNull( remoteObjectHolder.getRemoteAction() ).throwIllegalState( "RemoteAction not set" );
     execute( remoteObjectHolder.getRemoteAction().getUI() );
@@ -0,0 +1,47 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.widgets;
+
+import java.io.Serializable;
+
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
+
+
+/**
+ * <p>
+ * A <code>RowProvider</code> acts as the data source for a virtual {@link ScrollingComposite}. It's responsible for
+ * creating the rows that are within or close to the visible area. Rows that are scrolled far out of the visible area
+ * will be disposed and created again when they come back.
+ * </p>
+ *
+ * @see ScrollingComposite#setRowProvider(RowProvider)
+ *
+ * @since 1.2
+ */
+public interface RowProvider extends Serializable {
+
+  /**
+   * <p>
+   * Should create the row for the given index. The row needs to be created as a direct child of the passed parent.
+   * </p>
+   */
+  Control createRow( Composite parent, int index );
+
+  /**
+   * <p>
+   * Should return the amount of rows. Can change during runtime to grow/shrink dynamically. Call
+   * {@link ScrollingComposite#refreshRows()} after the amount has changed.
+   * </p>
+   */
+  int getRowCount();
+
+}
@@ -13,16 +13,25 @@ package com.eclipsesource.tabris.widgets;
 import static com.eclipsesource.tabris.internal.Clauses.when;
 import static com.eclipsesource.tabris.internal.Clauses.whenNull;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.custom.ScrolledComposite;
 import org.eclipse.swt.events.ControlAdapter;
 import org.eclipse.swt.events.ControlEvent;
+import org.eclipse.swt.events.SelectionAdapter;
+import org.eclipse.swt.events.SelectionEvent;
 import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.graphics.Rectangle;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.ScrollBar;
 import org.eclipse.swt.widgets.Shell;
 
+import com.eclipsesource.tabris.internal.VirtualRows;
+
 
 /**
  * <p>
@@ -43,6 +52,13 @@ import org.eclipse.swt.widgets.Shell;
  * </p>
  *
  * <p>
+ * For very long content a {@link ScrollingComposite} can be switched into a virtual mode using
+ * {@link #setRowProvider(RowProvider)}. In this mode only the rows within and close to the visible area exist as
+ * controls. The scrollable height is computed from the measured heights of rows that have been shown already and an
+ * estimated height for all other rows.
+ * </p>
+ *
+ * <p>
  * <b>Styles:</b> H_SCROLL, V_SCROLL
  * </p>
  *
@@ -53,7 +69,16 @@ import org.eclipse.swt.widgets.Shell;
  */
 public class ScrollingComposite extends Composite {
 
+  private static final int MAX_MEASURED_SIZES = 8;
+  private static final int DEFAULT_ESTIMATED_ROW_HEIGHT = 40;
+  private static final int MAX_REVEAL_ATTEMPTS = 4;
+
   private ScrolledComposite scrolledComposite;
+  private Map<Point, Point> measuredSizes;
+  private Control[] measuredChildren;
+  private boolean flushPending;
+  private VirtualRows virtualRows;
+  private boolean updatingRows;
 
   /**
    * <p>
@@ -66,6 +91,7 @@ public class ScrollingComposite extends Composite {
   public ScrollingComposite( Composite parent, int style ) {
     super( createScrolledComposite( parent, checkStyle( style ) ), checkStyle( style ) );
     scrolledComposite = ( ScrolledComposite )this.getParent();
+    measuredSizes = new HashMap<Point, Point>();
     initializeScrolledComposite();
   }
 
@@ -97,55 +123,108 @@ public class ScrollingComposite extends Composite {
       @Override
       public void controlResized( ControlEvent event ) {
         handleScrollbars();
-        scrolledComposite.layout( true, true );
+        scrolledComposite.layout( false, true );
       }
     } );
+    addControlListener( new ControlAdapter() {
+      @Override
+      public void controlMoved( ControlEvent event ) {
+        updateRows();
+      }
+    } );
+    ScrollBar verticalBar = scrolledComposite.getVerticalBar();
+    if( verticalBar != null ) {
+      verticalBar.addSelectionListener( new SelectionAdapter() {
+        @Override
+        public void widgetSelected( SelectionEvent event ) {
+          updateRows();
+        }
+      } );
+    }
   }
 
   @Override
   public void layout( boolean changed, boolean all ) {
-    handleScrollbars();
-    super.layout( changed, all );
+    if( virtualRows != null ) {
+      updateRows();
+    } else {
+      handleScrollbars( changed );
+      super.layout( changed, all );
+    }
   }
 
   private void handleScrollbars() {
-    computeSize( SWT.DEFAULT, SWT.DEFAULT );
+    handleScrollbars( false );
+  }
+
+  private void handleScrollbars( boolean changed ) {
+    computeSize( SWT.DEFAULT, SWT.DEFAULT, changed );
   }
 
   @Override
   public Point computeSize( int wHint, int hHint, boolean changed ) {
+    if( virtualRows != null ) {
+      return computeVirtualSize();
+    }
+    checkMeasuredSizes( changed );
     Point resultSize = null;
     if( hasStyle( SWT.V_SCROLL ) && hasStyle( SWT.H_SCROLL ) ) {
-      resultSize = super.computeSize( SWT.DEFAULT, SWT.DEFAULT, changed );
+      resultSize = measure( SWT.DEFAULT, SWT.DEFAULT );
       setMinSize( resultSize.x, resultSize.y );
     } else if( hasStyle( SWT.H_SCROLL ) ) {
-      resultSize = calculateHorizontalSize( changed );
+      resultSize = calculateHorizontalSize();
       setMinSize( resultSize.x, scrolledComposite.getClientArea().height );
     } else if( hasStyle( SWT.V_SCROLL ) ) {
-      resultSize = calculateVerticalSize( changed );
+      resultSize = calculateVerticalSize();
       setMinSize( scrolledComposite.getClientArea().width, resultSize.y );
     }
     return resultSize;
   }
 
+  private Point computeVirtualSize() {
+    Point resultSize = new Point( scrolledComposite.getClientArea().width, virtualRows.getExtent() );
+    setMinSize( resultSize.x, resultSize.y );
+    return resultSize;
+  }
+
+  private void checkMeasuredSizes( boolean changed ) {
+    Control[] children = getChildren();
+    if( changed || !Arrays.equals( children, measuredChildren ) || measuredSizes.size() >= MAX_MEASURED_SIZES ) {
+      measuredSizes.clear();
+      measuredChildren = children;
+      flushPending = changed;
+    }
+  }
+
+  private Point measure( int wHint, int hHint ) {
+    Point hints = new Point( wHint, hHint );
+    Point size = measuredSizes.get( hints );
+    if( size == null ) {
+      size = super.computeSize( wHint, hHint, flushPending );
+      flushPending = false;
+      measuredSizes.put( hints, size );
+    }
+    return new Point( size.x, size.y );
+  }
+
   private boolean hasStyle( int flag ) {
     return ( getStyle() & flag ) == flag;
   }
 
-  private Point calculateVerticalSize( boolean changed ) {
-    Point resultSize = super.computeSize( SWT.DEFAULT, SWT.DEFAULT, changed );
+  private Point calculateVerticalSize() {
+    Point resultSize = measure( SWT.DEFAULT, SWT.DEFAULT );
     int clientAreaWidth = scrolledComposite.getClientArea().width;
-    Point widthSize = super.computeSize( clientAreaWidth, SWT.DEFAULT, changed );
+    Point widthSize = measure( clientAreaWidth, SWT.DEFAULT );
     if( widthSize.y > resultSize.y ) {
       resultSize = widthSize;
     }
     return resultSize;
   }
 
-  private Point calculateHorizontalSize( boolean changed ) {
-    Point resultSize = super.computeSize( SWT.DEFAULT, SWT.DEFAULT, changed );
+  private Point calculateHorizontalSize() {
+    Point resultSize = measure( SWT.DEFAULT, SWT.DEFAULT );
     int clientAreaHeight = scrolledComposite.getClientArea().height;
-    Point heightSize = super.computeSize( SWT.DEFAULT, clientAreaHeight, changed );
+    Point heightSize = measure( SWT.DEFAULT, clientAreaHeight );
     if( heightSize.x > resultSize.x ) {
       resultSize = heightSize;
     }
@@ -157,6 +236,174 @@ public class ScrollingComposite extends Composite {
     scrolledComposite.setMinWidth( width );
   }
 
+  /**
+   * <p>
+   * Switches this {@link ScrollingComposite} into the virtual mode. Existing children will be disposed. From now on
+   * the rows are created by the passed {@link RowProvider} when they come close to the visible area and disposed
+   * when they are scrolled far out of it. The rows will be stacked vertically and use the whole available width.
+   * </p>
+   *
+   * @param provider the provider for the rows. Must not be <code>null</code>.
+   *
+   * @since 1.2
+   */
+  public void setRowProvider( RowProvider provider ) {
+    checkWidget();
+    whenNull( provider ).throwIllegalArgument( "RowProvider must not be null" );
+    int estimatedRowHeight = DEFAULT_ESTIMATED_ROW_HEIGHT;
+    if( virtualRows != null ) {
+      estimatedRowHeight = virtualRows.getEstimatedHeight();
+      virtualRows.dispose();
+    }
+    for( Control child : getChildren() ) {
+      child.dispose();
+    }
+    setLayout( null );
+    virtualRows = new VirtualRows( provider, estimatedRowHeight );
+    updateRows();
+  }
+
+  /**
+   * <p>
+   * Returns <code>true</code> if this {@link ScrollingComposite} is in the virtual mode.
+   * </p>
+   *
+   * @see #setRowProvider(RowProvider)
+   *
+   * @since 1.2
+   */
+  public boolean isVirtual() {
+    checkWidget();
+    return virtualRows != null;
+  }
+
+  /**
+   * <p>
+   * Defines the height that will be used for rows that have not been created yet. The default is 40 pixel.
+   * </p>
+   *
+   * @param height the estimated row height. Must be &gt; 0.
+   *
+   * @exception IllegalStateException when this {@link ScrollingComposite} is not in the virtual mode.
+   *
+   * @since 1.2
+   */
+  public void setEstimatedRowHeight( int height ) {
+    checkVirtual();
+    virtualRows.setEstimatedHeight( height );
+    updateRows();
+  }
+
+  /**
+   * <p>
+   * Reads the row count from the {@link RowProvider} again and disposes all rows. The visible rows will be created
+   * again by the provider. Needs to be called when the content of the rows or the amount of rows has changed.
+   * </p>
+   *
+   * @exception IllegalStateException when this {@link ScrollingComposite} is not in the virtual mode.
+   *
+   * @since 1.2
+   */
+  public void refreshRows() {
+    checkVirtual();
+    virtualRows.dispose();
+    virtualRows.refresh();
+    updateRows();
+  }
+
+  /**
+   * <p>
+   * Returns the row for the given index or <code>null</code> if the row does currently not exist because it's too
+   * far out of the visible area.
+   * </p>
+   *
+   * @exception IllegalStateException when this {@link ScrollingComposite} is not in the virtual mode.
+   *
+   * @since 1.2
+   */
+  public Control getRow( int index ) {
+    checkVirtual();
+    return virtualRows.getRow( index );
+  }
+
+  /**
+   * <p>
+   * Scrolls to the row with the given index until it's visible. The row will be created if needed.
+   * </p>
+   *
+   * @exception IllegalStateException when this {@link ScrollingComposite} is not in the virtual mode.
+   * @exception IllegalArgumentException when the index is out of bounds.
+   *
+   * @since 1.2
+   */
+  public void revealRow( int index ) {
+    checkRowIndex( index );
+    int attempts = 0;
+    // rows created while scrolling may differ from the estimated height and move the revealed row again
+    while( !isRowRevealed( index ) && attempts < MAX_REVEAL_ATTEMPTS ) {
+      scrollToRow( index );
+      updateRows();
+      attempts++;
+    }
+  }
+
+  private void scrollToRow( int index ) {
+    Point origin = scrolledComposite.getOrigin();
+    int viewportHeight = scrolledComposite.getClientArea().height;
+    int offset = virtualRows.getOffset( index );
+    int height = virtualRows.getHeight( index );
+    if( offset < origin.y || height > viewportHeight ) {
+      scrolledComposite.setOrigin( origin.x, offset );
+    } else {
+      scrolledComposite.setOrigin( origin.x, offset + height - viewportHeight );
+    }
+  }
+
+  /**
+   * <p>
+   * Checks if the row with the given index is completely visible within the visible area.
+   * </p>
+   *
+   * @exception IllegalStateException when this {@link ScrollingComposite} is not in the virtual mode.
+   * @exception IllegalArgumentException when the index is out of bounds.
+   *
+   * @since 1.2
+   */
+  public boolean isRowRevealed( int index ) {
+    checkRowIndex( index );
+    int top = scrolledComposite.getOrigin().y;
+    int bottom = top + scrolledComposite.getClientArea().height;
+    int offset = virtualRows.getOffset( index );
+    return offset >= top && offset + virtualRows.getHeight( index ) <= bottom;
+  }
+
+  private void checkVirtual() {
+    checkWidget();
+    whenNull( virtualRows ).throwIllegalState( "ScrollingComposite is not virtual" );
+  }
+
+  private void checkRowIndex( int index ) {
+    checkVirtual();
+    int rowCount = virtualRows.getRowCount();
+    when( index < 0 || index >= rowCount ).throwIllegalArgument( "Index must be >= 0 and < " + rowCount
+                                                                 + " but was " + index );
+  }
+
+  private void updateRows() {
+    if( virtualRows != null && !updatingRows && !isDisposed() ) {
+      updatingRows = true;
+      try {
+        Rectangle clientArea = scrolledComposite.getClientArea();
+        int top = scrolledComposite.getOrigin().y;
+        int margin = clientArea.height / 2;
+        virtualRows.update( this, top - margin, top + clientArea.height + margin, clientArea.width );
+        handleScrollbars();
+      } finally {
+        updatingRows = false;
+      }
+    }
+  }
+
   @Override
   public void setLayoutData( Object layoutData ) {
     checkWidget();
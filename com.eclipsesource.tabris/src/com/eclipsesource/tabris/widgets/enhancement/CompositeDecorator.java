@@ -23,10 +23,11 @@ import org.eclipse.swt.layout.GridLayout;
 import org.eclipse.swt.layout.RowData;
 import org.eclipse.swt.layout.RowLayout;
 import org.eclipse.swt.widgets.Composite;
-import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Layout;
 import org.eclipse.swt.widgets.Listener;
 
+import com.eclipsesource.tabris.internal.WidgetRegistry;
+
 
 /**
  * @since 0.10
@@ -91,14 +92,7 @@ public class CompositeDecorator extends WidgetDecorator<CompositeDecorator>  {
   }
 
   private Composite findFacade() {
-    String compositeId = WidgetUtil.getId( composite );
-    Control[] children = composite.getChildren();
-    for( Control child : children ) {
-      if( compositeId.equals( child.getData( GROUPED_EVENT_COMPOSITE ) ) ) {
-        return ( Composite )child;
-      }
-    }
-    return null;
+    return WidgetRegistry.getInstance( composite.getDisplay() ).getFacade( composite );
   }
 
   private Composite createFacade() {
@@ -108,6 +102,7 @@ public class CompositeDecorator extends WidgetDecorator<CompositeDecorator>  {
     addLayoutDataWithExclude( facade );
     layoutFacade( facade );
     addResizeListener( facade );
+    WidgetRegistry.getInstance( composite.getDisplay() ).registerFacade( composite, facade );
     return facade;
   }
 
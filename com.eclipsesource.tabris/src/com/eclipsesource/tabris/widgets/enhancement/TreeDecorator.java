@@ -13,39 +13,16 @@ import static com.eclipsesource.tabris.internal.WidgetsUtil.setData;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.events.SelectionEvent;
-import org.eclipse.swt.internal.widgets.IDisplayAdapter;
-import org.eclipse.swt.internal.widgets.WidgetTreeVisitor;
-import org.eclipse.swt.internal.widgets.WidgetTreeVisitor.AllWidgetTreeVisitor;
-import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Tree;
-import org.eclipse.swt.widgets.Widget;
+
+import com.eclipsesource.tabris.internal.LazyTreeLoader;
+import com.eclipsesource.tabris.internal.WidgetRegistry;
 
 /**
  * @since 0.8
  */
-@SuppressWarnings("restriction")
 public class TreeDecorator extends WidgetDecorator<TreeDecorator> {
 
-  private class BackButtonDataTreeVisistor extends AllWidgetTreeVisitor {
-
-    @Override
-    public boolean doVisit( Widget widget ) {
-      if( widget instanceof Tree && widget != tree ) {
-        return removeBackFocusData( widget );
-      }
-      return true;
-    }
-
-    private boolean removeBackFocusData( Widget widget ) {
-      Object data = widget.getData( BACK_FOCUS.getKey() );
-      if( data != null && data.equals( Boolean.TRUE ) ) {
-        setData( widget, BACK_FOCUS, null );
-        return false;
-      }
-      return true;
-    }
-  }
-
   public enum TreePart {
     LEAF, BRANCH, ALL
   }
@@ -101,16 +78,34 @@ public class TreeDecorator extends WidgetDecorator<TreeDecorator> {
    * @since 0.10
    */
   public void enableBackButtonNavigation() {
-    setData( tree, BACK_FOCUS, Boolean.TRUE );
-    setDataToNullOnOtherTrees();
+    WidgetRegistry.getInstance( tree.getDisplay() ).setExclusiveData( tree, BACK_FOCUS, Boolean.TRUE );
   }
 
-  private void setDataToNullOnOtherTrees() {
-    IDisplayAdapter displayAdapter = tree.getDisplay().getAdapter( IDisplayAdapter.class );
-    Composite[] shells = displayAdapter.getShells();
-    for( int i = 0; i < shells.length; i++ ) {
-      WidgetTreeVisitor.accept( shells[ i ], new BackButtonDataTreeVisistor() );
-    }
+  /**
+   * <p>
+   * Enables lazy loading for a tree that was created with the {@link SWT#VIRTUAL} style. The items will be filled
+   * page by page by the passed {@link TreeItemProvider} when the client needs them. Together with a requested page
+   * the following pages will be filled to keep scrolling smooth. Pages that have not been requested for a while will
+   * be cleared and filled again when the client needs them again.
+   * </p>
+   *
+   * @param provider the provider that fills the items. Must not be <code>null</code>.
+   * @param pageSize the amount of items in one page. Must be &gt; 0.
+   * @param prefetchPages the amount of pages to fill after a requested page. Must be &gt;= 0.
+   * @param maxCachedPages the amount of filled pages to keep. Must be &gt; prefetchPages.
+   *
+   * @throws IllegalArgumentException when the tree was not created with the {@link SWT#VIRTUAL} style or an argument
+   *                                  is not valid.
+   *
+   * @since 1.2
+   */
+  public TreeDecorator enableLazyLoading( TreeItemProvider provider,
+                                         int pageSize,
+                                         int prefetchPages,
+                                         int maxCachedPages )
+  {
+    new LazyTreeLoader( tree, provider, pageSize, prefetchPages, maxCachedPages ).install();
+    return this;
   }
 
 }
@@ -0,0 +1,44 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package com.eclipsesource.tabris.widgets.enhancement;
+
+import java.io.Serializable;
+
+import org.eclipse.swt.widgets.TreeItem;
+
+
+/**
+ * <p>
+ * A <code>TreeItemProvider</code> acts as the data source for a virtual tree with lazy loading enabled. The items will
+ * be filled page by page when the client needs them.
+ * </p>
+ *
+ * @see TreeDecorator#enableLazyLoading(TreeItemProvider, int, int, int)
+ *
+ * @since 1.2
+ */
+public interface TreeItemProvider extends Serializable {
+
+  /**
+   * <p>
+   * Should return the amount of children of the given item. The parent is <code>null</code> for the top level items.
+   * </p>
+   */
+  int getItemCount( TreeItem parent );
+
+  /**
+   * <p>
+   * Should fill the given item e.g. with a text or an image. The index is the index within the parent item.
+   * </p>
+   */
+  void updateItem( TreeItem item, int index );
+
+}